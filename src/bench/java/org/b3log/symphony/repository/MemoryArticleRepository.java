@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.b3log.latke.Keys;
+import org.b3log.latke.repository.Query;
+import org.json.JSONObject;
+
+/**
+ * In-memory article repository stand-in.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public class MemoryArticleRepository extends ArticleRepository {
+
+    /**
+     * Articles, &lt;oId, article&gt;.
+     */
+    private final Map<String, JSONObject> articles = new ConcurrentHashMap<String, JSONObject>();
+
+    /**
+     * Query count.
+     */
+    private final AtomicInteger queryCnt = new AtomicInteger();
+
+    /**
+     * Puts the specified article.
+     *
+     * @param article the specified article
+     */
+    public void put(final JSONObject article) {
+        articles.put(article.optString(Keys.OBJECT_ID), article);
+    }
+
+    /**
+     * Gets the count of queries served.
+     *
+     * @return query count
+     */
+    public int getQueryCount() {
+        return queryCnt.get();
+    }
+
+    @Override
+    public JSONObject get(final String id) {
+        queryCnt.incrementAndGet();
+
+        return articles.get(id);
+    }
+
+    @Override
+    public JSONObject get(final Query query) {
+        queryCnt.incrementAndGet();
+
+        return MemoryRecords.query(articles, query);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.repository;
+
+import java.util.Collection;
+import java.util.Map;
+import org.b3log.latke.Keys;
+import org.b3log.latke.model.Pagination;
+import org.b3log.latke.repository.Filter;
+import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.PropertyFilter;
+import org.b3log.latke.repository.Query;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * In-memory records of a repository stand-in.
+ *
+ * <p>
+ * Supports queries without filter or with a {@link PropertyFilter} of {@link FilterOperator#EQUAL} or
+ * {@link FilterOperator#IN}, strings are compared case-insensitively like MySQL does, projections and sorts are
+ * ignored.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+final class MemoryRecords {
+
+    /**
+     * Queries the specified records with the specified query.
+     *
+     * @param records the specified records, &lt;oId, record&gt;
+     * @param query the specified query
+     * @return for example,      <pre>
+     * {
+     *     "pagination": {
+     *         "paginationPageCount": 1
+     *     },
+     *     "rslts": [{
+     *         "oId": "",
+     *         ....
+     *     }, ....]
+     * }
+     * </pre>
+     */
+    static JSONObject query(final Map<String, JSONObject> records, final Query query) {
+        final JSONArray results = new JSONArray();
+        final Filter filter = query.getFilter();
+        for (final JSONObject record : records.values()) {
+            if (null == filter || matches(record, (PropertyFilter) filter)) {
+                results.put(record);
+            }
+        }
+
+        final JSONObject pagination = new JSONObject();
+        pagination.put(Pagination.PAGINATION_PAGE_COUNT, 1);
+
+        final JSONObject ret = new JSONObject();
+        ret.put(Pagination.PAGINATION, pagination);
+        ret.put(Keys.RESULTS, results);
+
+        return ret;
+    }
+
+    /**
+     * Determines whether the specified record matches the specified filter.
+     *
+     * @param record the specified record
+     * @param filter the specified filter
+     * @return {@code true} if matches, returns {@code false} otherwise
+     */
+    private static boolean matches(final JSONObject record, final PropertyFilter filter) {
+        final Object value = record.opt(filter.getKey());
+
+        switch (filter.getOperator()) {
+            case EQUAL:
+                return equals(value, filter.getValue());
+            case IN:
+                for (final Object operand : (Collection<?>) filter.getValue()) {
+                    if (equals(value, operand)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            default:
+                throw new UnsupportedOperationException("Unsupported filter operator [" + filter.getOperator() + "]");
+        }
+    }
+
+    /**
+     * Determines whether the specified record value equals to the specified operand.
+     *
+     * @param value the specified record value
+     * @param operand the specified operand
+     * @return {@code true} if equals, returns {@code false} otherwise
+     */
+    private static boolean equals(final Object value, final Object operand) {
+        if (value instanceof String && operand instanceof String) {
+            return ((String) value).equalsIgnoreCase((String) operand);
+        }
+
+        return null != value && value.equals(operand);
+    }
+
+    /**
+     * Private constructor.
+     */
+    private MemoryRecords() {
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Keys;
+import org.b3log.latke.service.ServiceException;
+import org.b3log.symphony.AbstractTestCase;
+import org.b3log.symphony.model.Article;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ArticleMgmtService#updateArticle(org.json.JSONObject)} benchmark, concurrent updates of articles of random
+ * authors on the in-memory H2 database of the tests.
+ *
+ * <p>
+ * Posting takes the same author and tag locks, but it is rate limited per author, so updates are measured instead.
+ * Updates of 1 author all contend for the same author lock, updates of 8 authors (each with an own tag) mostly run in
+ * parallel. {@link #globalLock()} serializes all updates with one monitor (as the service did before locking per
+ * author) for comparison.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class ArticleMgmtServiceBenchmark extends AbstractTestCase {
+
+    /**
+     * Author count.
+     */
+    @Param({"1", "8"})
+    public int authorCnt;
+
+    /**
+     * Ids of the articles, one per author.
+     */
+    private String[] articleIds;
+
+    /**
+     * Article management service.
+     */
+    private ArticleMgmtService articleMgmtService;
+
+    /**
+     * Global monitor.
+     */
+    private final Object monitor = new Object();
+
+    /**
+     * Starts the container and adds an article for each author.
+     *
+     * @throws Exception exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        beforeClass();
+
+        articleMgmtService = getReference(ArticleMgmtService.class);
+
+        articleIds = new String[authorCnt];
+        for (int i = 0; i < authorCnt; i++) {
+            final JSONObject article = newArticle(i);
+            article.put(Article.ARTICLE_AUTHOR_ID, addUser("Author" + i, Integer.MAX_VALUE / 2));
+            article.put(Article.ARTICLE_AUTHOR_EMAIL, "");
+
+            articleIds[i] = articleMgmtService.addArticle(article);
+        }
+    }
+
+    /**
+     * Shuts the container down.
+     */
+    @TearDown
+    public void tearDown() {
+        afterClass();
+    }
+
+    /**
+     * Benchmarks updates locked per author.
+     *
+     * @return article id
+     * @throws ServiceException service exception
+     */
+    @Benchmark
+    public String updateArticle() throws ServiceException {
+        return randomUpdate();
+    }
+
+    /**
+     * Benchmarks updates serialized by one monitor.
+     *
+     * @return article id
+     * @throws ServiceException service exception
+     */
+    @Benchmark
+    public String globalLock() throws ServiceException {
+        synchronized (monitor) {
+            return randomUpdate();
+        }
+    }
+
+    /**
+     * Updates the article of a random author.
+     *
+     * @return article id
+     * @throws ServiceException service exception
+     */
+    private String randomUpdate() throws ServiceException {
+        final int i = ThreadLocalRandom.current().nextInt(authorCnt);
+
+        final JSONObject article = newArticle(i);
+        article.put(Keys.OBJECT_ID, articleIds[i]);
+        articleMgmtService.updateArticle(article);
+
+        return articleIds[i];
+    }
+
+    /**
+     * Builds the request json object of the article of the specified author.
+     *
+     * @param i the index of the specified author
+     * @return request json object, without author
+     */
+    private static JSONObject newArticle(final int i) {
+        final JSONObject ret = new JSONObject();
+        ret.put(Article.ARTICLE_TITLE, "Article " + i);
+        ret.put(Article.ARTICLE_TAGS, "Own" + i);
+        ret.put(Article.ARTICLE_CONTENT, "Content of article " + i);
+        ret.put(Article.ARTICLE_EDITOR_TYPE, 0);
+        ret.put(Article.ARTICLE_COMMENTABLE, true);
+        ret.put(Article.ARTICLE_TYPE, Article.ARTICLE_TYPE_C_NORMAL);
+
+        return ret;
+    }
+}
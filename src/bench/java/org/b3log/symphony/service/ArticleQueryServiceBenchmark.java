@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Keys;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.ioc.LatkeBeanManagerImpl;
+import org.b3log.latke.model.User;
+import org.b3log.latke.repository.RepositoryException;
+import org.b3log.latke.service.LangPropsServiceImpl;
+import org.b3log.symphony.cache.UserCache;
+import org.b3log.symphony.model.Article;
+import org.b3log.symphony.model.UserExt;
+import org.b3log.symphony.util.JSONs;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ArticleQueryService#organizeArticle(org.json.JSONObject)} benchmark, organizes an article of a list page,
+ * the author is served from {@link UserCache}.
+ *
+ * <p>
+ * Each invocation organizes a fresh copy of the article, the copying is included in the score.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArticleQueryServiceBenchmark {
+
+    /**
+     * Article query service.
+     */
+    private ArticleQueryService articleQueryService;
+
+    /**
+     * Article template.
+     */
+    private JSONObject article;
+
+    /**
+     * Wires the service and creates the article template.
+     */
+    @Setup
+    public void setup() {
+        Latkes.initRuntimeEnv();
+
+        final JSONObject author = new JSONObject();
+        author.put(Keys.OBJECT_ID, "1353745196354");
+        author.put(User.USER_NAME, "88250");
+        author.put(UserExt.USER_REAL_NAME, "Liang Ding");
+        author.put(UserExt.USER_AVATAR_URL, "https://img.hacpai.com/avatar/1353745196354_1475559765765.png?1475559765765");
+
+        final UserCache userCache = new UserCache();
+        userCache.putUser(author);
+
+        articleQueryService = new ArticleQueryService();
+        Beans.inject(articleQueryService, "userCache", userCache);
+        Beans.inject(articleQueryService, "avatarQueryService", new AvatarQueryService());
+        Beans.inject(articleQueryService, "langPropsService",
+                LatkeBeanManagerImpl.getInstance().getReference(LangPropsServiceImpl.class));
+
+        final long now = System.currentTimeMillis();
+        article = new JSONObject();
+        article.put(Keys.OBJECT_ID, String.valueOf(now - 1000 * 60 * 60 * 3));
+        article.put(Article.ARTICLE_TITLE, "Symphony <b>性能</b>优化记录 :smile: [em02]");
+        article.put(Article.ARTICLE_AUTHOR_ID, author.optString(Keys.OBJECT_ID));
+        article.put(Article.ARTICLE_CREATE_TIME, now - 1000 * 60 * 60 * 3);
+        article.put(Article.ARTICLE_UPDATE_TIME, now - 1000 * 60 * 30);
+        article.put(Article.ARTICLE_LATEST_CMT_TIME, now - 1000 * 60 * 5);
+        article.put(Article.ARTICLE_VIEW_CNT, 12345);
+        article.put(Article.ARTICLE_STATUS, Article.ARTICLE_STATUS_C_VALID);
+        article.put(Article.ARTICLE_TYPE, Article.ARTICLE_TYPE_C_NORMAL);
+    }
+
+    /**
+     * Benchmarks {@link ArticleQueryService#organizeArticle(org.json.JSONObject)}.
+     *
+     * @return organized article
+     * @throws RepositoryException repository exception
+     */
+    @Benchmark
+    public JSONObject organizeArticle() throws RepositoryException {
+        final JSONObject ret = JSONs.clone(article);
+        articleQueryService.organizeArticle(ret);
+
+        return ret;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.lang.reflect.Field;
+
+/**
+ * Bean utilities for benchmarks, wires services without the container.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+final class Beans {
+
+    /**
+     * Sets the field specified by the given field name of the specified bean with the specified value.
+     *
+     * @param bean the specified bean
+     * @param fieldName the given field name, the field may be declared by a super class of the bean
+     * @param value the specified value
+     */
+    static void inject(final Object bean, final String fieldName, final Object value) {
+        Class<?> clazz = bean.getClass();
+        while (null != clazz) {
+            try {
+                final Field field = clazz.getDeclaredField(fieldName);
+                field.setAccessible(true);
+                field.set(bean, value);
+
+                return;
+            } catch (final NoSuchFieldException e) {
+                clazz = clazz.getSuperclass();
+            } catch (final IllegalAccessException e) {
+                throw new IllegalStateException("Injects field [" + fieldName + "] failed", e);
+            }
+        }
+
+        throw new IllegalArgumentException("Not found field [" + fieldName + "] in [" + bean.getClass().getName() + "]");
+    }
+
+    /**
+     * Private constructor.
+     */
+    private Beans() {
+    }
+}
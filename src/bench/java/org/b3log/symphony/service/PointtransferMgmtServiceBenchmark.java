@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.b3log.symphony.AbstractTestCase;
+import org.b3log.symphony.model.Pointtransfer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link PointtransferMgmtService#transfer(java.lang.String, java.lang.String, int, int, java.lang.String)} benchmark,
+ * concurrent transfers between random accounts on the in-memory H2 database of the tests.
+ *
+ * <p>
+ * Transfers between 2 accounts all contend for the same account locks, transfers between 64 accounts mostly touch
+ * disjoint accounts and run in parallel. {@link #globalLock()} serializes all transfers with one monitor (as the
+ * service did before locking per account) for comparison.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class PointtransferMgmtServiceBenchmark extends AbstractTestCase {
+
+    /**
+     * Account count.
+     */
+    @Param({"2", "64"})
+    public int accountCnt;
+
+    /**
+     * Ids of the accounts.
+     */
+    private String[] accountIds;
+
+    /**
+     * Point transfer management service.
+     */
+    private PointtransferMgmtService pointtransferMgmtService;
+
+    /**
+     * Global monitor.
+     */
+    private final Object monitor = new Object();
+
+    /**
+     * Starts the container and adds the accounts, the balances never run out.
+     *
+     * @throws Exception exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        beforeClass();
+
+        accountIds = new String[accountCnt];
+        for (int i = 0; i < accountCnt; i++) {
+            accountIds[i] = addUser("Account" + i, Integer.MAX_VALUE / 2);
+        }
+
+        pointtransferMgmtService = getReference(PointtransferMgmtService.class);
+    }
+
+    /**
+     * Shuts the container down.
+     */
+    @TearDown
+    public void tearDown() {
+        afterClass();
+    }
+
+    /**
+     * Benchmarks transfers locked per account.
+     *
+     * @return transfer record id
+     */
+    @Benchmark
+    public String transfer() {
+        return randomTransfer();
+    }
+
+    /**
+     * Benchmarks transfers serialized by one monitor.
+     *
+     * @return transfer record id
+     */
+    @Benchmark
+    public String globalLock() {
+        synchronized (monitor) {
+            return randomTransfer();
+        }
+    }
+
+    /**
+     * Transfers 1 point between two random distinct accounts.
+     *
+     * @return transfer record id
+     */
+    private String randomTransfer() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int from = random.nextInt(accountCnt);
+        final int to = (from + 1 + random.nextInt(accountCnt - 1)) % accountCnt;
+
+        return pointtransferMgmtService.transfer(accountIds[from], accountIds[to],
+                Pointtransfer.TRANSFER_TYPE_C_ACCOUNT2ACCOUNT, 1, accountIds[to]);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Keys;
+import org.b3log.latke.Latkes;
+import org.b3log.symphony.cache.ShortLinkCache;
+import org.b3log.symphony.model.Article;
+import org.b3log.symphony.model.Tag;
+import org.b3log.symphony.repository.MemoryArticleRepository;
+import org.b3log.symphony.repository.MemoryTagRepository;
+import org.b3log.symphony.util.Corpus;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link ShortLinkQueryService} benchmark, resolves short links against in-memory repository stand-ins.
+ *
+ * <p>
+ * The <em>Uncached</em> benchmarks evict the resolved titles from {@link ShortLinkCache} before linking, so every
+ * invocation takes the query path.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortLinkQueryServiceBenchmark {
+
+    /**
+     * Id of the article linked by the corpora.
+     */
+    private static final String ARTICLE_ID = "1453543263213";
+
+    /**
+     * Title of the tag linked by the corpora.
+     */
+    private static final String TAG_TITLE = "Java";
+
+    /**
+     * Corpus name.
+     */
+    @Param({Corpus.ARTICLE, Corpus.COMMENT})
+    public String corpusName;
+
+    /**
+     * Short link query service.
+     */
+    private ShortLinkQueryService shortLinkQueryService;
+
+    /**
+     * Short link cache.
+     */
+    private ShortLinkCache shortLinkCache;
+
+    /**
+     * Content.
+     */
+    private String content;
+
+    /**
+     * Wires the service with the repository stand-ins and loads the corpus.
+     */
+    @Setup
+    public void setup() {
+        Latkes.initRuntimeEnv();
+
+        final MemoryArticleRepository articleRepository = new MemoryArticleRepository();
+        for (int i = 0; i < 1000; i++) {
+            final JSONObject article = new JSONObject();
+            article.put(Keys.OBJECT_ID, String.valueOf(Long.valueOf(ARTICLE_ID) + i));
+            article.put(Article.ARTICLE_TITLE, "Symphony 性能优化 " + i);
+            articleRepository.put(article);
+        }
+
+        final MemoryTagRepository tagRepository = new MemoryTagRepository();
+        final String[] tagTitles = {TAG_TITLE, "B3log", "Symphony", "Latke", "JavaScript", "MySQL", "Solo", "Wide"};
+        for (int i = 0; i < tagTitles.length; i++) {
+            final JSONObject tag = new JSONObject();
+            tag.put(Keys.OBJECT_ID, String.valueOf(i));
+            tag.put(Tag.TAG_TITLE, tagTitles[i]);
+            tagRepository.put(tag);
+        }
+
+        shortLinkCache = new ShortLinkCache();
+        shortLinkQueryService = new ShortLinkQueryService();
+        Beans.inject(shortLinkQueryService, "articleRepository", articleRepository);
+        Beans.inject(shortLinkQueryService, "tagRepository", tagRepository);
+        Beans.inject(shortLinkQueryService, "shortLinkCache", shortLinkCache);
+
+        content = Corpus.load(corpusName);
+    }
+
+    /**
+     * Benchmarks {@link ShortLinkQueryService#linkArticle(java.lang.String)}.
+     *
+     * @return processed content
+     */
+    @Benchmark
+    public String linkArticle() {
+        return shortLinkQueryService.linkArticle(content);
+    }
+
+    /**
+     * Benchmarks {@link ShortLinkQueryService#linkArticle(java.lang.String)} with a cache miss.
+     *
+     * @return processed content
+     */
+    @Benchmark
+    public String linkArticleUncached() {
+        shortLinkCache.removeArticleTitle(ARTICLE_ID);
+
+        return shortLinkQueryService.linkArticle(content);
+    }
+
+    /**
+     * Benchmarks {@link ShortLinkQueryService#linkTag(java.lang.String)}.
+     *
+     * @return processed content
+     */
+    @Benchmark
+    public String linkTag() {
+        return shortLinkQueryService.linkTag(content);
+    }
+
+    /**
+     * Benchmarks {@link ShortLinkQueryService#linkTag(java.lang.String)} with a cache miss.
+     *
+     * @return processed content
+     */
+    @Benchmark
+    public String linkTagUncached() {
+        shortLinkCache.removeTagTitle(TAG_TITLE);
+
+        return shortLinkQueryService.linkTag(content);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.service.ServiceException;
+import org.b3log.symphony.cache.UserCache;
+import org.b3log.symphony.util.Corpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link UserQueryService#getUserNames(java.lang.String)} benchmark, the user name index holds 100k names.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class UserQueryServiceBenchmark {
+
+    /**
+     * Corpus name.
+     */
+    @Param({Corpus.ARTICLE, Corpus.COMMENT})
+    public String corpusName;
+
+    /**
+     * User query service.
+     */
+    private UserQueryService userQueryService;
+
+    /**
+     * Text.
+     */
+    private String text;
+
+    /**
+     * Wires the service with a loaded user name index and loads the corpus.
+     */
+    @Setup
+    public void setup() {
+        Latkes.initRuntimeEnv();
+
+        final UserCache userCache = new UserCache();
+        final List<String> userNames = new ArrayList<String>();
+        userNames.add("88250");
+        userNames.add("Vanessa");
+        for (int i = 0; i < 100000; i++) {
+            userNames.add("user" + i);
+        }
+        userCache.loadUserNames(userNames);
+
+        userQueryService = new UserQueryService();
+        Beans.inject(userQueryService, "userCache", userCache);
+        Beans.inject(userQueryService, "userNameIndexLoaded", true);
+
+        text = Corpus.load(corpusName);
+    }
+
+    /**
+     * Benchmarks {@link UserQueryService#getUserNames(java.lang.String)}.
+     *
+     * @return user names
+     * @throws ServiceException service exception
+     */
+    @Benchmark
+    public Set<String> getUserNames() throws ServiceException {
+        return userQueryService.getUserNames(text);
+    }
+}
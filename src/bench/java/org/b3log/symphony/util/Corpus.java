@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Benchmark corpus, posts under <em>src/bench/resources/bench/</em>.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public final class Corpus {
+
+    /**
+     * A long article with code blocks, tables, emoji, mentions and short links.
+     */
+    public static final String ARTICLE = "article.md";
+
+    /**
+     * A short comment with a mention, an emoji and short links.
+     */
+    public static final String COMMENT = "comment.md";
+
+    /**
+     * Loads the corpus specified by the given name.
+     *
+     * @param name the given name, for example {@link #ARTICLE}
+     * @return corpus content
+     */
+    public static String load(final String name) {
+        final InputStream inputStream = Corpus.class.getResourceAsStream("/bench/" + name);
+        if (null == inputStream) {
+            throw new IllegalArgumentException("Not found corpus [" + name + "]");
+        }
+
+        try {
+            return IOUtils.toString(inputStream, "UTF-8");
+        } catch (final IOException e) {
+            throw new IllegalStateException("Loads corpus [" + name + "] failed", e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Private constructor.
+     */
+    private Corpus() {
+    }
+}
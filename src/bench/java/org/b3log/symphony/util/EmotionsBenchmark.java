@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import com.vdurmont.emoji.EmojiParser;
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Latkes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Emotions} benchmark, compares the single pass converter with the replacement loop it replaced.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmotionsBenchmark {
+
+    /**
+     * Article content.
+     */
+    private String article;
+
+    /**
+     * Article content with emoji in unicode, as posted by browsers.
+     */
+    private String unicodeArticle;
+
+    /**
+     * Emoji codes.
+     */
+    private String[] emojiCodes;
+
+    /**
+     * Loads the corpus.
+     */
+    @Setup
+    public void setup() {
+        Latkes.initRuntimeEnv();
+
+        article = Corpus.load(Corpus.ARTICLE);
+        unicodeArticle = EmojiParser.parseToUnicode(article);
+        emojiCodes = Emotions.getEmojiCodes();
+    }
+
+    /**
+     * Benchmarks {@link Emotions#convert(java.lang.String)}.
+     *
+     * @return converted content
+     */
+    @Benchmark
+    public String convert() {
+        return Emotions.convert(article);
+    }
+
+    /**
+     * Benchmarks the replacement loop {@link Emotions#convert(java.lang.String)} used before.
+     *
+     * @return converted content
+     */
+    @Benchmark
+    public String convertLegacy() {
+        final String staticServePath = Latkes.getStaticServePath();
+
+        String ret = article;
+        for (int i = 0; i < 15; i++) {
+            final String emotionName = i < 10 ? "em0" + i : "em" + i;
+            ret = ret.replace('[' + emotionName + ']',
+                    "<img src='" + staticServePath + "/images/emotions/ease/" + emotionName + ".png" + "' />");
+        }
+
+        for (final String emojiCode : emojiCodes) {
+            final String emoji = ":" + emojiCode + ":";
+            ret = ret.replace(emoji, "<img align=\"absmiddle\" alt=\"" + emoji + "\" class=\"emoji\" src=\""
+                    + staticServePath + "/js/lib/emojify.js-1.0.2/images/basic/" + emojiCode
+                    + ".png\" title=\"" + emoji + "\"></img>");
+        }
+
+        return ret;
+    }
+
+    /**
+     * Benchmarks {@link Emotions#clear(java.lang.String)}.
+     *
+     * @return cleared content
+     */
+    @Benchmark
+    public String clear() {
+        return Emotions.clear(article);
+    }
+
+    /**
+     * Benchmarks the replacement loop {@link Emotions#clear(java.lang.String)} used before.
+     *
+     * @return cleared content
+     */
+    @Benchmark
+    public String clearLegacy() {
+        String ret = article.replaceAll("\\[em\\d+]", "");
+        for (final String emojiCode : emojiCodes) {
+            ret = ret.replace(":" + emojiCode + ":", "");
+        }
+
+        return ret;
+    }
+
+    /**
+     * Benchmarks {@link Emotions#toAliases(java.lang.String)}.
+     *
+     * @return content with emoji aliases
+     */
+    @Benchmark
+    public String toAliases() {
+        return Emotions.toAliases(unicodeArticle);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Latkes;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.safety.Whitelist;
+import org.jsoup.select.Elements;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link HTMLSanitizer} benchmark, compares the single pass sanitizer with the jsoup clean and re-parse it replaced.
+ *
+ * <p>
+ * Compare {@code gc.alloc.rate.norm} (bytes per operation) of the GC profiler for the allocation reduction.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HTMLSanitizerBenchmark {
+
+    /**
+     * Audio label.
+     */
+    private static final String AUDIO_LABEL = "Your browser does not support the audio tag";
+
+    /**
+     * Corpus name.
+     */
+    @Param({Corpus.ARTICLE, Corpus.COMMENT})
+    public String corpusName;
+
+    /**
+     * HTML rendered from the corpus.
+     */
+    private String html;
+
+    /**
+     * Renders the corpus.
+     *
+     * @throws Exception exception
+     */
+    @Setup
+    public void setup() throws Exception {
+        Latkes.initRuntimeEnv();
+
+        html = new MarkdownPapersEngine().toHTML(Emotions.convert(Corpus.load(corpusName)));
+    }
+
+    /**
+     * Benchmarks {@link HTMLSanitizer#clean(java.lang.String, java.lang.String, java.lang.String)}.
+     *
+     * @return safe HTML
+     */
+    @Benchmark
+    public String clean() {
+        return HTMLSanitizer.clean(html, "", AUDIO_LABEL);
+    }
+
+    /**
+     * Benchmarks the jsoup implementation {@link Markdowns#clean(java.lang.String, java.lang.String)} used before.
+     *
+     * @return safe HTML
+     */
+    @Benchmark
+    public String cleanLegacy() {
+        final Document.OutputSettings outputSettings = new Document.OutputSettings();
+        outputSettings.prettyPrint(false);
+
+        final String tmp = Jsoup.clean(html, "", Whitelist.relaxed().
+                addAttributes(":all", "id", "target", "class").
+                addTags("span", "hr").addAttributes("iframe", "src", "width", "height")
+                .addAttributes("audio", "controls", "src"), outputSettings);
+        final Document doc = Jsoup.parse(tmp, "", Parser.xmlParser());
+        final Elements iframes = doc.getElementsByTag("iframe");
+        for (final Element iframe : iframes) {
+            final String src = iframe.attr("src");
+            if (!src.startsWith("https://wide.b3log.org") && !src.startsWith("http://www.chaojibiaoge.com")) {
+                iframe.remove();
+            }
+        }
+
+        final Elements ps = doc.getElementsByTag("p");
+        for (final Element p : ps) {
+            p.removeAttr("style");
+        }
+
+        final Elements as = doc.getElementsByTag("a");
+        for (final Element a : as) {
+            a.attr("rel", "nofollow");
+
+            final String href = a.attr("href");
+            if (href.startsWith(Latkes.getServePath())) {
+                continue;
+            }
+
+            a.attr("target", "_blank");
+        }
+
+        final Elements audios = doc.getElementsByTag("audio");
+        for (final Element audio : audios) {
+            final String src = audio.attr("src");
+            if (!src.startsWith(Symphonys.get("qiniu.domain"))) {
+                audio.remove();
+
+                continue;
+            }
+
+            audio.text(AUDIO_LABEL);
+            audio.attr("preload", "none");
+        }
+
+        return doc.html();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link MarkdownEngine} benchmark, compares the engines over the article and comment corpora.
+ *
+ * <p>
+ * Runs with 4 threads since one engine instance is shared by all requests, the allocation rate is reported by the GC
+ * profiler of the bench profile.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class MarkdownsBenchmark {
+
+    /**
+     * Engine name.
+     */
+    @Param({MarkdownPapersEngine.NAME, TxtmarkEngine.NAME})
+    public String engineName;
+
+    /**
+     * Corpus name.
+     */
+    @Param({Corpus.ARTICLE, Corpus.COMMENT})
+    public String corpusName;
+
+    /**
+     * Engine.
+     */
+    private MarkdownEngine engine;
+
+    /**
+     * Markdown text.
+     */
+    private String markdownText;
+
+    /**
+     * Creates the engine and loads the corpus.
+     */
+    @Setup
+    public void setup() {
+        engine = MarkdownPapersEngine.NAME.equals(engineName) ? new MarkdownPapersEngine() : new TxtmarkEngine();
+        markdownText = Corpus.load(corpusName);
+    }
+
+    /**
+     * Benchmarks {@link MarkdownEngine#toHTML(java.lang.String)}.
+     *
+     * @return converted HTML
+     * @throws Exception exception
+     */
+    @Benchmark
+    public String toHTML() throws Exception {
+        return engine.toHTML(markdownText);
+    }
+}
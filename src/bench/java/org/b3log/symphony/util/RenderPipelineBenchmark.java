@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Latkes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Render pipeline benchmark, {@link Markdowns#toHTML(java.lang.String)} and
+ * {@link Markdowns#clean(java.lang.String, java.lang.String)} with the configured markdown engine, and the whole
+ * emotions &rarr; markdown &rarr; clean pipeline a comment goes through.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderPipelineBenchmark {
+
+    /**
+     * Corpus name.
+     */
+    @Param({Corpus.ARTICLE, Corpus.COMMENT})
+    public String corpusName;
+
+    /**
+     * Markdown text.
+     */
+    private String markdownText;
+
+    /**
+     * Unsafe HTML, the markdown text converted.
+     */
+    private String html;
+
+    /**
+     * Loads the corpus.
+     */
+    @Setup
+    public void setup() {
+        Latkes.initRuntimeEnv();
+
+        markdownText = Corpus.load(corpusName);
+        html = Markdowns.toHTML(Emotions.convert(markdownText));
+    }
+
+    /**
+     * Benchmarks {@link Markdowns#toHTML(java.lang.String)}.
+     *
+     * @return HTML
+     */
+    @Benchmark
+    public String toHTML() {
+        return Markdowns.toHTML(markdownText);
+    }
+
+    /**
+     * Benchmarks {@link Markdowns#clean(java.lang.String, java.lang.String)}.
+     *
+     * @return safe HTML
+     */
+    @Benchmark
+    public String clean() {
+        return Markdowns.clean(html, Latkes.getServePath());
+    }
+
+    /**
+     * Benchmarks the whole pipeline.
+     *
+     * @return safe HTML
+     */
+    @Benchmark
+    public String render() {
+        String ret = Emotions.convert(markdownText);
+        ret = Markdowns.toHTML(ret);
+
+        return Markdowns.clean(ret, "");
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Latkes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Times#getTimeAgo(long)} benchmark, cycles through times of each unit (just now, minutes, hours, days,
+ * weeks, months and years ago).
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimesBenchmark {
+
+    /**
+     * Times.
+     */
+    private long[] times;
+
+    /**
+     * Index of the next time.
+     */
+    private int idx;
+
+    /**
+     * Creates the times.
+     */
+    @Setup
+    public void setup() {
+        Latkes.initRuntimeEnv();
+
+        final long now = System.currentTimeMillis();
+        final long minute = 1000L * 60;
+        times = new long[]{now - 1000 * 10, now - minute * 5, now - minute * 60 * 3, now - minute * 60 * 24 * 2,
+            now - minute * 60 * 24 * 10, now - minute * 60 * 24 * 90, now - minute * 60 * 24 * 800};
+    }
+
+    /**
+     * Benchmarks {@link Times#getTimeAgo(long)}.
+     *
+     * @return time ago format text
+     */
+    @Benchmark
+    public String getTimeAgo() {
+        final long time = times[idx];
+        idx = (idx + 1) % times.length;
+
+        return Times.getTimeAgo(time);
+    }
+}
@@ -15,6 +15,9 @@
  */
 package org.b3log.symphony;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.List;
 import java.util.ResourceBundle;
 import javax.servlet.ServletContextEvent;
@@ -34,6 +37,7 @@ import org.b3log.latke.model.Role;
 import org.b3log.latke.model.User;
 import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.repository.jdbc.JdbcRepository;
+import org.b3log.latke.repository.jdbc.util.Connections;
 import org.b3log.latke.repository.jdbc.util.JdbcRepositories;
 import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.servlet.AbstractServletListener;
@@ -44,12 +48,19 @@ import org.b3log.latke.util.Stopwatchs;
 import org.b3log.latke.util.Strings;
 import org.b3log.symphony.event.ArticleNotifier;
 import org.b3log.symphony.event.CommentNotifier;
+import org.b3log.symphony.event.SidebarRefresher;
 import org.b3log.symphony.model.Article;
+import org.b3log.symphony.model.Comment;
 import org.b3log.symphony.model.Option;
 import org.b3log.symphony.model.UserExt;
+import org.b3log.symphony.repository.ArticleRepository;
+import org.b3log.symphony.repository.CommentRepository;
 import org.b3log.symphony.repository.OptionRepository;
 import org.b3log.symphony.repository.UserRepository;
 import org.b3log.symphony.service.ArticleMgmtService;
+import org.b3log.symphony.service.OptionMgmtService;
+import org.b3log.symphony.service.OptionQueryService;
+import org.b3log.symphony.service.RenderMgmtService;
 import org.b3log.symphony.service.UserMgmtService;
 import org.b3log.symphony.service.UserQueryService;
 import org.b3log.symphony.util.Symphonys;
@@ -59,7 +70,7 @@ import org.json.JSONObject;
  * Symphony servlet listener.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.9.3.8, Feb 16, 2016
+ * @version 2.10.0.3, Oct 16, 2026
  * @since 0.2.0
  */
 public final class SymphonyServletListener extends AbstractServletListener {
@@ -99,6 +110,11 @@ public final class SymphonyServletListener extends AbstractServletListener {
         // Init database if need
         initDB();
 
+        // Load options
+        final OptionQueryService optionQueryService = beanManager.getReference(OptionQueryService.class);
+        optionQueryService.loadOptions();
+        JdbcRepository.dispose();
+
         // Register event listeners
         final EventManager eventManager = beanManager.getReference(EventManager.class);
 
@@ -108,6 +124,9 @@ public final class SymphonyServletListener extends AbstractServletListener {
         final CommentNotifier commentNotifier = beanManager.getReference(CommentNotifier.class);
         eventManager.registerListener(commentNotifier);
 
+        final SidebarRefresher sidebarRefresher = beanManager.getReference(SidebarRefresher.class);
+        eventManager.registerListener(sidebarRefresher);
+
         //final ArticleSearchAdder articleSearchAdder = beanManager.getReference(ArticleSearchAdder.class);
         //eventManager.registerListener(articleSearchAdder);
 
@@ -123,6 +142,31 @@ public final class SymphonyServletListener extends AbstractServletListener {
 
     @Override
     public void contextDestroyed(final ServletContextEvent servletContextEvent) {
+        // Writes the pending statistic deltas, article view counts and stale marks before the repositories are
+        // disposed, a failed flush must not stop the others and the container shutdown
+        try {
+            final OptionMgmtService optionMgmtService = beanManager.getReference(OptionMgmtService.class);
+            optionMgmtService.flushStatistic();
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Flushes statistic failed", e);
+        }
+
+        try {
+            final ArticleMgmtService articleMgmtService = beanManager.getReference(ArticleMgmtService.class);
+            articleMgmtService.flushArticleViewCounts();
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Flushes article view counts failed", e);
+        }
+
+        try {
+            final RenderMgmtService renderMgmtService = beanManager.getReference(RenderMgmtService.class);
+            while (0 < renderMgmtService.markPendingStale()) {
+                // Drains the queue in batches
+            }
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Marks pending stale renders failed", e);
+        }
+
         super.contextDestroyed(servletContextEvent);
 
         LOGGER.info("Destroyed the context");
@@ -186,6 +230,65 @@ public final class SymphonyServletListener extends AbstractServletListener {
         Stopwatchs.release();
     }
 
+    /**
+     * Migrates the database initialized by an earlier version, adds the columns introduced since.
+     *
+     * <p>
+     * The render versions of the existing rows default to {@code 0}, so their content HTML will be rendered by the
+     * render cron (see {@link ArticleMgmtService#renderStaleArticles(int)}).
+     * </p>
+     */
+    private void migrateDB() {
+        final String articleTable = beanManager.getReference(ArticleRepository.class).getName();
+        final String commentTable = beanManager.getReference(CommentRepository.class).getName();
+        final String[][] columns = {
+            {articleTable, Article.ARTICLE_CONTENT_HTML, "MEDIUMTEXT"},
+            {articleTable, Article.ARTICLE_REWARD_CONTENT_HTML, "MEDIUMTEXT"},
+            {articleTable, Article.ARTICLE_RENDER_VERSION, "INT NOT NULL DEFAULT 0"},
+            {commentTable, Comment.COMMENT_CONTENT_HTML, "TEXT"},
+            {commentTable, Comment.COMMENT_RENDER_VERSION, "INT NOT NULL DEFAULT 0"}};
+
+        Connection connection = null;
+        try {
+            connection = Connections.getConnection();
+
+            for (final String[] column : columns) {
+                final String table = column[0];
+                final String name = column[1];
+
+                final Statement statement = connection.createStatement();
+                try {
+                    statement.executeQuery("SELECT " + name + " FROM " + table + " WHERE 1 = 0").close();
+
+                    continue; // Exists already
+                } catch (final SQLException e) {
+                    LOGGER.log(Level.INFO, "Adds column [{0}.{1}]", new Object[]{table, name});
+                } finally {
+                    statement.close();
+                }
+
+                final Statement alter = connection.createStatement();
+                try {
+                    alter.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + name + " " + column[2]);
+                } finally {
+                    alter.close();
+                }
+            }
+        } catch (final SQLException e) {
+            LOGGER.log(Level.ERROR, "Migrates database failed", e);
+
+            System.exit(0);
+        } finally {
+            if (null != connection) {
+                try {
+                    connection.close();
+                } catch (final SQLException e) {
+                    LOGGER.log(Level.ERROR, "Closes connection failed", e);
+                }
+            }
+        }
+    }
+
     /**
      * Initializes database if need.
      */
@@ -197,6 +300,8 @@ public final class SymphonyServletListener extends AbstractServletListener {
             JdbcRepository.dispose();
 
             if (null != admins && !admins.isEmpty()) { // Initialized already
+                migrateDB();
+
                 return;
             }
         } catch (final ServiceException e) {
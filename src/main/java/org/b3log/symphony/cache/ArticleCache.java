@@ -0,0 +1,333 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Named;
+import org.b3log.latke.Keys;
+import org.b3log.symphony.model.Article;
+import org.b3log.symphony.util.JSONs;
+import org.b3log.symphony.util.Symphonys;
+import org.json.JSONObject;
+
+/**
+ * Article cache.
+ *
+ * <p>
+ * An article is cached in two parts: the brief (all fields except the contents) in a bounded {@link SLRUCache} (max
+ * size {@code cache.article.maxSize}, time to live {@code cache.article.ttl} seconds), and the contents (source and
+ * persisted HTML) in a {@link RenderCache} bounded by total length, versioned by the update time of the article. List
+ * oriented readers only need the brief, so a hot article costs little memory unless its contents are read too.
+ * </p>
+ *
+ * <p>
+ * The ids of the articles may be picked randomly (valid and non-discussion) are held in an {@link IdPool}.
+ * </p>
+ *
+ * <p>
+ * Article views not yet written to the article table are counted here, see
+ * {@link #incViewCount(java.lang.String)}.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.3.0.1, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Named
+public class ArticleCache {
+
+    /**
+     * Max count of articles with rendered contents.
+     */
+    private static final int MAX_CONTENT_CNT = 1024;
+
+    /**
+     * Max total length of rendered article contents.
+     */
+    private static final long MAX_CONTENT_WEIGHT = 16 * 1024 * 1024;
+
+    /**
+     * Rendered article contents (article content HTML, reward content HTML).
+     */
+    private static final RenderCache CONTENT_CACHE = new RenderCache(MAX_CONTENT_CNT, MAX_CONTENT_WEIGHT);
+
+    /**
+     * Content fields, excluded from the cached briefs.
+     */
+    private static final String[] CONTENT_FIELDS = new String[]{Article.ARTICLE_CONTENT, Article.ARTICLE_CONTENT_HTML,
+        Article.ARTICLE_REWARD_CONTENT, Article.ARTICLE_REWARD_CONTENT_HTML};
+
+    /**
+     * Max count of articles with cached content fields.
+     */
+    private static final int MAX_SOURCE_CNT = 2048;
+
+    /**
+     * Max total length of cached content fields.
+     */
+    private static final long MAX_SOURCE_WEIGHT = 32 * 1024 * 1024;
+
+    /**
+     * Article briefs (articles without content fields).
+     */
+    private static final SLRUCache<JSONObject> BRIEF_CACHE = new SLRUCache<JSONObject>(
+            Symphonys.getInt("cache.article.maxSize"), Symphonys.getLong("cache.article.ttl") * 1000);
+
+    /**
+     * Article content fields (see {@link #CONTENT_FIELDS}), versioned by the update time of the article.
+     */
+    private static final RenderCache SOURCE_CACHE = new RenderCache(MAX_SOURCE_CNT, MAX_SOURCE_WEIGHT);
+
+    /**
+     * Ids of the articles may be picked randomly.
+     */
+    private static final IdPool RANDOM_IDS = new IdPool();
+
+    /**
+     * Pending view counts, &lt;articleId, count&gt;, a counter set to a negative value has been retired.
+     */
+    private static final ConcurrentMap<String, AtomicLong> VIEW_CNTS = new ConcurrentHashMap<String, AtomicLong>();
+
+    /**
+     * Total pending view count.
+     */
+    private static final AtomicLong PENDING_VIEW_CNT = new AtomicLong();
+
+    /**
+     * Gets an article by the specified article id.
+     *
+     * @param articleId the specified article id
+     * @return article (a copy), returns {@code null} if the brief or the content fields are not cached
+     */
+    public JSONObject getArticle(final String articleId) {
+        final JSONObject brief = BRIEF_CACHE.get(articleId);
+        if (null == brief) {
+            return null;
+        }
+
+        final String[] contents = SOURCE_CACHE.get(articleId, brief.optLong(Article.ARTICLE_UPDATE_TIME));
+        if (null == contents) {
+            return null;
+        }
+
+        final JSONObject ret = JSONs.clone(brief);
+        for (int i = 0; i < CONTENT_FIELDS.length; i++) {
+            if (null != contents[i]) {
+                ret.put(CONTENT_FIELDS[i], contents[i]);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets the brief (without content fields) of an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     * @return article brief (read-only), returns {@code null} if not found
+     */
+    public JSONObject getArticleBrief(final String articleId) {
+        return BRIEF_CACHE.get(articleId);
+    }
+
+    /**
+     * Adds or updates the specified article.
+     *
+     * @param article the specified article
+     */
+    public void putArticle(final JSONObject article) {
+        final String articleId = article.optString(Keys.OBJECT_ID);
+
+        final JSONObject brief = JSONs.clone(article);
+        final String[] contents = new String[CONTENT_FIELDS.length];
+        for (int i = 0; i < CONTENT_FIELDS.length; i++) {
+            final Object content = brief.remove(CONTENT_FIELDS[i]);
+            if (content instanceof String) {
+                contents[i] = (String) content;
+            }
+        }
+
+        SOURCE_CACHE.put(articleId, brief.optLong(Article.ARTICLE_UPDATE_TIME), contents);
+        BRIEF_CACHE.put(articleId, new ReadOnlyJSONObject(brief));
+    }
+
+    /**
+     * Removes an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     */
+    public void removeArticle(final String articleId) {
+        BRIEF_CACHE.remove(articleId);
+        SOURCE_CACHE.remove(articleId);
+    }
+
+    /**
+     * Gets the ids of the articles may be picked randomly (valid and non-discussion).
+     *
+     * @return random article id pool
+     */
+    public IdPool getRandomIds() {
+        return RANDOM_IDS;
+    }
+
+    /**
+     * Gets the hit count of article brief lookups.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return BRIEF_CACHE.getHitCount();
+    }
+
+    /**
+     * Gets the miss count of article brief lookups.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return BRIEF_CACHE.getMissCount();
+    }
+
+    /**
+     * Gets the eviction count of article briefs, expirations included.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return BRIEF_CACHE.getEvictionCount();
+    }
+
+    /**
+     * Gets the rendered contents of an article specified by the given article id and update time.
+     *
+     * @param articleId the given article id
+     * @param updateTime the given update time
+     * @return rendered contents, [articleContent, articleRewardContent], returns {@code null} if not found
+     */
+    public String[] getArticleContent(final String articleId, final long updateTime) {
+        return CONTENT_CACHE.get(articleId, updateTime);
+    }
+
+    /**
+     * Puts the rendered contents of an article specified by the given article id and update time.
+     *
+     * @param articleId the given article id
+     * @param updateTime the given update time
+     * @param content the rendered article content
+     * @param rewardContent the rendered article reward content
+     */
+    public void putArticleContent(final String articleId, final long updateTime,
+            final String content, final String rewardContent) {
+        CONTENT_CACHE.put(articleId, updateTime, content, rewardContent);
+    }
+
+    /**
+     * Removes the rendered contents of an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     */
+    public void removeArticleContent(final String articleId) {
+        CONTENT_CACHE.remove(articleId);
+    }
+
+    /**
+     * Increments the pending view count of an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     * @return total pending view count of all articles
+     */
+    public long incViewCount(final String articleId) {
+        while (true) {
+            AtomicLong counter = VIEW_CNTS.get(articleId);
+            if (null == counter) {
+                final AtomicLong newCounter = new AtomicLong();
+                counter = VIEW_CNTS.putIfAbsent(articleId, newCounter);
+                if (null == counter) {
+                    counter = newCounter;
+                }
+            }
+
+            final long cnt = counter.get();
+            if (0 > cnt) { // Retired by a flush
+                VIEW_CNTS.remove(articleId, counter);
+
+                continue;
+            }
+
+            if (counter.compareAndSet(cnt, cnt + 1)) {
+                return PENDING_VIEW_CNT.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Gets the pending view count of an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     * @return pending view count
+     */
+    public long getViewCount(final String articleId) {
+        final AtomicLong counter = VIEW_CNTS.get(articleId);
+        if (null == counter) {
+            return 0;
+        }
+
+        return Math.max(0, counter.get());
+    }
+
+    /**
+     * Gets a snapshot of all non-zero pending view counts.
+     *
+     * @return pending view counts, &lt;articleId, count&gt;
+     */
+    public Map<String, Long> getViewCounts() {
+        final Map<String, Long> ret = new HashMap<String, Long>();
+        for (final Map.Entry<String, AtomicLong> entry : VIEW_CNTS.entrySet()) {
+            final long cnt = entry.getValue().get();
+            if (0 < cnt) {
+                ret.put(entry.getKey(), cnt);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Subtracts the specified flushed view counts, views counted since the snapshot are kept. Counters dropped to
+     * zero are removed.
+     *
+     * @param viewCnts the specified flushed view counts, &lt;articleId, count&gt;
+     */
+    public void subtractViewCounts(final Map<String, Long> viewCnts) {
+        for (final Map.Entry<String, Long> entry : viewCnts.entrySet()) {
+            final String articleId = entry.getKey();
+            final AtomicLong counter = VIEW_CNTS.get(articleId);
+            if (null == counter) {
+                continue;
+            }
+
+            final long cnt = entry.getValue();
+            PENDING_VIEW_CNT.addAndGet(-cnt);
+            if (0 == counter.addAndGet(-cnt) && counter.compareAndSet(0, -1)) {
+                VIEW_CNTS.remove(articleId, counter);
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.inject.Named;
+import org.b3log.latke.Keys;
+import org.b3log.symphony.model.Comment;
+import org.json.JSONObject;
+
+/**
+ * Comment cache.
+ *
+ * <p>
+ * Besides the rendered comment contents, caches the latest participants (one latest comment per commenter) of
+ * articles. The participants of an article are loaded once and then maintained on adding comments, see
+ * {@link #addParticipant(java.lang.String, org.json.JSONObject)}.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Named
+public class CommentCache {
+
+    /**
+     * Max count of comments with rendered content.
+     */
+    private static final int MAX_CONTENT_CNT = 8192;
+
+    /**
+     * Max total length of rendered comment contents.
+     */
+    private static final long MAX_CONTENT_WEIGHT = 8 * 1024 * 1024;
+
+    /**
+     * Rendered comment contents.
+     */
+    private static final RenderCache CONTENT_CACHE = new RenderCache(MAX_CONTENT_CNT, MAX_CONTENT_WEIGHT);
+
+    /**
+     * Max count of articles with cached participants.
+     */
+    private static final int MAX_PARTICIPANTS_CNT = 4096;
+
+    /**
+     * Time to live of cached participants, bounds the staleness of a load racing with an added comment.
+     */
+    private static final long PARTICIPANTS_TTL = 10 * 60 * 1000;
+
+    /**
+     * Latest participants of articles, &lt;articleId, participants&gt;.
+     */
+    private static final SLRUCache<Participants> PARTICIPANTS_CACHE
+            = new SLRUCache<Participants>(MAX_PARTICIPANTS_CNT, PARTICIPANTS_TTL);
+
+    /**
+     * Gets the rendered content of a comment specified by the given comment id and the original content.
+     *
+     * @param commentId the given comment id
+     * @param content the original content
+     * @return rendered content, returns {@code null} if not found
+     */
+    public String getCommentContent(final String commentId, final String content) {
+        final String[] ret = CONTENT_CACHE.get(commentId, RenderCache.hash(content));
+        if (null == ret) {
+            return null;
+        }
+
+        return ret[0];
+    }
+
+    /**
+     * Puts the rendered content of a comment specified by the given comment id and the original content.
+     *
+     * @param commentId the given comment id
+     * @param content the original content
+     * @param renderedContent the rendered content
+     */
+    public void putCommentContent(final String commentId, final String content, final String renderedContent) {
+        CONTENT_CACHE.put(commentId, RenderCache.hash(content), renderedContent);
+    }
+
+    /**
+     * Removes the rendered content of a comment specified by the given comment id.
+     *
+     * @param commentId the given comment id
+     */
+    public void removeCommentContent(final String commentId) {
+        CONTENT_CACHE.remove(commentId);
+    }
+
+    /**
+     * Gets the latest participants of an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     * @param fetchSize the specified fetch size
+     * @return the latest comments (read-only, "oId" and "commentAuthorId" only) of distinct commenters, at most the
+     * specified fetch size, returns {@code null} if not cached or cached with a smaller fetch size
+     */
+    public List<JSONObject> getParticipants(final String articleId, final int fetchSize) {
+        final Participants participants = PARTICIPANTS_CACHE.get(articleId);
+        if (null == participants) {
+            return null;
+        }
+
+        if (participants.fetchSize < fetchSize) {
+            return null;
+        }
+
+        final List<JSONObject> ret = participants.comments;
+
+        return ret.size() > fetchSize ? ret.subList(0, fetchSize) : ret;
+    }
+
+    /**
+     * Puts the latest participants of an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     * @param fetchSize the fetch size the specified comments loaded with
+     * @param comments the latest comments of distinct commenters, in reverse chronological order
+     */
+    public void putParticipants(final String articleId, final int fetchSize, final List<JSONObject> comments) {
+        final List<JSONObject> copies = new ArrayList<JSONObject>(comments.size());
+        for (final JSONObject comment : comments) {
+            copies.add(toParticipant(comment));
+        }
+
+        synchronized (PARTICIPANTS_CACHE) {
+            PARTICIPANTS_CACHE.put(articleId, new Participants(fetchSize, copies));
+        }
+    }
+
+    /**
+     * Adds the specified comment to the cached participants of an article specified by the given article id, does
+     * nothing if the participants of the article are not cached.
+     *
+     * <p>
+     * The commenter of the specified comment becomes the latest participant, the earlier comment of the same
+     * commenter is dropped.
+     * </p>
+     *
+     * @param articleId the given article id
+     * @param comment the specified comment
+     */
+    public void addParticipant(final String articleId, final JSONObject comment) {
+        synchronized (PARTICIPANTS_CACHE) {
+            final Participants participants = PARTICIPANTS_CACHE.get(articleId);
+            if (null == participants) {
+                return;
+            }
+
+            final String authorId = comment.optString(Comment.COMMENT_AUTHOR_ID);
+            final List<JSONObject> comments = new ArrayList<JSONObject>(participants.comments.size() + 1);
+            comments.add(toParticipant(comment));
+            for (final JSONObject c : participants.comments) {
+                if (comments.size() >= participants.fetchSize) {
+                    break;
+                }
+
+                if (!authorId.equals(c.optString(Comment.COMMENT_AUTHOR_ID))) {
+                    comments.add(c);
+                }
+            }
+
+            PARTICIPANTS_CACHE.put(articleId, new Participants(participants.fetchSize, comments));
+        }
+    }
+
+    /**
+     * Picks the latest comment of each commenter from the specified comments.
+     *
+     * @param comments the specified comments, in reverse chronological order
+     * @param fetchSize the specified fetch size
+     * @return picked comments, at most the specified fetch size
+     */
+    public static List<JSONObject> distinctCommenters(final List<JSONObject> comments, final int fetchSize) {
+        final List<JSONObject> ret = new ArrayList<JSONObject>();
+        final Set<String> authorIds = new HashSet<String>();
+        for (final JSONObject comment : comments) {
+            if (ret.size() >= fetchSize) {
+                break;
+            }
+
+            if (authorIds.add(comment.optString(Comment.COMMENT_AUTHOR_ID))) {
+                ret.add(comment);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets a read-only participant of the specified comment.
+     *
+     * @param comment the specified comment
+     * @return participant, "oId" and "commentAuthorId" only
+     */
+    private static JSONObject toParticipant(final JSONObject comment) {
+        final JSONObject ret = new JSONObject();
+        ret.put(Keys.OBJECT_ID, comment.optString(Keys.OBJECT_ID));
+        ret.put(Comment.COMMENT_AUTHOR_ID, comment.optString(Comment.COMMENT_AUTHOR_ID));
+
+        return new ReadOnlyJSONObject(ret);
+    }
+
+    /**
+     * Latest participants of an article.
+     */
+    private static final class Participants {
+
+        /**
+         * Fetch size the participants loaded with.
+         */
+        private final int fetchSize;
+
+        /**
+         * Latest comments of distinct commenters.
+         */
+        private final List<JSONObject> comments;
+
+        /**
+         * Constructs participants with the specified fetch size and comments.
+         *
+         * @param fetchSize the specified fetch size
+         * @param comments the specified comments
+         */
+        private Participants(final int fetchSize, final List<JSONObject> comments) {
+            this.fetchSize = fetchSize;
+            this.comments = Collections.unmodifiableList(comments);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Id pool for random sampling.
+ *
+ * <p>
+ * Holds a set of (numeric) object ids in a sorted primitive array, 8 bytes per id. Adding and removing an id costs a
+ * binary search and an array copy, sampling <i>k</i> ids costs <i>O(k)</i>, so random objects can be picked without
+ * sorting the table by {@code RAND()}.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public final class IdPool {
+
+    /**
+     * Ids, sorted, the first {@link #size} elements are valid.
+     */
+    private long[] ids = new long[16];
+
+    /**
+     * Id count.
+     */
+    private int size;
+
+    /**
+     * Whether the pool has been loaded.
+     */
+    private boolean loaded;
+
+    /**
+     * Adds the specified id.
+     *
+     * @param id the specified id, non-numeric ids are ignored
+     */
+    public synchronized void add(final String id) {
+        final long value = parse(id);
+        if (value < 0) {
+            return;
+        }
+
+        int index = Arrays.binarySearch(ids, 0, size, value);
+        if (index >= 0) {
+            return;
+        }
+
+        index = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = value;
+        size++;
+    }
+
+    /**
+     * Removes the specified id.
+     *
+     * @param id the specified id
+     */
+    public synchronized void remove(final String id) {
+        final long value = parse(id);
+        if (value < 0) {
+            return;
+        }
+
+        final int index = Arrays.binarySearch(ids, 0, size, value);
+        if (index < 0) {
+            return;
+        }
+
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * Loads the specified ids, merges them with the ids added before.
+     *
+     * @param ids the specified ids
+     */
+    public synchronized void load(final Collection<String> ids) {
+        long[] merged = Arrays.copyOf(this.ids, size + ids.size());
+        int cnt = size;
+        for (final String id : ids) {
+            final long value = parse(id);
+            if (value >= 0) {
+                merged[cnt++] = value;
+            }
+        }
+        Arrays.sort(merged, 0, cnt);
+
+        int distinct = 0;
+        for (int i = 0; i < cnt; i++) {
+            if (0 == distinct || merged[i] != merged[distinct - 1]) {
+                merged[distinct++] = merged[i];
+            }
+        }
+
+        if (merged.length < 16) {
+            merged = Arrays.copyOf(merged, 16);
+        }
+
+        this.ids = merged;
+        size = distinct;
+        loaded = true;
+    }
+
+    /**
+     * Whether the pool has been loaded.
+     *
+     * @return {@code true} if loaded, returns {@code false} otherwise
+     */
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Gets the id count.
+     *
+     * @return id count
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Samples the specified number of distinct ids randomly.
+     *
+     * @param num the specified number
+     * @return ids in random order, returns all ids if the pool holds no more than the specified number of ids
+     */
+    public synchronized List<String> sample(final int num) {
+        final int cnt = Math.min(num, size);
+        final List<String> ret = new ArrayList<String>(Math.max(cnt, 0));
+        if (cnt <= 0) {
+            return ret;
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (cnt * 2 > size) { // Partial Fisher-Yates shuffle on a copy
+            final long[] copy = Arrays.copyOf(ids, size);
+            for (int i = 0; i < cnt; i++) {
+                final int j = i + random.nextInt(size - i);
+                final long tmp = copy[i];
+                copy[i] = copy[j];
+                copy[j] = tmp;
+
+                ret.add(String.valueOf(copy[i]));
+            }
+
+            return ret;
+        }
+
+        final Set<Integer> picked = new HashSet<Integer>();
+        while (ret.size() < cnt) {
+            final int index = random.nextInt(size);
+            if (picked.add(index)) {
+                ret.add(String.valueOf(ids[index]));
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Parses the specified id.
+     *
+     * @param id the specified id
+     * @return parsed id, returns {@code -1} if the specified id is not a non-negative number
+     */
+    private static long parse(final String id) {
+        if (null == id || id.isEmpty() || id.length() > 18) {
+            return -1;
+        }
+
+        for (int i = 0; i < id.length(); i++) {
+            final char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+
+        return Long.parseLong(id);
+    }
+}
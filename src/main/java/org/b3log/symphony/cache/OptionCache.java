@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Named;
+import org.b3log.latke.Keys;
+import org.b3log.symphony.model.Option;
+import org.json.JSONObject;
+
+/**
+ * Option cache.
+ *
+ * <p>
+ * The option table is small and rarely changes, so all options are held in memory once
+ * {@link #load(java.util.Collection) loaded}. The cached options are read-only and shared by all readers.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Named
+public class OptionCache {
+
+    /**
+     * Options, &lt;oId, option&gt;, replaced as a whole on {@link #load(java.util.Collection) load}.
+     */
+    private static volatile Map<String, JSONObject> options = new ConcurrentHashMap<String, JSONObject>();
+
+    /**
+     * Whether the options have been loaded.
+     */
+    private static volatile boolean loaded;
+
+    /**
+     * Determines whether the options have been loaded.
+     *
+     * @return {@code true} if loaded, returns {@code false} otherwise
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Replaces all cached options with the specified options.
+     *
+     * @param allOptions the specified options
+     */
+    public synchronized void load(final Collection<JSONObject> allOptions) {
+        final Map<String, JSONObject> newOptions = new ConcurrentHashMap<String, JSONObject>();
+        for (final JSONObject option : allOptions) {
+            newOptions.put(option.optString(Keys.OBJECT_ID), new ReadOnlyJSONObject(option));
+        }
+
+        options = newOptions;
+        loaded = true;
+    }
+
+    /**
+     * Gets an option by the specified option id.
+     *
+     * @param optionId the specified option id
+     * @return option (read-only), returns {@code null} if not found
+     */
+    public JSONObject getOption(final String optionId) {
+        return options.get(optionId);
+    }
+
+    /**
+     * Gets options by the specified category.
+     *
+     * @param category the specified category
+     * @return options (read-only), returns an empty list if not found
+     */
+    public List<JSONObject> getOptions(final String category) {
+        final List<JSONObject> ret = new ArrayList<JSONObject>();
+        for (final JSONObject option : options.values()) {
+            if (category.equals(option.optString(Option.OPTION_CATEGORY))) {
+                ret.add(option);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Adds or updates the specified option.
+     *
+     * @param option the specified option
+     */
+    public synchronized void putOption(final JSONObject option) {
+        options.put(option.optString(Keys.OBJECT_ID), new ReadOnlyJSONObject(option));
+    }
+
+    /**
+     * Removes an option specified by the given option id.
+     *
+     * @param optionId the given option id
+     */
+    public synchronized void removeOption(final String optionId) {
+        options.remove(optionId);
+    }
+}
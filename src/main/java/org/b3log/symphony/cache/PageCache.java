@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.inject.Named;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.b3log.symphony.util.Symphonys;
+
+/**
+ * Page cache.
+ *
+ * <p>
+ * Caches the rendered pages served to anonymous readers, gzip compressed, in a bounded {@link SLRUCache} (max size
+ * {@code cache.page.maxSize}, time to live {@code cache.page.ttl} seconds). The time to live should be short, since
+ * a page also shows values changing without any write (article heat, online member count for example).
+ * </p>
+ *
+ * <p>
+ * A key is the URI followed by the parameters ({@code uri?params}), the keys of each URI are indexed, so a write
+ * removes only the pages of the URIs it affects, see {@link #removeArticlePages(java.lang.String)}.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Named
+public class PageCache {
+
+    /**
+     * Keys of the cached pages by URI, &lt;uri, keys&gt;, guarded by itself.
+     */
+    private static final Map<String, Set<String>> URI_KEYS = new HashMap<String, Set<String>>();
+
+    /**
+     * Pages, &lt;key, page&gt;.
+     */
+    private static final SLRUCache<Page> PAGES = new SLRUCache<Page>(
+            Symphonys.getInt("cache.page.maxSize"), Symphonys.getLong("cache.page.ttl") * 1000) {
+        @Override
+        protected void onRemoval(final String key, final Page value) {
+            unindex(key);
+        }
+    };
+
+    /**
+     * Gets a page by the specified key.
+     *
+     * @param key the specified key
+     * @return page, returns {@code null} if not found
+     */
+    public Page getPage(final String key) {
+        return PAGES.get(key);
+    }
+
+    /**
+     * Puts a page with the specified key, content type and content.
+     *
+     * @param key the specified key, {@code uri?params}
+     * @param contentType the specified content type
+     * @param content the specified content (not compressed)
+     * @throws IOException io exception
+     */
+    public void putPage(final String key, final String contentType, final byte[] content) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(content.length / 4 + 64);
+        final GZIPOutputStream gzip = new GZIPOutputStream(buffer);
+        gzip.write(content);
+        gzip.close();
+
+        final Page page = new Page(contentType, buffer.toByteArray());
+        final String uri = StringUtils.substringBefore(key, "?");
+        synchronized (URI_KEYS) { // Indexed with the put, a concurrent removal of the URI can not miss it
+            Set<String> keys = URI_KEYS.get(uri);
+            if (null == keys) {
+                keys = new HashSet<String>();
+                URI_KEYS.put(uri, keys);
+            }
+            keys.add(key);
+
+            PAGES.put(key, page);
+        }
+    }
+
+    /**
+     * Removes the pages (all page numbers and skins) of the specified URIs.
+     *
+     * @param uris the specified URIs, for example "/recent"
+     */
+    public void removePages(final String... uris) {
+        synchronized (URI_KEYS) {
+            for (final String uri : uris) {
+                final Set<String> keys = URI_KEYS.remove(uri);
+                if (null == keys) {
+                    continue;
+                }
+
+                for (final String key : keys) {
+                    PAGES.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the pages showing the comments, votes and counts of an article specified by the given article id, the
+     * article page, the index and the recent page.
+     *
+     * <p>
+     * The other pages listing the article (tags for example) are refreshed on expiration.
+     * </p>
+     *
+     * @param articleId the given article id
+     */
+    public void removeArticlePages(final String articleId) {
+        removePages("/article/" + articleId, "/", "/recent");
+    }
+
+    /**
+     * Removes all pages.
+     */
+    public void clear() {
+        synchronized (URI_KEYS) {
+            URI_KEYS.clear();
+            PAGES.clear();
+        }
+    }
+
+    /**
+     * Gets the hit count of page lookups.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return PAGES.getHitCount();
+    }
+
+    /**
+     * Gets the miss count of page lookups.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return PAGES.getMissCount();
+    }
+
+    /**
+     * Removes the specified key of an evicted or expired page from the index.
+     *
+     * @param key the specified key
+     */
+    private static void unindex(final String key) {
+        final String uri = StringUtils.substringBefore(key, "?");
+        synchronized (URI_KEYS) {
+            final Set<String> keys = URI_KEYS.get(uri);
+            if (null != keys && keys.remove(key) && keys.isEmpty()) {
+                URI_KEYS.remove(uri);
+            }
+        }
+    }
+
+    /**
+     * Cached page.
+     */
+    public static final class Page {
+
+        /**
+         * Content type.
+         */
+        private final String contentType;
+
+        /**
+         * Gzip compressed content.
+         */
+        private final byte[] compressedContent;
+
+        /**
+         * Constructs a page with the specified content type and compressed content.
+         *
+         * @param contentType the specified content type
+         * @param compressedContent the specified compressed content
+         */
+        private Page(final String contentType, final byte[] compressedContent) {
+            this.contentType = contentType;
+            this.compressedContent = compressedContent;
+        }
+
+        /**
+         * Gets the content type.
+         *
+         * @return content type
+         */
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Gets the gzip compressed content.
+         *
+         * @return compressed content, shared, must not be modified
+         */
+        public byte[] getCompressedContent() {
+            return compressedContent;
+        }
+
+        /**
+         * Gets the content (decompressed).
+         *
+         * @return content
+         * @throws IOException io exception
+         */
+        public byte[] getContent() throws IOException {
+            final GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressedContent));
+            try {
+                return IOUtils.toByteArray(gzip);
+            } finally {
+                gzip.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import org.b3log.symphony.util.JSONs;
+import org.json.JSONObject;
+
+/**
+ * Read-only copy of a JSON object, shared by the readers of a cache.
+ *
+ * <p>
+ * Top level modifications throw {@link UnsupportedOperationException}, the values are expected to be immutable (strings,
+ * numbers and booleans).
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.1, Oct 16, 2026
+ * @since 1.4.0
+ */
+final class ReadOnlyJSONObject extends JSONObject {
+
+    /**
+     * Whether this object has been frozen.
+     */
+    private final boolean frozen;
+
+    /**
+     * Constructs a read-only copy of the specified object.
+     *
+     * @param src the specified object
+     */
+    ReadOnlyJSONObject(final JSONObject src) {
+        super(src, JSONs.getNames(src));
+
+        frozen = true;
+    }
+
+    @Override
+    public JSONObject put(final String key, final Object value) {
+        if (frozen) {
+            throw new UnsupportedOperationException("Cached object is read-only");
+        }
+
+        return super.put(key, value);
+    }
+
+    @Override
+    public Object remove(final String key) {
+        if (frozen) {
+            throw new UnsupportedOperationException("Cached object is read-only");
+        }
+
+        return super.remove(key);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rendered content cache.
+ *
+ * <p>
+ * A least recently used map from an object id to the rendered contents (for example the HTML of an article) of the
+ * object. Each entry carries a version (for example the update time of the article), a lookup with a different
+ * version misses. The cache is bounded both by entry count and by the total length of the cached contents.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public final class RenderCache {
+
+    /**
+     * Entries, in access order.
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    /**
+     * Max entry count.
+     */
+    private final int maxEntries;
+
+    /**
+     * Max total length of the cached contents.
+     */
+    private final long maxWeight;
+
+    /**
+     * Total length of the cached contents.
+     */
+    private long weight;
+
+    /**
+     * Constructs a render cache with the specified max entry count and max total content length.
+     *
+     * @param maxEntries the specified max entry count
+     * @param maxWeight the specified max total content length
+     */
+    public RenderCache(final int maxEntries, final long maxWeight) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Gets the rendered contents of an object specified by the given id and version.
+     *
+     * @param id the given id
+     * @param version the given version
+     * @return rendered contents, returns {@code null} if not found or the cached version is stale
+     */
+    public synchronized String[] get(final String id, final long version) {
+        final Entry entry = entries.get(id);
+        if (null == entry || version != entry.version) {
+            return null;
+        }
+
+        return entry.contents.clone();
+    }
+
+    /**
+     * Puts the rendered contents of an object specified by the given id and version.
+     *
+     * @param id the given id
+     * @param version the given version
+     * @param contents the rendered contents
+     */
+    public synchronized void put(final String id, final long version, final String... contents) {
+        final Entry entry = new Entry(version, contents.clone());
+        if (entry.weight > maxWeight) {
+            remove(id);
+
+            return;
+        }
+
+        final Entry old = entries.put(id, entry);
+        if (null != old) {
+            weight -= old.weight;
+        }
+        weight += entry.weight;
+
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && iterator.hasNext()) {
+            final Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            weight -= eldest.weight;
+        }
+    }
+
+    /**
+     * Removes the rendered contents of an object specified by the given id.
+     *
+     * @param id the given id
+     */
+    public synchronized void remove(final String id) {
+        final Entry old = entries.remove(id);
+        if (null != old) {
+            weight -= old.weight;
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Computes a 64-bit (FNV-1a) hash of the specified content, may be used as the version of the content.
+     *
+     * @param content the specified content
+     * @return hash
+     */
+    public static long hash(final String content) {
+        long ret = 0xcbf29ce484222325L;
+        for (int i = 0; i < content.length(); i++) {
+            ret ^= content.charAt(i);
+            ret *= 0x100000001b3L;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets the entry count.
+     *
+     * @return entry count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Cache entry.
+     */
+    private static final class Entry {
+
+        /**
+         * Version.
+         */
+        private final long version;
+
+        /**
+         * Rendered contents.
+         */
+        private final String[] contents;
+
+        /**
+         * Total length of the contents.
+         */
+        private final long weight;
+
+        /**
+         * Constructs an entry with the specified version and contents.
+         *
+         * @param version the specified version
+         * @param contents the specified contents
+         */
+        private Entry(final long version, final String[] contents) {
+            this.version = version;
+            this.contents = contents;
+
+            long w = 0;
+            for (final String content : contents) {
+                if (null != content) {
+                    w += content.length();
+                }
+            }
+            this.weight = w;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, thread-safe <a href="https://en.wikipedia.org/wiki/Cache_replacement_policies#Segmented_LRU_(SLRU)">
+ * segmented LRU</a> cache.
+ *
+ * <p>
+ * A new entry enters the probationary segment, it is promoted to the protected segment (80% of the capacity) on its
+ * second access, so one-off lookups (crawlers, a user list page) do not flush the frequently used entries. The keys
+ * are spread over lock stripes, each stripe is an independent segmented LRU with a share of the capacity. Entries
+ * expire after the specified time to live since they were put.
+ * </p>
+ *
+ * <p>
+ * Hit, miss and eviction (including expiration) counts are kept for monitoring.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ * @param <V> the type of values
+ */
+public class SLRUCache<V> {
+
+    /**
+     * Stripe count, a power of 2.
+     */
+    private static final int STRIPE_CNT = 16;
+
+    /**
+     * Ratio of the protected segment in the capacity of a stripe.
+     */
+    private static final double PROTECTED_RATIO = 0.8;
+
+    /**
+     * Stripes.
+     */
+    private final Stripe<V>[] stripes;
+
+    /**
+     * Time to live in milliseconds, 0 means never expire.
+     */
+    private final long ttl;
+
+    /**
+     * Hit count.
+     */
+    private final AtomicLong hitCnt = new AtomicLong();
+
+    /**
+     * Miss count.
+     */
+    private final AtomicLong missCnt = new AtomicLong();
+
+    /**
+     * Eviction count.
+     */
+    private final AtomicLong evictionCnt = new AtomicLong();
+
+    /**
+     * Constructs a cache with the specified max entry count and time to live.
+     *
+     * @param maxEntries the specified max entry count
+     * @param ttl the specified time to live in milliseconds, 0 means never expire
+     */
+    @SuppressWarnings("unchecked")
+    public SLRUCache(final int maxEntries, final long ttl) {
+        this.ttl = ttl;
+
+        final int stripeCapacity = Math.max(1, (maxEntries + STRIPE_CNT - 1) / STRIPE_CNT);
+        stripes = new Stripe[STRIPE_CNT];
+        for (int i = 0; i < STRIPE_CNT; i++) {
+            stripes[i] = new Stripe<V>(stripeCapacity);
+        }
+    }
+
+    /**
+     * Gets the value specified by the given key.
+     *
+     * @param key the given key
+     * @return value, returns {@code null} if not found or expired
+     */
+    public V get(final String key) {
+        final Stripe<V> stripe = stripeFor(key);
+
+        final V ret;
+        Entry<V> expired = null;
+        synchronized (stripe) {
+            final Entry<V> entry = stripe.get(key);
+            if (null != entry && entry.isExpired(System.currentTimeMillis())) {
+                stripe.remove(key);
+                expired = entry;
+                ret = null;
+            } else {
+                ret = null == entry ? null : entry.value;
+            }
+        }
+
+        if (null != expired) {
+            evictionCnt.incrementAndGet();
+            onRemoval(key, expired.value);
+        }
+
+        if (null == ret) {
+            missCnt.incrementAndGet();
+        } else {
+            hitCnt.incrementAndGet();
+        }
+
+        return ret;
+    }
+
+    /**
+     * Puts the specified value with the given key.
+     *
+     * @param key the given key
+     * @param value the specified value
+     * @return the previous value, returns {@code null} if not found or expired
+     */
+    public V put(final String key, final V value) {
+        final Stripe<V> stripe = stripeFor(key);
+        final Entry<V> entry = new Entry<V>(value, 0 < ttl ? System.currentTimeMillis() + ttl : Long.MAX_VALUE);
+
+        final Entry<V> old;
+        final List<Map.Entry<String, Entry<V>>> evicted = new ArrayList<Map.Entry<String, Entry<V>>>(1);
+        synchronized (stripe) {
+            old = stripe.put(key, entry, evicted);
+        }
+
+        for (final Map.Entry<String, Entry<V>> eviction : evicted) {
+            evictionCnt.incrementAndGet();
+            onRemoval(eviction.getKey(), eviction.getValue().value);
+        }
+
+        if (null == old || old.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+
+        return old.value;
+    }
+
+    /**
+     * Removes the value specified by the given key.
+     *
+     * @param key the given key
+     * @return the removed value, returns {@code null} if not found or expired
+     */
+    public V remove(final String key) {
+        final Stripe<V> stripe = stripeFor(key);
+
+        final Entry<V> old;
+        synchronized (stripe) {
+            old = stripe.remove(key);
+        }
+
+        if (null == old || old.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+
+        return old.value;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        for (final Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.probation.clear();
+                stripe.protect.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the entry count, expired entries not removed yet included.
+     *
+     * @return entry count
+     */
+    public int size() {
+        int ret = 0;
+        for (final Stripe<V> stripe : stripes) {
+            synchronized (stripe) {
+                ret += stripe.probation.size() + stripe.protect.size();
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets the hit count.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCnt.get();
+    }
+
+    /**
+     * Gets the miss count.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCnt.get();
+    }
+
+    /**
+     * Gets the eviction count, expirations included.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return evictionCnt.get();
+    }
+
+    /**
+     * Records a miss of a lookup not reaching {@link #get(java.lang.String)}, for example, a lookup by a secondary
+     * index.
+     */
+    void recordMiss() {
+        missCnt.incrementAndGet();
+    }
+
+    /**
+     * Invoked after an entry has been evicted or has expired, does nothing by default.
+     *
+     * @param key the key of the entry
+     * @param value the value of the entry
+     */
+    protected void onRemoval(final String key, final V value) {
+    }
+
+    /**
+     * Gets the stripe of the specified key.
+     *
+     * @param key the specified key
+     * @return stripe
+     */
+    private Stripe<V> stripeFor(final String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+
+        return stripes[h & (STRIPE_CNT - 1)];
+    }
+
+    /**
+     * Cache entry.
+     *
+     * @param <V> the type of value
+     */
+    private static final class Entry<V> {
+
+        /**
+         * Value.
+         */
+        private final V value;
+
+        /**
+         * Expire time.
+         */
+        private final long expireTime;
+
+        /**
+         * Constructs an entry with the specified value and expire time.
+         *
+         * @param value the specified value
+         * @param expireTime the specified expire time
+         */
+        private Entry(final V value, final long expireTime) {
+            this.value = value;
+            this.expireTime = expireTime;
+        }
+
+        /**
+         * Determines whether this entry has expired at the specified time.
+         *
+         * @param now the specified time
+         * @return {@code true} if it has expired, returns {@code false} otherwise
+         */
+        private boolean isExpired(final long now) {
+            return now >= expireTime;
+        }
+    }
+
+    /**
+     * A segmented LRU guarded by its own monitor.
+     *
+     * @param <V> the type of values
+     */
+    private static final class Stripe<V> {
+
+        /**
+         * Probationary segment, in access order.
+         */
+        private final LinkedHashMap<String, Entry<V>> probation = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true);
+
+        /**
+         * Protected segment, in access order.
+         */
+        private final LinkedHashMap<String, Entry<V>> protect = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true);
+
+        /**
+         * Capacity.
+         */
+        private final int capacity;
+
+        /**
+         * Capacity of the protected segment.
+         */
+        private final int protectCapacity;
+
+        /**
+         * Constructs a stripe with the specified capacity.
+         *
+         * @param capacity the specified capacity
+         */
+        private Stripe(final int capacity) {
+            this.capacity = capacity;
+            this.protectCapacity = Math.max(1, (int) (capacity * PROTECTED_RATIO));
+        }
+
+        /**
+         * Gets the entry specified by the given key, promotes it to the protected segment if it is in the
+         * probationary segment.
+         *
+         * @param key the given key
+         * @return entry, returns {@code null} if not found
+         */
+        private Entry<V> get(final String key) {
+            Entry<V> ret = protect.get(key);
+            if (null != ret) {
+                return ret;
+            }
+
+            ret = probation.remove(key);
+            if (null == ret) {
+                return null;
+            }
+
+            protect.put(key, ret);
+            if (protect.size() > protectCapacity) { // Demotes the least recently used protected entry
+                final Iterator<Map.Entry<String, Entry<V>>> iterator = protect.entrySet().iterator();
+                final Map.Entry<String, Entry<V>> eldest = iterator.next();
+                iterator.remove();
+                probation.put(eldest.getKey(), eldest.getValue());
+            }
+
+            return ret;
+        }
+
+        /**
+         * Puts the specified entry with the given key, an existing entry keeps its segment.
+         *
+         * @param key the given key
+         * @param entry the specified entry
+         * @param evicted the entries evicted to make room
+         * @return the previous entry, returns {@code null} if not found
+         */
+        private Entry<V> put(final String key, final Entry<V> entry, final List<Map.Entry<String, Entry<V>>> evicted) {
+            if (protect.containsKey(key)) {
+                return protect.put(key, entry);
+            }
+
+            final Entry<V> ret = probation.put(key, entry);
+            if (null != ret) {
+                return ret;
+            }
+
+            while (probation.size() + protect.size() > capacity) {
+                final LinkedHashMap<String, Entry<V>> segment = probation.isEmpty() ? protect : probation;
+                final Iterator<Map.Entry<String, Entry<V>>> iterator = segment.entrySet().iterator();
+                final Map.Entry<String, Entry<V>> eldest = iterator.next();
+                iterator.remove();
+                evicted.add(eldest);
+            }
+
+            return null;
+        }
+
+        /**
+         * Removes the entry specified by the given key.
+         *
+         * @param key the given key
+         * @return the removed entry, returns {@code null} if not found
+         */
+        private Entry<V> remove(final String key) {
+            final Entry<V> ret = probation.remove(key);
+            if (null != ret) {
+                return ret;
+            }
+
+            return protect.remove(key);
+        }
+    }
+}
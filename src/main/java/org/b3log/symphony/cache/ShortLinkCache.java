@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import javax.inject.Named;
+
+/**
+ * Short link cache.
+ *
+ * <p>
+ * Caches article id &rarr; article title and tag title &rarr; tag title (as stored) mappings used to resolve short
+ * links. A resolved value of {@code ""} means the article or tag does not exist.
+ * </p>
+ *
+ * <p>
+ * Tag titles are matched case-insensitively by the repository, so they are keyed by their lower case.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Named
+public class ShortLinkCache {
+
+    /**
+     * Max count of cached article titles.
+     */
+    private static final int MAX_ARTICLE_CNT = 4096;
+
+    /**
+     * Max count of cached tag titles.
+     */
+    private static final int MAX_TAG_CNT = 4096;
+
+    /**
+     * Article titles, &lt;articleId, articleTitle&gt;.
+     */
+    private static final SLRUCache<String> ARTICLE_TITLES = new SLRUCache<String>(MAX_ARTICLE_CNT, 0);
+
+    /**
+     * Tag titles, &lt;tagTitle(lower case), tagTitle(as stored)&gt;.
+     */
+    private static final SLRUCache<String> TAG_TITLES = new SLRUCache<String>(MAX_TAG_CNT, 0);
+
+    /**
+     * Gets the title of an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     * @return article title, returns {@code ""} if the article does not exist, returns {@code null} if not cached
+     */
+    public String getArticleTitle(final String articleId) {
+        return ARTICLE_TITLES.get(articleId);
+    }
+
+    /**
+     * Puts the title of an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     * @param articleTitle the specified article title, {@code ""} if the article does not exist
+     */
+    public void putArticleTitle(final String articleId, final String articleTitle) {
+        ARTICLE_TITLES.put(articleId, articleTitle);
+    }
+
+    /**
+     * Removes the title of an article specified by the given article id.
+     *
+     * @param articleId the given article id
+     */
+    public void removeArticleTitle(final String articleId) {
+        ARTICLE_TITLES.remove(articleId);
+    }
+
+    /**
+     * Gets the stored title of a tag specified by the given tag title.
+     *
+     * @param tagTitle the given tag title
+     * @return stored tag title, returns {@code ""} if the tag does not exist, returns {@code null} if not cached
+     */
+    public String getTagTitle(final String tagTitle) {
+        return TAG_TITLES.get(tagTitle.toLowerCase());
+    }
+
+    /**
+     * Puts the stored title of a tag specified by the given tag title.
+     *
+     * @param tagTitle the given tag title
+     * @param storedTagTitle the specified stored tag title, {@code ""} if the tag does not exist
+     */
+    public void putTagTitle(final String tagTitle, final String storedTagTitle) {
+        TAG_TITLES.put(tagTitle.toLowerCase(), storedTagTitle);
+    }
+
+    /**
+     * Removes the tag specified by the given tag title.
+     *
+     * @param tagTitle the given tag title
+     */
+    public void removeTagTitle(final String tagTitle) {
+        TAG_TITLES.remove(tagTitle.toLowerCase());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.inject.Named;
+
+/**
+ * Statistic cache.
+ *
+ * <p>
+ * Holds the deltas of statistic options (article count, comment count, tag count, city article counts) not yet
+ * written to the option table. Adding articles, tags and comments only add deltas here, the deltas are flushed
+ * periodically, see {@link org.b3log.symphony.service.OptionMgmtService#flushStatistic()}.
+ * </p>
+ *
+ * <p>
+ * A statistic value is the cached option value plus the pending delta. A flush updates the cached options and
+ * subtracts the flushed deltas under the {@link #writeLock() write lock}, readers summing both hold the
+ * {@link #readLock() read lock}, so a flushed delta is never counted twice (or not at all).
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Named
+public class StatisticCache {
+
+    /**
+     * Pending deltas, &lt;optionId, delta&gt;.
+     */
+    private static final ConcurrentMap<String, Delta> DELTAS = new ConcurrentHashMap<String, Delta>();
+
+    /**
+     * Guards reading the cached statistic options together with the pending deltas against flushes.
+     */
+    private static final ReadWriteLock LOCK = new ReentrantReadWriteLock();
+
+    /**
+     * Gets the lock held while reading the cached statistic options together with the pending deltas.
+     *
+     * @return read lock
+     */
+    public Lock readLock() {
+        return LOCK.readLock();
+    }
+
+    /**
+     * Gets the lock held while applying a flush to the cached statistic options and the pending deltas.
+     *
+     * @return write lock
+     */
+    public Lock writeLock() {
+        return LOCK.writeLock();
+    }
+
+    /**
+     * Adds the specified delta to a statistic option specified by the given option id.
+     *
+     * @param optionId the given option id
+     * @param category the category of the option, used if the option has to be created on flush
+     * @param delta the specified delta
+     */
+    public void add(final String optionId, final String category, final long delta) {
+        Delta d = DELTAS.get(optionId);
+        if (null == d) {
+            final Delta newDelta = new Delta(category);
+            d = DELTAS.putIfAbsent(optionId, newDelta);
+            if (null == d) {
+                d = newDelta;
+            }
+        }
+
+        d.value.addAndGet(delta);
+    }
+
+    /**
+     * Gets the pending delta of a statistic option specified by the given option id.
+     *
+     * @param optionId the given option id
+     * @return pending delta, returns {@code 0} if none
+     */
+    public long getDelta(final String optionId) {
+        final Delta d = DELTAS.get(optionId);
+
+        return null == d ? 0 : d.value.get();
+    }
+
+    /**
+     * Gets the category of a statistic option specified by the given option id.
+     *
+     * @param optionId the given option id
+     * @return category, returns {@code null} if no delta has been added to the option
+     */
+    public String getCategory(final String optionId) {
+        final Delta d = DELTAS.get(optionId);
+
+        return null == d ? null : d.category;
+    }
+
+    /**
+     * Gets a snapshot of all non-zero pending deltas.
+     *
+     * @return pending deltas, &lt;optionId, delta&gt;
+     */
+    public Map<String, Long> getDeltas() {
+        final Map<String, Long> ret = new HashMap<String, Long>();
+        for (final Map.Entry<String, Delta> entry : DELTAS.entrySet()) {
+            final long value = entry.getValue().value.get();
+            if (0 != value) {
+                ret.put(entry.getKey(), value);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Subtracts the specified flushed delta from a statistic option specified by the given option id, deltas added
+     * since the snapshot are kept.
+     *
+     * @param optionId the given option id
+     * @param delta the specified flushed delta
+     */
+    public void subtract(final String optionId, final long delta) {
+        final Delta d = DELTAS.get(optionId);
+        if (null != d) {
+            d.value.addAndGet(-delta);
+        }
+    }
+
+    /**
+     * Pending delta of a statistic option.
+     */
+    private static final class Delta {
+
+        /**
+         * Category of the option.
+         */
+        private final String category;
+
+        /**
+         * Value.
+         */
+        private final AtomicLong value = new AtomicLong();
+
+        /**
+         * Constructs a delta with the specified category.
+         *
+         * @param category the specified category
+         */
+        private Delta(final String category) {
+            this.category = category;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.inject.Named;
+import org.b3log.latke.Keys;
+import org.b3log.symphony.model.Tag;
+import org.b3log.symphony.util.Symphonys;
+import org.json.JSONObject;
+
+/**
+ * Tag cache.
+ *
+ * <p>
+ * Tags are cached in a bounded {@link SLRUCache} by id (max size {@code cache.tag.maxSize}, time to live
+ * {@code cache.tag.ttl} seconds), a secondary index maps tag titles (lower case, as the repository compares titles
+ * case-insensitively) to ids. The cached tags are read-only and shared by all readers.
+ * </p>
+ *
+ * <p>
+ * The ids of the tags may be picked randomly (with icon) are held in an {@link IdPool}.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.2.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Named
+public class TagCache {
+
+    /**
+     * Lock stripe count, a power of 2.
+     */
+    private static final int LOCK_CNT = 64;
+
+    /**
+     * Locks guarding the updates of the indices.
+     */
+    private static final Object[] LOCKS = new Object[LOCK_CNT];
+
+    static {
+        for (int i = 0; i < LOCK_CNT; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    /**
+     * Title (lower case), Id.
+     */
+    private static final ConcurrentMap<String, String> TITLE_INDEX = new ConcurrentHashMap<String, String>();
+
+    /**
+     * Id, Tag.
+     */
+    private static final SLRUCache<JSONObject> ID_CACHE = new SLRUCache<JSONObject>(
+            Symphonys.getInt("cache.tag.maxSize"), Symphonys.getLong("cache.tag.ttl") * 1000) {
+        @Override
+        protected void onRemoval(final String key, final JSONObject value) {
+            TITLE_INDEX.remove(value.optString(Tag.TAG_TITLE).toLowerCase(), key);
+        }
+    };
+
+    /**
+     * Max count of tags with rendered descriptions.
+     */
+    private static final int MAX_DESCRIPTION_CNT = 4096;
+
+    /**
+     * Max total length of rendered tag descriptions.
+     */
+    private static final long MAX_DESCRIPTION_WEIGHT = 4 * 1024 * 1024;
+
+    /**
+     * Rendered tag descriptions (description HTML, description text), versioned by the hash of the description.
+     */
+    private static final RenderCache DESCRIPTION_CACHE = new RenderCache(MAX_DESCRIPTION_CNT, MAX_DESCRIPTION_WEIGHT);
+
+    /**
+     * Ids of the tags may be picked randomly.
+     */
+    private static final IdPool RANDOM_IDS = new IdPool();
+
+    /**
+     * Gets a tag by the specified tag id.
+     *
+     * @param tagId the specified tag id
+     * @return tag (read-only), returns {@code null} if not found
+     */
+    public JSONObject getTag(final String tagId) {
+        return ID_CACHE.get(tagId);
+    }
+
+    /**
+     * Gets a tag by the specified tag title.
+     *
+     * @param tagTitle the specified tag title, case-insensitive
+     * @return tag (read-only), returns {@code null} if not found
+     */
+    public JSONObject getTagByTitle(final String tagTitle) {
+        final String title = tagTitle.toLowerCase();
+        final String tagId = TITLE_INDEX.get(title);
+        if (null == tagId) {
+            ID_CACHE.recordMiss();
+
+            return null;
+        }
+
+        final JSONObject ret = ID_CACHE.get(tagId);
+        if (null == ret || !title.equals(ret.optString(Tag.TAG_TITLE).toLowerCase())) {
+            TITLE_INDEX.remove(title, tagId); // Stale mapping
+
+            return null;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Adds or updates the specified tag.
+     *
+     * <p>
+     * The id index and the title index are updated atomically with respect to other updates of the same tag, the old
+     * title of a renamed tag is removed from the title index.
+     * </p>
+     *
+     * @param tag the specified tag
+     */
+    public void putTag(final JSONObject tag) {
+        final String tagId = tag.optString(Keys.OBJECT_ID);
+        final JSONObject snapshot = new ReadOnlyJSONObject(tag);
+        final String title = snapshot.optString(Tag.TAG_TITLE).toLowerCase();
+
+        synchronized (lockFor(tagId)) {
+            final JSONObject old = ID_CACHE.put(tagId, snapshot);
+            if (null != old) {
+                final String oldTitle = old.optString(Tag.TAG_TITLE).toLowerCase();
+                if (!oldTitle.equals(title)) {
+                    TITLE_INDEX.remove(oldTitle, tagId);
+                }
+            }
+
+            TITLE_INDEX.put(title, tagId);
+        }
+    }
+
+    /**
+     * Removes a tag specified by the given tag id.
+     *
+     * @param tagId the given tag id
+     */
+    public void removeTag(final String tagId) {
+        synchronized (lockFor(tagId)) {
+            final JSONObject old = ID_CACHE.remove(tagId);
+            if (null != old) {
+                TITLE_INDEX.remove(old.optString(Tag.TAG_TITLE).toLowerCase(), tagId);
+            }
+        }
+    }
+
+    /**
+     * Gets the ids of the tags may be picked randomly (with icon).
+     *
+     * @return random tag id pool
+     */
+    public IdPool getRandomIds() {
+        return RANDOM_IDS;
+    }
+
+    /**
+     * Gets the hit count of tag lookups.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return ID_CACHE.getHitCount();
+    }
+
+    /**
+     * Gets the miss count of tag lookups.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return ID_CACHE.getMissCount();
+    }
+
+    /**
+     * Gets the eviction count of tags, expirations included.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return ID_CACHE.getEvictionCount();
+    }
+
+    /**
+     * Gets the rendered description of a tag specified by the given tag id and description.
+     *
+     * @param tagId the given tag id
+     * @param description the given description (markdown)
+     * @return rendered description, [descriptionHTML, descriptionText], returns {@code null} if not found
+     */
+    public String[] getTagDescription(final String tagId, final String description) {
+        return DESCRIPTION_CACHE.get(tagId, RenderCache.hash(description));
+    }
+
+    /**
+     * Puts the rendered description of a tag specified by the given tag id and description.
+     *
+     * @param tagId the given tag id
+     * @param description the given description (markdown)
+     * @param descriptionHTML the rendered description HTML
+     * @param descriptionText the plain text of the description
+     */
+    public void putTagDescription(final String tagId, final String description,
+            final String descriptionHTML, final String descriptionText) {
+        DESCRIPTION_CACHE.put(tagId, RenderCache.hash(description), descriptionHTML, descriptionText);
+    }
+
+    /**
+     * Removes the rendered description of a tag specified by the given tag id.
+     *
+     * @param tagId the given tag id
+     */
+    public void removeTagDescription(final String tagId) {
+        DESCRIPTION_CACHE.remove(tagId);
+    }
+
+    /**
+     * Gets the lock of the specified tag id.
+     *
+     * @param tagId the specified tag id
+     * @return lock
+     */
+    private static Object lockFor(final String tagId) {
+        int h = tagId.hashCode();
+        h ^= (h >>> 16);
+
+        return LOCKS[h & (LOCK_CNT - 1)];
+    }
+}
@@ -15,71 +15,316 @@
  */
 package org.b3log.symphony.cache;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.inject.Named;
 import org.b3log.latke.Keys;
 import org.b3log.latke.model.User;
-import org.b3log.symphony.util.JSONs;
+import org.b3log.symphony.model.UserExt;
+import org.b3log.symphony.util.Symphonys;
 import org.json.JSONObject;
 
 /**
  * User cache.
  *
+ * <p>
+ * Users are cached in a bounded {@link SLRUCache} by id (max size {@code cache.user.maxSize}, time to live
+ * {@code cache.user.ttl} seconds), secondary indices map user names and emails (lower case) to ids. The cached users
+ * are immutable snapshots which are shared by all readers, the getters return them without copying, callers intend to
+ * modify a user must clone it (see {@link org.b3log.symphony.util.JSONs#clone(org.json.JSONObject)}) first.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.1, Apr 20, 2016
+ * @version 2.3.0.0, Oct 16, 2026
  * @since 1.4.0
  */
 @Named
 public class UserCache {
 
+    /**
+     * Lock stripe count, a power of 2.
+     */
+    private static final int LOCK_CNT = 64;
+
+    /**
+     * Locks guarding the updates of the indices.
+     */
+    private static final Object[] LOCKS = new Object[LOCK_CNT];
+
+    static {
+        for (int i = 0; i < LOCK_CNT; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    /**
+     * Name, Id.
+     */
+    private static final ConcurrentMap<String, String> NAME_INDEX = new ConcurrentHashMap<String, String>();
+
+    /**
+     * Email (lower case), Id.
+     */
+    private static final ConcurrentMap<String, String> EMAIL_INDEX = new ConcurrentHashMap<String, String>();
+
     /**
      * Id, User.
      */
-    private static final Map<String, JSONObject> ID_CACHE = new HashMap<String, JSONObject>();
+    private static final SLRUCache<JSONObject> ID_CACHE = new SLRUCache<JSONObject>(
+            Symphonys.getInt("cache.user.maxSize"), Symphonys.getLong("cache.user.ttl") * 1000) {
+        @Override
+        protected void onRemoval(final String key, final JSONObject value) {
+            NAME_INDEX.remove(value.optString(User.USER_NAME), key);
+            EMAIL_INDEX.remove(normalizeEmail(value.optString(User.USER_EMAIL)), key);
+        }
+    };
 
     /**
-     * Name, User.
+     * All user names (lower case), replaced as a whole on reload, see {@link #loadUserNames(java.util.Collection)}.
      */
-    private static final Map<String, JSONObject> NAME_CACHE = new HashMap<String, JSONObject>();
+    private static volatile Set<String> userNames = newUserNameSet();
 
     /**
      * Gets a user by the specified user id.
      *
      * @param userId the specified user id
-     * @return user, returns {@code null} if not found
+     * @return user (read-only), returns {@code null} if not found
      */
     public JSONObject getUser(final String userId) {
-        final JSONObject user = ID_CACHE.get(userId);
-        if (null == user) {
-            return null;
-        }
-
-        return JSONs.clone(user);
+        return ID_CACHE.get(userId);
     }
 
     /**
      * Gets a user by the specified user name.
      *
      * @param userName the specified user name
-     * @return user, returns {@code null} if not found
+     * @return user (read-only), returns {@code null} if not found
      */
     public JSONObject getUserByName(final String userName) {
-        final JSONObject user = NAME_CACHE.get(userName);
-        if (null == user) {
+        final String userId = NAME_INDEX.get(userName);
+        if (null == userId) {
+            ID_CACHE.recordMiss();
+
+            return null;
+        }
+
+        final JSONObject ret = ID_CACHE.get(userId);
+        if (null == ret || !userName.equals(ret.optString(User.USER_NAME))) {
+            NAME_INDEX.remove(userName, userId); // Stale mapping
+
+            return null;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets a user by the specified email.
+     *
+     * @param email the specified email, case-insensitive
+     * @return user (read-only), returns {@code null} if not found
+     */
+    public JSONObject getUserByEmail(final String email) {
+        final String normalizedEmail = normalizeEmail(email);
+        final String userId = EMAIL_INDEX.get(normalizedEmail);
+        if (null == userId) {
+            ID_CACHE.recordMiss();
+
+            return null;
+        }
+
+        final JSONObject ret = ID_CACHE.get(userId);
+        if (null == ret || !normalizedEmail.equals(normalizeEmail(ret.optString(User.USER_EMAIL)))) {
+            EMAIL_INDEX.remove(normalizedEmail, userId); // Stale mapping
+
             return null;
         }
 
-        return JSONs.clone(user);
+        return ret;
     }
 
     /**
      * Adds or updates the specified user.
      *
+     * <p>
+     * The id index, the name index and the email index are updated atomically with respect to other updates of the
+     * same user, the old name and email of a renamed user are removed from the indices.
+     * </p>
+     *
      * @param user the specified user
+     * @return the cached snapshot of the specified user
+     */
+    public JSONObject putUser(final JSONObject user) {
+        final String userId = user.optString(Keys.OBJECT_ID);
+        final JSONObject snapshot = new ReadOnlyJSONObject(user);
+        final String userName = snapshot.optString(User.USER_NAME);
+        final String email = normalizeEmail(snapshot.optString(User.USER_EMAIL));
+
+        synchronized (lockFor(userId)) {
+            final JSONObject old = ID_CACHE.put(userId, snapshot);
+            if (null != old) {
+                final String oldUserName = old.optString(User.USER_NAME);
+                if (!oldUserName.equals(userName)) {
+                    NAME_INDEX.remove(oldUserName, userId);
+                }
+
+                final String oldEmail = normalizeEmail(old.optString(User.USER_EMAIL));
+                if (!oldEmail.equals(email)) {
+                    EMAIL_INDEX.remove(oldEmail, userId);
+                }
+            }
+
+            NAME_INDEX.put(userName, userId);
+            EMAIL_INDEX.put(email, userId);
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Removes a user specified by the given user id.
+     *
+     * @param userId the given user id
+     */
+    public void removeUser(final String userId) {
+        synchronized (lockFor(userId)) {
+            final JSONObject old = ID_CACHE.remove(userId);
+            if (null != old) {
+                NAME_INDEX.remove(old.optString(User.USER_NAME), userId);
+                EMAIL_INDEX.remove(normalizeEmail(old.optString(User.USER_EMAIL)), userId);
+            }
+        }
+    }
+
+    /**
+     * Gets the hit count of user lookups.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return ID_CACHE.getHitCount();
+    }
+
+    /**
+     * Gets the miss count of user lookups.
+     *
+     * @return miss count
      */
-    public void putUser(final JSONObject user) {
-        ID_CACHE.put(user.optString(Keys.OBJECT_ID), JSONs.clone(user));
-        NAME_CACHE.put(user.optString(User.USER_NAME), JSONs.clone(user));
+    public long getMissCount() {
+        return ID_CACHE.getMissCount();
+    }
+
+    /**
+     * Gets the eviction count of users, expirations included.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return ID_CACHE.getEvictionCount();
+    }
+
+    /**
+     * Gets the count of cached users.
+     *
+     * @return count of cached users
+     */
+    public int getSize() {
+        return ID_CACHE.size();
+    }
+
+    /**
+     * Determines whether the specified user name (case-insensitive) is a name of an existing user.
+     *
+     * @param userName the specified user name
+     * @return {@code true} if it is, returns {@code false} otherwise
+     */
+    public boolean containsUserName(final String userName) {
+        return userNames.contains(userName.toLowerCase());
+    }
+
+    /**
+     * Adds the specified user name.
+     *
+     * @param userName the specified user name
+     */
+    public void putUserName(final String userName) {
+        userNames.add(userName.toLowerCase());
+    }
+
+    /**
+     * Replaces all user names with the specified user names, names of removed or renamed users not in the specified
+     * user names are dropped.
+     *
+     * @param names the specified user names, all user names loaded from the database
+     */
+    public void loadUserNames(final Collection<String> names) {
+        final Set<String> loaded = newUserNameSet();
+        for (final String name : names) {
+            loaded.add(name.toLowerCase());
+        }
+
+        userNames = loaded;
+    }
+
+    /**
+     * Renames the specified old user name to the specified new user name.
+     *
+     * @param oldUserName the specified old user name
+     * @param newUserName the specified new user name, may be {@link org.b3log.symphony.model.UserExt#NULL_USER_NAME}
+     * which is not added
+     */
+    public void renameUserName(final String oldUserName, final String newUserName) {
+        if (oldUserName.equals(newUserName)) {
+            return;
+        }
+
+        removeUserName(oldUserName);
+        if (!UserExt.NULL_USER_NAME.equals(newUserName)) {
+            putUserName(newUserName);
+        }
+    }
+
+    /**
+     * Removes the specified user name.
+     *
+     * @param userName the specified user name
+     */
+    public void removeUserName(final String userName) {
+        userNames.remove(userName.toLowerCase());
+    }
+
+    /**
+     * Creates an empty concurrent set of user names.
+     *
+     * @return set of user names
+     */
+    private static Set<String> newUserNameSet() {
+        return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    }
+
+    /**
+     * Normalizes the specified email for the email index.
+     *
+     * @param email the specified email
+     * @return normalized email
+     */
+    private static String normalizeEmail(final String email) {
+        return email.toLowerCase().trim();
+    }
+
+    /**
+     * Gets the lock of the specified user id.
+     *
+     * @param userId the specified user id
+     * @return lock
+     */
+    private static Object lockFor(final String userId) {
+        int h = userId.hashCode();
+        h ^= (h >>> 16);
+
+        return LOCKS[h & (LOCK_CNT - 1)];
     }
 }
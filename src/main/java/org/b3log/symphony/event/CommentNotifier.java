@@ -29,7 +29,6 @@ import org.b3log.latke.logging.Level;
 import org.b3log.latke.logging.Logger;
 import org.b3log.latke.model.User;
 import org.b3log.latke.service.LangPropsService;
-import org.b3log.latke.service.ServiceException;
 import org.b3log.symphony.model.Article;
 import org.b3log.symphony.model.Comment;
 import org.b3log.symphony.model.Common;
@@ -38,12 +37,11 @@ import org.b3log.symphony.model.UserExt;
 import org.b3log.symphony.processor.channel.ArticleChannel;
 import org.b3log.symphony.processor.channel.ArticleListChannel;
 import org.b3log.symphony.service.AvatarQueryService;
+import org.b3log.symphony.service.CommentQueryService;
 import org.b3log.symphony.service.NotificationMgmtService;
-import org.b3log.symphony.service.ShortLinkQueryService;
 import org.b3log.symphony.service.TimelineMgmtService;
 import org.b3log.symphony.service.UserQueryService;
 import org.b3log.symphony.util.Emotions;
-import org.b3log.symphony.util.Markdowns;
 import org.b3log.symphony.util.Symphonys;
 import org.json.JSONObject;
 import org.jsoup.Jsoup;
@@ -52,7 +50,7 @@ import org.jsoup.Jsoup;
  * Sends a comment notification.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.4.4.12, Feb 26, 2016
+ * @version 1.4.5.14, Oct 16, 2026
  * @since 0.2.0
  */
 @Named
@@ -82,10 +80,10 @@ public class CommentNotifier extends AbstractEventListener<JSONObject> {
     private AvatarQueryService avatarQueryService;
 
     /**
-     * Short link query service.
+     * Comment query service.
      */
     @Inject
-    private ShortLinkQueryService shortLinkQueryService;
+    private CommentQueryService commentQueryService;
 
     /**
      * Language service.
@@ -118,8 +116,7 @@ public class CommentNotifier extends AbstractEventListener<JSONObject> {
             chData.put(Comment.COMMENT_T_ID, originalComment.optString(Keys.OBJECT_ID));
             chData.put(Comment.COMMENT_T_AUTHOR_NAME, commenterName);
 
-            final String userEmail = commenter.optString(User.USER_EMAIL);
-            chData.put(Comment.COMMENT_T_AUTHOR_THUMBNAIL_URL, avatarQueryService.getAvatarURL(userEmail));
+            chData.put(Comment.COMMENT_T_AUTHOR_THUMBNAIL_URL, avatarQueryService.getAvatarURLByUser(commenter));
             chData.put(Common.THUMBNAIL_UPDATE_TIME, commenter.optLong(UserExt.USER_UPDATE_TIME));
 
             chData.put(Comment.COMMENT_CREATE_TIME,
@@ -131,20 +128,7 @@ public class CommentNotifier extends AbstractEventListener<JSONObject> {
             thankTemplate = thankTemplate.replace("{point}", String.valueOf(Symphonys.getInt("pointThankComment")))
                     .replace("{user}", commenterName);
             chData.put(Comment.COMMENT_T_THANK_LABEL, thankTemplate);
-            String cc = shortLinkQueryService.linkArticle(commentContent);
-            cc = shortLinkQueryService.linkTag(cc);
-            cc = Emotions.convert(cc);
-            cc = Markdowns.toHTML(cc);
-            cc = Markdowns.clean(cc, "");
-            try {
-                final Set<String> userNames = userQueryService.getUserNames(commentContent);
-                for (final String userName : userNames) {
-                    cc = cc.replace('@' + userName, "@<a href='" + Latkes.getServePath()
-                            + "/member/" + userName + "'>" + userName + "</a>");
-                }
-            } catch (final ServiceException e) {
-                LOGGER.log(Level.ERROR, "Generates @username home URL for comment content failed", e);
-            }
+            final String cc = commentQueryService.getCommentContentHTML(originalComment);
             chData.put(Comment.COMMENT_CONTENT, cc);
 
             ArticleChannel.notifyComment(chData);
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.event;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import org.b3log.latke.event.AbstractEventListener;
+import org.b3log.latke.event.Event;
+import org.b3log.latke.event.EventException;
+import org.b3log.latke.logging.Level;
+import org.b3log.latke.logging.Logger;
+import org.b3log.symphony.service.SidebarQueryService;
+import org.json.JSONObject;
+
+/**
+ * Refreshes the sidebar on new articles.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Named
+public class SidebarRefresher extends AbstractEventListener<JSONObject> {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SidebarRefresher.class.getName());
+
+    /**
+     * Sidebar query service.
+     */
+    @Inject
+    private SidebarQueryService sidebarQueryService;
+
+    @Override
+    public void action(final Event<JSONObject> event) throws EventException {
+        LOGGER.log(Level.DEBUG, "Processing an event[type={0}] in listener[className={1}]",
+                new Object[]{event.getType(), SidebarRefresher.class.getName()});
+
+        sidebarQueryService.refresh();
+    }
+
+    /**
+     * Gets the event type {@linkplain EventTypes#ADD_ARTICLE}.
+     *
+     * @return event type
+     */
+    @Override
+    public String getEventType() {
+        return EventTypes.ADD_ARTICLE;
+    }
+}
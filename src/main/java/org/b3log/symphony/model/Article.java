@@ -19,7 +19,7 @@ package org.b3log.symphony.model;
  * This class defines all article model relevant keys.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.10.0.11, Feb 15, 2016
+ * @version 2.11.0.11, Oct 16, 2026
  * @since 0.2.0
  */
 public final class Article {
@@ -154,6 +154,21 @@ public final class Article {
      */
     public static final String ARTICLE_IP = "articleIP";
 
+    /**
+     * Key of article content HTML, the viewer-independent rendering result of article content.
+     */
+    public static final String ARTICLE_CONTENT_HTML = "articleContentHTML";
+
+    /**
+     * Key of article reward content HTML, the viewer-independent rendering result of article reward content.
+     */
+    public static final String ARTICLE_REWARD_CONTENT_HTML = "articleRewardContentHTML";
+
+    /**
+     * Key of article render version, the render version of article content HTML and article reward content HTML.
+     */
+    public static final String ARTICLE_RENDER_VERSION = "articleRenderVersion";
+
     //// Transient ////
     /**
      * Key of article view count display format.
@@ -19,7 +19,7 @@ package org.b3log.symphony.model;
  * This class defines all comment model relevant keys.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.2.0.8, Feb 15, 2016
+ * @version 2.3.0.8, Oct 16, 2026
  * @since 0.2.0
  */
 public final class Comment {
@@ -79,6 +79,16 @@ public final class Comment {
      */
     public static final String COMMENT_IP = "commentIP";
 
+    /**
+     * Key of comment content HTML, the viewer-independent rendering result of comment content.
+     */
+    public static final String COMMENT_CONTENT_HTML = "commentContentHTML";
+
+    /**
+     * Key of comment render version, the render version of comment content HTML.
+     */
+    public static final String COMMENT_RENDER_VERSION = "commentRenderVersion";
+
     //// Transient ////
     /**
      * Key of commenter.
@@ -82,6 +82,7 @@ import org.b3log.symphony.service.TagQueryService;
 import org.b3log.symphony.service.UserMgmtService;
 import org.b3log.symphony.service.UserQueryService;
 import org.b3log.symphony.util.Filler;
+import org.b3log.symphony.util.JSONs;
 import org.b3log.symphony.util.Mails;
 import org.b3log.symphony.util.Symphonys;
 import org.b3log.symphony.util.Times;
@@ -127,7 +128,7 @@ import org.json.JSONObject;
  * </ul>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.14.3.2, Oct 11, 2016
+ * @version 2.14.3.3, Oct 16, 2026
  * @since 1.1.0
  */
 @RequestProcessor
@@ -481,7 +482,7 @@ public class AdminProcessor {
         renderer.setTemplateName("admin/user.ftl");
         final Map<String, Object> dataModel = renderer.getDataModel();
 
-        final JSONObject user = userQueryService.getUser(userId);
+        final JSONObject user = JSONs.clone(userQueryService.getUser(userId)); // The cached user is read-only
         dataModel.put(User.USER, user);
 
         final Enumeration<String> parameterNames = request.getParameterNames();
@@ -523,7 +524,7 @@ public class AdminProcessor {
     @After(adviceClass = StopwatchEndAdvice.class)
     public void updateUserEmail(final HTTPRequestContext context, final HttpServletRequest request, final HttpServletResponse response,
             final String userId) throws Exception {
-        final JSONObject user = userQueryService.getUser(userId);
+        final JSONObject user = JSONs.clone(userQueryService.getUser(userId)); // The cached user is read-only
         final String oldEmail = user.optString(User.USER_EMAIL);
         final String newEmail = request.getParameter(User.USER_EMAIL);
 
@@ -566,7 +567,7 @@ public class AdminProcessor {
     @After(adviceClass = StopwatchEndAdvice.class)
     public void updateUserName(final HTTPRequestContext context, final HttpServletRequest request, final HttpServletResponse response,
             final String userId) throws Exception {
-        final JSONObject user = userQueryService.getUser(userId);
+        final JSONObject user = JSONs.clone(userQueryService.getUser(userId)); // The cached user is read-only
         final String oldUserName = user.optString(User.USER_NAME);
         final String newUserName = request.getParameter(User.USER_NAME);
 
@@ -66,9 +66,11 @@ import org.b3log.symphony.processor.advice.validate.ArticleAddValidation;
 import org.b3log.symphony.processor.advice.validate.ArticleUpdateValidation;
 import org.b3log.symphony.service.ArticleMgmtService;
 import org.b3log.symphony.service.ArticleQueryService;
+import org.b3log.symphony.service.CommentMgmtService;
 import org.b3log.symphony.service.CommentQueryService;
 import org.b3log.symphony.service.FollowQueryService;
 import org.b3log.symphony.service.JournalQueryService;
+import org.b3log.symphony.service.RenderMgmtService;
 import org.b3log.symphony.service.RewardQueryService;
 import org.b3log.symphony.service.ShortLinkQueryService;
 import org.b3log.symphony.service.UserQueryService;
@@ -95,6 +97,8 @@ import org.jsoup.safety.Whitelist;
  * <li>Markdowns text (/markdown), POST</li>
  * <li>Rewards an article (/article/reward), POST</li>
  * <li>Gets an article preview content (/article/{articleId}/preview), GET</li>
+ * <li>Re-renders stale articles and comments (/cron/render), GET</li>
+ * <li>Writes pending article view counts (/cron/views), GET</li>
  * </ul>
  *
  * <p>
@@ -103,7 +107,7 @@ import org.jsoup.safety.Whitelist;
  * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.14.11.27, Nov 3, 2016
+ * @version 2.15.2.0, Oct 16, 2026
  * @since 0.2.0
  */
 @RequestProcessor
@@ -114,6 +118,11 @@ public class ArticleProcessor {
      */
     private static final Logger LOGGER = Logger.getLogger(ArticleProcessor.class.getName());
 
+    /**
+     * Max count of articles (comments) to re-render per cron run.
+     */
+    private static final int RENDER_FETCH_SIZE = 100;
+
     /**
      * Short link query service.
      */
@@ -138,6 +147,18 @@ public class ArticleProcessor {
     @Inject
     private CommentQueryService commentQueryService;
 
+    /**
+     * Comment management service.
+     */
+    @Inject
+    private CommentMgmtService commentMgmtService;
+
+    /**
+     * Render management service.
+     */
+    @Inject
+    private RenderMgmtService renderMgmtService;
+
     /**
      * User query service.
      */
@@ -891,4 +912,62 @@ public class ArticleProcessor {
         context.renderTrueResult().
                 renderJSONValue(Article.ARTICLE_REWARD_CONTENT, article.optString(Article.ARTICLE_REWARD_CONTENT));
     }
+
+    /**
+     * Marks the persisted HTML containing the changed user names and titles stale, then re-renders articles and
+     * comments whose persisted HTML is stale, for example, after the emotions or the sanitizing rules changed.
+     *
+     * @param request the specified http servlet request
+     * @param response the specified http servlet response
+     * @param context the specified http request context
+     * @throws Exception exception
+     */
+    @RequestProcessing(value = "/cron/render", method = HTTPRequestMethod.GET)
+    @Before(adviceClass = StopwatchStartAdvice.class)
+    @After(adviceClass = StopwatchEndAdvice.class)
+    public void renderStale(final HttpServletRequest request, final HttpServletResponse response,
+            final HTTPRequestContext context) throws Exception {
+        final String key = Symphonys.get("keyOfSymphony");
+        if (!key.equals(request.getParameter("key"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+
+            return;
+        }
+
+        renderMgmtService.markPendingStale();
+
+        final int articleCnt = articleMgmtService.renderStaleArticles(RENDER_FETCH_SIZE);
+        final int commentCnt = commentMgmtService.renderStaleComments(RENDER_FETCH_SIZE);
+
+        if (0 < articleCnt || 0 < commentCnt) {
+            LOGGER.log(Level.INFO, "Re-rendered [{0}] articles and [{1}] comments", new Object[]{articleCnt, commentCnt});
+        }
+
+        context.renderJSON().renderTrueResult();
+    }
+
+    /**
+     * Writes the pending article view counts.
+     *
+     * @param request the specified http servlet request
+     * @param response the specified http servlet response
+     * @param context the specified http request context
+     * @throws Exception exception
+     */
+    @RequestProcessing(value = "/cron/views", method = HTTPRequestMethod.GET)
+    @Before(adviceClass = StopwatchStartAdvice.class)
+    @After(adviceClass = StopwatchEndAdvice.class)
+    public void flushViewCounts(final HttpServletRequest request, final HttpServletResponse response,
+            final HTTPRequestContext context) throws Exception {
+        final String key = Symphonys.get("keyOfSymphony");
+        if (!key.equals(request.getParameter("key"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+
+            return;
+        }
+
+        articleMgmtService.flushArticleViewCounts();
+
+        context.renderJSON().renderTrueResult();
+    }
 }
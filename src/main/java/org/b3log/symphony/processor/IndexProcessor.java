@@ -36,6 +36,7 @@ import org.b3log.symphony.processor.advice.AnonymousViewCheck;
 import org.b3log.symphony.processor.advice.stopwatch.StopwatchEndAdvice;
 import org.b3log.symphony.processor.advice.stopwatch.StopwatchStartAdvice;
 import org.b3log.symphony.service.ArticleQueryService;
+import org.b3log.symphony.service.SidebarQueryService;
 import org.b3log.symphony.util.Filler;
 import org.b3log.symphony.util.Symphonys;
 import org.json.JSONObject;
@@ -49,11 +50,12 @@ import org.json.JSONObject;
  * <li>Shows b3log (/b3log), GET</li>
  * <li>Shows Baidu search header (/search-header), GET</li>
  * <li>Shows kill browser (/kill-browser), GET</li>
+ * <li>Refreshes sidebar (/cron/sidebar), GET</li>
  * </ul>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
  * @author <a href="http://vanessa.b3log.org">Liyuan Li</a>
- * @version 1.3.1.10, Feb 15, 2016
+ * @version 1.4.0.0, Oct 16, 2026
  * @since 0.2.0
  */
 @RequestProcessor
@@ -82,6 +84,12 @@ public class IndexProcessor {
     @Inject
     private LangPropsService langPropsService;
 
+    /**
+     * Sidebar query service.
+     */
+    @Inject
+    private SidebarQueryService sidebarQueryService;
+
     /**
      * Shows index.
      *
@@ -187,4 +195,29 @@ public class IndexProcessor {
         Keys.fillRuntime(dataModel);
         filler.fillMinified(dataModel);
     }
+
+    /**
+     * Refreshes the sidebar (hot articles, random articles, side tags, trend tags and new tags).
+     *
+     * @param context the specified context
+     * @param request the specified HTTP servlet request
+     * @param response the specified HTTP servlet response
+     * @throws Exception exception
+     */
+    @RequestProcessing(value = "/cron/sidebar", method = HTTPRequestMethod.GET)
+    @Before(adviceClass = StopwatchStartAdvice.class)
+    @After(adviceClass = StopwatchEndAdvice.class)
+    public void refreshSidebar(final HTTPRequestContext context, final HttpServletRequest request,
+            final HttpServletResponse response) throws Exception {
+        final String key = Symphonys.get("keyOfSymphony");
+        if (!key.equals(request.getParameter("key"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+
+            return;
+        }
+
+        sidebarQueryService.refresh();
+
+        context.renderJSON().renderTrueResult();
+    }
 }
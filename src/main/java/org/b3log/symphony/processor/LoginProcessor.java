@@ -57,6 +57,7 @@ import org.b3log.symphony.service.UserQueryService;
 import org.b3log.symphony.service.VerifycodeMgmtService;
 import org.b3log.symphony.service.VerifycodeQueryService;
 import org.b3log.symphony.util.Filler;
+import org.b3log.symphony.util.JSONs;
 import org.b3log.symphony.util.Sessions;
 import org.b3log.symphony.util.Symphonys;
 import org.json.JSONObject;
@@ -75,7 +76,7 @@ import org.json.JSONObject;
  * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.7.2.11, Jun 21, 2016
+ * @version 1.7.2.12, Oct 16, 2026
  * @since 0.2.0
  */
 @RequestProcessor
@@ -257,12 +258,13 @@ public class LoginProcessor {
         String name = null;
         String email = null;
         try {
-            final JSONObject user = userQueryService.getUser(userId);
+            JSONObject user = userQueryService.getUser(userId);
             if (null == user) {
                 context.renderMsg(langPropsService.get("resetPwdLabel") + " - " + "User Not Found");
 
                 return;
             }
+            user = JSONs.clone(user); // The cached user is read-only
 
             user.put(User.USER_PASSWORD, password);
             userMgmtService.updatePassword(user);
@@ -409,12 +411,13 @@ public class LoginProcessor {
         String name = null;
         String email = null;
         try {
-            final JSONObject user = userQueryService.getUser(userId);
+            JSONObject user = userQueryService.getUser(userId);
             if (null == user) {
                 context.renderMsg(langPropsService.get("registerFailLabel") + " - " + "User Not Found");
 
                 return;
             }
+            user = JSONs.clone(user); // The cached user is read-only
 
             name = user.optString(User.USER_NAME);
             email = user.optString(User.USER_EMAIL);
@@ -0,0 +1,451 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.processor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.annotation.WebFilter;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.servlet.http.HttpSession;
+import org.apache.commons.lang.StringUtils;
+import org.b3log.latke.Keys;
+import org.b3log.latke.ioc.LatkeBeanManager;
+import org.b3log.latke.ioc.Lifecycle;
+import org.b3log.latke.logging.Level;
+import org.b3log.latke.logging.Logger;
+import org.b3log.latke.model.User;
+import org.b3log.latke.service.ServiceException;
+import org.b3log.symphony.cache.PageCache;
+import org.b3log.symphony.model.Article;
+import org.b3log.symphony.model.Option;
+import org.b3log.symphony.service.ArticleMgmtService;
+import org.b3log.symphony.service.OptionQueryService;
+import org.b3log.symphony.util.Sessions;
+import org.b3log.symphony.util.Symphonys;
+import org.json.JSONObject;
+
+/**
+ * Anonymous page cache filter.
+ *
+ * <p>
+ * Serves the index (/), recent (/recent), tags (/tags, /tags/{tagTitle}) and article (/article/{articleId}) pages to
+ * the readers not logged in (no session user and no login cookie, search engine bots included) from
+ * {@link PageCache}, keyed by URI, page number (parameter {@code p}) and skin. Requests with other parameters are not
+ * cached. Writes of articles and tags clear the cache, comments and votes remove only the pages of their article,
+ * the index and the recent page. Nothing is cached if anonymous view is not allowed.
+ * </p>
+ *
+ * <p>
+ * Pages embed the CSRF token of the session, so only pages rendered without a token are cached, and a request whose
+ * session holds a token is never served from the cache.
+ * </p>
+ *
+ * <p>
+ * An article page served from the cache still counts a view, unless the request is made by a search engine bot.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.1, Oct 16, 2026
+ * @since 1.4.0
+ */
+@WebFilter(urlPatterns = "/*")
+public class PageCacheFilter implements Filter {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(PageCacheFilter.class.getName());
+
+    /**
+     * Whether the page cache is enabled.
+     */
+    private static final boolean ENABLED = Symphonys.getBoolean("cache.page.enabled");
+
+    /**
+     * Cacheable URI pattern, group 1 is the article id of an article page.
+     */
+    private static final Pattern CACHEABLE_URI_PATTERN
+            = Pattern.compile("^/$|^/recent$|^/tags$|^/tags/[^/]+$|^/article/(\\d+)$");
+
+    /**
+     * Max length of a cacheable page.
+     */
+    private static final int MAX_PAGE_LENGTH = 1024 * 1024;
+
+    @Override
+    public void init(final FilterConfig filterConfig) throws ServletException {
+    }
+
+    @Override
+    public void doFilter(final ServletRequest req, final ServletResponse resp, final FilterChain chain)
+            throws IOException, ServletException {
+        if (!ENABLED) {
+            chain.doFilter(req, resp);
+
+            return;
+        }
+
+        final HttpServletRequest request = (HttpServletRequest) req;
+        final HttpServletResponse response = (HttpServletResponse) resp;
+        final String uri = StringUtils.substringAfter(request.getRequestURI(), request.getContextPath());
+
+        final Matcher matcher = CACHEABLE_URI_PATTERN.matcher(uri);
+        if (!"GET".equals(request.getMethod()) || !matcher.matches() || !isAnonymous(request)
+                || !isCacheableParams(request) || StringUtils.isNotBlank(Sessions.getCSRFToken(request))) {
+            chain.doFilter(req, resp);
+
+            return;
+        }
+
+        final String key = uri + "?p=" + StringUtils.defaultString(request.getParameter("p"), "1")
+                + "&skin=" + request.getAttribute(Keys.TEMAPLTE_DIR_NAME);
+
+        final LatkeBeanManager beanManager = Lifecycle.getBeanManager();
+        final OptionQueryService optionQueryService = beanManager.getReference(OptionQueryService.class);
+        try {
+            final JSONObject option = optionQueryService.getOption(Option.ID_C_MISC_ALLOW_ANONYMOUS_VIEW);
+            if (!"0".equals(option.optString(Option.OPTION_VALUE))) { // Checked by AnonymousViewCheck
+                chain.doFilter(req, resp);
+
+                return;
+            }
+        } catch (final ServiceException e) {
+            LOGGER.log(Level.ERROR, "Gets option [" + Option.ID_C_MISC_ALLOW_ANONYMOUS_VIEW + "] failed", e);
+            chain.doFilter(req, resp);
+
+            return;
+        }
+
+        final PageCache pageCache = beanManager.getReference(PageCache.class);
+
+        final PageCache.Page page = pageCache.getPage(key);
+        if (null != page) {
+            final String articleId = matcher.group(1);
+            if (null != articleId) {
+                countView(request, articleId);
+            }
+
+            writePage(request, response, page);
+
+            return;
+        }
+
+        response.addHeader("Vary", "Accept-Encoding");
+
+        final PageResponseWrapper wrapper = new PageResponseWrapper(response);
+        chain.doFilter(req, wrapper);
+
+        final byte[] content = wrapper.getContent();
+        if (wrapper.isCacheable() && 0 < content.length && MAX_PAGE_LENGTH >= content.length
+                && StringUtils.isBlank(Sessions.getCSRFToken(request))) { // A token may be embedded in the page
+            try {
+                pageCache.putPage(key, wrapper.getContentType(), content);
+            } catch (final IOException e) {
+                LOGGER.log(Level.ERROR, "Caches page [" + key + "] failed", e);
+            }
+        }
+
+        if (!wrapper.isPassedThrough() && 0 < content.length) {
+            response.getOutputStream().write(content);
+        }
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    /**
+     * Counts a view of an article specified by the given article id, replaces the work of
+     * {@link ArticleProcessor#showArticle} for a page served from the cache.
+     *
+     * @param request the specified request
+     * @param articleId the given article id
+     */
+    private static void countView(final HttpServletRequest request, final String articleId) {
+        final HttpSession session = request.getSession(false);
+        if (null != session) {
+            session.setAttribute(Article.ARTICLE_T_ID, articleId);
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(Keys.HttpRequest.IS_SEARCH_ENGINE_BOT))) {
+            return;
+        }
+
+        try {
+            final ArticleMgmtService articleMgmtService = Lifecycle.getBeanManager().getReference(ArticleMgmtService.class);
+            articleMgmtService.incArticleViewCount(articleId);
+        } catch (final Exception e) {
+            LOGGER.log(Level.ERROR, "Counts view of article [id=" + articleId + "] failed", e);
+        }
+    }
+
+    /**
+     * Writes the specified page to the specified response, compressed if the client accepts gzip.
+     *
+     * @param request the specified request
+     * @param response the specified response
+     * @param page the specified page
+     * @throws IOException io exception
+     */
+    private static void writePage(final HttpServletRequest request, final HttpServletResponse response,
+            final PageCache.Page page) throws IOException {
+        response.setContentType(page.getContentType());
+        response.addHeader("Vary", "Accept-Encoding");
+
+        final byte[] content;
+        if (StringUtils.contains(request.getHeader("Accept-Encoding"), "gzip")) {
+            response.setHeader("Content-Encoding", "gzip");
+            content = page.getCompressedContent();
+        } else {
+            content = page.getContent();
+        }
+
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+    }
+
+    /**
+     * Determines whether the specified request is made by a reader not logged in.
+     *
+     * @param request the specified request
+     * @return {@code true} if no session user and no login cookie, returns {@code false} otherwise
+     */
+    private static boolean isAnonymous(final HttpServletRequest request) {
+        final HttpSession session = request.getSession(false);
+        if (null != session && null != session.getAttribute(User.USER)) {
+            return false;
+        }
+
+        final Cookie[] cookies = request.getCookies();
+        if (null == cookies) {
+            return true;
+        }
+
+        for (final Cookie cookie : cookies) {
+            if ("b3log-latke".equals(cookie.getName()) && StringUtils.isNotBlank(cookie.getValue())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Determines whether the parameters of the specified request are cacheable, only the page number (numeric
+     * parameter {@code p}) is allowed.
+     *
+     * @param request the specified request
+     * @return {@code true} if cacheable, returns {@code false} otherwise
+     */
+    private static boolean isCacheableParams(final HttpServletRequest request) {
+        final Map<String, String[]> params = request.getParameterMap();
+        if (params.isEmpty()) {
+            return true;
+        }
+
+        if (1 < params.size() || !params.containsKey("p")) {
+            return false;
+        }
+
+        return StringUtils.isNumeric(request.getParameter("p"));
+    }
+
+    /**
+     * Response wrapper buffering the content of a page.
+     */
+    private static final class PageResponseWrapper extends HttpServletResponseWrapper {
+
+        /**
+         * Content buffer.
+         */
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+
+        /**
+         * Output stream.
+         */
+        private ServletOutputStream outputStream;
+
+        /**
+         * Writer.
+         */
+        private PrintWriter writer;
+
+        /**
+         * Status code.
+         */
+        private int status = HttpServletResponse.SC_OK;
+
+        /**
+         * Whether the response has been passed through (error or redirect sent).
+         */
+        private boolean passedThrough;
+
+        /**
+         * Constructs a wrapper of the specified response.
+         *
+         * @param response the specified response
+         */
+        private PageResponseWrapper(final HttpServletResponse response) {
+            super(response);
+        }
+
+        /**
+         * Whether the buffered content is cacheable.
+         *
+         * @return {@code true} if the status is OK and the response has not been passed through, returns
+         * {@code false} otherwise
+         */
+        private boolean isCacheable() {
+            return HttpServletResponse.SC_OK == status && !passedThrough;
+        }
+
+        /**
+         * Whether the response has been passed through (error or redirect sent).
+         *
+         * @return {@code true} if passed through, returns {@code false} otherwise
+         */
+        private boolean isPassedThrough() {
+            return passedThrough;
+        }
+
+        /**
+         * Gets the buffered content.
+         *
+         * @return content
+         */
+        private byte[] getContent() {
+            if (null != writer) {
+                writer.flush();
+            }
+
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public void setStatus(final int sc) {
+            status = sc;
+
+            super.setStatus(sc);
+        }
+
+        @Override
+        public void sendError(final int sc) throws IOException {
+            status = sc;
+            passedThrough = true;
+
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(final int sc, final String msg) throws IOException {
+            status = sc;
+            passedThrough = true;
+
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(final String location) throws IOException {
+            status = HttpServletResponse.SC_FOUND;
+            passedThrough = true;
+
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (null != writer) {
+                throw new IllegalStateException("getWriter() has been called");
+            }
+
+            if (null == outputStream) {
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(final int b) throws IOException {
+                        buffer.write(b);
+                    }
+
+                    @Override
+                    public void write(final byte[] b, final int off, final int len) throws IOException {
+                        buffer.write(b, off, len);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(final WriteListener writeListener) {
+                    }
+                };
+            }
+
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (null != outputStream) {
+                throw new IllegalStateException("getOutputStream() has been called");
+            }
+
+            if (null == writer) {
+                writer = new PrintWriter(new OutputStreamWriter(buffer, getCharacterEncoding()));
+            }
+
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (null != writer) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            buffer.reset();
+
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            buffer.reset();
+            status = HttpServletResponse.SC_OK;
+
+            super.reset();
+        }
+    }
+}
@@ -39,9 +39,11 @@ import org.b3log.symphony.processor.advice.stopwatch.StopwatchEndAdvice;
 import org.b3log.symphony.processor.advice.stopwatch.StopwatchStartAdvice;
 import org.b3log.symphony.service.ArticleQueryService;
 import org.b3log.symphony.service.CommentQueryService;
+import org.b3log.symphony.service.OptionMgmtService;
 import org.b3log.symphony.service.OptionQueryService;
 import org.b3log.symphony.service.UserQueryService;
 import org.b3log.symphony.util.Filler;
+import org.b3log.symphony.util.Symphonys;
 import org.b3log.symphony.util.Times;
 import org.json.JSONObject;
 
@@ -54,7 +56,7 @@ import org.json.JSONObject;
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
  * @author <a href="http://vanessa.b3log.org">Liyuan Li</a>
- * @version 1.2.0.5, Oct 26, 2016
+ * @version 1.4.0.0, Oct 16, 2026
  * @since 1.4.0
  */
 @RequestProcessor
@@ -84,6 +86,12 @@ public class StatisticProcessor {
     @Inject
     private OptionQueryService optionQueryService;
 
+    /**
+     * Option management service.
+     */
+    @Inject
+    private OptionMgmtService optionMgmtService;
+
     /**
      * Filler.
      */
@@ -196,6 +204,59 @@ public class StatisticProcessor {
         }
     }
 
+    /**
+     * Reloads options (statistic and miscellaneous) if {@code cache.option.resync} is enabled, for nodes sharing a
+     * database.
+     *
+     * @param request the specified HTTP servlet request
+     * @param response the specified HTTP servlet response
+     * @param context the specified HTTP request context
+     * @throws Exception exception
+     */
+    @RequestProcessing(value = "/cron/options", method = HTTPRequestMethod.GET)
+    @Before(adviceClass = StopwatchStartAdvice.class)
+    @After(adviceClass = StopwatchEndAdvice.class)
+    public void loadOptions(final HttpServletRequest request, final HttpServletResponse response,
+            final HTTPRequestContext context) throws Exception {
+        final String key = Symphonys.get("keyOfSymphony");
+        if (!key.equals(request.getParameter("key"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+
+            return;
+        }
+
+        if (Symphonys.getBoolean("cache.option.resync")) {
+            optionQueryService.loadOptions();
+        }
+
+        context.renderJSON().renderTrueResult();
+    }
+
+    /**
+     * Flushes the pending statistic deltas to the option table.
+     *
+     * @param request the specified HTTP servlet request
+     * @param response the specified HTTP servlet response
+     * @param context the specified HTTP request context
+     * @throws Exception exception
+     */
+    @RequestProcessing(value = "/cron/stat/flush", method = HTTPRequestMethod.GET)
+    @Before(adviceClass = StopwatchStartAdvice.class)
+    @After(adviceClass = StopwatchEndAdvice.class)
+    public void flushStat(final HttpServletRequest request, final HttpServletResponse response,
+            final HTTPRequestContext context) throws Exception {
+        final String key = Symphonys.get("keyOfSymphony");
+        if (!key.equals(request.getParameter("key"))) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+
+            return;
+        }
+
+        optionMgmtService.flushStatistic();
+
+        context.renderJSON().renderTrueResult();
+    }
+
     /**
      * Shows data statistic.
      *
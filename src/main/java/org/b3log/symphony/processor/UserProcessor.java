@@ -67,6 +67,7 @@ import org.b3log.symphony.service.PointtransferQueryService;
 import org.b3log.symphony.service.UserMgmtService;
 import org.b3log.symphony.service.UserQueryService;
 import org.b3log.symphony.util.Filler;
+import org.b3log.symphony.util.JSONs;
 import org.b3log.symphony.util.Results;
 import org.b3log.symphony.util.Sessions;
 import org.b3log.symphony.util.Symphonys;
@@ -94,7 +95,7 @@ import org.json.JSONObject;
  * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.12.7.16, Jan 28, 2016
+ * @version 2.12.7.17, Oct 16, 2026
  * @since 0.2.0
  */
 @RequestProcessor
@@ -760,7 +761,7 @@ public class UserProcessor {
             geoStatus = UserExt.USER_GEO_STATUS_C_PUBLIC;
         }
 
-        final JSONObject user = userQueryService.getCurrentUser(request);
+        final JSONObject user = JSONs.clone(userQueryService.getCurrentUser(request)); // The cached user is read-only
 
         user.put(UserExt.USER_GEO_STATUS, geoStatus);
 
@@ -799,7 +800,7 @@ public class UserProcessor {
         final boolean userJoinPointRank = requestJSONObject.optBoolean(UserExt.USER_JOIN_POINT_RANK);
         final boolean userJoinUsedPointRank = requestJSONObject.optBoolean(UserExt.USER_JOIN_USED_POINT_RANK);
 
-        final JSONObject user = userQueryService.getCurrentUser(request);
+        final JSONObject user = JSONs.clone(userQueryService.getCurrentUser(request)); // The cached user is read-only
 
         user.put(UserExt.USER_REAL_NAME, userRealName);
         user.put(UserExt.USER_TAGS, userTags);
@@ -893,7 +894,7 @@ public class UserProcessor {
         final String password = requestJSONObject.optString(User.USER_PASSWORD);
         final String newPassword = requestJSONObject.optString(User.USER_NEW_PASSWORD);
 
-        final JSONObject user = userQueryService.getCurrentUser(request);
+        final JSONObject user = JSONs.clone(userQueryService.getCurrentUser(request)); // The cached user is read-only
 
         if (!password.equals(user.optString(User.USER_PASSWORD))) {
             context.renderMsg(langPropsService.get("invalidOldPwdLabel"));
@@ -32,13 +32,14 @@ import org.b3log.latke.servlet.advice.BeforeRequestProcessAdvice;
 import org.b3log.latke.servlet.advice.RequestProcessAdviceException;
 import org.b3log.symphony.service.UserMgmtService;
 import org.b3log.symphony.service.UserQueryService;
+import org.b3log.symphony.util.JSONs;
 import org.json.JSONObject;
 
 /**
  * Admin check. Gets user from request attribute named "user" if logged in.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.0, Apr 3, 2015
+ * @version 1.0.0.1, Oct 16, 2026
  * @since 0.3.0
  */
 @Named
@@ -76,7 +77,7 @@ public class AdminCheck extends BeforeRequestProcessAdvice {
                 throw new RequestProcessAdviceException(exception);
             }
 
-            currentUser = userQueryService.getCurrentUser(request);
+            currentUser = JSONs.clone(userQueryService.getCurrentUser(request)); // The cached user is read-only
 
             final String role = currentUser.optString(User.USER_ROLE);
             if (!Role.ADMIN_ROLE.equals(role)) {
@@ -32,13 +32,14 @@ import org.b3log.latke.servlet.advice.RequestProcessAdviceException;
 import org.b3log.symphony.model.UserExt;
 import org.b3log.symphony.service.UserMgmtService;
 import org.b3log.symphony.service.UserQueryService;
+import org.b3log.symphony.util.JSONs;
 import org.json.JSONObject;
 
 /**
  * Login check. Gets user from request attribute named "user" if logged in.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.2.0.2, Jun 28, 2015
+ * @version 1.2.0.3, Oct 16, 2026
  * @since 0.2.5
  */
 @Named
@@ -76,7 +77,7 @@ public class LoginCheck extends BeforeRequestProcessAdvice {
                 throw new RequestProcessAdviceException(exception);
             }
 
-            currentUser = userQueryService.getCurrentUser(request);
+            currentUser = JSONs.clone(userQueryService.getCurrentUser(request)); // The cached user is read-only
             final int point = currentUser.optInt(UserExt.USER_POINT);
             final int appRole = currentUser.optInt(UserExt.USER_APP_ROLE);
             if (UserExt.USER_APP_ROLE_C_HACKER == appRole) {
@@ -54,7 +54,7 @@ import org.jsoup.Jsoup;
  * Article channel.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.2.6.2, Feb 28, 2016
+ * @version 2.2.6.3, Oct 16, 2026
  * @since 1.3.0
  */
 @ServerEndpoint(value = "/article-channel", configurator = Channels.WebSocketConfigurator.class)
@@ -120,7 +120,7 @@ public class ArticleChannel {
         final TimelineMgmtService timelineMgmtService = beanManager.getReference(TimelineMgmtService.class);
 
         try {
-            final JSONObject article = articleRepository.get(articleId);
+            final JSONObject article = articleRepository.getBrief(articleId);
 
             String articleTitle = Jsoup.parse(article.optString(Article.ARTICLE_TITLE)).text();
             articleTitle = Emotions.convert(articleTitle);
@@ -330,7 +330,7 @@ public class ArticleChannel {
         final TimelineMgmtService timelineMgmtService = beanManager.getReference(TimelineMgmtService.class);
 
         try {
-            final JSONObject article = articleRepository.get(articleId);
+            final JSONObject article = articleRepository.getBrief(articleId);
 
             String articleTitle = Jsoup.parse(article.optString(Article.ARTICLE_TITLE)).text();
             articleTitle = Emotions.convert(articleTitle);
@@ -15,24 +15,319 @@
  */
 package org.b3log.symphony.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Inject;
+import org.b3log.latke.Keys;
 import org.b3log.latke.repository.AbstractRepository;
+import org.b3log.latke.repository.CompositeFilter;
+import org.b3log.latke.repository.CompositeFilterOperator;
+import org.b3log.latke.repository.Filter;
+import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.PropertyFilter;
+import org.b3log.latke.repository.Query;
+import org.b3log.latke.repository.RepositoryException;
 import org.b3log.latke.repository.annotation.Repository;
+import org.b3log.symphony.cache.ArticleCache;
+import org.b3log.symphony.cache.IdPool;
 import org.b3log.symphony.model.Article;
+import org.b3log.symphony.util.JSONs;
+import org.json.JSONArray;
+import org.json.JSONObject;
 
 /**
  * Article repository.
  *
+ * <p>
+ * Articles got by id are served from {@link ArticleCache} and invalidated on update and remove. Reads in a transaction
+ * go to the database, so read-modify-write updates always start from the stored value. A reader outside of the
+ * transaction may reload the old value before the commit, so the caller should evict the article again once the
+ * transaction committed, see {@link ArticleCache#removeArticle(java.lang.String)}. The comment count is shared by
+ * concurrent commenters and incremented atomically, see {@link #incCommentCount(java.lang.String, long)}.
+ * </p>
+ *
+ * <p>
+ * Random articles are sampled from the id pool of {@link ArticleCache#getRandomIds()}, which is loaded once and then
+ * maintained on add, update and remove.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.0, Sep 28, 2012
+ * @version 1.6.1.0, Oct 16, 2026
  * @since 0.2.0
  */
 @Repository
 public class ArticleRepository extends AbstractRepository {
 
+    /**
+     * Article cache.
+     */
+    @Inject
+    private ArticleCache articleCache;
+
     /**
      * Public constructor.
      */
     public ArticleRepository() {
         super(Article.ARTICLE);
     }
+
+    @Override
+    public JSONObject get(final String id) throws RepositoryException {
+        if (hasTransactionBegun()) {
+            return super.get(id);
+        }
+
+        JSONObject ret = articleCache.getArticle(id);
+        if (null != ret) {
+            return ret;
+        }
+
+        ret = super.get(id);
+
+        if (null == ret) {
+            return null;
+        }
+
+        articleCache.putArticle(ret);
+
+        return ret;
+    }
+
+    /**
+     * Gets an article by the specified id, the returned article may not contain the content fields (article content,
+     * reward content and their HTML).
+     *
+     * <p>
+     * Use this for list oriented readers (titles, permalinks, authors, counts) for a cheaper cache footprint.
+     * </p>
+     *
+     * @param id the specified id
+     * @return article, returns {@code null} if not found
+     * @throws RepositoryException repository exception
+     */
+    public JSONObject getBrief(final String id) throws RepositoryException {
+        if (!hasTransactionBegun()) {
+            final JSONObject ret = articleCache.getArticleBrief(id);
+            if (null != ret) {
+                return JSONs.clone(ret);
+            }
+        }
+
+        return get(id);
+    }
+
+    @Override
+    public String add(final JSONObject article) throws RepositoryException {
+        final String ret = super.add(article);
+
+        if (isRandomCandidate(article)) {
+            articleCache.getRandomIds().add(ret);
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void update(final String id, final JSONObject article) throws RepositoryException {
+        super.update(id, article);
+
+        articleCache.removeArticle(id);
+
+        if (isRandomCandidate(article)) {
+            articleCache.getRandomIds().add(id);
+        } else {
+            articleCache.getRandomIds().remove(id);
+        }
+    }
+
+    @Override
+    public void remove(final String id) throws RepositoryException {
+        super.remove(id);
+
+        articleCache.removeArticle(id);
+        articleCache.getRandomIds().remove(id);
+    }
+
+    /**
+     * Increments the view counts of articles with one batch.
+     *
+     * <p>
+     * The cached articles are not evicted, the caller should evict them once the transaction committed, see
+     * {@link ArticleCache#removeArticle(java.lang.String)}.
+     * </p>
+     *
+     * @param viewCnts the specified view count deltas, &lt;articleId, delta&gt;
+     * @throws RepositoryException repository exception
+     */
+    public void incViewCounts(final Map<String, Long> viewCnts) throws RepositoryException {
+        Increments.incrementAll(this, Article.ARTICLE_VIEW_CNT, viewCnts);
+    }
+
+    /**
+     * Increments the comment count and sets the latest comment time of an article specified by the given article id
+     * with one atomic update.
+     *
+     * <p>
+     * The caller should evict the article from the cache once the transaction committed, see
+     * {@link ArticleCache#removeArticle(java.lang.String)}.
+     * </p>
+     *
+     * @param articleId the given article id
+     * @param latestCmtTime the specified latest comment time
+     * @throws RepositoryException if not found or repository exception
+     */
+    public void incCommentCount(final String articleId, final long latestCmtTime) throws RepositoryException {
+        final boolean updated = Increments.increment(this, articleId,
+                Collections.singletonMap(Article.ARTICLE_COMMENT_CNT, 1L),
+                Collections.<String, Object>singletonMap(Article.ARTICLE_LATEST_CMT_TIME, latestCmtTime));
+
+        articleCache.removeArticle(articleId);
+
+        if (!updated) {
+            throw new RepositoryException("Not found article [id=" + articleId + "]");
+        }
+    }
+
+    /**
+     * Marks the persisted content HTML of articles whose contents contain any of the specified keywords stale, in one
+     * scan, see {@link StaleRenders}.
+     *
+     * <p>
+     * Executes outside of transactions and evicts the marked articles from the cache, the caller should invoke it
+     * after the change of the keyword has been committed.
+     * </p>
+     *
+     * @param keywords the specified keywords, for example "&#64;username" or "[articleId]"
+     * @return ids of the marked articles, returns an empty list if not found
+     * @throws RepositoryException repository exception
+     */
+    public List<String> markStale(final Collection<String> keywords) throws RepositoryException {
+        final List<String> ret = StaleRenders.mark(this, Article.ARTICLE_RENDER_VERSION, keywords,
+                Article.ARTICLE_CONTENT, Article.ARTICLE_REWARD_CONTENT);
+        for (final String id : ret) {
+            articleCache.removeArticle(id);
+            articleCache.removeArticleContent(id);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Writes the re-rendered content HTML of an article specified by the given article id if its render version is
+     * still the specified expected render version, other properties are not written, see {@link StaleRenders}.
+     *
+     * <p>
+     * Executes outside of transactions and evicts the article from the cache if written.
+     * </p>
+     *
+     * @param articleId the given article id
+     * @param expectedRenderVersion the specified expected render version, the one read before rendering
+     * @param contentHTML the specified article content HTML
+     * @param rewardContentHTML the specified article reward content HTML
+     * @param renderVersion the specified render version of the HTML
+     * @return {@code true} if written, returns {@code false} if not found or the render version has changed
+     * @throws RepositoryException repository exception
+     */
+    public boolean updateRender(final String articleId, final int expectedRenderVersion, final String contentHTML,
+            final String rewardContentHTML, final int renderVersion) throws RepositoryException {
+        final Map<String, String> results = new LinkedHashMap<String, String>();
+        results.put(Article.ARTICLE_CONTENT_HTML, contentHTML);
+        results.put(Article.ARTICLE_REWARD_CONTENT_HTML, rewardContentHTML);
+
+        final boolean ret = StaleRenders.update(this, articleId, Article.ARTICLE_RENDER_VERSION, expectedRenderVersion,
+                renderVersion, results);
+        if (ret) {
+            articleCache.removeArticle(articleId);
+            articleCache.removeArticleContent(articleId);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets random articles (valid and non-discussion) with the specified fetch size.
+     *
+     * <p>
+     * The ids are sampled in memory, then the articles are got with one query.
+     * </p>
+     *
+     * @param fetchSize the specified fetch size
+     * @return random articles, returns an empty list if not found
+     * @throws RepositoryException repository exception
+     */
+    public List<JSONObject> getRandomArticles(final int fetchSize) throws RepositoryException {
+        final IdPool randomIds = articleCache.getRandomIds();
+        if (!randomIds.isLoaded()) {
+            loadRandomIds();
+        }
+
+        final List<String> ids = randomIds.sample(fetchSize);
+        final List<JSONObject> ret = new ArrayList<JSONObject>();
+        if (ids.isEmpty()) {
+            return ret;
+        }
+
+        final Query query = new Query().setFilter(new PropertyFilter(Keys.OBJECT_ID, FilterOperator.IN, ids)).setPageCount(1);
+        final JSONArray array = get(query).optJSONArray(Keys.RESULTS);
+        final Map<String, JSONObject> articles = new HashMap<String, JSONObject>();
+        for (int i = 0; i < array.length(); i++) {
+            final JSONObject article = array.optJSONObject(i);
+
+            articles.put(article.optString(Keys.OBJECT_ID), article);
+        }
+
+        for (final String id : ids) {
+            final JSONObject article = articles.get(id);
+            if (null == article || !isRandomCandidate(article)) { // Stale id (a rolled back transaction for example)
+                randomIds.remove(id);
+
+                continue;
+            }
+
+            ret.add(article);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Loads the ids of the articles may be picked randomly.
+     *
+     * @throws RepositoryException repository exception
+     */
+    private synchronized void loadRandomIds() throws RepositoryException {
+        final IdPool randomIds = articleCache.getRandomIds();
+        if (randomIds.isLoaded()) {
+            return;
+        }
+
+        final List<Filter> filters = new ArrayList<Filter>();
+        filters.add(new PropertyFilter(Article.ARTICLE_STATUS, FilterOperator.EQUAL, Article.ARTICLE_STATUS_C_VALID));
+        filters.add(new PropertyFilter(Article.ARTICLE_TYPE, FilterOperator.NOT_EQUAL, Article.ARTICLE_TYPE_C_DISCUSSION));
+        final Query query = new Query().addProjection(Keys.OBJECT_ID, String.class).setPageCount(1).
+                setFilter(new CompositeFilter(CompositeFilterOperator.AND, filters));
+        final JSONArray array = get(query).optJSONArray(Keys.RESULTS);
+        final List<String> ids = new ArrayList<String>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            ids.add(array.optJSONObject(i).optString(Keys.OBJECT_ID));
+        }
+
+        randomIds.load(ids);
+    }
+
+    /**
+     * Determines whether the specified article may be picked randomly.
+     *
+     * @param article the specified article
+     * @return {@code true} if it is valid and not a discussion, returns {@code false} otherwise
+     */
+    private static boolean isRandomCandidate(final JSONObject article) {
+        return Article.ARTICLE_STATUS_C_VALID == article.optInt(Article.ARTICLE_STATUS)
+                && Article.ARTICLE_TYPE_C_DISCUSSION != article.optInt(Article.ARTICLE_TYPE);
+    }
 }
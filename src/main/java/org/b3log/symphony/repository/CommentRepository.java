@@ -15,24 +15,85 @@
  */
 package org.b3log.symphony.repository;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import javax.inject.Inject;
 import org.b3log.latke.repository.AbstractRepository;
+import org.b3log.latke.repository.RepositoryException;
 import org.b3log.latke.repository.annotation.Repository;
+import org.b3log.symphony.cache.CommentCache;
 import org.b3log.symphony.model.Comment;
 
 /**
  * Comment repository.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.0, Oct 7, 2012
+ * @version 1.2.1.0, Oct 16, 2026
  * @since 0.2.0
  */
 @Repository
 public class CommentRepository extends AbstractRepository {
 
+    /**
+     * Comment cache.
+     */
+    @Inject
+    private CommentCache commentCache;
+
     /**
      * Public constructor.
      */
     public CommentRepository() {
         super(Comment.COMMENT);
     }
+
+    /**
+     * Marks the persisted content HTML of comments whose contents contain any of the specified keywords stale, in one
+     * scan, see {@link StaleRenders}.
+     *
+     * <p>
+     * Executes outside of transactions and evicts the rendered contents of the marked comments from the cache, the
+     * caller should invoke it after the change of the keyword has been committed.
+     * </p>
+     *
+     * @param keywords the specified keywords, for example "&#64;username" or "[articleId]"
+     * @return ids of the marked comments, returns an empty list if not found
+     * @throws RepositoryException repository exception
+     */
+    public List<String> markStale(final Collection<String> keywords) throws RepositoryException {
+        final List<String> ret = StaleRenders.mark(this, Comment.COMMENT_RENDER_VERSION, keywords,
+                Comment.COMMENT_CONTENT);
+        for (final String id : ret) {
+            commentCache.removeCommentContent(id);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Writes the re-rendered content HTML of a comment specified by the given comment id if its render version is
+     * still the specified expected render version, other properties are not written, see {@link StaleRenders}.
+     *
+     * <p>
+     * Executes outside of transactions and evicts the rendered content of the comment from the cache if written.
+     * </p>
+     *
+     * @param commentId the given comment id
+     * @param expectedRenderVersion the specified expected render version, the one read before rendering
+     * @param contentHTML the specified comment content HTML
+     * @param renderVersion the specified render version of the HTML
+     * @return {@code true} if written, returns {@code false} if not found or the render version has changed
+     * @throws RepositoryException repository exception
+     */
+    public boolean updateRender(final String commentId, final int expectedRenderVersion, final String contentHTML,
+            final int renderVersion) throws RepositoryException {
+        final boolean ret = StaleRenders.update(this, commentId, Comment.COMMENT_RENDER_VERSION, expectedRenderVersion,
+                renderVersion, Collections.singletonMap(Comment.COMMENT_CONTENT_HTML, contentHTML));
+        if (ret) {
+            commentCache.removeCommentContent(commentId);
+        }
+
+        return ret;
+    }
 }
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import org.b3log.latke.Keys;
+import org.b3log.latke.repository.AbstractRepository;
+import org.b3log.latke.repository.RepositoryException;
+import org.b3log.latke.repository.jdbc.JdbcRepository;
+import org.b3log.latke.repository.jdbc.JdbcTransaction;
+import org.b3log.latke.repository.jdbc.util.Connections;
+
+/**
+ * Atomic increments of counter properties.
+ *
+ * <p>
+ * Counters shared by concurrent requests (for example the reference count of a tag) are incremented with
+ * {@code UPDATE table SET property = property + ? WHERE oId = ?} instead of read-modify-write, the database serializes
+ * the increments. A decrement may be guarded by a minimum ({@code AND property >= ?}), so a balance never goes negative
+ * without reading it first. Executes on the connection of the current transaction if any, the caller is responsible
+ * for refreshing the cached record.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+final class Increments {
+
+    /**
+     * Private constructor.
+     */
+    private Increments() {
+    }
+
+    /**
+     * Increments properties of a record specified by the given id in the specified repository.
+     *
+     * @param repository the specified repository
+     * @param id the given id
+     * @param deltas the specified deltas, &lt;property, delta&gt;
+     * @return {@code true} if the record has been incremented, {@code false} if not found
+     * @throws RepositoryException repository exception
+     */
+    static boolean increment(final AbstractRepository repository, final String id, final Map<String, Long> deltas)
+            throws RepositoryException {
+        return increment(repository, id, deltas, Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * Increments properties and sets properties of a record specified by the given id in the specified repository
+     * with one statement.
+     *
+     * @param repository the specified repository
+     * @param id the given id
+     * @param deltas the specified deltas, &lt;property, delta&gt;
+     * @param values the specified values to set, &lt;property, value&gt;
+     * @return {@code true} if the record has been updated, {@code false} if not found
+     * @throws RepositoryException repository exception
+     */
+    static boolean increment(final AbstractRepository repository, final String id, final Map<String, Long> deltas,
+            final Map<String, Object> values) throws RepositoryException {
+        return increment(repository, id, deltas, values, Collections.<String, Long>emptyMap());
+    }
+
+    /**
+     * Increments properties and sets properties of a record specified by the given id in the specified repository
+     * with one statement if the record satisfies the specified minimums.
+     *
+     * @param repository the specified repository
+     * @param id the given id
+     * @param deltas the specified deltas, &lt;property, delta&gt;
+     * @param values the specified values to set, &lt;property, value&gt;
+     * @param minimums the specified minimums the current values must reach, &lt;property, minimum&gt;
+     * @return {@code true} if the record has been updated, {@code false} if not found or not satisfies the minimums
+     * @throws RepositoryException repository exception
+     */
+    static boolean increment(final AbstractRepository repository, final String id, final Map<String, Long> deltas,
+            final Map<String, Object> values, final Map<String, Long> minimums) throws RepositoryException {
+        if (deltas.isEmpty() && values.isEmpty()) {
+            return true;
+        }
+
+        final StringBuilder sqlBuilder = new StringBuilder("UPDATE ").append(repository.getName()).append(" SET ");
+        boolean first = true;
+        for (final String property : deltas.keySet()) {
+            if (!first) {
+                sqlBuilder.append(", ");
+            }
+            first = false;
+
+            sqlBuilder.append(property).append(" = ").append(property).append(" + ?");
+        }
+        for (final String property : values.keySet()) {
+            if (!first) {
+                sqlBuilder.append(", ");
+            }
+            first = false;
+
+            sqlBuilder.append(property).append(" = ?");
+        }
+        sqlBuilder.append(" WHERE ").append(Keys.OBJECT_ID).append(" = ?");
+        for (final String property : minimums.keySet()) {
+            sqlBuilder.append(" AND ").append(property).append(" >= ?");
+        }
+
+        final JdbcTransaction transaction = JdbcRepository.TX.get();
+        final boolean inTransaction = null != transaction && transaction.isActive();
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = inTransaction ? transaction.getConnection() : Connections.getConnection();
+            statement = connection.prepareStatement(sqlBuilder.toString());
+
+            int i = 1;
+            for (final Long delta : deltas.values()) {
+                statement.setLong(i++, delta);
+            }
+            for (final Object value : values.values()) {
+                statement.setObject(i++, value);
+            }
+            statement.setString(i++, id);
+            for (final Long minimum : minimums.values()) {
+                statement.setLong(i++, minimum);
+            }
+
+            return 0 < statement.executeUpdate();
+        } catch (final SQLException e) {
+            throw new RepositoryException(e);
+        } finally {
+            close(statement);
+            if (!inTransaction) {
+                close(connection);
+            }
+        }
+    }
+
+    /**
+     * Increments a property of records specified by the given ids in the specified repository with one batch.
+     *
+     * @param repository the specified repository
+     * @param property the specified property
+     * @param deltas the specified deltas, &lt;id, delta&gt;
+     * @throws RepositoryException repository exception
+     */
+    static void incrementAll(final AbstractRepository repository, final String property, final Map<String, Long> deltas)
+            throws RepositoryException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        final String sql = "UPDATE " + repository.getName() + " SET " + property + " = " + property + " + ? WHERE "
+                + Keys.OBJECT_ID + " = ?";
+
+        final JdbcTransaction transaction = JdbcRepository.TX.get();
+        final boolean inTransaction = null != transaction && transaction.isActive();
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = inTransaction ? transaction.getConnection() : Connections.getConnection();
+            statement = connection.prepareStatement(sql);
+
+            for (final Map.Entry<String, Long> delta : deltas.entrySet()) {
+                statement.setLong(1, delta.getValue());
+                statement.setString(2, delta.getKey());
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        } catch (final SQLException e) {
+            throw new RepositoryException(e);
+        } finally {
+            close(statement);
+            if (!inTransaction) {
+                close(connection);
+            }
+        }
+    }
+
+    /**
+     * Closes the specified statement quietly.
+     *
+     * @param statement the specified statement, may be {@code null}
+     */
+    private static void close(final PreparedStatement statement) {
+        if (null != statement) {
+            try {
+                statement.close();
+            } catch (final SQLException e) {
+                // Ignored
+            }
+        }
+    }
+
+    /**
+     * Closes the specified connection quietly.
+     *
+     * @param connection the specified connection, may be {@code null}
+     */
+    private static void close(final Connection connection) {
+        if (null != connection) {
+            try {
+                connection.close();
+            } catch (final SQLException e) {
+                // Ignored
+            }
+        }
+    }
+}
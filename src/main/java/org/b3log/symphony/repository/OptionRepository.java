@@ -15,24 +15,145 @@
  */
 package org.b3log.symphony.repository;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.inject.Inject;
+import org.b3log.latke.Keys;
 import org.b3log.latke.repository.AbstractRepository;
+import org.b3log.latke.repository.Query;
+import org.b3log.latke.repository.RepositoryException;
 import org.b3log.latke.repository.annotation.Repository;
+import org.b3log.latke.util.CollectionUtils;
+import org.b3log.symphony.cache.OptionCache;
 import org.b3log.symphony.model.Option;
+import org.b3log.symphony.util.JSONs;
+import org.json.JSONObject;
 
 /**
  * Option repository.
  *
+ * <p>
+ * Options are served from {@link OptionCache} (loaded on first access and reloaded by {@link #load()}), adds, updates
+ * and removes are written through to the cache. Reads in a transaction go to the database, so read-modify-write
+ * updates always start from the stored value. Statistic counters shared by concurrent requests should be updated with
+ * {@link #incValue(java.lang.String, long)} instead, which leaves the cache to the caller once the transaction
+ * committed.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.1.0, Oct 16, 2012
+ * @version 1.3.0.0, Oct 16, 2026
  * @since 0.2.0
  */
 @Repository
 public class OptionRepository extends AbstractRepository {
 
+    /**
+     * Option cache.
+     */
+    @Inject
+    private OptionCache optionCache;
+
     /**
      * Public constructor.
      */
     public OptionRepository() {
         super(Option.OPTION);
     }
+
+    @Override
+    public JSONObject get(final String id) throws RepositoryException {
+        if (hasTransactionBegun()) {
+            return super.get(id);
+        }
+
+        if (!optionCache.isLoaded()) {
+            load();
+        }
+
+        final JSONObject ret = optionCache.getOption(id);
+        if (null == ret) {
+            return null;
+        }
+
+        return JSONs.clone(ret);
+    }
+
+    @Override
+    public String add(final JSONObject option) throws RepositoryException {
+        final String ret = super.add(option);
+
+        final JSONObject cached = JSONs.clone(option);
+        cached.put(Keys.OBJECT_ID, ret);
+        optionCache.putOption(cached);
+
+        return ret;
+    }
+
+    @Override
+    public void update(final String id, final JSONObject option) throws RepositoryException {
+        super.update(id, option);
+
+        option.put(Keys.OBJECT_ID, id);
+        optionCache.putOption(option);
+    }
+
+    @Override
+    public void remove(final String id) throws RepositoryException {
+        super.remove(id);
+
+        optionCache.removeOption(id);
+    }
+
+    /**
+     * Increments the (numeric) value of an option specified by the given option id atomically.
+     *
+     * <p>
+     * The cached option is not updated, the caller should put the returned option into {@link OptionCache} once the
+     * transaction committed.
+     * </p>
+     *
+     * @param optionId the given option id
+     * @param delta the specified delta, may be negative
+     * @return the incremented option, returns {@code null} if the option does not exist
+     * @throws RepositoryException repository exception
+     */
+    public JSONObject incValue(final String optionId, final long delta) throws RepositoryException {
+        if (!Increments.increment(this, optionId, Collections.singletonMap(Option.OPTION_VALUE, delta))) {
+            return null;
+        }
+
+        return super.get(optionId);
+    }
+
+    /**
+     * Gets options by the specified category.
+     *
+     * @param category the specified category
+     * @return options, returns an empty list if not found
+     * @throws RepositoryException repository exception
+     */
+    public List<JSONObject> getByCategory(final String category) throws RepositoryException {
+        if (!optionCache.isLoaded()) {
+            load();
+        }
+
+        final List<JSONObject> ret = new ArrayList<JSONObject>();
+        for (final JSONObject option : optionCache.getOptions(category)) {
+            ret.add(JSONs.clone(option));
+        }
+
+        return ret;
+    }
+
+    /**
+     * Loads all options from the database into the cache, replaces the cached options.
+     *
+     * @throws RepositoryException repository exception
+     */
+    public void load() throws RepositoryException {
+        final JSONObject result = super.get(new Query().setPageCount(1));
+
+        optionCache.load(CollectionUtils.<JSONObject>jsonArrayToList(result.optJSONArray(Keys.RESULTS)));
+    }
 }
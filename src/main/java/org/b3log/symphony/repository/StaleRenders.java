@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.b3log.latke.Keys;
+import org.b3log.latke.repository.AbstractRepository;
+import org.b3log.latke.repository.RepositoryException;
+import org.b3log.latke.repository.jdbc.util.Connections;
+
+/**
+ * Stale marks of persisted rendering results.
+ *
+ * <p>
+ * The persisted content HTML of articles and comments bakes in things resolved at render time, the &#64;username links
+ * and the titles of short links. When a user name, an article title or a tag title changes, the rows whose source
+ * content contains it get their render version set to a stale mark, then readers fall back to render on the fly and
+ * the render cron re-renders them. Each marking uses a distinct negative mark, so a re-render started before the mark
+ * can detect it and discard its result.
+ * </p>
+ *
+ * <p>
+ * A re-render writes only the rendering results and the render version, on the condition that the render version is
+ * still the one read before rendering, so concurrent updates of other properties (counters for example) are kept.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.2.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+final class StaleRenders {
+
+    /**
+     * Escape character of the like patterns.
+     */
+    private static final char ESCAPE = '!';
+
+    /**
+     * Last stale mark.
+     */
+    private static final AtomicInteger MARK = new AtomicInteger();
+
+    /**
+     * Private constructor.
+     */
+    private StaleRenders() {
+    }
+
+    /**
+     * Marks the rendering results of records whose contents contain any of the specified keywords stale.
+     *
+     * <p>
+     * The contents are not indexed, so all the keywords are matched in one scan of the table. Executes outside of
+     * transactions, the caller should invoke it after the changes of the keywords have been committed.
+     * </p>
+     *
+     * @param repository the specified repository
+     * @param renderVersionProperty the specified render version property
+     * @param keywords the specified keywords
+     * @param contentProperties the specified content properties to search
+     * @return ids of the marked records, returns an empty list if not found
+     * @throws RepositoryException repository exception
+     */
+    static List<String> mark(final AbstractRepository repository, final String renderVersionProperty,
+            final Collection<String> keywords, final String... contentProperties) throws RepositoryException {
+        final List<String> ret = new ArrayList<String>();
+        if (keywords.isEmpty()) {
+            return ret;
+        }
+
+        final List<String> patterns = new ArrayList<String>(keywords.size() * contentProperties.length);
+        final StringBuilder whereBuilder = new StringBuilder(" WHERE ");
+        for (final String contentProperty : contentProperties) {
+            for (final String keyword : keywords) {
+                if (!patterns.isEmpty()) {
+                    whereBuilder.append(" OR ");
+                }
+
+                whereBuilder.append(contentProperty).append(" LIKE ? ESCAPE '").append(ESCAPE).append("'");
+                patterns.add('%' + escape(keyword) + '%');
+            }
+        }
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = Connections.getConnection();
+
+            statement = connection.prepareStatement("SELECT " + Keys.OBJECT_ID + " FROM " + repository.getName()
+                    + whereBuilder);
+            for (int i = 0; i < patterns.size(); i++) {
+                statement.setString(i + 1, patterns.get(i));
+            }
+            final ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                ret.add(resultSet.getString(1));
+            }
+            resultSet.close();
+            statement.close();
+
+            if (ret.isEmpty()) {
+                return ret;
+            }
+
+            statement = connection.prepareStatement("UPDATE " + repository.getName() + " SET " + renderVersionProperty
+                    + " = ? WHERE " + Keys.OBJECT_ID + " = ?");
+            final int mark = MARK.decrementAndGet();
+            for (final String id : ret) {
+                statement.setInt(1, 0 > mark ? mark : -1);
+                statement.setString(2, id);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            return ret;
+        } catch (final SQLException e) {
+            throw new RepositoryException(e);
+        } finally {
+            if (null != statement) {
+                try {
+                    statement.close();
+                } catch (final SQLException e) {
+                    // Ignored
+                }
+            }
+            if (null != connection) {
+                try {
+                    connection.close();
+                } catch (final SQLException e) {
+                    // Ignored
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the specified rendering results of a record specified by the given id if its render version is still
+     * the specified expected render version.
+     *
+     * <p>
+     * Executes outside of transactions.
+     * </p>
+     *
+     * @param repository the specified repository
+     * @param id the given id
+     * @param renderVersionProperty the specified render version property
+     * @param expectedRenderVersion the specified expected render version, the one read before rendering
+     * @param renderVersion the specified render version of the rendering results
+     * @param results the specified rendering results, &lt;property, html&gt;
+     * @return {@code true} if written, returns {@code false} if not found or the render version has changed
+     * @throws RepositoryException repository exception
+     */
+    static boolean update(final AbstractRepository repository, final String id, final String renderVersionProperty,
+            final int expectedRenderVersion, final int renderVersion, final Map<String, String> results)
+            throws RepositoryException {
+        final StringBuilder sqlBuilder = new StringBuilder("UPDATE ").append(repository.getName()).append(" SET ");
+        for (final String property : results.keySet()) {
+            sqlBuilder.append(property).append(" = ?, ");
+        }
+        sqlBuilder.append(renderVersionProperty).append(" = ? WHERE ").append(Keys.OBJECT_ID).append(" = ? AND ")
+                .append(renderVersionProperty).append(" = ?");
+
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = Connections.getConnection();
+            statement = connection.prepareStatement(sqlBuilder.toString());
+
+            int i = 1;
+            for (final String html : results.values()) {
+                statement.setString(i++, html);
+            }
+            statement.setInt(i++, renderVersion);
+            statement.setString(i++, id);
+            statement.setInt(i, expectedRenderVersion);
+
+            return 0 < statement.executeUpdate();
+        } catch (final SQLException e) {
+            throw new RepositoryException(e);
+        } finally {
+            if (null != statement) {
+                try {
+                    statement.close();
+                } catch (final SQLException e) {
+                    // Ignored
+                }
+            }
+            if (null != connection) {
+                try {
+                    connection.close();
+                } catch (final SQLException e) {
+                    // Ignored
+                }
+            }
+        }
+    }
+
+    /**
+     * Escapes the wildcards of the specified like operand.
+     *
+     * @param operand the specified like operand
+     * @return escaped operand
+     */
+    private static String escape(final String operand) {
+        final StringBuilder ret = new StringBuilder(operand.length() + 8);
+        for (int i = 0; i < operand.length(); i++) {
+            final char c = operand.charAt(i);
+            if ('%' == c || '_' == c || ESCAPE == c) {
+                ret.append(ESCAPE);
+            }
+            ret.append(c);
+        }
+
+        return ret.toString();
+    }
+}
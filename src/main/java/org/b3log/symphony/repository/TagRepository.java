@@ -16,7 +16,13 @@
 package org.b3log.symphony.repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.inject.Inject;
 import org.b3log.latke.Keys;
 import org.b3log.latke.repository.AbstractRepository;
@@ -27,15 +33,28 @@ import org.b3log.latke.repository.RepositoryException;
 import org.b3log.latke.repository.SortDirection;
 import org.b3log.latke.repository.annotation.Repository;
 import org.b3log.latke.util.CollectionUtils;
+import org.b3log.symphony.cache.IdPool;
+import org.b3log.symphony.cache.TagCache;
 import org.b3log.symphony.model.Tag;
+import org.b3log.symphony.util.JSONs;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
  * Tag repository.
  *
+ * <p>
+ * Tags got by id or title are served from {@link TagCache}, the returned tags are copies of the cached tags, so callers
+ * may modify them freely. Tags added or updated through this repository are written through to the cache.
+ * </p>
+ *
+ * <p>
+ * Random tags are sampled from the id pool of {@link TagCache#getRandomIds()}, which is loaded once and then
+ * maintained on add, update and remove.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.0, Sep 28, 2012
+ * @version 1.3.0.0, Oct 16, 2026
  * @since 0.2.0
  */
 @Repository
@@ -47,6 +66,12 @@ public class TagRepository extends AbstractRepository {
     @Inject
     private TagArticleRepository tagArticleRepository;
 
+    /**
+     * Tag cache.
+     */
+    @Inject
+    private TagCache tagCache;
+
     /**
      * Public constructor.
      */
@@ -54,6 +79,91 @@ public class TagRepository extends AbstractRepository {
         super(Tag.TAG);
     }
 
+    @Override
+    public JSONObject get(final String id) throws RepositoryException {
+        JSONObject ret = tagCache.getTag(id);
+        if (null != ret) {
+            return JSONs.clone(ret);
+        }
+
+        ret = super.get(id);
+
+        if (null == ret) {
+            return null;
+        }
+
+        tagCache.putTag(ret);
+
+        return ret;
+    }
+
+    @Override
+    public String add(final JSONObject tag) throws RepositoryException {
+        final String ret = super.add(tag);
+
+        final JSONObject cached = JSONs.clone(tag);
+        cached.put(Keys.OBJECT_ID, ret);
+        tagCache.putTag(cached);
+
+        if (isRandomCandidate(tag)) {
+            tagCache.getRandomIds().add(ret);
+        }
+
+        return ret;
+    }
+
+    @Override
+    public void update(final String id, final JSONObject tag) throws RepositoryException {
+        super.update(id, tag);
+
+        tag.put(Keys.OBJECT_ID, id);
+        tagCache.putTag(tag);
+
+        if (isRandomCandidate(tag)) {
+            tagCache.getRandomIds().add(id);
+        } else {
+            tagCache.getRandomIds().remove(id);
+        }
+    }
+
+    @Override
+    public void remove(final String id) throws RepositoryException {
+        super.remove(id);
+
+        tagCache.removeTag(id);
+        tagCache.getRandomIds().remove(id);
+    }
+
+    /**
+     * Increments the reference count and comment count of a tag specified by the given tag id atomically.
+     *
+     * @param tagId the given tag id
+     * @param referenceCntDelta the specified reference count delta, may be negative
+     * @param commentCntDelta the specified comment count delta, may be negative
+     * @throws RepositoryException repository exception
+     */
+    public void incCounts(final String tagId, final int referenceCntDelta, final int commentCntDelta)
+            throws RepositoryException {
+        final Map<String, Long> deltas = new LinkedHashMap<String, Long>();
+        if (0 != referenceCntDelta) {
+            deltas.put(Tag.TAG_REFERENCE_CNT, (long) referenceCntDelta);
+        }
+        if (0 != commentCntDelta) {
+            deltas.put(Tag.TAG_COMMENT_CNT, (long) commentCntDelta);
+        }
+
+        if (deltas.isEmpty() || !Increments.increment(this, tagId, deltas)) {
+            return;
+        }
+
+        final JSONObject tag = super.get(tagId);
+        if (null == tag) {
+            tagCache.removeTag(tagId);
+        } else {
+            tagCache.putTag(tag);
+        }
+    }
+
     /**
      * Gets a tag by the specified tag title.
      *
@@ -62,6 +172,11 @@ public class TagRepository extends AbstractRepository {
      * @throws RepositoryException repository exception
      */
     public JSONObject getByTitle(final String tagTitle) throws RepositoryException {
+        JSONObject ret = tagCache.getTagByTitle(tagTitle);
+        if (null != ret) {
+            return JSONs.clone(ret);
+        }
+
         final Query query = new Query().setFilter(new PropertyFilter(Tag.TAG_TITLE, FilterOperator.EQUAL, tagTitle)).setPageCount(1);
 
         final JSONObject result = get(query);
@@ -71,7 +186,119 @@ public class TagRepository extends AbstractRepository {
             return null;
         }
 
-        return array.optJSONObject(0);
+        ret = array.optJSONObject(0);
+
+        tagCache.putTag(ret);
+
+        return ret;
+    }
+
+    /**
+     * Gets tags by the specified tag titles.
+     *
+     * <p>
+     * Tags not cached are got with one query.
+     * </p>
+     *
+     * @param tagTitles the specified tag titles, case-insensitive
+     * @return a list of tags in the order of the specified titles, each tag appears once, titles of nonexistent tags
+     * are skipped, returns an empty list if not found
+     * @throws RepositoryException repository exception
+     */
+    public List<JSONObject> getByTitles(final Collection<String> tagTitles) throws RepositoryException {
+        final Map<String, JSONObject> tags = new HashMap<String, JSONObject>(); // <title (lower case), tag>
+        final Set<String> missingTitles = new HashSet<String>();
+        for (final String tagTitle : tagTitles) {
+            final String title = tagTitle.toLowerCase();
+            if (tags.containsKey(title)) {
+                continue;
+            }
+
+            final JSONObject tag = tagCache.getTagByTitle(tagTitle);
+            if (null == tag) {
+                missingTitles.add(tagTitle);
+            } else {
+                tags.put(title, JSONs.clone(tag));
+            }
+        }
+
+        if (!missingTitles.isEmpty()) {
+            final Query query = new Query().setFilter(new PropertyFilter(Tag.TAG_TITLE, FilterOperator.IN, missingTitles)).setPageCount(1);
+
+            final JSONArray array = get(query).optJSONArray(Keys.RESULTS);
+            for (int i = 0; i < array.length(); i++) {
+                final JSONObject tag = array.optJSONObject(i);
+
+                tags.put(tag.optString(Tag.TAG_TITLE).toLowerCase(), tag);
+                tagCache.putTag(tag);
+            }
+        }
+
+        final List<JSONObject> ret = new ArrayList<JSONObject>();
+        for (final String tagTitle : tagTitles) {
+            final JSONObject tag = tags.remove(tagTitle.toLowerCase());
+            if (null != tag) {
+                ret.add(tag);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets random tags (with icon) with the specified fetch size.
+     *
+     * <p>
+     * The ids are sampled in memory, then the tags not cached are got with one query.
+     * </p>
+     *
+     * @param fetchSize the specified fetch size
+     * @return random tags, returns an empty list if not found
+     * @throws RepositoryException repository exception
+     */
+    public List<JSONObject> getRandomTags(final int fetchSize) throws RepositoryException {
+        final IdPool randomIds = tagCache.getRandomIds();
+        if (!randomIds.isLoaded()) {
+            loadRandomIds();
+        }
+
+        final List<String> ids = randomIds.sample(fetchSize);
+        final Map<String, JSONObject> tags = new HashMap<String, JSONObject>();
+        final Set<String> missingIds = new HashSet<String>();
+        for (final String id : ids) {
+            final JSONObject tag = tagCache.getTag(id);
+            if (null == tag) {
+                missingIds.add(id);
+            } else {
+                tags.put(id, JSONs.clone(tag));
+            }
+        }
+
+        if (!missingIds.isEmpty()) {
+            final Query query = new Query().setFilter(new PropertyFilter(Keys.OBJECT_ID, FilterOperator.IN, missingIds)).setPageCount(1);
+
+            final JSONArray array = get(query).optJSONArray(Keys.RESULTS);
+            for (int i = 0; i < array.length(); i++) {
+                final JSONObject tag = array.optJSONObject(i);
+
+                tags.put(tag.optString(Keys.OBJECT_ID), tag);
+                tagCache.putTag(tag);
+            }
+        }
+
+        final List<JSONObject> ret = new ArrayList<JSONObject>();
+        for (final String id : ids) {
+            final JSONObject tag = tags.get(id);
+            if (null == tag || !isRandomCandidate(tag)) { // Stale id (a rolled back transaction for example)
+                randomIds.remove(id);
+
+                continue;
+            }
+
+            ret.add(tag);
+        }
+
+        return ret;
     }
 
     /**
@@ -111,4 +338,36 @@ public class TagRepository extends AbstractRepository {
 
         return ret;
     }
+
+    /**
+     * Loads the ids of the tags may be picked randomly.
+     *
+     * @throws RepositoryException repository exception
+     */
+    private synchronized void loadRandomIds() throws RepositoryException {
+        final IdPool randomIds = tagCache.getRandomIds();
+        if (randomIds.isLoaded()) {
+            return;
+        }
+
+        final Query query = new Query().addProjection(Keys.OBJECT_ID, String.class).setPageCount(1).
+                setFilter(new PropertyFilter(Tag.TAG_ICON_PATH, FilterOperator.NOT_EQUAL, ""));
+        final JSONArray array = get(query).optJSONArray(Keys.RESULTS);
+        final List<String> ids = new ArrayList<String>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            ids.add(array.optJSONObject(i).optString(Keys.OBJECT_ID));
+        }
+
+        randomIds.load(ids);
+    }
+
+    /**
+     * Determines whether the specified tag may be picked randomly.
+     *
+     * @param tag the specified tag
+     * @return {@code true} if it has an icon, returns {@code false} otherwise
+     */
+    private static boolean isRandomCandidate(final JSONObject tag) {
+        return !"".equals(tag.optString(Tag.TAG_ICON_PATH));
+    }
 }
@@ -15,7 +15,13 @@
  */
 package org.b3log.symphony.repository;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.inject.Inject;
 import org.b3log.latke.Keys;
 import org.b3log.latke.model.Role;
@@ -29,14 +35,23 @@ import org.b3log.latke.repository.SortDirection;
 import org.b3log.latke.repository.annotation.Repository;
 import org.b3log.latke.util.CollectionUtils;
 import org.b3log.symphony.cache.UserCache;
+import org.b3log.symphony.model.UserExt;
+import org.b3log.symphony.util.JSONs;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
  * User repository.
  *
+ * <p>
+ * Users got by id, name or email are served from {@link UserCache}, the returned users are the cached read-only
+ * snapshots shared by all readers, callers intend to modify a user must clone it (see
+ * {@link JSONs#clone(org.json.JSONObject)}) first. Reads in a transaction go to the database and return modifiable users,
+ * so read-modify-write updates always start from the stored value.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.5, Apr 20, 2015
+ * @version 1.8.0.1, Oct 16, 2026
  * @since 0.2.0
  */
 @Repository
@@ -57,20 +72,21 @@ public class UserRepository extends AbstractRepository {
 
     @Override
     public JSONObject get(final String id) throws RepositoryException {
-        JSONObject ret = userCache.getUser(id);
+        if (hasTransactionBegun()) {
+            return super.get(id);
+        }
+
+        final JSONObject ret = userCache.getUser(id);
         if (null != ret) {
             return ret;
         }
 
-        ret = super.get(id);
-
-        if (null == ret) {
+        final JSONObject user = super.get(id);
+        if (null == user) {
             return null;
         }
 
-        userCache.putUser(ret);
-
-        return ret;
+        return userCache.putUser(user);
     }
 
     @Override
@@ -81,17 +97,186 @@ public class UserRepository extends AbstractRepository {
         userCache.putUser(user);
     }
 
+    @Override
+    public void remove(final String id) throws RepositoryException {
+        super.remove(id);
+
+        userCache.removeUser(id);
+    }
+
+    /**
+     * Increments the comment count and sets the latest comment time of a user specified by the given user id with one
+     * atomic update.
+     *
+     * @param userId the given user id
+     * @param latestCmtTime the specified latest comment time
+     * @throws RepositoryException if not found or repository exception
+     */
+    public void incCommentCount(final String userId, final long latestCmtTime) throws RepositoryException {
+        increment(userId, Collections.singletonMap(UserExt.USER_COMMENT_COUNT, 1L),
+                Collections.<String, Object>singletonMap(UserExt.USER_LATEST_CMT_TIME, latestCmtTime));
+    }
+
+    /**
+     * Increments the article count and the tag count and sets the latest article time of a user specified by the given
+     * user id with one atomic update.
+     *
+     * <p>
+     * Only the counters are written, so a concurrent update of other properties (the point for example) is not lost.
+     * </p>
+     *
+     * @param userId the given user id
+     * @param tagDelta the specified tag count delta, the count of tags created by the article
+     * @param latestArticleTime the specified latest article time
+     * @throws RepositoryException if not found or repository exception
+     */
+    public void incArticleCount(final String userId, final int tagDelta, final long latestArticleTime)
+            throws RepositoryException {
+        final Map<String, Long> deltas = new HashMap<String, Long>();
+        deltas.put(UserExt.USER_ARTICLE_COUNT, 1L);
+        if (0 != tagDelta) {
+            deltas.put(UserExt.USER_TAG_COUNT, (long) tagDelta);
+        }
+
+        increment(userId, deltas, Collections.<String, Object>singletonMap(UserExt.USER_LATEST_ARTICLE_TIME,
+                latestArticleTime));
+    }
+
+    /**
+     * Increments the tag count of a user specified by the given user id with one atomic update.
+     *
+     * @param userId the given user id
+     * @param delta the specified delta
+     * @throws RepositoryException if not found or repository exception
+     */
+    public void incTagCount(final String userId, final int delta) throws RepositoryException {
+        increment(userId, Collections.singletonMap(UserExt.USER_TAG_COUNT, (long) delta),
+                Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * Increments the point and the used point of a user specified by the given user id with one atomic update.
+     *
+     * <p>
+     * A negative point delta is applied only if the balance covers it ({@code userPoint >= -pointDelta}), so the
+     * balance never goes negative.
+     * </p>
+     *
+     * @param userId the given user id
+     * @param pointDelta the specified point delta
+     * @param usedPointDelta the specified used point delta
+     * @return the updated user, returns {@code null} if not found or the balance is insufficient
+     * @throws RepositoryException repository exception
+     */
+    public JSONObject incPoint(final String userId, final int pointDelta, final int usedPointDelta)
+            throws RepositoryException {
+        final Map<String, Long> deltas = new HashMap<String, Long>();
+        deltas.put(UserExt.USER_POINT, (long) pointDelta);
+        if (0 != usedPointDelta) {
+            deltas.put(UserExt.USER_USED_POINT, (long) usedPointDelta);
+        }
+
+        final Map<String, Long> minimums = 0 > pointDelta
+                ? Collections.singletonMap(UserExt.USER_POINT, (long) -pointDelta)
+                : Collections.<String, Long>emptyMap();
+
+        if (!Increments.increment(this, userId, deltas, Collections.<String, Object>emptyMap(), minimums)) {
+            return null;
+        }
+
+        final JSONObject ret = super.get(userId);
+        if (null == ret) {
+            userCache.removeUser(userId);
+        } else {
+            userCache.putUser(ret);
+        }
+
+        return ret;
+    }
+
+    /**
+     * Increments properties and sets properties of a user specified by the given user id with one atomic update, then
+     * refreshes the cached user.
+     *
+     * @param userId the given user id
+     * @param deltas the specified deltas, &lt;property, delta&gt;
+     * @param values the specified values to set, &lt;property, value&gt;
+     * @throws RepositoryException if not found or repository exception
+     */
+    private void increment(final String userId, final Map<String, Long> deltas, final Map<String, Object> values)
+            throws RepositoryException {
+        if (!Increments.increment(this, userId, deltas, values)) {
+            userCache.removeUser(userId);
+
+            throw new RepositoryException("Not found user [id=" + userId + "]");
+        }
+
+        final JSONObject user = super.get(userId);
+        if (null == user) {
+            userCache.removeUser(userId);
+        } else {
+            userCache.putUser(user);
+        }
+    }
+
+    /**
+     * Gets users by the specified ids.
+     *
+     * <p>
+     * Users not cached are got with one query, so hydrating the users of a list (authors of articles, commenters for
+     * example) costs at most one query.
+     * </p>
+     *
+     * @param ids the specified ids, may contain duplicates
+     * @return users (read-only), &lt;id, user&gt;, ids of nonexistent users are skipped, returns an empty map if not
+     * found
+     * @throws RepositoryException repository exception
+     */
+    public Map<String, JSONObject> getByIds(final Collection<String> ids) throws RepositoryException {
+        final Map<String, JSONObject> ret = new HashMap<String, JSONObject>();
+        final Set<String> missingIds = new HashSet<String>();
+        for (final String id : ids) {
+            if (ret.containsKey(id) || missingIds.contains(id)) {
+                continue;
+            }
+
+            final JSONObject user = userCache.getUser(id);
+            if (null == user) {
+                missingIds.add(id);
+            } else {
+                ret.put(id, user);
+            }
+        }
+
+        if (missingIds.isEmpty()) {
+            return ret;
+        }
+
+        final Query query = new Query().setFilter(new PropertyFilter(Keys.OBJECT_ID, FilterOperator.IN, missingIds)).setPageCount(1);
+
+        final JSONArray array = get(query).optJSONArray(Keys.RESULTS);
+        for (int i = 0; i < array.length(); i++) {
+            final JSONObject user = array.optJSONObject(i);
+
+            ret.put(user.optString(Keys.OBJECT_ID), userCache.putUser(user));
+        }
+
+        return ret;
+    }
+
     /**
      * Gets a user by the specified name.
      *
      * @param name the specified name
-     * @return user, returns {@code null} if not found
+     * @return user (read-only out of transactions), returns {@code null} if not found
      * @throws RepositoryException repository exception
      */
     public JSONObject getByName(final String name) throws RepositoryException {
-        JSONObject ret = userCache.getUserByName(name);
-        if (null != ret) {
-            return ret;
+        if (!hasTransactionBegun()) {
+            final JSONObject ret = userCache.getUserByName(name);
+            if (null != ret) {
+                return ret;
+            }
         }
 
         final Query query = new Query().setPageCount(1);
@@ -104,21 +289,29 @@ public class UserRepository extends AbstractRepository {
             return null;
         }
 
-        ret = array.optJSONObject(0);
-
-        userCache.putUser(ret);
+        final JSONObject ret = array.optJSONObject(0);
+        if (hasTransactionBegun()) {
+            return ret;
+        }
 
-        return ret;
+        return userCache.putUser(ret);
     }
 
     /**
      * Gets a user by the specified email.
      *
      * @param email the specified email
-     * @return user, returns {@code null} if not found
+     * @return user (read-only out of transactions), returns {@code null} if not found
      * @throws RepositoryException repository exception
      */
     public JSONObject getByEmail(final String email) throws RepositoryException {
+        if (!hasTransactionBegun()) {
+            final JSONObject ret = userCache.getUserByEmail(email);
+            if (null != ret) {
+                return ret;
+            }
+        }
+
         final Query query = new Query().setPageCount(1);
         query.setFilter(new PropertyFilter(User.USER_EMAIL, FilterOperator.EQUAL, email.toLowerCase().trim()));
 
@@ -129,7 +322,12 @@ public class UserRepository extends AbstractRepository {
             return null;
         }
 
-        return array.optJSONObject(0);
+        final JSONObject ret = array.optJSONObject(0);
+        if (hasTransactionBegun()) {
+            return ret;
+        }
+
+        return userCache.putUser(ret);
     }
 
     /**
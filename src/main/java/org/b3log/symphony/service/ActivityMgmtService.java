@@ -35,6 +35,7 @@ import org.b3log.latke.util.Strings;
 import org.b3log.symphony.model.Common;
 import org.b3log.symphony.model.Pointtransfer;
 import org.b3log.symphony.model.UserExt;
+import org.b3log.symphony.util.JSONs;
 import org.b3log.symphony.util.Results;
 import org.json.JSONObject;
 import org.jsoup.Jsoup;
@@ -44,7 +45,7 @@ import org.jsoup.nodes.Document;
  * Activity management service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.2.6.0, Dec 17, 2015
+ * @version 1.2.6.1, Oct 16, 2026
  * @since 1.3.0
  */
 @Service
@@ -119,7 +120,7 @@ public class ActivityMgmtService {
         }
 
         try {
-            final JSONObject user = userQueryService.getUser(userId);
+            final JSONObject user = JSONs.clone(userQueryService.getUser(userId)); // The cached user is read-only
 
             int currentStreakStart = user.optInt(UserExt.USER_CURRENT_CHECKIN_STREAK_START);
             int currentStreakEnd = user.optInt(UserExt.USER_CURRENT_CHECKIN_STREAK_END);
@@ -17,9 +17,13 @@ package org.b3log.symphony.service;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
 import org.apache.commons.lang.ArrayUtils;
@@ -32,13 +36,22 @@ import org.b3log.latke.logging.Level;
 import org.b3log.latke.logging.Logger;
 import org.b3log.latke.model.Role;
 import org.b3log.latke.model.User;
+import org.b3log.latke.repository.CompositeFilterOperator;
+import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.PropertyFilter;
+import org.b3log.latke.repository.Query;
 import org.b3log.latke.repository.RepositoryException;
+import org.b3log.latke.repository.SortDirection;
 import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.service.LangPropsService;
 import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
 import org.b3log.latke.util.Ids;
 import org.b3log.latke.util.Strings;
+import org.b3log.symphony.cache.ArticleCache;
+import org.b3log.symphony.cache.PageCache;
+import org.b3log.symphony.cache.ShortLinkCache;
+import org.b3log.symphony.cache.UserCache;
 import org.b3log.symphony.event.EventTypes;
 import org.b3log.symphony.model.Article;
 import org.b3log.symphony.model.Common;
@@ -56,15 +69,27 @@ import org.b3log.symphony.repository.TagRepository;
 import org.b3log.symphony.repository.UserRepository;
 import org.b3log.symphony.repository.UserTagRepository;
 import org.b3log.symphony.util.Emotions;
+import org.b3log.symphony.util.Markdowns;
+import org.b3log.symphony.util.StripedLocks;
 import org.b3log.symphony.util.Symphonys;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
 /**
  * Article management service.
  *
+ * <p>
+ * Adding and updating articles are serialized per author (see {@link #AUTHOR_LOCKS}) for the rate limit and balance
+ * checks, and per tag title (see {@link #TAG_LOCKS}) for tag creation. The author lock is taken before the tag locks.
+ * Counters are incremented atomically by the database (tag reference counts, the article and tag counts of the author)
+ * or written behind (article and tag statistic options, see
+ * {@link OptionMgmtService#incStatistic(java.lang.String, java.lang.String, long)}), the point transfers run after
+ * the commit.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.7.16.13, Apr 28, 2016
+ * @version 2.13.0.8, Oct 16, 2026
  * @since 0.2.0
  */
 @Service
@@ -75,12 +100,71 @@ public class ArticleMgmtService {
      */
     private static final Logger LOGGER = Logger.getLogger(ArticleMgmtService.class.getName());
 
+    /**
+     * Author locks, &lt;authorId, lock&gt;.
+     */
+    private static final StripedLocks AUTHOR_LOCKS = new StripedLocks(64);
+
+    /**
+     * Tag locks, &lt;tagTitle (lower case), lock&gt;.
+     */
+    private static final StripedLocks TAG_LOCKS = new StripedLocks(64);
+
+    /**
+     * Min interval between two articles of an author in milliseconds, {@code minStepArticleTime} of
+     * symphony.properties, overridden by the rate limit test only.
+     */
+    static volatile long minStepArticleTime = Symphonys.getLong("minStepArticleTime");
+
+    /**
+     * Max count of pending article views, see {@link #incArticleViewCount(java.lang.String)}.
+     */
+    private static final long MAX_PENDING_VIEW_CNT = Symphonys.getLong("cache.view.maxPending");
+
+    /**
+     * Lock of flushing article view counts.
+     */
+    private static final Lock VIEW_FLUSH_LOCK = new ReentrantLock();
+
+    /**
+     * Min delay of the flushes triggered by views after a failed flush, in milliseconds.
+     */
+    private static final long MIN_VIEW_FLUSH_BACKOFF = 1000;
+
+    /**
+     * Max delay of the flushes triggered by views after failed flushes, in milliseconds.
+     */
+    private static final long MAX_VIEW_FLUSH_BACKOFF = 60 * 1000;
+
+    /**
+     * Current delay of the flushes triggered by views, doubled on each failed flush and reset by a succeeded one, in
+     * milliseconds, guarded by {@link #VIEW_FLUSH_LOCK}.
+     */
+    private static long viewFlushBackoff;
+
+    /**
+     * Time before which views do not trigger flushes.
+     */
+    private static volatile long nextViewFlushTime;
+
+    /**
+     * Id of the last stale article got for re-rendering, the next page starts after it, {@code ""} starts from the
+     * first one, see {@link #renderStaleArticles(int)}.
+     */
+    private static volatile String staleArticleCursor = "";
+
     /**
      * Article repository.
      */
     @Inject
     private ArticleRepository articleRepository;
 
+    /**
+     * Render management service.
+     */
+    @Inject
+    private RenderMgmtService renderMgmtService;
+
     /**
      * Tag repository.
      */
@@ -111,6 +195,12 @@ public class ArticleMgmtService {
     @Inject
     private OptionRepository optionRepository;
 
+    /**
+     * Option management service.
+     */
+    @Inject
+    private OptionMgmtService optionMgmtService;
+
     /**
      * Tag management service.
      */
@@ -165,34 +255,120 @@ public class ArticleMgmtService {
     @Inject
     private JournalQueryService journalQueryService;
 
+    /**
+     * Article cache.
+     */
+    @Inject
+    private ArticleCache articleCache;
+
+    /**
+     * Short link cache.
+     */
+    @Inject
+    private ShortLinkCache shortLinkCache;
+
+    /**
+     * Page cache.
+     */
+    @Inject
+    private PageCache pageCache;
+
+    /**
+     * User cache.
+     */
+    @Inject
+    private UserCache userCache;
+
+    /**
+     * Article query service.
+     */
+    @Inject
+    private ArticleQueryService articleQueryService;
+
     /**
      * Increments the view count of the specified article by the given article id.
      *
+     * <p>
+     * The view is counted in memory (see {@link ArticleCache#incViewCount(java.lang.String)}) and written by
+     * {@link #flushArticleViewCounts()}, which runs on a short cron interval, on shutdown and as soon as the pending
+     * views reach {@code cache.view.maxPending}, so at most that many views are lost on a crash while the database is
+     * available.
+     * </p>
+     *
+     * <p>
+     * After a failed flush (the database is down for example) views do not trigger flushes again until a delay
+     * doubling up to a minute has passed, the views keep being counted in the meantime and are written by the next
+     * succeeded flush.
+     * </p>
+     *
      * @param articleId the given article id
      * @throws ServiceException service exception
      */
     public void incArticleViewCount(final String articleId) throws ServiceException {
-        final Transaction transaction = articleRepository.beginTransaction();
+        if (articleCache.incViewCount(articleId) < MAX_PENDING_VIEW_CNT
+                || System.currentTimeMillis() < nextViewFlushTime) {
+            return;
+        }
 
-        try {
-            final JSONObject article = articleRepository.get(articleId);
-            if (null == article) {
-                return;
+        if (VIEW_FLUSH_LOCK.tryLock()) { // Skips if a flush is running
+            try {
+                flushArticleViewCountsLocked();
+            } finally {
+                VIEW_FLUSH_LOCK.unlock();
             }
+        }
+    }
 
-            final int viewCnt = article.optInt(Article.ARTICLE_VIEW_CNT);
-            article.put(Article.ARTICLE_VIEW_CNT, viewCnt + 1);
+    /**
+     * Writes the pending article view counts to the article table with one batch.
+     *
+     * <p>
+     * The view counts are kept if the transaction fails, and retried on the next flush.
+     * </p>
+     */
+    public void flushArticleViewCounts() {
+        VIEW_FLUSH_LOCK.lock();
+        try {
+            flushArticleViewCountsLocked();
+        } finally {
+            VIEW_FLUSH_LOCK.unlock();
+        }
+    }
 
-            articleRepository.update(articleId, article);
+    /**
+     * Writes the pending article view counts, the view flush lock has been held.
+     */
+    private void flushArticleViewCountsLocked() {
+        final Map<String, Long> viewCnts = articleCache.getViewCounts();
+        if (viewCnts.isEmpty()) {
+            return;
+        }
+
+        final Transaction transaction = articleRepository.beginTransaction();
+
+        try {
+            articleRepository.incViewCounts(viewCnts);
 
             transaction.commit();
+
+            for (final String articleId : viewCnts.keySet()) {
+                articleCache.removeArticle(articleId);
+            }
+            articleCache.subtractViewCounts(viewCnts);
+
+            viewFlushBackoff = 0;
+            nextViewFlushTime = 0;
         } catch (final RepositoryException e) {
             if (transaction.isActive()) {
                 transaction.rollback();
             }
 
-            LOGGER.log(Level.ERROR, "Incs an article view count failed", e);
-            throw new ServiceException(e);
+            viewFlushBackoff = 0 == viewFlushBackoff
+                    ? MIN_VIEW_FLUSH_BACKOFF : Math.min(viewFlushBackoff * 2, MAX_VIEW_FLUSH_BACKOFF);
+            nextViewFlushTime = System.currentTimeMillis() + viewFlushBackoff;
+
+            LOGGER.log(Level.ERROR, "Flushes [" + viewCnts.size() + "] article view counts failed, views trigger "
+                    + "the next flush in [" + viewFlushBackoff + "ms]", e);
         }
     }
 
@@ -218,7 +394,28 @@ public class ArticleMgmtService {
      * @return generated article id
      * @throws ServiceException service exception
      */
-    public synchronized String addArticle(final JSONObject requestJSONObject) throws ServiceException {
+    public String addArticle(final JSONObject requestJSONObject) throws ServiceException {
+        final Lock authorLock = AUTHOR_LOCKS.lock(requestJSONObject.optString(Article.ARTICLE_AUTHOR_ID));
+        try {
+            final List<Lock> tagLocks = lockTags(requestJSONObject.optString(Article.ARTICLE_TAGS));
+            try {
+                return addArticleLocked(requestJSONObject);
+            } finally {
+                StripedLocks.unlock(tagLocks);
+            }
+        } finally {
+            authorLock.unlock();
+        }
+    }
+
+    /**
+     * Adds an article with the specified request json object, the author lock and tag locks have been held.
+     *
+     * @param requestJSONObject the specified request json object, see {@link #addArticle(org.json.JSONObject)}
+     * @return generated article id
+     * @throws ServiceException service exception
+     */
+    private String addArticleLocked(final JSONObject requestJSONObject) throws ServiceException {
         final long currentTimeMillis = System.currentTimeMillis();
         final String authorId = requestJSONObject.optString(Article.ARTICLE_AUTHOR_ID);
         JSONObject author = null;
@@ -240,7 +437,7 @@ public class ArticleMgmtService {
 
             author = userRepository.get(authorId);
 
-            if (currentTimeMillis - author.optLong(UserExt.USER_LATEST_ARTICLE_TIME) < Symphonys.getLong("minStepArticleTime")
+            if (currentTimeMillis - author.optLong(UserExt.USER_LATEST_ARTICLE_TIME) < minStepArticleTime
                     && !Role.ADMIN_ROLE.equals(author.optString(User.USER_ROLE))) {
 
                 LOGGER.log(Level.WARN, "Adds article too frequent [userName={0}]", author.optString(User.USER_NAME));
@@ -314,43 +511,36 @@ public class ArticleMgmtService {
                 article.put(Article.ARTICLE_CITY, city);
             }
 
-            tag(article.optString(Article.ARTICLE_TAGS).split(","), article, author);
+            final List<String> newTagTitles = tag(article.optString(Article.ARTICLE_TAGS).split(","), article);
 
             final String ip = requestJSONObject.optString(Article.ARTICLE_IP);
             article.put(Article.ARTICLE_IP, ip);
 
-            final JSONObject articleCntOption = optionRepository.get(Option.ID_C_STATISTIC_ARTICLE_COUNT);
-            final int articleCnt = articleCntOption.optInt(Option.OPTION_VALUE);
-            articleCntOption.put(Option.OPTION_VALUE, articleCnt + 1);
-            optionRepository.update(Option.ID_C_STATISTIC_ARTICLE_COUNT, articleCntOption);
+            articleQueryService.renderArticle(article);
 
-            if (!StringUtils.isBlank(city)) {
-                final String cityStatId = city + "-ArticleCount";
-                JSONObject cityArticleCntOption = optionRepository.get(cityStatId);
+            // Updates user article count (and new tag count), latest article time, the point may be changed by
+            // concurrent transfers so the author is not written as a whole
+            userRepository.incArticleCount(authorId, newTagTitles.size(), currentTimeMillis);
 
-                if (null == cityArticleCntOption) {
-                    cityArticleCntOption = new JSONObject();
-                    cityArticleCntOption.put(Keys.OBJECT_ID, cityStatId);
-                    cityArticleCntOption.put(Option.OPTION_VALUE, 1);
-                    cityArticleCntOption.put(Option.OPTION_CATEGORY, city + "-statistic");
+            final String articleId = articleRepository.add(article);
 
-                    optionRepository.add(cityArticleCntOption);
-                } else {
-                    final int cityArticleCnt = cityArticleCntOption.optInt(Option.OPTION_VALUE);
-                    cityArticleCntOption.put(Option.OPTION_VALUE, cityArticleCnt + 1);
+            transaction.commit();
 
-                    optionRepository.update(cityStatId, cityArticleCntOption);
-                }
+            // Statistic options are shared by all authors, written behind
+            optionMgmtService.incStatistic(Option.ID_C_STATISTIC_ARTICLE_COUNT, Option.CATEGORY_C_STATISTIC, 1);
+            if (!StringUtils.isBlank(city)) {
+                optionMgmtService.incStatistic(city + "-ArticleCount", city + "-statistic", 1);
             }
 
-            author.put(UserExt.USER_ARTICLE_COUNT, author.optInt(UserExt.USER_ARTICLE_COUNT) + 1);
-            author.put(UserExt.USER_LATEST_ARTICLE_TIME, currentTimeMillis);
-            // Updates user article count (and new tag count), latest article time
-            userRepository.update(author.optString(Keys.OBJECT_ID), author);
-
-            final String articleId = articleRepository.add(article);
-
-            transaction.commit();
+            shortLinkCache.removeArticleTitle(articleId);
+            if (!newTagTitles.isEmpty()) {
+                optionMgmtService.incStatistic(Option.ID_C_STATISTIC_TAG_COUNT, Option.CATEGORY_C_STATISTIC,
+                        newTagTitles.size());
+            }
+            for (final String tagTitle : newTagTitles) { // Evicted after the commit, a reader may reload the old value
+                shortLinkCache.removeTagTitle(tagTitle);
+            }
+            pageCache.clear();
 
             // Grows the tag graph
             tagMgmtService.relateTags(article.optString(Article.ARTICLE_TAGS));
@@ -412,6 +602,9 @@ public class ArticleMgmtService {
                 transaction.rollback();
             }
 
+            // The cached author may hold the rolled back counts
+            userCache.removeUser(authorId);
+
             LOGGER.log(Level.ERROR, "Adds an article failed", e);
             throw new ServiceException(e);
         }
@@ -437,7 +630,40 @@ public class ArticleMgmtService {
      *
      * @throws ServiceException service exception
      */
-    public synchronized void updateArticle(final JSONObject requestJSONObject) throws ServiceException {
+    public void updateArticle(final JSONObject requestJSONObject) throws ServiceException {
+        final String articleId = requestJSONObject.optString(Keys.OBJECT_ID);
+        final String authorId;
+        try {
+            final JSONObject article = articleRepository.get(articleId);
+            if (null == article) {
+                throw new ServiceException("Not found article [id=" + articleId + "]");
+            }
+
+            authorId = article.optString(Article.ARTICLE_AUTHOR_ID);
+        } catch (final RepositoryException e) {
+            throw new ServiceException(e);
+        }
+
+        final Lock authorLock = AUTHOR_LOCKS.lock(authorId);
+        try {
+            final List<Lock> tagLocks = lockTags(requestJSONObject.optString(Article.ARTICLE_TAGS));
+            try {
+                updateArticleLocked(requestJSONObject);
+            } finally {
+                StripedLocks.unlock(tagLocks);
+            }
+        } finally {
+            authorLock.unlock();
+        }
+    }
+
+    /**
+     * Updates an article with the specified request json object, the author lock and tag locks have been held.
+     *
+     * @param requestJSONObject the specified request json object, see {@link #updateArticle(org.json.JSONObject)}
+     * @throws ServiceException service exception
+     */
+    private void updateArticleLocked(final JSONObject requestJSONObject) throws ServiceException {
         try {
             // check if admin allow to add article
             final JSONObject option = optionRepository.get(Option.ID_C_MISC_ALLOW_ADD_ARTICLE);
@@ -449,17 +675,20 @@ public class ArticleMgmtService {
             throw new ServiceException(e);
         }
 
+        String authorId = null;
         final Transaction transaction = articleRepository.beginTransaction();
 
         try {
             final String articleId = requestJSONObject.getString(Keys.OBJECT_ID);
             final JSONObject oldArticle = articleRepository.get(articleId);
-            final String authorId = oldArticle.optString(Article.ARTICLE_AUTHOR_ID);
-            final JSONObject author = userRepository.get(authorId);
+            authorId = oldArticle.optString(Article.ARTICLE_AUTHOR_ID);
 
-            processTagsForArticleUpdate(oldArticle, requestJSONObject, author);
-            userRepository.update(author.optString(Keys.OBJECT_ID), author);
+            final List<String> newTagTitles = processTagsForArticleUpdate(oldArticle, requestJSONObject);
+            if (!newTagTitles.isEmpty()) {
+                userRepository.incTagCount(authorId, newTagTitles.size());
+            }
 
+            final String oldArticleTitle = oldArticle.optString(Article.ARTICLE_TITLE);
             String articleTitle = requestJSONObject.optString(Article.ARTICLE_TITLE);
             articleTitle = Emotions.toAliases(articleTitle);
             oldArticle.put(Article.ARTICLE_TITLE, articleTitle);
@@ -488,10 +717,27 @@ public class ArticleMgmtService {
             final String ip = requestJSONObject.optString(Article.ARTICLE_IP);
             oldArticle.put(Article.ARTICLE_IP, ip);
 
+            articleQueryService.renderArticle(oldArticle);
+
             articleRepository.update(articleId, oldArticle);
 
             transaction.commit();
 
+            articleCache.removeArticle(articleId); // Evicted after the commit, a reader may reload the old value
+            articleCache.removeArticleContent(articleId);
+            shortLinkCache.removeArticleTitle(articleId);
+            if (!newTagTitles.isEmpty()) {
+                optionMgmtService.incStatistic(Option.ID_C_STATISTIC_TAG_COUNT, Option.CATEGORY_C_STATISTIC,
+                        newTagTitles.size());
+            }
+            for (final String tagTitle : newTagTitles) { // Evicted after the commit, a reader may reload the old value
+                shortLinkCache.removeTagTitle(tagTitle);
+            }
+            if (!oldArticleTitle.equals(articleTitle)) {
+                renderMgmtService.markStale("[" + articleId + "]");
+            }
+            pageCache.clear();
+
             final int articleType = oldArticle.optInt(Article.ARTICLE_TYPE);
             if (Article.ARTICLE_TYPE_C_JOURNAL_PARAGRAPH != articleType
                     && Article.ARTICLE_TYPE_C_JOURNAL_SECTION != articleType
@@ -526,6 +772,10 @@ public class ArticleMgmtService {
                 transaction.rollback();
             }
 
+            if (null != authorId) { // The cached author may hold the rolled back tag count
+                userCache.removeUser(authorId);
+            }
+
             LOGGER.log(Level.ERROR, "Updates an article failed", e);
             throw new ServiceException(e);
         }
@@ -539,17 +789,37 @@ public class ArticleMgmtService {
      * @throws ServiceException service exception
      */
     public void updateArticle(final String articleId, final JSONObject article) throws ServiceException {
+        final Lock authorLock = AUTHOR_LOCKS.lock(article.optString(Article.ARTICLE_AUTHOR_ID));
+        try {
+            final List<Lock> tagLocks = lockTags(article.optString(Article.ARTICLE_TAGS));
+            try {
+                updateArticleLocked(articleId, article);
+            } finally {
+                StripedLocks.unlock(tagLocks);
+            }
+        } finally {
+            authorLock.unlock();
+        }
+    }
+
+    /**
+     * Updates the specified article by the given article id, the author lock and tag locks have been held.
+     *
+     * @param articleId the given article id
+     * @param article the specified article
+     * @throws ServiceException service exception
+     */
+    private void updateArticleLocked(final String articleId, final JSONObject article) throws ServiceException {
         final Transaction transaction = articleRepository.beginTransaction();
 
         try {
             final String authorId = article.optString(Article.ARTICLE_AUTHOR_ID);
-            final JSONObject author = userRepository.get(authorId);
 
             article.put(Article.ARTICLE_COMMENTABLE, Boolean.valueOf(article.optBoolean(Article.ARTICLE_COMMENTABLE)));
 
             final JSONObject oldArticle = articleRepository.get(articleId);
 
-            processTagsForArticleUpdate(oldArticle, article, author);
+            final List<String> newTagTitles = processTagsForArticleUpdate(oldArticle, article);
 
             String articleTitle = article.optString(Article.ARTICLE_TITLE);
             articleTitle = Emotions.toAliases(articleTitle);
@@ -559,15 +829,37 @@ public class ArticleMgmtService {
             articleContent = Emotions.toAliases(articleContent);
             article.put(Article.ARTICLE_CONTENT, articleContent);
 
-            userRepository.update(author.optString(Keys.OBJECT_ID), author);
+            articleQueryService.renderArticle(article);
+
+            if (!newTagTitles.isEmpty()) {
+                userRepository.incTagCount(authorId, newTagTitles.size());
+            }
             articleRepository.update(articleId, article);
 
             transaction.commit();
+
+            articleCache.removeArticle(articleId); // Evicted after the commit, a reader may reload the old value
+            articleCache.removeArticleContent(articleId);
+            shortLinkCache.removeArticleTitle(articleId);
+            if (!newTagTitles.isEmpty()) {
+                optionMgmtService.incStatistic(Option.ID_C_STATISTIC_TAG_COUNT, Option.CATEGORY_C_STATISTIC,
+                        newTagTitles.size());
+            }
+            for (final String tagTitle : newTagTitles) { // Evicted after the commit, a reader may reload the old value
+                shortLinkCache.removeTagTitle(tagTitle);
+            }
+            if (!oldArticle.optString(Article.ARTICLE_TITLE).equals(articleTitle)) {
+                renderMgmtService.markStale("[" + articleId + "]");
+            }
+            pageCache.clear();
         } catch (final Exception e) {
             if (transaction.isActive()) {
                 transaction.rollback();
             }
 
+            // The cached author may hold the rolled back tag count
+            userCache.removeUser(article.optString(Article.ARTICLE_AUTHOR_ID));
+
             LOGGER.log(Level.ERROR, "Updates an article[id=" + articleId + "] failed", e);
             throw new ServiceException(e);
         }
@@ -662,20 +954,21 @@ public class ArticleMgmtService {
      *
      * @param oldArticle the specified old article
      * @param newArticle the specified new article
-     * @param author the specified author
+     * @return titles of the tags created
      * @throws Exception exception
      */
-    private synchronized void processTagsForArticleUpdate(final JSONObject oldArticle, final JSONObject newArticle,
-            final JSONObject author) throws Exception {
+    private List<String> processTagsForArticleUpdate(final JSONObject oldArticle, final JSONObject newArticle)
+            throws Exception {
         final String oldArticleId = oldArticle.getString(Keys.OBJECT_ID);
         final List<JSONObject> oldTags = tagRepository.getByArticleId(oldArticleId);
         final String tagsString = newArticle.getString(Article.ARTICLE_TAGS);
         String[] tagStrings = tagsString.split(",");
         final List<JSONObject> newTags = new ArrayList<JSONObject>();
+        final Map<String, JSONObject> existingTags = getTagsByTitles(tagStrings);
 
         for (int i = 0; i < tagStrings.length; i++) {
             final String tagTitle = tagStrings[i].trim();
-            JSONObject newTag = tagRepository.getByTitle(tagTitle);
+            JSONObject newTag = existingTags.get(tagTitle.toLowerCase());
 
             if (null == newTag) {
                 newTag = new JSONObject();
@@ -708,13 +1001,8 @@ public class ArticleMgmtService {
 
         for (final JSONObject tagDropped : tagsDropped) {
             final String tagId = tagDropped.getString(Keys.OBJECT_ID);
-            final int refCnt = tagDropped.getInt(Tag.TAG_REFERENCE_CNT);
-
-            tagDropped.put(Tag.TAG_REFERENCE_CNT, refCnt - 1);
-            final int tagCmtCnt = tagDropped.getInt(Tag.TAG_COMMENT_CNT);
-            tagDropped.put(Tag.TAG_COMMENT_CNT, tagCmtCnt - articleCmtCnt);
 
-            tagRepository.update(tagId, tagDropped);
+            tagRepository.incCounts(tagId, -1, -articleCmtCnt);
         }
 
         final String[] tagIdsDropped = new String[tagsDropped.size()];
@@ -739,7 +1027,8 @@ public class ArticleMgmtService {
         }
 
         newArticle.put(Article.ARTICLE_COMMENT_CNT, articleCmtCnt);
-        tag(tagStrings, newArticle, author);
+
+        return tag(tagStrings, newArticle);
     }
 
     /**
@@ -773,6 +1062,21 @@ public class ArticleMgmtService {
         }
     }
 
+    /**
+     * Locks the tag locks of the specified article tags.
+     *
+     * @param articleTags the specified article tags, for example "tag1,tag2"
+     * @return the locked locks, should be unlocked with {@link StripedLocks#unlock(java.util.List)}
+     */
+    private static List<Lock> lockTags(final String articleTags) {
+        final List<String> tagTitles = new ArrayList<String>();
+        for (final String tagTitle : articleTags.split(",")) {
+            tagTitles.add(tagTitle.trim().toLowerCase());
+        }
+
+        return TAG_LOCKS.lock(tagTitles);
+    }
+
     /**
      * Determines whether the specified tag title exists in the specified tags.
      *
@@ -791,21 +1095,44 @@ public class ArticleMgmtService {
         return false;
     }
 
+    /**
+     * Gets existing tags by the specified tag titles with one round trip.
+     *
+     * @param tagTitles the specified tag titles, may contain surrounding whitespace
+     * @return tags, &lt;tagTitle (lower case), tag&gt;
+     * @throws RepositoryException repository exception
+     */
+    private Map<String, JSONObject> getTagsByTitles(final String[] tagTitles) throws RepositoryException {
+        final List<String> titles = new ArrayList<String>();
+        for (final String tagTitle : tagTitles) {
+            titles.add(tagTitle.trim());
+        }
+
+        final Map<String, JSONObject> ret = new HashMap<String, JSONObject>();
+        for (final JSONObject tag : tagRepository.getByTitles(titles)) {
+            ret.put(tag.optString(Tag.TAG_TITLE).toLowerCase(), tag);
+        }
+
+        return ret;
+    }
+
     /**
      * Tags the specified article with the specified tag titles.
      *
      * @param tagTitles the specified tag titles
      * @param article the specified article
-     * @param author the specified author
+     * @return titles of the tags created, the author of the article is the creator of these tags, the caller should
+     * evict them from {@link ShortLinkCache} once the transaction committed
      * @throws RepositoryException repository exception
      */
-    private synchronized void tag(final String[] tagTitles, final JSONObject article, final JSONObject author)
-            throws RepositoryException {
+    private List<String> tag(final String[] tagTitles, final JSONObject article) throws RepositoryException {
+        final List<String> ret = new ArrayList<String>();
         String articleTags = article.optString(Article.ARTICLE_TAGS);
+        final Map<String, JSONObject> existingTags = getTagsByTitles(tagTitles);
 
         for (int i = 0; i < tagTitles.length; i++) {
             final String tagTitle = tagTitles[i].trim();
-            JSONObject tag = tagRepository.getByTitle(tagTitle);
+            JSONObject tag = existingTags.get(tagTitle.toLowerCase());
             String tagId;
             int userTagType;
             final int articleCmtCnt = article.optInt(Article.ARTICLE_COMMENT_CNT);
@@ -826,35 +1153,19 @@ public class ArticleMgmtService {
 
                 tagId = tagRepository.add(tag);
                 tag.put(Keys.OBJECT_ID, tagId);
+                existingTags.put(tagTitle.toLowerCase(), tag);
                 userTagType = Tag.TAG_TYPE_C_CREATOR;
 
-                final JSONObject tagCntOption = optionRepository.get(Option.ID_C_STATISTIC_TAG_COUNT);
-                final int tagCnt = tagCntOption.optInt(Option.OPTION_VALUE);
-                tagCntOption.put(Option.OPTION_VALUE, tagCnt + 1);
-                optionRepository.update(Option.ID_C_STATISTIC_TAG_COUNT, tagCntOption);
-
-                author.put(UserExt.USER_TAG_COUNT, author.optInt(UserExt.USER_TAG_COUNT) + 1);
+                ret.add(tagTitle);
             } else {
                 tagId = tag.optString(Keys.OBJECT_ID);
                 LOGGER.log(Level.TRACE, "Found a existing tag[title={0}, id={1}] in article[title={2}]",
                         new Object[]{tag.optString(Tag.TAG_TITLE), tag.optString(Keys.OBJECT_ID),
                             article.optString(Article.ARTICLE_TITLE)});
-                final JSONObject tagTmp = new JSONObject();
-                tagTmp.put(Keys.OBJECT_ID, tagId);
                 final String title = tag.optString(Tag.TAG_TITLE);
                 articleTags = articleTags.replaceAll("(?i)" + Pattern.quote(tagTitle), title);
 
-                tagTmp.put(Tag.TAG_TITLE, title);
-                tagTmp.put(Tag.TAG_COMMENT_CNT, tag.optInt(Tag.TAG_COMMENT_CNT) + articleCmtCnt);
-                tagTmp.put(Tag.TAG_STATUS, tag.optInt(Tag.TAG_STATUS));
-                tagTmp.put(Tag.TAG_REFERENCE_CNT, tag.optInt(Tag.TAG_REFERENCE_CNT) + 1);
-                tagTmp.put(Tag.TAG_FOLLOWER_CNT, tag.optInt(Tag.TAG_FOLLOWER_CNT));
-                tagTmp.put(Tag.TAG_DESCRIPTION, tag.optString(Tag.TAG_DESCRIPTION));
-                tagTmp.put(Tag.TAG_ICON_PATH, tag.optString(Tag.TAG_ICON_PATH));
-                tagTmp.put(Tag.TAG_GOOD_CNT, tag.optInt(Tag.TAG_GOOD_CNT));
-                tagTmp.put(Tag.TAG_BAD_CNT, tag.optInt(Tag.TAG_BAD_CNT));
-
-                tagRepository.update(tagId, tagTmp);
+                tagRepository.incCounts(tagId, 1, articleCmtCnt);
 
                 userTagType = Tag.TAG_TYPE_C_ARTICLE;
             }
@@ -874,6 +1185,8 @@ public class ArticleMgmtService {
             userTagRelation.put(Common.TYPE, userTagType);
             userTagRepository.add(userTagRelation);
         }
+
+        return ret;
     }
 
     /**
@@ -933,4 +1246,81 @@ public class ArticleMgmtService {
 
         return retBuilder.toString();
     }
+
+    /**
+     * Re-renders articles whose persisted content HTML is stale (rendered with another render version).
+     *
+     * <p>
+     * The stale articles are paged through in id order across invocations, starting over from the first one after
+     * the last page. A failure of one article is logged and skipped, so it never blocks the articles after it.
+     * </p>
+     *
+     * @param fetchSize the specified max count of articles to re-render
+     * @return count of re-rendered articles
+     * @throws ServiceException if failed to get the stale articles
+     */
+    public int renderStaleArticles(final int fetchSize) throws ServiceException {
+        final Query query = new Query().setCurrentPageNum(1).setPageSize(fetchSize).setPageCount(1)
+                .addProjection(Keys.OBJECT_ID, String.class)
+                .setFilter(CompositeFilterOperator.and(
+                        new PropertyFilter(Article.ARTICLE_RENDER_VERSION, FilterOperator.NOT_EQUAL,
+                                Markdowns.RENDER_VERSION),
+                        new PropertyFilter(Keys.OBJECT_ID, FilterOperator.GREATER_THAN, staleArticleCursor)))
+                .addSort(Keys.OBJECT_ID, SortDirection.ASCENDING);
+
+        final JSONArray articles;
+        try {
+            articles = articleRepository.get(query).optJSONArray(Keys.RESULTS);
+        } catch (final RepositoryException e) {
+            LOGGER.log(Level.ERROR, "Gets stale articles failed", e);
+
+            throw new ServiceException(e);
+        }
+
+        staleArticleCursor = articles.length() < fetchSize
+                ? "" : articles.optJSONObject(articles.length() - 1).optString(Keys.OBJECT_ID);
+
+        int ret = 0;
+        for (int i = 0; i < articles.length(); i++) {
+            final String articleId = articles.optJSONObject(i).optString(Keys.OBJECT_ID);
+
+            try {
+                if (renderStaleArticle(articleId)) {
+                    ret++;
+                }
+            } catch (final Exception e) {
+                LOGGER.log(Level.ERROR, "Re-renders an article[id=" + articleId + "] failed", e);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Re-renders the article specified by the given article id.
+     *
+     * <p>
+     * Only the content HTML and the render version are written, on the condition that the render version has not
+     * changed since the article was read, so the result is discarded if the article has been updated (and rendered)
+     * or marked stale again meanwhile, and concurrent counter updates are kept.
+     * </p>
+     *
+     * @param articleId the given article id
+     * @return {@code true} if re-rendered, returns {@code false} otherwise
+     * @throws RepositoryException repository exception
+     */
+    private boolean renderStaleArticle(final String articleId) throws RepositoryException {
+        final JSONObject article = articleRepository.get(articleId);
+        if (null == article) {
+            return false;
+        }
+
+        final int renderVersion = article.optInt(Article.ARTICLE_RENDER_VERSION);
+        articleQueryService.renderArticle(article);
+
+        return articleRepository.updateRender(articleId, renderVersion,
+                article.optString(Article.ARTICLE_CONTENT_HTML),
+                article.optString(Article.ARTICLE_REWARD_CONTENT_HTML),
+                article.optInt(Article.ARTICLE_RENDER_VERSION));
+    }
 }
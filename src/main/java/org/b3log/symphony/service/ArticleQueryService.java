@@ -17,6 +17,7 @@ package org.b3log.symphony.service;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -49,7 +50,8 @@ import org.b3log.latke.service.annotation.Service;
 import org.b3log.latke.util.CollectionUtils;
 import org.b3log.latke.util.Paginator;
 import org.b3log.latke.util.Strings;
-import org.b3log.symphony.cache.UserCache;
+import org.b3log.symphony.cache.ArticleCache;
+import org.b3log.symphony.cache.CommentCache;
 import org.b3log.symphony.model.Article;
 import org.b3log.symphony.model.Comment;
 import org.b3log.symphony.model.Common;
@@ -76,7 +78,7 @@ import org.jsoup.safety.Whitelist;
  * Article query service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.13.8.22, Nov 10, 2016
+ * @version 2.17.0.0, Oct 16, 2026
  * @since 0.2.0
  */
 @Service
@@ -148,16 +150,27 @@ public class ArticleQueryService {
     private LangPropsService langPropsService;
 
     /**
-     * User cache.
+     * Article cache.
      */
     @Inject
-    private UserCache userCache;
+    private ArticleCache articleCache;
+
+    /**
+     * Comment cache.
+     */
+    @Inject
+    private CommentCache commentCache;
 
     /**
      * Count to fetch article tags for relevant articles.
      */
     private static final int RELEVANT_ARTICLE_RANDOM_FETCH_TAG_CNT = 3;
 
+    /**
+     * Factor of the participants count to fetch latest comments for article participants.
+     */
+    private static final int PARTICIPANTS_FETCH_FACTOR = 3;
+
     /**
      * Gets article count of the specified day.
      *
@@ -235,10 +248,12 @@ public class ArticleQueryService {
 
         final List<JSONObject> ret = new ArrayList<JSONObject>();
         try {
+            final List<String> subTagTitles = new ArrayList<String>();
             for (int i = 0; i < tagIdx.size(); i++) {
-                final String tagTitle = tagTitles[tagIdx.get(i)].trim();
+                subTagTitles.add(tagTitles[tagIdx.get(i)].trim());
+            }
 
-                final JSONObject tag = tagRepository.getByTitle(tagTitle);
+            for (final JSONObject tag : tagRepository.getByTitles(subTagTitles)) {
                 final String tagId = tag.optString(Keys.OBJECT_ID);
                 JSONObject result = tagArticleRepository.getByTagId(tagId, 1, subFetchSize);
 
@@ -285,16 +300,7 @@ public class ArticleQueryService {
     public List<JSONObject> getInterests(final int currentPageNum, final int pageSize, final String... tagTitles)
             throws ServiceException {
         try {
-            final List<JSONObject> tagList = new ArrayList<JSONObject>();
-            for (int i = 0; i < tagTitles.length; i++) {
-                final String tagTitle = tagTitles[i];
-                final JSONObject tag = tagRepository.getByTitle(tagTitle);
-                if (null == tag) {
-                    continue;
-                }
-
-                tagList.add(tag);
-            }
+            final List<JSONObject> tagList = tagRepository.getByTitles(Arrays.asList(tagTitles));
 
             final Map<String, Class<?>> articleFields = new HashMap<String, Class<?>>();
             articleFields.put(Article.ARTICLE_TITLE, String.class);
@@ -665,7 +671,7 @@ public class ArticleQueryService {
      */
     public List<JSONObject> getRandomArticles(final int fetchSize) throws ServiceException {
         try {
-            final List<JSONObject> ret = articleRepository.getRandomly(fetchSize);
+            final List<JSONObject> ret = articleRepository.getRandomArticles(fetchSize);
             organizeArticles(ret);
 
             return ret;
@@ -809,13 +815,7 @@ public class ArticleQueryService {
             organizeArticles(ret);
 
             for (final JSONObject article : ret) {
-                final String authorId = article.optString(Article.ARTICLE_AUTHOR_ID);
-
-                JSONObject author = userCache.getUser(authorId);
-                if (null == author) {
-                    author = userRepository.get(authorId);
-                }
-
+                final JSONObject author = article.optJSONObject(Article.ARTICLE_T_AUTHOR);
                 if (UserExt.USER_STATUS_C_INVALID == author.optInt(UserExt.USER_STATUS)) {
                     article.put(Article.ARTICLE_TITLE, langPropsService.get("articleTitleBlockLabel"));
                 }
@@ -871,8 +871,7 @@ public class ArticleQueryService {
 
             for (final JSONObject article : ret) {
                 final JSONObject story = new JSONObject();
-                final String authorId = article.optString(Article.ARTICLE_AUTHOR_ID);
-                final JSONObject author = userRepository.get(authorId);
+                final JSONObject author = article.optJSONObject(Article.ARTICLE_T_AUTHOR);
                 if (UserExt.USER_STATUS_C_INVALID == author.optInt(UserExt.USER_STATUS)) {
                     story.put("title", langPropsService.get("articleTitleBlockLabel"));
                 } else {
@@ -922,7 +921,7 @@ public class ArticleQueryService {
         final List<JSONObject> articleComments = commentQueryService.getArticleComments(articleId, 1, Integer.MAX_VALUE);
         for (final JSONObject ac : articleComments) {
             final JSONObject comment = new JSONObject();
-            final JSONObject author = userRepository.get(ac.optString(Comment.COMMENT_AUTHOR_ID));
+            final JSONObject author = ac.optJSONObject(Comment.COMMENT_T_COMMENTER);
             comment.put("id", ac.optLong("oId"));
             comment.put("body_html", ac.optString(Comment.COMMENT_CONTENT));
             comment.put("depth", 0);
@@ -960,12 +959,22 @@ public class ArticleQueryService {
      * <li>generates time ago text</li>
      * </ul>
      *
+     * <p>
+     * The authors of the specified articles are got with {@link UserRepository#getByIds(java.util.Collection)}.
+     * </p>
+     *
      * @param articles the specified articles
      * @throws RepositoryException repository exception
      */
     public void organizeArticles(final List<JSONObject> articles) throws RepositoryException {
+        final List<String> authorIds = new ArrayList<String>();
+        for (final JSONObject article : articles) {
+            authorIds.add(article.optString(Article.ARTICLE_AUTHOR_ID));
+        }
+
+        final Map<String, JSONObject> authors = userRepository.getByIds(authorIds);
         for (final JSONObject article : articles) {
-            organizeArticle(article);
+            organizeArticle(article, authors.get(article.optString(Article.ARTICLE_AUTHOR_ID)));
         }
     }
 
@@ -979,7 +988,7 @@ public class ArticleQueryService {
      * <li>generates author real name</li>
      * <li>escapes article title &lt; and &gt;</li>
      * <li>generates article heat</li>
-     * <li>generates article view count display format(1k+/1.5k+...)</li>
+     * <li>adds pending views to article view count, generates article view count display format(1k+/1.5k+...)</li>
      * <li>generates time ago text</li>
      * </ul>
      *
@@ -987,8 +996,19 @@ public class ArticleQueryService {
      * @throws RepositoryException repository exception
      */
     public void organizeArticle(final JSONObject article) throws RepositoryException {
+        organizeArticle(article, userRepository.get(article.optString(Article.ARTICLE_AUTHOR_ID)));
+    }
+
+    /**
+     * Organizes the specified article with the specified author.
+     *
+     * @param article the specified article
+     * @param author the specified author
+     * @see #organizeArticle(org.json.JSONObject)
+     */
+    private void organizeArticle(final JSONObject article, final JSONObject author) {
         toArticleDate(article);
-        genArticleAuthor(article);
+        genArticleAuthor(article, author);
 
         String title = article.optString(Article.ARTICLE_TITLE).replace("<", "&lt;").replace(">", "&gt;");
         title = Markdowns.clean(title, "");
@@ -1010,7 +1030,9 @@ public class ArticleQueryService {
 
         article.put(Article.ARTICLE_T_HEAT, viewingCnt);
 
-        final int viewCnt = article.optInt(Article.ARTICLE_VIEW_CNT);
+        // Views not yet written to the article table
+        final int viewCnt = article.optInt(Article.ARTICLE_VIEW_CNT) + (int) articleCache.getViewCount(articleId);
+        article.put(Article.ARTICLE_VIEW_CNT, viewCnt);
         final double views = (double) viewCnt / 1000;
         if (views >= 1) {
             final DecimalFormat df = new DecimalFormat("#.#");
@@ -1035,16 +1057,9 @@ public class ArticleQueryService {
      * Generates the specified article author name and thumbnail URL.
      *
      * @param article the specified article
-     * @throws RepositoryException repository exception
+     * @param author the author of the specified article
      */
-    private void genArticleAuthor(final JSONObject article) throws RepositoryException {
-        final String authorId = article.optString(Article.ARTICLE_AUTHOR_ID);
-
-        JSONObject author = userCache.getUser(authorId);
-        if (null == author) {
-            author = userRepository.get(authorId);
-        }
-
+    private void genArticleAuthor(final JSONObject article, final JSONObject author) {
         final int articleType = article.optInt(Article.ARTICLE_TYPE);
         if (Article.ARTICLE_TYPE_C_JOURNAL_CHAPTER == articleType
                 || Article.ARTICLE_TYPE_C_JOURNAL_SECTION == articleType) {
@@ -1061,93 +1076,107 @@ public class ArticleQueryService {
     /**
      * Generates participants for the specified articles.
      *
+     * <p>
+     * The latest commenters of each article are served from {@link CommentCache} if possible, the participants of all
+     * the specified articles are got with {@link UserRepository#getByIds(java.util.Collection)}.
+     * </p>
+     *
      * @param articles the specified articles
      * @param participantsCnt the specified generate size
      */
     public void genParticipants(final List<JSONObject> articles, final Integer participantsCnt) {
+        final List<List<JSONObject>> articlesComments = new ArrayList<List<JSONObject>>();
+        final List<String> userIds = new ArrayList<String>();
         for (final JSONObject article : articles) {
-            final List<JSONObject> articleParticipants
-                    = getArticleLatestParticipants(article.optString(Keys.OBJECT_ID), participantsCnt);
-            article.put(Article.ARTICLE_T_PARTICIPANTS, (Object) articleParticipants);
+            final List<JSONObject> comments = getArticleLatestParticipants(article.optString(Keys.OBJECT_ID), participantsCnt);
+            for (final JSONObject comment : comments) {
+                userIds.add(comment.optString(Comment.COMMENT_AUTHOR_ID));
+            }
+
+            articlesComments.add(comments);
+        }
+
+        Map<String, JSONObject> users;
+        try {
+            users = userRepository.getByIds(userIds);
+        } catch (final RepositoryException e) {
+            LOGGER.log(Level.ERROR, "Gets article participants failed", e);
+
+            users = Collections.emptyMap();
+        }
+
+        for (int i = 0; i < articles.size(); i++) {
+            final List<JSONObject> participants = new ArrayList<JSONObject>();
+            for (final JSONObject comment : articlesComments.get(i)) {
+                final JSONObject commenter = users.get(comment.optString(Comment.COMMENT_AUTHOR_ID));
+                if (null == commenter) {
+                    continue;
+                }
+
+                final String thumbnailURL = avatarQueryService.getAvatarURLByUser(commenter);
+
+                final JSONObject participant = new JSONObject();
+                participant.put(Article.ARTICLE_T_PARTICIPANT_NAME, commenter.optString(User.USER_NAME));
+                participant.put(Article.ARTICLE_T_PARTICIPANT_REAL_NAME, commenter.optString(UserExt.USER_REAL_NAME));
+                participant.put(Article.ARTICLE_T_PARTICIPANT_THUMBNAIL_URL, thumbnailURL);
+                participant.put(Article.ARTICLE_T_PARTICIPANT_THUMBNAIL_UPDATE_TIME,
+                        commenter.optLong(UserExt.USER_UPDATE_TIME));
+                participant.put(Article.ARTICLE_T_PARTICIPANT_URL, commenter.optString(User.USER_URL));
+                participant.put(Comment.COMMENT_T_ID, comment.optString(Keys.OBJECT_ID));
+
+                participants.add(participant);
+            }
+
+            articles.get(i).put(Article.ARTICLE_T_PARTICIPANTS, (Object) participants);
         }
     }
 
     /**
-     * Gets the article participants (commenters) with the specified article article id and fetch size.
+     * Gets the latest comments (one comment per commenter) of an article specified by the given article id, with the
+     * specified fetch size.
      *
-     * @param articleId the specified article id
+     * <p>
+     * Served from {@link CommentCache} if possible, which is maintained by
+     * {@link CommentMgmtService#addComment(org.json.JSONObject)}. On a cache miss the latest comments of the article
+     * are queried (a few times the fetch size, commenters often comment more than once) and the result is cached.
+     * </p>
+     *
+     * @param articleId the given article id
      * @param fetchSize the specified fetch size
-     * @return article participants, for example,      <pre>
+     * @return comments, for example,      <pre>
      * [
      *     {
-     *         "articleParticipantName": "",
-     *         "articleParticipantThumbnailURL": "",
-     *         "articleParticipantThumbnailUpdateTime": long,
-     *         "commentId": ""
+     *         "oId": "",
+     *         "commentAuthorId": ""
      *     }, ....
      * ]
      * </pre>, returns an empty list if not found
      */
     private List<JSONObject> getArticleLatestParticipants(final String articleId, final int fetchSize) {
+        final List<JSONObject> cached = commentCache.getParticipants(articleId, fetchSize);
+        if (null != cached) {
+            return cached;
+        }
+
         final Query query = new Query().addSort(Comment.COMMENT_CREATE_TIME, SortDirection.DESCENDING)
                 .setFilter(new PropertyFilter(Comment.COMMENT_ON_ARTICLE_ID, FilterOperator.EQUAL, articleId))
-                .addProjection(Comment.COMMENT_AUTHOR_EMAIL, String.class)
                 .addProjection(Keys.OBJECT_ID, String.class)
                 .addProjection(Comment.COMMENT_AUTHOR_ID, String.class)
-                .setPageCount(1).setCurrentPageNum(1).setPageSize(fetchSize);
-        final List<JSONObject> ret = new ArrayList<JSONObject>();
+                .setPageCount(1).setCurrentPageNum(1).setPageSize(fetchSize * PARTICIPANTS_FETCH_FACTOR);
 
         try {
             final JSONObject result = commentRepository.get(query);
 
-            final List<JSONObject> comments = new ArrayList<JSONObject>();
-            final JSONArray records = result.optJSONArray(Keys.RESULTS);
-            for (int i = 0; i < records.length(); i++) {
-                final JSONObject comment = records.optJSONObject(i);
-
-                boolean exist = false;
-                // deduplicate
-                for (final JSONObject c : comments) {
-                    if (comment.optString(Comment.COMMENT_AUTHOR_ID).equals(
-                            c.optString(Comment.COMMENT_AUTHOR_ID))) {
-                        exist = true;
-
-                        break;
-                    }
-                }
-
-                if (!exist) {
-                    comments.add(comment);
-                }
-            }
-
-            for (final JSONObject comment : comments) {
-                final String email = comment.optString(Comment.COMMENT_AUTHOR_EMAIL);
-                final String userId = comment.optString(Comment.COMMENT_AUTHOR_ID);
+            final List<JSONObject> ret = CommentCache.distinctCommenters(
+                    CollectionUtils.<JSONObject>jsonArrayToList(result.optJSONArray(Keys.RESULTS)), fetchSize);
+            commentCache.putParticipants(articleId, fetchSize, ret);
 
-                JSONObject commenter = userCache.getUser(userId);
-                if (null == commenter) {
-                    commenter = userRepository.get(userId);
-                }
-
-                final String thumbnailURL = avatarQueryService.getAvatarURLByUser(commenter);
-
-                final JSONObject participant = new JSONObject();
-                participant.put(Article.ARTICLE_T_PARTICIPANT_NAME, commenter.optString(User.USER_NAME));
-                participant.put(Article.ARTICLE_T_PARTICIPANT_REAL_NAME, commenter.optString(UserExt.USER_REAL_NAME));
-                participant.put(Article.ARTICLE_T_PARTICIPANT_THUMBNAIL_URL, thumbnailURL);
-                participant.put(Article.ARTICLE_T_PARTICIPANT_THUMBNAIL_UPDATE_TIME,
-                        commenter.optLong(UserExt.USER_UPDATE_TIME));
-                participant.put(Article.ARTICLE_T_PARTICIPANT_URL, commenter.optString(User.USER_URL));
-                participant.put(Comment.COMMENT_T_ID, comment.optString(Keys.OBJECT_ID));
-
-                ret.add(participant);
-            }
+            return ret;
         } catch (final RepositoryException e) {
             LOGGER.log(Level.ERROR, "Gets article [" + articleId + "] participants failed", e);
-        }
 
-        return ret;
+            return new ArrayList<JSONObject>();
+        }
     }
 
     /**
@@ -1162,6 +1191,11 @@ public class ArticleQueryService {
      * <li>Generates article link with article id</li>
      * </ul>
      *
+     * <p>
+     * The viewer-independent rendering result is persisted with the article (see {@link #renderArticle(JSONObject)}),
+     * or cached by article id and update time if the persisted one is stale, see {@link ArticleCache}.
+     * </p>
+     *
      * @param article the specified article, for example,      <pre>
      * {
      *     "articleTitle": "",
@@ -1187,16 +1221,17 @@ public class ArticleQueryService {
             return;
         }
 
-        String articleContent = article.optString(Article.ARTICLE_CONTENT);
+        final String articleContent = article.optString(Article.ARTICLE_CONTENT);
         article.put(Common.DISCUSSION_VIEWABLE, true);
 
-        final Set<String> userNames = userQueryService.getUserNames(articleContent);
         final JSONObject currentUser = userQueryService.getCurrentUser(request);
         final String currentUserName = null == currentUser ? "" : currentUser.optString(User.USER_NAME);
         final String currentRole = null == currentUser ? "" : currentUser.optString(User.USER_ROLE);
         final String authorName = article.optString(Article.ARTICLE_T_AUTHOR_NAME);
         if (Article.ARTICLE_TYPE_C_DISCUSSION == article.optInt(Article.ARTICLE_TYPE)
                 && !authorName.equals(currentUserName) && !Role.ADMIN_ROLE.equals(currentRole)) {
+            final Set<String> userNames = userQueryService.getUserNames(articleContent);
+
             boolean invited = false;
             for (final String userName : userNames) {
                 if (userName.equals(currentUserName)) {
@@ -1221,32 +1256,137 @@ public class ArticleQueryService {
             }
         }
 
-        for (final String userName : userNames) {
-            articleContent = articleContent.replace('@' + userName, "@<a href='" + Latkes.getServePath()
-                    + "/member/" + userName + "'>" + userName + "</a>");
+        // The rest is viewer-independent, rendered on write or once per article update
+        final String[] rendered = getArticleContentHTML(article);
+        article.put(Article.ARTICLE_CONTENT, rendered[0]);
+        article.put(Article.ARTICLE_REWARD_CONTENT, rendered[1]);
+    }
+
+    /**
+     * Gets the viewer-independent rendering result of the specified article.
+     *
+     * <p>
+     * Uses the persisted article content HTML if its render version is the current one, otherwise renders the article
+     * and caches the result by article id and update time, see {@link ArticleCache}.
+     * </p>
+     *
+     * @param article the specified article
+     * @return rendered contents, [articleContent, articleRewardContent]
+     */
+    private String[] getArticleContentHTML(final JSONObject article) {
+        if (Markdowns.RENDER_VERSION == article.optInt(Article.ARTICLE_RENDER_VERSION)) {
+            return new String[]{article.optString(Article.ARTICLE_CONTENT_HTML),
+                article.optString(Article.ARTICLE_REWARD_CONTENT_HTML)};
         }
 
+        final String articleId = article.optString(Keys.OBJECT_ID);
+        final long updateTime = getUpdateTime(article);
+        String[] ret = articleCache.getArticleContent(articleId, updateTime);
+        if (null != ret) {
+            return ret;
+        }
+
+        ret = renderArticleContent(article);
+        articleCache.putArticleContent(articleId, updateTime, ret[0], ret[1]);
+
+        return ret;
+    }
+
+    /**
+     * Renders the viewer-independent contents of the specified article and puts the results with the current render
+     * version into the specified article, for persisting.
+     *
+     * @param article the specified article, for example,      <pre>
+     * {
+     *     "articleContent": "",
+     *     "articleRewardContent": "",
+     *     "articleRewardPoint": int,
+     *     "articleType": int,
+     *     "articlePermalink": ""
+     * }
+     * </pre>
+     */
+    public void renderArticle(final JSONObject article) {
+        final String[] rendered = renderArticleContent(article);
+
+        article.put(Article.ARTICLE_CONTENT_HTML, rendered[0]);
+        article.put(Article.ARTICLE_REWARD_CONTENT_HTML, rendered[1]);
+        article.put(Article.ARTICLE_RENDER_VERSION, Markdowns.RENDER_VERSION);
+    }
+
+    /**
+     * Renders the viewer-independent contents of the specified article.
+     *
+     * <ul>
+     * <li>Generates &#64;username home URL</li>
+     * <li>Generates article link with article id</li>
+     * <li>Generates emotion images</li>
+     * <li>Markdowns</li>
+     * </ul>
+     *
+     * @param article the specified article, the article itself will not be modified
+     * @return rendered contents, [articleContent, articleRewardContent]
+     */
+    private String[] renderArticleContent(final JSONObject article) {
+        String articleContent = genContentUserName(article.optString(Article.ARTICLE_CONTENT));
         articleContent = shortLinkQueryService.linkArticle(articleContent);
         articleContent = shortLinkQueryService.linkTag(articleContent);
 
         articleContent = Emotions.convert(articleContent);
-        article.put(Article.ARTICLE_CONTENT, articleContent);
 
+        final JSONObject rendering = new JSONObject();
+        rendering.put(Article.ARTICLE_CONTENT, articleContent);
+        rendering.put(Article.ARTICLE_TYPE, article.optInt(Article.ARTICLE_TYPE));
+        rendering.put(Article.ARTICLE_PERMALINK, article.optString(Article.ARTICLE_PERMALINK));
+        rendering.put(Article.ARTICLE_REWARD_POINT, article.optInt(Article.ARTICLE_REWARD_POINT));
+
+        String articleRewardContent = article.optString(Article.ARTICLE_REWARD_CONTENT);
         if (article.optInt(Article.ARTICLE_REWARD_POINT) > 0) {
-            String articleRewardContent = article.optString(Article.ARTICLE_REWARD_CONTENT);
+            articleRewardContent = genContentUserName(articleRewardContent);
+            articleRewardContent = Emotions.convert(articleRewardContent);
+        }
+        rendering.put(Article.ARTICLE_REWARD_CONTENT, articleRewardContent);
+
+        markdown(rendering);
 
-            final Set<String> rewordContentUserNames = userQueryService.getUserNames(articleRewardContent);
+        return new String[]{rendering.optString(Article.ARTICLE_CONTENT),
+            rendering.optString(Article.ARTICLE_REWARD_CONTENT)};
+    }
 
-            for (final String userName : rewordContentUserNames) {
-                articleRewardContent = articleRewardContent.replace('@' + userName, "@<a href='" + Latkes.getServePath()
+    /**
+     * Generates &#64;username home URL for the specified content.
+     *
+     * @param content the specified content
+     * @return content with &#64;username home URL
+     */
+    private String genContentUserName(final String content) {
+        String ret = content;
+        try {
+            final Set<String> userNames = userQueryService.getUserNames(content);
+            for (final String userName : userNames) {
+                ret = ret.replace('@' + userName, "@<a href='" + Latkes.getServePath()
                         + "/member/" + userName + "'>" + userName + "</a>");
             }
+        } catch (final ServiceException e) {
+            LOGGER.log(Level.ERROR, "Generates @username home URL for article content failed", e);
+        }
 
-            articleRewardContent = Emotions.convert(articleRewardContent);
-            article.put(Article.ARTICLE_REWARD_CONTENT, articleRewardContent);
+        return ret;
+    }
+
+    /**
+     * Gets the update time of the specified article.
+     *
+     * @param article the specified article, the update time may be a long or a date (organized)
+     * @return update time
+     */
+    private static long getUpdateTime(final JSONObject article) {
+        final Object updateTime = article.opt(Article.ARTICLE_UPDATE_TIME);
+        if (updateTime instanceof Date) {
+            return ((Date) updateTime).getTime();
         }
 
-        markdown(article);
+        return article.optLong(Article.ARTICLE_UPDATE_TIME);
     }
 
     /**
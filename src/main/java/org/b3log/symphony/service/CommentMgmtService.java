@@ -15,6 +15,10 @@
  */
 package org.b3log.symphony.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
 import javax.inject.Inject;
 import org.b3log.latke.Keys;
 import org.b3log.latke.event.Event;
@@ -24,12 +28,21 @@ import org.b3log.latke.logging.Level;
 import org.b3log.latke.logging.Logger;
 import org.b3log.latke.model.Role;
 import org.b3log.latke.model.User;
+import org.b3log.latke.repository.CompositeFilterOperator;
+import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.PropertyFilter;
+import org.b3log.latke.repository.Query;
 import org.b3log.latke.repository.RepositoryException;
+import org.b3log.latke.repository.SortDirection;
 import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.service.LangPropsService;
 import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
 import org.b3log.latke.util.Ids;
+import org.b3log.symphony.cache.ArticleCache;
+import org.b3log.symphony.cache.CommentCache;
+import org.b3log.symphony.cache.PageCache;
+import org.b3log.symphony.cache.UserCache;
 import org.b3log.symphony.event.EventTypes;
 import org.b3log.symphony.model.Article;
 import org.b3log.symphony.model.Comment;
@@ -37,7 +50,6 @@ import org.b3log.symphony.model.Notification;
 import org.b3log.symphony.model.Option;
 import org.b3log.symphony.model.Pointtransfer;
 import org.b3log.symphony.model.Reward;
-import org.b3log.symphony.model.Tag;
 import org.b3log.symphony.model.UserExt;
 import org.b3log.symphony.repository.ArticleRepository;
 import org.b3log.symphony.repository.CommentRepository;
@@ -45,14 +57,24 @@ import org.b3log.symphony.repository.OptionRepository;
 import org.b3log.symphony.repository.TagRepository;
 import org.b3log.symphony.repository.UserRepository;
 import org.b3log.symphony.util.Emotions;
+import org.b3log.symphony.util.Markdowns;
+import org.b3log.symphony.util.StripedLocks;
 import org.b3log.symphony.util.Symphonys;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
  * Comment management service.
  *
+ * <p>
+ * Adding comments is serialized per commenter (see {@link #COMMENTER_LOCKS}) for the rate limit and balance checks,
+ * and per article (see {@link #ARTICLE_LOCKS}). Counters shared by commenters (article and tag comment counts) are
+ * incremented atomically by the database, the global comment count is written behind, so comments on different
+ * articles proceed in parallel.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.7.6.16, Feb 16, 2016
+ * @version 2.12.0.5, Oct 16, 2026
  * @since 0.2.0
  */
 @Service
@@ -63,6 +85,27 @@ public class CommentMgmtService {
      */
     private static final Logger LOGGER = Logger.getLogger(CommentMgmtService.class.getName());
 
+    /**
+     * Commenter locks, &lt;commenterId, lock&gt;.
+     */
+    private static final StripedLocks COMMENTER_LOCKS = new StripedLocks(64);
+
+    /**
+     * Article locks, &lt;articleId, lock&gt;.
+     *
+     * <p>
+     * Comments on the same article update the same article row, serializes them before the database does to keep
+     * them from holding connections while waiting for the row lock.
+     * </p>
+     */
+    private static final StripedLocks ARTICLE_LOCKS = new StripedLocks(64);
+
+    /**
+     * Id of the last stale comment got for re-rendering, the next page starts after it, {@code ""} starts from the
+     * first one, see {@link #renderStaleComments(int)}.
+     */
+    private static volatile String staleCommentCursor = "";
+
     /**
      * Comment repository.
      */
@@ -81,6 +124,12 @@ public class CommentMgmtService {
     @Inject
     private OptionRepository optionRepository;
 
+    /**
+     * Option management service.
+     */
+    @Inject
+    private OptionMgmtService optionMgmtService;
+
     /**
      * Tag repository.
      */
@@ -129,6 +178,36 @@ public class CommentMgmtService {
     @Inject
     private NotificationMgmtService notificationMgmtService;
 
+    /**
+     * Comment query service.
+     */
+    @Inject
+    private CommentQueryService commentQueryService;
+
+    /**
+     * Comment cache.
+     */
+    @Inject
+    private CommentCache commentCache;
+
+    /**
+     * User cache.
+     */
+    @Inject
+    private UserCache userCache;
+
+    /**
+     * Page cache.
+     */
+    @Inject
+    private PageCache pageCache;
+
+    /**
+     * Article cache.
+     */
+    @Inject
+    private ArticleCache articleCache;
+
     /**
      * A user specified by the given sender id thanks the author of a comment specified by the given comment id.
      *
@@ -225,21 +304,47 @@ public class CommentMgmtService {
      * @return generated comment id
      * @throws ServiceException service exception
      */
-    public synchronized String addComment(final JSONObject requestJSONObject) throws ServiceException {
+    public String addComment(final JSONObject requestJSONObject) throws ServiceException {
+        final Lock commenterLock = COMMENTER_LOCKS.lock(requestJSONObject.optString(Comment.COMMENT_AUTHOR_ID));
+        try {
+            final Lock articleLock = ARTICLE_LOCKS.lock(requestJSONObject.optString(Comment.COMMENT_ON_ARTICLE_ID));
+            try {
+                return addCommentLocked(requestJSONObject);
+            } finally {
+                articleLock.unlock();
+            }
+        } finally {
+            commenterLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a comment with the specified request json object, the commenter lock and article lock have been held.
+     *
+     * @param requestJSONObject the specified request json object, see {@link #addComment(org.json.JSONObject)}
+     * @return generated comment id
+     * @throws ServiceException service exception
+     */
+    private String addCommentLocked(final JSONObject requestJSONObject) throws ServiceException {
         final long currentTimeMillis = System.currentTimeMillis();
-        final JSONObject commenter = requestJSONObject.optJSONObject(Comment.COMMENT_T_COMMENTER);
         final String commentAuthorId = requestJSONObject.optString(Comment.COMMENT_AUTHOR_ID);
         final String articleId = requestJSONObject.optString(Comment.COMMENT_ON_ARTICLE_ID);
         final String ip = requestJSONObject.optString(Comment.COMMENT_IP);
 
-        if (currentTimeMillis - commenter.optLong(UserExt.USER_LATEST_CMT_TIME) < Symphonys.getLong("minStepCmtTime")
-                && !Role.ADMIN_ROLE.equals(commenter.optString(User.USER_ROLE))) {
-            LOGGER.log(Level.WARN, "Adds comment too frequent [userName={0}]", commenter.optString(User.USER_NAME));
-            throw new ServiceException(langPropsService.get("tooFrequentCmtLabel"));
-        }
-
         JSONObject article = null;
         try {
+            // Gets the commenter under the lock, the one in the request may be stale
+            JSONObject commenter = userRepository.get(commentAuthorId);
+            if (null == commenter) {
+                commenter = requestJSONObject.optJSONObject(Comment.COMMENT_T_COMMENTER);
+            }
+
+            if (currentTimeMillis - commenter.optLong(UserExt.USER_LATEST_CMT_TIME) < Symphonys.getLong("minStepCmtTime")
+                    && !Role.ADMIN_ROLE.equals(commenter.optString(User.USER_ROLE))) {
+                LOGGER.log(Level.WARN, "Adds comment too frequent [userName={0}]", commenter.optString(User.USER_NAME));
+                throw new ServiceException(langPropsService.get("tooFrequentCmtLabel"));
+            }
+
             // check if admin allow to add comment
             final JSONObject option = optionRepository.get(Option.ID_C_MISC_ALLOW_ADD_COMMENT);
 
@@ -269,8 +374,9 @@ public class CommentMgmtService {
         final Transaction transaction = commentRepository.beginTransaction();
 
         try {
+            // The article of the event, the stored one is incremented atomically below
             article.put(Article.ARTICLE_COMMENT_CNT, article.optInt(Article.ARTICLE_COMMENT_CNT) + 1);
-            article.put(Article.ARTICLE_LATEST_CMT_TIME, System.currentTimeMillis());
+            article.put(Article.ARTICLE_LATEST_CMT_TIME, currentTimeMillis);
 
             final String ret = Ids.genTimeMillisId();
             final JSONObject comment = new JSONObject();
@@ -291,32 +397,41 @@ public class CommentMgmtService {
             comment.put(Comment.COMMENT_STATUS, Comment.COMMENT_STATUS_C_VALID);
             comment.put(Comment.COMMENT_IP, ip);
 
-            final JSONObject cmtCntOption = optionRepository.get(Option.ID_C_STATISTIC_CMT_COUNT);
-            final int cmtCnt = cmtCntOption.optInt(Option.OPTION_VALUE);
-            cmtCntOption.put(Option.OPTION_VALUE, String.valueOf(cmtCnt + 1));
+            commentQueryService.renderComment(comment);
 
-            articleRepository.update(articleId, article); // Updates article comment count
-            optionRepository.update(Option.ID_C_STATISTIC_CMT_COUNT, cmtCntOption); // Updates global comment count
-            // Updates tag comment count and User-Tag relation
-            final String tagsString = article.optString(Article.ARTICLE_TAGS);
-            final String[] tagStrings = tagsString.split(",");
-            for (int i = 0; i < tagStrings.length; i++) {
-                final String tagTitle = tagStrings[i].trim();
-                final JSONObject tag = tagRepository.getByTitle(tagTitle);
-                tag.put(Tag.TAG_COMMENT_CNT, tag.optInt(Tag.TAG_COMMENT_CNT) + 1);
-                tagRepository.update(tag.optString(Keys.OBJECT_ID), tag);
-            }
+            // Adds the comment
+            final String commentId = commentRepository.add(comment);
 
             // Updates user comment count, latest comment time
-            commenter.put(UserExt.USER_COMMENT_COUNT, commenter.optInt(UserExt.USER_COMMENT_COUNT) + 1);
-            commenter.put(UserExt.USER_LATEST_CMT_TIME, currentTimeMillis);
-            userRepository.update(commenter.optString(Keys.OBJECT_ID), commenter);
+            userRepository.incCommentCount(commentAuthorId, currentTimeMillis);
+            // Updates article comment count, latest comment time
+            articleRepository.incCommentCount(articleId, currentTimeMillis);
 
-            // Adds the comment
-            final String commentId = commentRepository.add(comment);
+            // Updates tag comment count, in id order to avoid deadlocks between comments sharing tags
+            final String tagsString = article.optString(Article.ARTICLE_TAGS);
+            final List<String> tagTitles = new ArrayList<String>();
+            for (final String tagString : tagsString.split(",")) {
+                tagTitles.add(tagString.trim());
+            }
+            final List<String> tagIds = new ArrayList<String>();
+            for (final JSONObject tag : tagRepository.getByTitles(tagTitles)) {
+                tagIds.add(tag.optString(Keys.OBJECT_ID));
+            }
+            Collections.sort(tagIds);
+            for (final String tagId : tagIds) {
+                tagRepository.incCounts(tagId, 0, 1);
+            }
 
             transaction.commit();
 
+            articleCache.removeArticle(articleId); // Evicted after the commit, a reader may reload the old value
+
+            // Updates global comment count, shared by all comments, written behind
+            optionMgmtService.incStatistic(Option.ID_C_STATISTIC_CMT_COUNT, Option.CATEGORY_C_STATISTIC, 1);
+
+            pageCache.removeArticlePages(articleId);
+            commentCache.addParticipant(articleId, comment);
+
             // Point
             final String articleAuthorId = article.optString(Article.ARTICLE_AUTHOR_ID);
             if (articleAuthorId.equals(commentAuthorId)) {
@@ -346,6 +461,9 @@ public class CommentMgmtService {
                 transaction.rollback();
             }
 
+            // The cached commenter may hold the rolled back comment count
+            userCache.removeUser(commentAuthorId);
+
             LOGGER.log(Level.ERROR, "Adds a comment failed", e);
             throw new ServiceException(e);
         }
@@ -365,10 +483,15 @@ public class CommentMgmtService {
             String content = comment.optString(Comment.COMMENT_CONTENT);
             content = Emotions.toAliases(content);
             comment.put(Comment.COMMENT_CONTENT, content);
-            
+
+            commentCache.removeCommentContent(commentId);
+            commentQueryService.renderComment(comment);
+
             commentRepository.update(commentId, comment);
 
             transaction.commit();
+
+            pageCache.removeArticlePages(comment.optString(Comment.COMMENT_ON_ARTICLE_ID));
         } catch (final RepositoryException e) {
             if (transaction.isActive()) {
                 transaction.rollback();
@@ -378,4 +501,79 @@ public class CommentMgmtService {
             throw new ServiceException(e);
         }
     }
+
+    /**
+     * Re-renders comments whose persisted content HTML is stale (rendered with another render version).
+     *
+     * <p>
+     * The stale comments are paged through in id order across invocations, starting over from the first one after
+     * the last page. A failure of one comment is logged and skipped, so it never blocks the comments after it.
+     * </p>
+     *
+     * @param fetchSize the specified max count of comments to re-render
+     * @return count of re-rendered comments
+     * @throws ServiceException if failed to get the stale comments
+     */
+    public int renderStaleComments(final int fetchSize) throws ServiceException {
+        final Query query = new Query().setCurrentPageNum(1).setPageSize(fetchSize).setPageCount(1)
+                .addProjection(Keys.OBJECT_ID, String.class)
+                .setFilter(CompositeFilterOperator.and(
+                        new PropertyFilter(Comment.COMMENT_RENDER_VERSION, FilterOperator.NOT_EQUAL,
+                                Markdowns.RENDER_VERSION),
+                        new PropertyFilter(Keys.OBJECT_ID, FilterOperator.GREATER_THAN, staleCommentCursor)))
+                .addSort(Keys.OBJECT_ID, SortDirection.ASCENDING);
+
+        final JSONArray comments;
+        try {
+            comments = commentRepository.get(query).optJSONArray(Keys.RESULTS);
+        } catch (final RepositoryException e) {
+            LOGGER.log(Level.ERROR, "Gets stale comments failed", e);
+
+            throw new ServiceException(e);
+        }
+
+        staleCommentCursor = comments.length() < fetchSize
+                ? "" : comments.optJSONObject(comments.length() - 1).optString(Keys.OBJECT_ID);
+
+        int ret = 0;
+        for (int i = 0; i < comments.length(); i++) {
+            final String commentId = comments.optJSONObject(i).optString(Keys.OBJECT_ID);
+
+            try {
+                if (renderStaleComment(commentId)) {
+                    ret++;
+                }
+            } catch (final Exception e) {
+                LOGGER.log(Level.ERROR, "Re-renders a comment[id=" + commentId + "] failed", e);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Re-renders the comment specified by the given comment id.
+     *
+     * <p>
+     * Only the content HTML and the render version are written, on the condition that the render version has not
+     * changed since the comment was read, so the result is discarded if the comment has been updated (and rendered)
+     * or marked stale again meanwhile.
+     * </p>
+     *
+     * @param commentId the given comment id
+     * @return {@code true} if re-rendered, returns {@code false} otherwise
+     * @throws RepositoryException repository exception
+     */
+    private boolean renderStaleComment(final String commentId) throws RepositoryException {
+        final JSONObject comment = commentRepository.get(commentId);
+        if (null == comment) {
+            return false;
+        }
+
+        final int renderVersion = comment.optInt(Comment.COMMENT_RENDER_VERSION);
+        final String contentHTML = commentQueryService.renderCommentContent(commentId,
+                comment.optString(Comment.COMMENT_CONTENT));
+
+        return commentRepository.updateRender(commentId, renderVersion, contentHTML, Markdowns.RENDER_VERSION);
+    }
 }
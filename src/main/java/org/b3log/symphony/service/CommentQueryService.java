@@ -15,6 +15,7 @@
  */
 package org.b3log.symphony.service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -39,7 +40,7 @@ import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
 import org.b3log.latke.util.CollectionUtils;
 import org.b3log.latke.util.Paginator;
-import org.b3log.symphony.cache.UserCache;
+import org.b3log.symphony.cache.CommentCache;
 import org.b3log.symphony.model.Article;
 import org.b3log.symphony.model.Comment;
 import org.b3log.symphony.model.Common;
@@ -48,6 +49,7 @@ import org.b3log.symphony.repository.ArticleRepository;
 import org.b3log.symphony.repository.CommentRepository;
 import org.b3log.symphony.repository.UserRepository;
 import org.b3log.symphony.util.Emotions;
+import org.b3log.symphony.util.JSONs;
 import org.b3log.symphony.util.Markdowns;
 import org.b3log.symphony.util.Times;
 import org.json.JSONArray;
@@ -59,7 +61,7 @@ import org.jsoup.safety.Whitelist;
  * Comment management service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.3.5.19, Nov 10, 2016
+ * @version 1.6.0.1, Oct 16, 2026
  * @since 0.2.0
  */
 @Service
@@ -113,10 +115,10 @@ public class CommentQueryService {
     private ShortLinkQueryService shortLinkQueryService;
 
     /**
-     * User cache.
+     * Comment cache.
      */
     @Inject
-    private UserCache userCache;
+    private CommentCache commentCache;
 
     /**
      * Gets comment count of the specified day.
@@ -238,12 +240,12 @@ public class CommentQueryService {
             for (final JSONObject comment : ret) {
                 comment.put(Comment.COMMENT_CREATE_TIME, comment.optLong(Comment.COMMENT_CREATE_TIME));
                 final String articleId = comment.optString(Comment.COMMENT_ON_ARTICLE_ID);
-                final JSONObject article = articleRepository.get(articleId);
+                final JSONObject article = articleRepository.getBrief(articleId);
                 comment.put(Comment.COMMENT_T_ARTICLE_TITLE, Emotions.clear(article.optString(Article.ARTICLE_TITLE)));
                 comment.put(Comment.COMMENT_T_ARTICLE_PERMALINK, article.optString(Article.ARTICLE_PERMALINK));
 
                 final String commenterId = comment.optString(Comment.COMMENT_AUTHOR_ID);
-                final JSONObject commenter = userRepository.get(commenterId);
+                final JSONObject commenter = JSONs.clone(userRepository.get(commenterId)); // The cached user is read-only
 
                 if (UserExt.USER_STATUS_C_INVALID == commenter.optInt(UserExt.USER_STATUS)
                         || Comment.COMMENT_STATUS_C_INVALID == comment.optInt(Comment.COMMENT_STATUS)) {
@@ -263,8 +265,7 @@ public class CommentQueryService {
                     comment.put(Comment.COMMENT_CONTENT, content);
                 }
 
-                final String commenterEmail = comment.optString(Comment.COMMENT_AUTHOR_EMAIL);
-                final String avatarURL = avatarQueryService.getAvatarURL(commenterEmail);
+                final String avatarURL = avatarQueryService.getAvatarURLByUser(commenter);
                 commenter.put(UserExt.USER_AVATAR_URL, avatarURL);
 
                 comment.put(Comment.COMMENT_T_COMMENTER, commenter);
@@ -318,8 +319,7 @@ public class CommentQueryService {
                 final String articleAuthorURL = "/member/" + articleAuthor.optString(User.USER_NAME);
                 comment.put(Comment.COMMENT_T_ARTICLE_AUTHOR_NAME, articleAuthorName);
                 comment.put(Comment.COMMENT_T_ARTICLE_AUTHOR_URL, articleAuthorURL);
-                final String articleAuthorEmail = articleAuthor.optString(User.USER_EMAIL);
-                final String articleAuthorThumbnailURL = avatarQueryService.getAvatarURL(articleAuthorEmail);
+                final String articleAuthorThumbnailURL = avatarQueryService.getAvatarURLByUser(articleAuthor);
                 comment.put(Comment.COMMENT_T_ARTICLE_AUTHOR_THUMBNAIL_URL, articleAuthorThumbnailURL);
 
                 if (Article.ARTICLE_TYPE_C_DISCUSSION == article.optInt(Article.ARTICLE_TYPE)) {
@@ -457,11 +457,11 @@ public class CommentQueryService {
         final List<JSONObject> comments = CollectionUtils.<JSONObject>jsonArrayToList(data);
 
         try {
-            for (final JSONObject comment : comments) {
-                organizeComment(comment);
+            organizeComments(comments);
 
+            for (final JSONObject comment : comments) {
                 final String articleId = comment.optString(Comment.COMMENT_ON_ARTICLE_ID);
-                final JSONObject article = articleRepository.get(articleId);
+                final JSONObject article = articleRepository.getBrief(articleId);
 
                 comment.put(Comment.COMMENT_T_ARTICLE_TITLE,
                         Article.ARTICLE_STATUS_C_INVALID == article.optInt(Article.ARTICLE_STATUS)
@@ -496,12 +496,22 @@ public class CommentQueryService {
      * <li>generates time ago text</li>
      * </ul>
      *
+     * <p>
+     * The authors of the specified comments are got with {@link UserRepository#getByIds(java.util.Collection)}.
+     * </p>
+     *
      * @param comments the specified comments
      * @throws RepositoryException repository exception
      */
     private void organizeComments(final List<JSONObject> comments) throws RepositoryException {
+        final List<String> authorIds = new ArrayList<String>();
         for (final JSONObject comment : comments) {
-            organizeComment(comment);
+            authorIds.add(comment.optString(Comment.COMMENT_AUTHOR_ID));
+        }
+
+        final Map<String, JSONObject> authors = userRepository.getByIds(authorIds);
+        for (final JSONObject comment : comments) {
+            organizeComment(comment, authors.get(comment.optString(Comment.COMMENT_AUTHOR_ID)));
         }
     }
 
@@ -525,17 +535,21 @@ public class CommentQueryService {
      * @throws RepositoryException repository exception
      */
     private void organizeComment(final JSONObject comment) throws RepositoryException {
+        organizeComment(comment, userRepository.get(comment.optString(Comment.COMMENT_AUTHOR_ID)));
+    }
+
+    /**
+     * Organizes the specified comment with the specified author.
+     *
+     * @param comment the specified comment
+     * @param author the specified author
+     * @see #organizeComment(org.json.JSONObject)
+     */
+    private void organizeComment(final JSONObject comment, final JSONObject author) {
         comment.put(Common.TIME_AGO, Times.getTimeAgo(comment.optLong(Comment.COMMENT_CREATE_TIME)));
         comment.put(Comment.COMMENT_CREATE_TIME, new Date(comment.optLong(Comment.COMMENT_CREATE_TIME)));
 
-        final String authorId = comment.optString(Comment.COMMENT_AUTHOR_ID);
-        JSONObject author = userCache.getUser(authorId);
-        if (null == author) {
-            author = userRepository.get(authorId);
-        }
-
-        final String userEmail = author.optString(User.USER_EMAIL);
-        final String thumbnailURL = avatarQueryService.getAvatarURL(userEmail);
+        final String thumbnailURL = avatarQueryService.getAvatarURLByUser(author);
         comment.put(Comment.COMMENT_T_AUTHOR_THUMBNAIL_URL, thumbnailURL);
 
         comment.put(Comment.COMMENT_T_COMMENTER, author);
@@ -575,31 +589,91 @@ public class CommentQueryService {
             return;
         }
 
-        genCommentContentUserName(comment);
+        comment.put(Comment.COMMENT_CONTENT, getCommentContentHTML(comment));
+    }
 
-        String commentContent = comment.optString(Comment.COMMENT_CONTENT);
+    /**
+     * Gets the viewer-independent rendering result of the specified comment.
+     *
+     * <p>
+     * Uses the persisted comment content HTML if its render version is the current one, otherwise renders the comment
+     * content, see {@link #renderCommentContent(String, String)}.
+     * </p>
+     *
+     * @param comment the specified comment
+     * @return rendered comment content
+     */
+    public String getCommentContentHTML(final JSONObject comment) {
+        if (Markdowns.RENDER_VERSION == comment.optInt(Comment.COMMENT_RENDER_VERSION)) {
+            return comment.optString(Comment.COMMENT_CONTENT_HTML);
+        }
 
-        commentContent = shortLinkQueryService.linkArticle(commentContent);
-        commentContent = shortLinkQueryService.linkTag(commentContent);
-        commentContent = Emotions.convert(commentContent);
-        commentContent = Markdowns.toHTML(commentContent);
-        commentContent = Markdowns.clean(commentContent, "");
+        return renderCommentContent(comment.optString(Keys.OBJECT_ID), comment.optString(Comment.COMMENT_CONTENT));
+    }
 
-        comment.put(Comment.COMMENT_CONTENT, commentContent);
+    /**
+     * Renders the content of the specified comment and puts the result with the current render version into the
+     * specified comment, for persisting.
+     *
+     * @param comment the specified comment
+     */
+    public void renderComment(final JSONObject comment) {
+        final String commentId = comment.optString(Keys.OBJECT_ID);
+        final String commentContent = comment.optString(Comment.COMMENT_CONTENT);
+
+        comment.put(Comment.COMMENT_CONTENT_HTML, renderCommentContent(commentId, commentContent));
+        comment.put(Comment.COMMENT_RENDER_VERSION, Markdowns.RENDER_VERSION);
+    }
+
+    /**
+     * Renders the specified comment content.
+     *
+     * <ul>
+     * <li>Generates &#64;username home URL</li>
+     * <li>Generates article link with article id</li>
+     * <li>Generates emotion images</li>
+     * <li>Markdowns</li>
+     * <li>Generates secured comment content</li>
+     * </ul>
+     *
+     * <p>
+     * The rendering result does not depend on the viewer, it is cached by comment id and content.
+     * </p>
+     *
+     * @param commentId the specified comment id
+     * @param commentContent the specified comment content
+     * @return rendered comment content
+     */
+    public String renderCommentContent(final String commentId, final String commentContent) {
+        String ret = commentCache.getCommentContent(commentId, commentContent);
+        if (null != ret) {
+            return ret;
+        }
+
+        ret = genCommentContentUserName(commentContent);
+        ret = shortLinkQueryService.linkArticle(ret);
+        ret = shortLinkQueryService.linkTag(ret);
+        ret = Emotions.convert(ret);
+        ret = Markdowns.toHTML(ret);
+        ret = Markdowns.clean(ret, "");
+
+        commentCache.putCommentContent(commentId, commentContent, ret);
+
+        return ret;
     }
 
     /**
      * Generates &#64;username home URL for the specified comment content.
      *
-     * @param comment the specified comment
+     * @param commentContent the specified comment content
+     * @return comment content with &#64;username home URL
      */
-    // XXX: [Performance Issue] genCommentContentUserName
-    private void genCommentContentUserName(final JSONObject comment) {
-        String commentContent = comment.optString(Comment.COMMENT_CONTENT);
+    private String genCommentContentUserName(final String commentContent) {
+        String ret = commentContent;
         try {
             final Set<String> userNames = userQueryService.getUserNames(commentContent);
             for (final String userName : userNames) {
-                commentContent = commentContent.replace('@' + userName,
+                ret = ret.replace('@' + userName,
                         "@<a href='" + Latkes.getServePath()
                         + "/member/" + userName + "'>" + userName + "</a>");
             }
@@ -607,6 +681,6 @@ public class CommentQueryService {
             LOGGER.log(Level.ERROR, "Generates @username home URL for comment content failed", e);
         }
 
-        comment.put(Comment.COMMENT_CONTENT, commentContent);
+        return ret;
     }
 }
@@ -19,9 +19,11 @@ import javax.inject.Inject;
 import org.b3log.latke.logging.Level;
 import org.b3log.latke.logging.Logger;
 import org.b3log.latke.repository.RepositoryException;
+import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.repository.annotation.Transactional;
 import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
+import org.b3log.symphony.cache.ArticleCache;
 import org.b3log.symphony.model.Article;
 import org.b3log.symphony.model.Follow;
 import org.b3log.symphony.model.Tag;
@@ -33,8 +35,13 @@ import org.json.JSONObject;
 /**
  * Follow management service.
  *
+ * <p>
+ * Following or unfollowing an article updates the collect count of the article, the article is evicted from
+ * {@link ArticleCache} once the transaction committed.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.2.0.1, Aug 12, 2015
+ * @version 1.2.1.0, Oct 16, 2026
  * @since 0.2.5
  */
 @Service
@@ -63,6 +70,12 @@ public class FollowMgmtService {
     @Inject
     private ArticleRepository articleRepository;
 
+    /**
+     * Article cache.
+     */
+    @Inject
+    private ArticleCache articleCache;
+
     /**
      * The specified follower follows the specified following tag.
      *
@@ -108,11 +121,20 @@ public class FollowMgmtService {
      * @param followingArticleId the specified following article id
      * @throws ServiceException service exception
      */
-    @Transactional
     public void followArticle(final String followerId, final String followingArticleId) throws ServiceException {
+        final Transaction transaction = followRepository.beginTransaction();
+
         try {
             follow(followerId, followingArticleId, Follow.FOLLOWING_TYPE_C_ARTICLE);
+
+            transaction.commit();
+
+            articleCache.removeArticle(followingArticleId);
         } catch (final RepositoryException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+
             final String msg = "User[id=" + followerId + "] follows an article[id=" + followingArticleId + "] failed";
             LOGGER.log(Level.ERROR, msg, e);
 
@@ -165,11 +187,20 @@ public class FollowMgmtService {
      * @param followingArticleId the specified following article id
      * @throws ServiceException service exception
      */
-    @Transactional
     public void unfollowArticle(final String followerId, final String followingArticleId) throws ServiceException {
+        final Transaction transaction = followRepository.beginTransaction();
+
         try {
             unfollow(followerId, followingArticleId, Follow.FOLLOWING_TYPE_C_ARTICLE);
+
+            transaction.commit();
+
+            articleCache.removeArticle(followingArticleId);
         } catch (final RepositoryException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+
             final String msg = "User[id=" + followerId + "] unfollows an article[id=" + followingArticleId + "] failed";
             LOGGER.log(Level.ERROR, msg, e);
 
@@ -38,13 +38,14 @@ import org.b3log.symphony.repository.ArticleRepository;
 import org.b3log.symphony.repository.FollowRepository;
 import org.b3log.symphony.repository.TagRepository;
 import org.b3log.symphony.repository.UserRepository;
+import org.b3log.symphony.util.JSONs;
 import org.json.JSONObject;
 
 /**
  * Follow query service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.3.0.2, Jun 24, 2015
+ * @version 1.3.0.3, Oct 16, 2026
  * @since 0.2.5
  */
 @Service
@@ -148,9 +149,10 @@ public class FollowQueryService {
                     continue;
                 }
 
-                avatarQueryService.fillUserAvatarURL(user);
+                final JSONObject record = JSONs.clone(user); // The cached user is read-only
+                avatarQueryService.fillUserAvatarURL(record);
 
-                records.add(user);
+                records.add(record);
             }
 
             ret.put(Pagination.PAGINATION_RECORD_COUNT, result.optInt(Pagination.PAGINATION_RECORD_COUNT));
@@ -304,9 +306,10 @@ public class FollowQueryService {
                     continue;
                 }
 
-                avatarQueryService.fillUserAvatarURL(user);
+                final JSONObject record = JSONs.clone(user); // The cached user is read-only
+                avatarQueryService.fillUserAvatarURL(record);
 
-                records.add(user);
+                records.add(record);
             }
 
             ret.put(Pagination.PAGINATION_RECORD_COUNT, result.optInt(Pagination.PAGINATION_RECORD_COUNT));
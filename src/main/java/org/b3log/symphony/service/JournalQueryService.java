@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import javax.inject.Inject;
 import org.apache.commons.lang.time.DateUtils;
@@ -58,7 +59,7 @@ import org.json.JSONObject;
  * Journal query service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.3.4.8, May 30, 2016
+ * @version 1.4.0.0, Oct 16, 2026
  * @since 1.4.0
  */
 @Service
@@ -155,8 +156,7 @@ public class JournalQueryService {
             for (final JSONObject article : ret) {
                 article.put(Pagination.PAGINATION_PAGE_COUNT, pageCount);
 
-                final String authorId = article.optString(Article.ARTICLE_AUTHOR_ID);
-                final JSONObject author = userRepository.get(authorId);
+                final JSONObject author = article.optJSONObject(Article.ARTICLE_T_AUTHOR);
                 if (UserExt.USER_STATUS_C_INVALID == author.optInt(UserExt.USER_STATUS)) {
                     article.put(Article.ARTICLE_TITLE, langPropsService.get("articleTitleBlockLabel"));
                 }
@@ -224,11 +224,13 @@ public class JournalQueryService {
                 paragraph.put(Article.ARTICLE_CONTENT, articleContent);
 
                 articleQueryService.markdown(paragraph);
+            }
 
-                articleQueryService.organizeArticle(paragraph);
+            articleQueryService.organizeArticles(paragraphs);
 
+            for (final JSONObject paragraph : paragraphs) {
                 final String pAuthorId = paragraph.optString(Article.ARTICLE_AUTHOR_ID);
-                final JSONObject pAuthor = userRepository.get(pAuthorId);
+                final JSONObject pAuthor = paragraph.optJSONObject(Article.ARTICLE_T_AUTHOR);
                 final String userName = pAuthor.optString(User.USER_NAME);
                 final String teamName = getTeamName(archive, pAuthorId);
 
@@ -327,11 +329,13 @@ public class JournalQueryService {
                 paragraph.put(Article.ARTICLE_CONTENT, articleContent);
 
                 articleQueryService.markdown(paragraph);
+            }
 
-                articleQueryService.organizeArticle(paragraph);
+            articleQueryService.organizeArticles(paragraphs);
 
+            for (final JSONObject paragraph : paragraphs) {
                 final String pAuthorId = paragraph.optString(Article.ARTICLE_AUTHOR_ID);
-                final JSONObject pAuthor = userRepository.get(pAuthorId);
+                final JSONObject pAuthor = paragraph.optJSONObject(Article.ARTICLE_T_AUTHOR);
                 if (UserExt.USER_STATUS_C_VALID != pAuthor.optInt(UserExt.USER_STATUS)) {
                     continue;
                 }
@@ -634,12 +638,17 @@ public class JournalQueryService {
                 if (name.equals(teamName)) {
                     final JSONArray members = team.optJSONArray(User.USERS);
 
+                    final List<String> userIds = new ArrayList<String>();
                     for (int j = 0; j < members.length(); j++) {
+                        userIds.add(members.optString(j));
+                    }
+                    final Map<String, JSONObject> users = userRepository.getByIds(userIds);
+
+                    for (final String userId : userIds) {
                         final JSONObject member = new JSONObject();
-                        final String userId = members.optString(j);
                         member.put(Keys.OBJECT_ID, userId);
 
-                        final JSONObject u = userRepository.get(userId);
+                        final JSONObject u = users.get(userId);
                         member.put(User.USER_NAME, u.optString(User.USER_NAME));
                         member.put(UserExt.USER_AVATAR_URL, u.optString(UserExt.USER_AVATAR_URL));
                         member.put(UserExt.USER_UPDATE_TIME, u.opt(UserExt.USER_UPDATE_TIME));
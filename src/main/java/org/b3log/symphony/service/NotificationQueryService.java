@@ -18,6 +18,7 @@ package org.b3log.symphony.service;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import javax.inject.Inject;
 import org.b3log.latke.Keys;
 import org.b3log.latke.logging.Level;
@@ -56,7 +57,7 @@ import org.json.JSONObject;
  * Notification query service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.4.2.4, Mar 8, 2016
+ * @version 1.5.0.0, Oct 16, 2026
  * @since 0.2.5
  */
 @Service
@@ -574,7 +575,7 @@ public class NotificationQueryService {
                     atNotification.put(Keys.OBJECT_ID, notification.optString(Keys.OBJECT_ID));
                     atNotification.put(Common.AUTHOR_NAME, articleAuthor.optString(User.USER_NAME));
                     atNotification.put(Common.CONTENT, "");
-                    final String thumbnailURL = avatarQueryService.getAvatarURL(articleAuthor.optString(User.USER_EMAIL));
+                    final String thumbnailURL = avatarQueryService.getAvatarURLByUser(articleAuthor);
                     atNotification.put(Common.THUMBNAIL_URL, thumbnailURL);
                     atNotification.put(Common.THUMBNAIL_UPDATE_TIME, articleAuthor.optLong(UserExt.USER_UPDATE_TIME));
                     atNotification.put(Article.ARTICLE_TITLE, Emotions.convert(article.optString(Article.ARTICLE_TITLE)));
@@ -649,6 +650,9 @@ public class NotificationQueryService {
             ret.put(Pagination.PAGINATION_RECORD_COUNT,
                     queryResult.optJSONObject(Pagination.PAGINATION).optInt(Pagination.PAGINATION_RECORD_COUNT));
 
+            final List<JSONObject> notifications = new ArrayList<JSONObject>();
+            final List<JSONObject> articles = new ArrayList<JSONObject>();
+            final List<String> authorIds = new ArrayList<String>();
             for (int i = 0; i < results.length(); i++) {
                 final JSONObject notification = results.optJSONObject(i);
                 final String articleId = notification.optString(Notification.NOTIFICATION_DATA_ID);
@@ -656,7 +660,7 @@ public class NotificationQueryService {
                 final Query q = new Query().setPageCount(1).
                         addProjection(Article.ARTICLE_TITLE, String.class).
                         addProjection(Article.ARTICLE_TYPE, Integer.class).
-                        addProjection(Article.ARTICLE_AUTHOR_EMAIL, String.class).
+                        addProjection(Article.ARTICLE_AUTHOR_ID, String.class).
                         addProjection(Article.ARTICLE_PERMALINK, String.class).
                         addProjection(Article.ARTICLE_CREATE_TIME, Long.class).
                         addProjection(Article.ARTICLE_TAGS, String.class).
@@ -671,12 +675,22 @@ public class NotificationQueryService {
                     continue;
                 }
 
+                notifications.add(notification);
+                articles.add(article);
+                authorIds.add(article.optString(Article.ARTICLE_AUTHOR_ID));
+            }
+
+            final Map<String, JSONObject> authors = userRepository.getByIds(authorIds);
+            for (int i = 0; i < articles.size(); i++) {
+                final JSONObject notification = notifications.get(i);
+                final JSONObject article = articles.get(i);
+
                 final String articleTitle = article.optString(Article.ARTICLE_TITLE);
-                final String articleAuthorEmail = article.optString(Article.ARTICLE_AUTHOR_EMAIL);
-                final JSONObject author = userRepository.getByEmail(articleAuthorEmail);
+                final String articleAuthorId = article.optString(Article.ARTICLE_AUTHOR_ID);
+                final JSONObject author = authors.get(articleAuthorId);
 
                 if (null == author) {
-                    LOGGER.warn("Not found user[email=" + articleAuthorEmail + ']');
+                    LOGGER.warn("Not found user[id=" + articleAuthorId + ']');
 
                     continue;
                 }
@@ -685,7 +699,7 @@ public class NotificationQueryService {
                 followingUserNotification.put(Keys.OBJECT_ID, notification.optString(Keys.OBJECT_ID));
                 followingUserNotification.put(Common.AUTHOR_NAME, author.optString(User.USER_NAME));
                 followingUserNotification.put(Common.CONTENT, "");
-                followingUserNotification.put(Common.THUMBNAIL_URL, avatarQueryService.getAvatarURL(articleAuthorEmail));
+                followingUserNotification.put(Common.THUMBNAIL_URL, avatarQueryService.getAvatarURLByUser(author));
                 followingUserNotification.put(Common.THUMBNAIL_UPDATE_TIME, author.optLong(UserExt.USER_UPDATE_TIME));
                 followingUserNotification.put(Article.ARTICLE_TITLE, Emotions.convert(articleTitle));
                 followingUserNotification.put(Common.URL, article.optString(Article.ARTICLE_PERMALINK));
@@ -759,6 +773,9 @@ public class NotificationQueryService {
             ret.put(Pagination.PAGINATION_RECORD_COUNT,
                     queryResult.optJSONObject(Pagination.PAGINATION).optInt(Pagination.PAGINATION_RECORD_COUNT));
 
+            final List<JSONObject> notifications = new ArrayList<JSONObject>();
+            final List<JSONObject> articles = new ArrayList<JSONObject>();
+            final List<String> authorIds = new ArrayList<String>();
             for (int i = 0; i < results.length(); i++) {
                 final JSONObject notification = results.optJSONObject(i);
                 final String articleId = notification.optString(Notification.NOTIFICATION_DATA_ID);
@@ -766,7 +783,7 @@ public class NotificationQueryService {
                 final Query q = new Query().setPageCount(1).
                         addProjection(Article.ARTICLE_TITLE, String.class).
                         addProjection(Article.ARTICLE_TYPE, Integer.class).
-                        addProjection(Article.ARTICLE_AUTHOR_EMAIL, String.class).
+                        addProjection(Article.ARTICLE_AUTHOR_ID, String.class).
                         addProjection(Article.ARTICLE_PERMALINK, String.class).
                         addProjection(Article.ARTICLE_CREATE_TIME, Long.class).
                         addProjection(Article.ARTICLE_TAGS, String.class).
@@ -781,12 +798,22 @@ public class NotificationQueryService {
                     continue;
                 }
 
+                notifications.add(notification);
+                articles.add(article);
+                authorIds.add(article.optString(Article.ARTICLE_AUTHOR_ID));
+            }
+
+            final Map<String, JSONObject> authors = userRepository.getByIds(authorIds);
+            for (int i = 0; i < articles.size(); i++) {
+                final JSONObject notification = notifications.get(i);
+                final JSONObject article = articles.get(i);
+
                 final String articleTitle = article.optString(Article.ARTICLE_TITLE);
-                final String articleAuthorEmail = article.optString(Article.ARTICLE_AUTHOR_EMAIL);
-                final JSONObject author = userRepository.getByEmail(articleAuthorEmail);
+                final String articleAuthorId = article.optString(Article.ARTICLE_AUTHOR_ID);
+                final JSONObject author = authors.get(articleAuthorId);
 
                 if (null == author) {
-                    LOGGER.warn("Not found user[email=" + articleAuthorEmail + ']');
+                    LOGGER.warn("Not found user[id=" + articleAuthorId + ']');
 
                     continue;
                 }
@@ -795,7 +822,7 @@ public class NotificationQueryService {
                 broadcastNotification.put(Keys.OBJECT_ID, notification.optString(Keys.OBJECT_ID));
                 broadcastNotification.put(Common.AUTHOR_NAME, author.optString(User.USER_NAME));
                 broadcastNotification.put(Common.CONTENT, "");
-                broadcastNotification.put(Common.THUMBNAIL_URL, avatarQueryService.getAvatarURL(articleAuthorEmail));
+                broadcastNotification.put(Common.THUMBNAIL_URL, avatarQueryService.getAvatarURLByUser(author));
                 broadcastNotification.put(Common.THUMBNAIL_UPDATE_TIME, author.optLong(UserExt.USER_UPDATE_TIME));
                 broadcastNotification.put(Article.ARTICLE_TITLE, articleTitle);
                 broadcastNotification.put(Common.URL, article.optString(Article.ARTICLE_PERMALINK));
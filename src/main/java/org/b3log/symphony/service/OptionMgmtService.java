@@ -15,21 +15,35 @@
  */
 package org.b3log.symphony.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
 import javax.inject.Inject;
+import org.b3log.latke.Keys;
 import org.b3log.latke.logging.Level;
 import org.b3log.latke.logging.Logger;
 import org.b3log.latke.repository.RepositoryException;
 import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
+import org.b3log.symphony.cache.OptionCache;
+import org.b3log.symphony.cache.StatisticCache;
+import org.b3log.symphony.model.Option;
 import org.b3log.symphony.repository.OptionRepository;
 import org.json.JSONObject;
 
 /**
  * Option management service.
  *
+ * <p>
+ * Hot statistic options (article count, comment count, tag count, city article counts) are written behind: the
+ * deltas are accumulated in {@link StatisticCache} and flushed in one transaction by {@link #flushStatistic()} (on a
+ * short cron interval and on shutdown), so article and comment transactions do not contend on the statistic rows.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.0, Apr 9, 2015
+ * @version 1.2.0.0, Oct 16, 2026
  * @since 1.1.0
  */
 @Service
@@ -46,6 +60,96 @@ public class OptionMgmtService {
     @Inject
     private OptionRepository optionRepository;
 
+    /**
+     * Statistic cache.
+     */
+    @Inject
+    private StatisticCache statisticCache;
+
+    /**
+     * Option cache.
+     */
+    @Inject
+    private OptionCache optionCache;
+
+    /**
+     * Increments a statistic option specified by the given option id, the option will be updated on the next
+     * {@link #flushStatistic() flush}.
+     *
+     * @param optionId the given option id
+     * @param category the category of the option, used if the option does not exist
+     * @param delta the specified delta
+     */
+    public void incStatistic(final String optionId, final String category, final long delta) {
+        statisticCache.add(optionId, category, delta);
+    }
+
+    /**
+     * Writes the pending statistic deltas to the option table in one transaction.
+     *
+     * <p>
+     * The cached options are updated and the flushed deltas are subtracted at once after the commit, so readers never
+     * count a delta in both. The deltas are kept if the transaction fails, and retried on the next flush.
+     * </p>
+     */
+    public synchronized void flushStatistic() {
+        final Map<String, Long> deltas = statisticCache.getDeltas();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        final List<JSONObject> flushedOptions = new ArrayList<JSONObject>();
+        final Transaction transaction = optionRepository.beginTransaction();
+
+        try {
+            for (final Map.Entry<String, Long> delta : deltas.entrySet()) {
+                final String optionId = delta.getKey();
+
+                JSONObject option = optionRepository.incValue(optionId, delta.getValue());
+                if (null == option) {
+                    // The add is cached at once, a zero value adds nothing to the pending delta
+                    option = new JSONObject();
+                    option.put(Keys.OBJECT_ID, optionId);
+                    option.put(Option.OPTION_VALUE, 0);
+                    option.put(Option.OPTION_CATEGORY, statisticCache.getCategory(optionId));
+                    optionRepository.add(option);
+
+                    option = optionRepository.incValue(optionId, delta.getValue());
+                }
+
+                flushedOptions.add(option);
+            }
+
+            transaction.commit();
+
+            final Lock lock = statisticCache.writeLock();
+            lock.lock();
+            try {
+                for (final JSONObject option : flushedOptions) {
+                    optionCache.putOption(option);
+                }
+
+                for (final Map.Entry<String, Long> delta : deltas.entrySet()) {
+                    statisticCache.subtract(delta.getKey(), delta.getValue());
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (final RepositoryException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+
+            LOGGER.log(Level.ERROR, "Flushes statistic [" + deltas + "] failed", e);
+
+            try { // The cached options may have been updated in the rolled back transaction
+                optionRepository.load();
+            } catch (final RepositoryException ex) {
+                LOGGER.log(Level.ERROR, "Reloads options failed", ex);
+            }
+        }
+    }
+
     /**
      * Updates the specified option by the given option id.
      *
@@ -15,26 +15,25 @@
  */
 package org.b3log.symphony.service;
 
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 import javax.inject.Inject;
 import org.b3log.latke.Keys;
 import org.b3log.latke.logging.Level;
 import org.b3log.latke.logging.Logger;
-import org.b3log.latke.repository.FilterOperator;
-import org.b3log.latke.repository.PropertyFilter;
-import org.b3log.latke.repository.Query;
 import org.b3log.latke.repository.RepositoryException;
 import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.service.LangPropsService;
 import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
-import org.b3log.latke.util.CollectionUtils;
+import org.b3log.symphony.cache.StatisticCache;
 import org.b3log.symphony.model.Option;
 import org.b3log.symphony.processor.channel.ArticleChannel;
 import org.b3log.symphony.processor.channel.ArticleListChannel;
 import org.b3log.symphony.processor.channel.TimelineChannel;
 import org.b3log.symphony.repository.OptionRepository;
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
@@ -45,7 +44,7 @@ import org.json.JSONObject;
  * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.2.0.4, Feb 16, 2016
+ * @version 1.4.1.0, Oct 16, 2026
  * @since 0.2.0
  */
 @Service
@@ -62,6 +61,12 @@ public class OptionQueryService {
     @Inject
     private OptionRepository optionRepository;
 
+    /**
+     * Statistic cache.
+     */
+    @Inject
+    private StatisticCache statisticCache;
+
     /**
      * Language service.
      */
@@ -108,27 +113,34 @@ public class OptionQueryService {
     /**
      * Gets the statistic.
      *
+     * <p>
+     * Each value is the persisted value plus the pending delta not yet flushed, see
+     * {@link OptionMgmtService#flushStatistic()}.
+     * </p>
+     *
      * @return statistic
      * @throws ServiceException service exception
      */
     public JSONObject getStatistic() throws ServiceException {
         final JSONObject ret = new JSONObject();
 
-        final Query query = new Query().
-                setFilter(new PropertyFilter(Option.OPTION_CATEGORY, FilterOperator.EQUAL, Option.CATEGORY_C_STATISTIC));
+        final Lock lock = statisticCache.readLock();
+        lock.lock();
         try {
-            final JSONObject result = optionRepository.get(query);
-            final JSONArray options = result.optJSONArray(Keys.RESULTS);
+            final List<JSONObject> options = optionRepository.getByCategory(Option.CATEGORY_C_STATISTIC);
 
-            for (int i = 0; i < options.length(); i++) {
-                final JSONObject option = options.optJSONObject(i);
-                ret.put(option.optString(Keys.OBJECT_ID), option.optInt(Option.OPTION_VALUE));
+            for (final JSONObject option : options) {
+                final String optionId = option.optString(Keys.OBJECT_ID);
+
+                ret.put(optionId, option.optInt(Option.OPTION_VALUE) + (int) statisticCache.getDelta(optionId));
             }
 
             return ret;
         } catch (final RepositoryException e) {
             LOGGER.log(Level.ERROR, "Gets statistic failed", e);
             throw new ServiceException(e);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -139,44 +151,76 @@ public class OptionQueryService {
      * @throws ServiceException service exception
      */
     public List<JSONObject> getMisc() throws ServiceException {
-        final Query query = new Query().
-                setFilter(new PropertyFilter(Option.OPTION_CATEGORY, FilterOperator.EQUAL, Option.CATEGORY_C_MISC));
         try {
-            final JSONObject result = optionRepository.get(query);
-            final JSONArray options = result.optJSONArray(Keys.RESULTS);
-
-            for (int i = 0; i < options.length(); i++) {
-                final JSONObject option = options.optJSONObject(i);
+            final List<JSONObject> ret = optionRepository.getByCategory(Option.CATEGORY_C_MISC);
+            Collections.sort(ret, new Comparator<JSONObject>() {
+                @Override
+                public int compare(final JSONObject o1, final JSONObject o2) {
+                    return o1.optString(Keys.OBJECT_ID).compareTo(o2.optString(Keys.OBJECT_ID));
+                }
+            });
 
+            for (final JSONObject option : ret) {
                 option.put("label", langPropsService.get(option.optString(Keys.OBJECT_ID) + "Label"));
             }
 
-            return CollectionUtils.jsonArrayToList(options);
+            return ret;
         } catch (final RepositoryException e) {
             LOGGER.log(Level.ERROR, "Gets misc failed", e);
             throw new ServiceException(e);
         }
     }
 
+    /**
+     * Reloads all options from the database.
+     *
+     * <p>
+     * Options are cached on each node, nodes sharing a database should reload them periodically (see
+     * {@code cache.option.resync}) to pick up changes made by other nodes.
+     * </p>
+     */
+    public void loadOptions() {
+        try {
+            optionRepository.load();
+        } catch (final RepositoryException e) {
+            LOGGER.log(Level.ERROR, "Loads options failed", e);
+        }
+    }
+
     /**
      * Gets an option by the specified id.
      *
+     * <p>
+     * The value of a statistic option includes the pending delta not yet flushed.
+     * </p>
+     *
      * @param optionId the specified id
      * @return option, return {@code null} if not found
      * @throws ServiceException service exception
      */
     public JSONObject getOption(final String optionId) throws ServiceException {
+        final Lock lock = statisticCache.readLock();
+        lock.lock();
         try {
-            final JSONObject ret = optionRepository.get(optionId);
+            JSONObject ret = optionRepository.get(optionId);
+
+            final long delta = statisticCache.getDelta(optionId);
+            if (0 != delta) {
+                if (null == ret) { // Not flushed yet
+                    ret = new JSONObject();
+                    ret.put(Keys.OBJECT_ID, optionId);
+                    ret.put(Option.OPTION_CATEGORY, statisticCache.getCategory(optionId));
+                }
 
-            if (null == ret) {
-                return null;
+                ret.put(Option.OPTION_VALUE, ret.optLong(Option.OPTION_VALUE) + delta);
             }
 
             return ret;
         } catch (final RepositoryException e) {
             LOGGER.log(Level.ERROR, "Gets an option [optionId=" + optionId + "] failed", e);
             throw new ServiceException(e);
+        } finally {
+            lock.unlock();
         }
     }
 }
@@ -15,7 +15,10 @@
  */
 package org.b3log.symphony.service;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
 import javax.inject.Inject;
 import org.apache.commons.lang.StringUtils;
 import org.b3log.latke.logging.Level;
@@ -25,17 +28,19 @@ import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.repository.annotation.Transactional;
 import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
+import org.b3log.symphony.cache.UserCache;
 import org.b3log.symphony.model.Pointtransfer;
 import org.b3log.symphony.model.UserExt;
 import org.b3log.symphony.repository.PointtransferRepository;
 import org.b3log.symphony.repository.UserRepository;
+import org.b3log.symphony.util.StripedLocks;
 import org.json.JSONObject;
 
 /**
  * Pointtransfer management service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.1.2, Mar 8, 2016
+ * @version 1.2.0.0, Oct 16, 2026
  * @since 1.3.0
  */
 @Service
@@ -46,6 +51,11 @@ public class PointtransferMgmtService {
      */
     private static final Logger LOGGER = Logger.getLogger(PointtransferMgmtService.class.getName());
 
+    /**
+     * Account locks, transfers of an account are serialized.
+     */
+    private static final StripedLocks ACCOUNT_LOCKS = new StripedLocks(64);
+
     /**
      * Pointtransfer repository.
      */
@@ -58,9 +68,22 @@ public class PointtransferMgmtService {
     @Inject
     private UserRepository userRepository;
 
+    /**
+     * User cache.
+     */
+    @Inject
+    private UserCache userCache;
+
     /**
      * Transfers point from the specified from id to the specified to id with type, sum and data id.
      *
+     * <p>
+     * Transfers are serialized per account instead of globally: the stripes of both accounts are locked in a
+     * deterministic order (see {@link StripedLocks#lock(java.util.Collection)}), so transfers between disjoint accounts
+     * run in parallel and crossing transfers can not deadlock. The balances are changed with atomic updates, the from
+     * balance is decremented only if it covers the sum.
+     * </p>
+     *
      * @param fromId the specified from id, may be system "sys"
      * @param toId the specified to id, may be system "sys"
      * @param type the specified type
@@ -68,43 +91,64 @@ public class PointtransferMgmtService {
      * @param dataId the specified data id
      * @return transfer record id, returns {@code null} if transfer failed
      */
-    public synchronized String transfer(final String fromId, final String toId, final int type, final int sum,
+    public String transfer(final String fromId, final String toId, final int type, final int sum,
             final String dataId) {
         if (StringUtils.equals(fromId, toId)) { // for example the commenter is the article author
             return null;
         }
 
+        final List<String> accountIds = new ArrayList<String>(2);
+        if (!Pointtransfer.ID_C_SYS.equals(fromId)) {
+            accountIds.add(fromId);
+        }
+        if (!Pointtransfer.ID_C_SYS.equals(toId)) {
+            accountIds.add(toId);
+        }
+
+        final List<Lock> locks = ACCOUNT_LOCKS.lock(accountIds);
+        try {
+            return transferLocked(fromId, toId, type, sum, dataId);
+        } finally {
+            StripedLocks.unlock(locks);
+        }
+    }
+
+    /**
+     * Transfers point with the locks of the accounts held.
+     *
+     * @param fromId the specified from id, may be system "sys"
+     * @param toId the specified to id, may be system "sys"
+     * @param type the specified type
+     * @param sum the specified sum
+     * @param dataId the specified data id
+     * @return transfer record id, returns {@code null} if transfer failed
+     */
+    private String transferLocked(final String fromId, final String toId, final int type, final int sum,
+            final String dataId) {
         final Transaction transaction = pointtransferRepository.beginTransaction();
         try {
             int fromBalance = 0;
             if (!Pointtransfer.ID_C_SYS.equals(fromId)) {
-                final JSONObject fromUser = userRepository.get(fromId);
-                if (UserExt.USER_STATUS_C_VALID != fromUser.optInt(UserExt.USER_STATUS)) {
-                    throw new Exception("Invalid from user [id=" + fromId + "]");
-                }
+                checkValid(fromId);
 
-                fromBalance = fromUser.optInt(UserExt.USER_POINT) - sum;
-                if (fromBalance < 0) {
+                final JSONObject fromUser = userRepository.incPoint(fromId, -sum, sum);
+                if (null == fromUser) {
                     throw new Exception("Insufficient balance");
                 }
 
-                fromUser.put(UserExt.USER_POINT, fromBalance);
-                fromUser.put(UserExt.USER_USED_POINT, fromUser.optInt(UserExt.USER_USED_POINT) + sum);
-
-                userRepository.update(fromId, fromUser);
+                fromBalance = fromUser.optInt(UserExt.USER_POINT);
             }
 
             int toBalance = 0;
             if (!Pointtransfer.ID_C_SYS.equals(toId)) {
-                final JSONObject toUser = userRepository.get(toId);
-                if (UserExt.USER_STATUS_C_VALID != toUser.optInt(UserExt.USER_STATUS)) {
-                    throw new Exception("Invalid to user [id=" + toId + "]");
-                }
+                checkValid(toId);
 
-                toBalance = toUser.optInt(UserExt.USER_POINT) + sum;
-                toUser.put(UserExt.USER_POINT, toBalance);
+                final JSONObject toUser = userRepository.incPoint(toId, sum, 0);
+                if (null == toUser) {
+                    throw new Exception("Not found to user [id=" + toId + "]");
+                }
 
-                userRepository.update(toId, toUser);
+                toBalance = toUser.optInt(UserExt.USER_POINT);
             }
 
             final JSONObject pointtransfer = new JSONObject();
@@ -127,6 +171,10 @@ public class PointtransferMgmtService {
                 transaction.rollback();
             }
 
+            // The cached users may hold the rolled back balances
+            userCache.removeUser(fromId);
+            userCache.removeUser(toId);
+
             LOGGER.log(Level.ERROR, "Transfer [fromId=" + fromId + ", toId=" + toId + ", sum=" + sum + ", type=" + type
                     + ", dataId=" + dataId + "] error", e);
 
@@ -134,6 +182,19 @@ public class PointtransferMgmtService {
         }
     }
 
+    /**
+     * Checks whether the user specified by the given user id is valid.
+     *
+     * @param userId the given user id
+     * @throws Exception if the user does not exist or is invalid
+     */
+    private void checkValid(final String userId) throws Exception {
+        final JSONObject user = userRepository.get(userId);
+        if (null == user || UserExt.USER_STATUS_C_VALID != user.optInt(UserExt.USER_STATUS)) {
+            throw new Exception("Invalid user [id=" + userId + "]");
+        }
+    }
+
     /**
      * Adds a pointtransfer with the specified request json object.
      *
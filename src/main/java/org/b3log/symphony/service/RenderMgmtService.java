@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.inject.Inject;
+import org.b3log.latke.logging.Level;
+import org.b3log.latke.logging.Logger;
+import org.b3log.latke.repository.RepositoryException;
+import org.b3log.latke.service.annotation.Service;
+import org.b3log.symphony.repository.ArticleRepository;
+import org.b3log.symphony.repository.CommentRepository;
+
+/**
+ * Render management service.
+ *
+ * <p>
+ * The persisted content HTML of articles and comments bakes in the &#64;username links and the titles of short links,
+ * it is marked stale when one of them changes, see {@link ArticleRepository#markStale(java.util.Collection)}. The
+ * contents are not indexed, marking scans all articles and comments, so the changed keywords are queued by
+ * {@link #markStale(java.lang.String)} and marked by the render cron with {@link #markPendingStale()}, off the request
+ * thread and in one scan per table for all the keywords queued. Until then readers get the HTML rendered before the
+ * change.
+ * </p>
+ *
+ * <p>
+ * A new user name is only queued by {@link #markMentionStale(java.lang.String)} if it has been mentioned (without a
+ * user to link) in a content rendered since the start, see {@link #addUnresolvedMention(java.lang.String)}, most
+ * registrations do not scan anything.
+ * </p>
+ *
+ * <p>
+ * <b>Note</b>: The queue and the unresolved mentions are kept in memory only. The queue is drained on shutdown, but
+ * keywords queued before a crash are lost, and mentions rendered before a restart are not known. The rows containing
+ * them keep the HTML rendered before the change until they are updated.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Service
+public class RenderMgmtService {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(RenderMgmtService.class.getName());
+
+    /**
+     * Max count of keywords marked in one scan.
+     */
+    private static final int MAX_MARK_KEYWORD_CNT = 100;
+
+    /**
+     * Max count of unresolved mentions kept.
+     */
+    private static final int MAX_UNRESOLVED_MENTION_CNT = 65536;
+
+    /**
+     * Keywords to mark stale.
+     */
+    private static final Set<String> PENDING_KEYWORDS
+            = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * Mentioned user names without a user, rendered since the start.
+     */
+    private static final Set<String> UNRESOLVED_MENTIONS
+            = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * Whether some unresolved mentions have not been kept since {@link #UNRESOLVED_MENTIONS} is full.
+     */
+    private static volatile boolean unresolvedMentionsOverflowed;
+
+    /**
+     * Article repository.
+     */
+    @Inject
+    private ArticleRepository articleRepository;
+
+    /**
+     * Comment repository.
+     */
+    @Inject
+    private CommentRepository commentRepository;
+
+    /**
+     * Queues the specified keyword to mark the persisted content HTML of articles and comments whose contents contain
+     * it stale.
+     *
+     * <p>
+     * The caller should invoke it after the change of the keyword has been committed.
+     * </p>
+     *
+     * @param keyword the specified keyword, for example "&#64;username" or "[articleId]"
+     */
+    public void markStale(final String keyword) {
+        PENDING_KEYWORDS.add(keyword);
+    }
+
+    /**
+     * Queues the mentions of the specified new user name to mark stale if it has been mentioned before, the persisted
+     * content HTML mentioning it has been rendered without the link.
+     *
+     * <p>
+     * The caller should invoke it after the user name has been committed.
+     * </p>
+     *
+     * @param userName the specified new user name
+     */
+    public void markMentionStale(final String userName) {
+        if (UNRESOLVED_MENTIONS.remove(userName) || unresolvedMentionsOverflowed) {
+            markStale('@' + userName);
+        }
+    }
+
+    /**
+     * Adds the specified user name mentioned without a user to link.
+     *
+     * @param userName the specified user name
+     */
+    public void addUnresolvedMention(final String userName) {
+        if (UNRESOLVED_MENTIONS.size() < MAX_UNRESOLVED_MENTION_CNT) {
+            UNRESOLVED_MENTIONS.add(userName);
+        } else if (!UNRESOLVED_MENTIONS.contains(userName)) {
+            unresolvedMentionsOverflowed = true;
+        }
+    }
+
+    /**
+     * Marks the persisted content HTML of articles and comments whose contents contain the queued keywords stale.
+     *
+     * <p>
+     * At most {@value #MAX_MARK_KEYWORD_CNT} keywords are marked in one scan of each table, the others are left for the
+     * next invocation. The keywords failed to mark are logged and queued again for the next invocation.
+     * </p>
+     *
+     * @return count of keywords marked
+     */
+    public int markPendingStale() {
+        final List<String> keywords = new ArrayList<String>(MAX_MARK_KEYWORD_CNT);
+        for (final String keyword : PENDING_KEYWORDS) {
+            if (MAX_MARK_KEYWORD_CNT == keywords.size()) {
+                break;
+            }
+
+            keywords.add(keyword);
+        }
+        if (keywords.isEmpty()) {
+            return 0;
+        }
+
+        PENDING_KEYWORDS.removeAll(keywords);
+
+        try {
+            articleRepository.markStale(keywords);
+            commentRepository.markStale(keywords);
+
+            return keywords.size();
+        } catch (final RepositoryException e) {
+            LOGGER.log(Level.ERROR, "Marks rendering results containing " + keywords + " stale failed", e);
+
+            PENDING_KEYWORDS.addAll(keywords);
+
+            return 0;
+        }
+    }
+}
@@ -15,6 +15,10 @@
  */
 package org.b3log.symphony.service;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.inject.Inject;
@@ -28,6 +32,7 @@ import org.b3log.latke.repository.PropertyFilter;
 import org.b3log.latke.repository.Query;
 import org.b3log.latke.repository.RepositoryException;
 import org.b3log.latke.service.annotation.Service;
+import org.b3log.symphony.cache.ShortLinkCache;
 import org.b3log.symphony.model.Article;
 import org.b3log.symphony.model.Tag;
 import org.b3log.symphony.repository.ArticleRepository;
@@ -39,7 +44,7 @@ import org.json.JSONObject;
  * Short link query service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.3.0, Aug 11, 2015
+ * @version 1.1.0.0, Oct 16, 2026
  * @since 1.3.0
  */
 @Service
@@ -72,74 +77,167 @@ public class ShortLinkQueryService {
     @Inject
     private TagRepository tagRepository;
 
+    /**
+     * Short link cache.
+     */
+    @Inject
+    private ShortLinkCache shortLinkCache;
+
     /**
      * Processes article short link (article id).
      *
+     * <p>
+     * All article ids in the specified content are resolved with at most one query, the titles are served from
+     * {@link ShortLinkCache} if possible.
+     * </p>
+     *
      * @param content the specified content
      * @return processed content
      */
     public String linkArticle(final String content) {
         final Matcher matcher = ID_PATTERN.matcher(content);
-        final StringBuffer contentBuilder = new StringBuffer();
+        final Set<String> linkIds = new HashSet<String>();
+        while (matcher.find()) {
+            linkIds.add(StringUtils.substringBetween(matcher.group(), "[", "]"));
+        }
+
+        if (linkIds.isEmpty()) {
+            return content;
+        }
 
-        try {
-            while (matcher.find()) {
-                final String linkId = StringUtils.substringBetween(matcher.group(), "[", "]");
+        final Map<String, String> titles = new HashMap<String, String>();
+        final Set<String> missingIds = new HashSet<String>();
+        for (final String linkId : linkIds) {
+            final String title = shortLinkCache.getArticleTitle(linkId);
+            if (null == title) {
+                missingIds.add(linkId);
+            } else {
+                titles.put(linkId, title);
+            }
+        }
 
-                final Query query = new Query().addProjection(Article.ARTICLE_TITLE, String.class)
-                        .setFilter(new PropertyFilter(Keys.OBJECT_ID, FilterOperator.EQUAL, linkId));
+        if (!missingIds.isEmpty()) {
+            try {
+                final Query query = new Query().addProjection(Keys.OBJECT_ID, String.class)
+                        .addProjection(Article.ARTICLE_TITLE, String.class).setPageCount(1)
+                        .setFilter(new PropertyFilter(Keys.OBJECT_ID, FilterOperator.IN, missingIds));
                 final JSONArray results = articleRepository.get(query).optJSONArray(Keys.RESULTS);
-                if (0 == results.length()) {
-                    continue;
+                for (int i = 0; i < results.length(); i++) {
+                    final JSONObject linkArticle = results.optJSONObject(i);
+
+                    titles.put(linkArticle.optString(Keys.OBJECT_ID), linkArticle.optString(Article.ARTICLE_TITLE));
                 }
+            } catch (final RepositoryException e) {
+                LOGGER.log(Level.ERROR, "Generates article link error", e);
+
+                return content;
+            }
 
-                final JSONObject linkArticle = results.optJSONObject(0);
+            for (final String linkId : missingIds) {
+                String title = titles.get(linkId);
+                if (null == title) {
+                    title = "";
+                    titles.put(linkId, title);
+                }
 
-                final String linkTitle = linkArticle.optString(Article.ARTICLE_TITLE);
-                final String link = " [" + linkTitle + "](" + Latkes.getServePath() + "/article/" + linkId + ") ";
+                shortLinkCache.putArticleTitle(linkId, title);
+            }
+        }
 
-                matcher.appendReplacement(contentBuilder, link);
+        final StringBuffer contentBuilder = new StringBuffer(content.length() + linkIds.size() * 64);
+        matcher.reset();
+        while (matcher.find()) {
+            final String linkId = StringUtils.substringBetween(matcher.group(), "[", "]");
+            final String linkTitle = titles.get(linkId);
+            if (StringUtils.isBlank(linkTitle)) {
+                continue;
             }
-            matcher.appendTail(contentBuilder);
-        } catch (final RepositoryException e) {
-            LOGGER.log(Level.ERROR, "Generates article link error", e);
+
+            final String link = " [" + linkTitle + "](" + Latkes.getServePath() + "/article/" + linkId + ") ";
+
+            matcher.appendReplacement(contentBuilder, Matcher.quoteReplacement(link));
         }
+        matcher.appendTail(contentBuilder);
 
         return contentBuilder.toString();
     }
 
     /**
-     * Processes tag short link (tag id).
+     * Processes tag short link (tag title).
+     *
+     * <p>
+     * All tag titles in the specified content are resolved with at most one query, the results are served from
+     * {@link ShortLinkCache} if possible.
+     * </p>
      *
      * @param content the specified content
      * @return processed content
      */
     public String linkTag(final String content) {
         final Matcher matcher = TAG_TITLE_PATTERN.matcher(content);
-        final StringBuffer contentBuilder = new StringBuffer();
+        final Set<String> linkTagTitles = new HashSet<String>();
+        while (matcher.find()) {
+            linkTagTitles.add(StringUtils.substringBetween(matcher.group(), "[", "]"));
+        }
 
-        try {
-            while (matcher.find()) {
-                final String linkTagTitle = StringUtils.substringBetween(matcher.group(), "[", "]");
+        if (linkTagTitles.isEmpty()) {
+            return content;
+        }
+
+        final Map<String, String> titles = new HashMap<String, String>();
+        final Set<String> missingTitles = new HashSet<String>();
+        for (final String linkTagTitle : linkTagTitles) {
+            final String title = shortLinkCache.getTagTitle(linkTagTitle);
+            if (null == title) {
+                missingTitles.add(linkTagTitle);
+            } else {
+                titles.put(linkTagTitle, title);
+            }
+        }
 
-                final Query query = new Query().addProjection(Tag.TAG_TITLE, String.class)
-                        .setFilter(new PropertyFilter(Tag.TAG_TITLE, FilterOperator.EQUAL, linkTagTitle));
+        if (!missingTitles.isEmpty()) {
+            // Tag titles are compared case-insensitively by the database
+            final Map<String, String> storedTitles = new HashMap<String, String>();
+            try {
+                final Query query = new Query().addProjection(Tag.TAG_TITLE, String.class).setPageCount(1)
+                        .setFilter(new PropertyFilter(Tag.TAG_TITLE, FilterOperator.IN, missingTitles));
                 final JSONArray results = tagRepository.get(query).optJSONArray(Keys.RESULTS);
-                if (0 == results.length()) {
-                    continue;
+                for (int i = 0; i < results.length(); i++) {
+                    final String storedTitle = results.optJSONObject(i).optString(Tag.TAG_TITLE);
+
+                    storedTitles.put(storedTitle.toLowerCase(), storedTitle);
                 }
+            } catch (final RepositoryException e) {
+                LOGGER.log(Level.ERROR, "Generates tag link error", e);
+
+                return content;
+            }
 
-                final JSONObject linkTag = results.optJSONObject(0);
+            for (final String linkTagTitle : missingTitles) {
+                String title = storedTitles.get(linkTagTitle.toLowerCase());
+                if (null == title) {
+                    title = "";
+                }
 
-                final String linkTitle = linkTag.optString(Tag.TAG_TITLE);
-                final String link = " [" + linkTitle + "](" + Latkes.getServePath() + "/tags/" + linkTitle + ") ";
+                titles.put(linkTagTitle, title);
+                shortLinkCache.putTagTitle(linkTagTitle, title);
+            }
+        }
 
-                matcher.appendReplacement(contentBuilder, link);
+        final StringBuffer contentBuilder = new StringBuffer(content.length() + linkTagTitles.size() * 64);
+        matcher.reset();
+        while (matcher.find()) {
+            final String linkTagTitle = StringUtils.substringBetween(matcher.group(), "[", "]");
+            final String linkTitle = titles.get(linkTagTitle);
+            if (StringUtils.isBlank(linkTitle)) {
+                continue;
             }
-            matcher.appendTail(contentBuilder);
-        } catch (final RepositoryException e) {
-            LOGGER.log(Level.ERROR, "Generates tag link error", e);
+
+            final String link = " [" + linkTitle + "](" + Latkes.getServePath() + "/tags/" + linkTitle + ") ";
+
+            matcher.appendReplacement(contentBuilder, Matcher.quoteReplacement(link));
         }
+        matcher.appendTail(contentBuilder);
 
         return contentBuilder.toString();
     }
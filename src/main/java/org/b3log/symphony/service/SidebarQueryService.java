@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import javax.inject.Inject;
+import org.b3log.latke.logging.Level;
+import org.b3log.latke.logging.Logger;
+import org.b3log.latke.service.ServiceException;
+import org.b3log.latke.service.annotation.Service;
+import org.b3log.symphony.util.Symphonys;
+import org.json.JSONObject;
+
+/**
+ * Sidebar query service.
+ *
+ * <p>
+ * Hot articles, random articles, side tags, trend tags and new tags are shown on almost every page, they are built into
+ * a snapshot {@link #refresh() periodically} (see cron.xml) and on new articles, the snapshot is swapped atomically and
+ * read by all requests without touching the repositories. Random panels are drawn from a pool sampled on each refresh.
+ * </p>
+ *
+ * <p>
+ * The articles and tags of the snapshot are shared by all readers, they must not be modified.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+@Service
+public class SidebarQueryService {
+
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(SidebarQueryService.class.getName());
+
+    /**
+     * Pool size of a random panel, in multiples of the panel size.
+     */
+    private static final int RANDOM_POOL_FACTOR = 5;
+
+    /**
+     * Min interval (in milliseconds) between two refreshes.
+     */
+    private static final long MIN_REFRESH_INTERVAL = 10 * 1000;
+
+    /**
+     * Random.
+     */
+    private static final Random RANDOM = new Random();
+
+    /**
+     * Article query service.
+     */
+    @Inject
+    private ArticleQueryService articleQueryService;
+
+    /**
+     * Tag query service.
+     */
+    @Inject
+    private TagQueryService tagQueryService;
+
+    /**
+     * Current snapshot.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * Gets the hot articles.
+     *
+     * @return hot articles (read-only), returns an empty list if not found
+     */
+    public List<JSONObject> getHotArticles() {
+        return getSnapshot().hotArticles;
+    }
+
+    /**
+     * Gets the random articles.
+     *
+     * @return random articles (read-only), returns an empty list if not found
+     */
+    public List<JSONObject> getRandomArticles() {
+        return sample(getSnapshot().randomArticlePool, Symphonys.getInt("sideRandomArticlesCnt"));
+    }
+
+    /**
+     * Gets the side tags (random tags with icons).
+     *
+     * @return side tags (read-only), returns an empty list if not found
+     */
+    public List<JSONObject> getSideTags() {
+        return sample(getSnapshot().sideTagPool, Symphonys.getInt("sideTagsCnt"));
+    }
+
+    /**
+     * Gets the trend tags.
+     *
+     * @return trend tags (read-only), returns an empty list if not found
+     */
+    public List<JSONObject> getTrendTags() {
+        return getSnapshot().trendTags;
+    }
+
+    /**
+     * Gets the new tags.
+     *
+     * @return new tags (read-only), returns an empty list if not found
+     */
+    public List<JSONObject> getNewTags() {
+        return getSnapshot().newTags;
+    }
+
+    /**
+     * Rebuilds the snapshot, does nothing if the snapshot has been rebuilt in the last few seconds.
+     */
+    public void refresh() {
+        final Snapshot current = snapshot;
+        if (null != current && System.currentTimeMillis() - current.time < MIN_REFRESH_INTERVAL) {
+            return;
+        }
+
+        synchronized (this) {
+            if (current != snapshot) { // Refreshed by another thread
+                return;
+            }
+
+            try {
+                snapshot = build();
+            } catch (final ServiceException e) {
+                LOGGER.log(Level.ERROR, "Refreshes sidebar failed", e);
+            }
+        }
+    }
+
+    /**
+     * Gets the current snapshot, builds it if not built yet.
+     *
+     * @return snapshot
+     */
+    private Snapshot getSnapshot() {
+        Snapshot ret = snapshot;
+        if (null != ret) {
+            return ret;
+        }
+
+        synchronized (this) {
+            ret = snapshot;
+            if (null != ret) {
+                return ret;
+            }
+
+            try {
+                ret = build();
+            } catch (final ServiceException e) {
+                LOGGER.log(Level.ERROR, "Builds sidebar failed", e);
+
+                return Snapshot.EMPTY; // Retries on the next request
+            }
+
+            snapshot = ret;
+
+            return ret;
+        }
+    }
+
+    /**
+     * Builds a snapshot.
+     *
+     * @return snapshot
+     * @throws ServiceException service exception
+     */
+    private Snapshot build() throws ServiceException {
+        final List<JSONObject> hotArticles = articleQueryService.getHotArticles(Symphonys.getInt("sideHotArticlesCnt"));
+        final List<JSONObject> randomArticlePool
+                = articleQueryService.getRandomArticles(Symphonys.getInt("sideRandomArticlesCnt") * RANDOM_POOL_FACTOR);
+        final List<JSONObject> sideTagPool = tagQueryService.getTags(Symphonys.getInt("sideTagsCnt") * RANDOM_POOL_FACTOR);
+        final List<JSONObject> trendTags = tagQueryService.getTrendTags(Symphonys.getInt("trendTagsCnt"));
+        final List<JSONObject> newTags = tagQueryService.getNewTags(Symphonys.getInt("newTagsCnt"));
+
+        return new Snapshot(hotArticles, randomArticlePool, sideTagPool, trendTags, newTags);
+    }
+
+    /**
+     * Samples the specified number of elements from the specified pool.
+     *
+     * @param pool the specified pool
+     * @param size the specified number
+     * @return sampled elements, in random order
+     */
+    private static List<JSONObject> sample(final List<JSONObject> pool, final int size) {
+        final List<JSONObject> ret = new ArrayList<JSONObject>(pool);
+        if (ret.size() > size) {
+            for (int i = 0; i < size; i++) { // Partial Fisher-Yates shuffle
+                Collections.swap(ret, i, i + RANDOM.nextInt(ret.size() - i));
+            }
+
+            return ret.subList(0, size);
+        }
+
+        Collections.shuffle(ret, RANDOM);
+
+        return ret;
+    }
+
+    /**
+     * Sidebar snapshot.
+     */
+    private static final class Snapshot {
+
+        /**
+         * Empty snapshot.
+         */
+        private static final Snapshot EMPTY = new Snapshot(Collections.<JSONObject>emptyList(),
+                Collections.<JSONObject>emptyList(), Collections.<JSONObject>emptyList(),
+                Collections.<JSONObject>emptyList(), Collections.<JSONObject>emptyList());
+
+        /**
+         * Build time.
+         */
+        private final long time = System.currentTimeMillis();
+
+        /**
+         * Hot articles.
+         */
+        private final List<JSONObject> hotArticles;
+
+        /**
+         * Random article pool.
+         */
+        private final List<JSONObject> randomArticlePool;
+
+        /**
+         * Side tag pool.
+         */
+        private final List<JSONObject> sideTagPool;
+
+        /**
+         * Trend tags.
+         */
+        private final List<JSONObject> trendTags;
+
+        /**
+         * New tags.
+         */
+        private final List<JSONObject> newTags;
+
+        /**
+         * Constructs a snapshot with the specified panels.
+         *
+         * @param hotArticles the specified hot articles
+         * @param randomArticlePool the specified random article pool
+         * @param sideTagPool the specified side tag pool
+         * @param trendTags the specified trend tags
+         * @param newTags the specified new tags
+         */
+        private Snapshot(final List<JSONObject> hotArticles, final List<JSONObject> randomArticlePool,
+                final List<JSONObject> sideTagPool, final List<JSONObject> trendTags, final List<JSONObject> newTags) {
+            this.hotArticles = Collections.unmodifiableList(hotArticles);
+            this.randomArticlePool = Collections.unmodifiableList(randomArticlePool);
+            this.sideTagPool = Collections.unmodifiableList(sideTagPool);
+            this.trendTags = Collections.unmodifiableList(trendTags);
+            this.newTags = Collections.unmodifiableList(newTags);
+        }
+    }
+}
@@ -25,6 +25,9 @@ import org.b3log.latke.repository.RepositoryException;
 import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
+import org.b3log.symphony.cache.PageCache;
+import org.b3log.symphony.cache.ShortLinkCache;
+import org.b3log.symphony.cache.TagCache;
 import org.b3log.symphony.model.Common;
 import org.b3log.symphony.model.Tag;
 import org.b3log.symphony.repository.TagRepository;
@@ -35,7 +38,7 @@ import org.json.JSONObject;
  * Tag management service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.0.0, May 31, 2015
+ * @version 1.2.0.1, Oct 16, 2026
  * @since 1.1.0
  */
 @Service
@@ -58,6 +61,30 @@ public class TagMgmtService {
     @Inject
     private TagTagRepository tagTagRepository;
 
+    /**
+     * Render management service.
+     */
+    @Inject
+    private RenderMgmtService renderMgmtService;
+
+    /**
+     * Short link cache.
+     */
+    @Inject
+    private ShortLinkCache shortLinkCache;
+
+    /**
+     * Tag cache.
+     */
+    @Inject
+    private TagCache tagCache;
+
+    /**
+     * Page cache.
+     */
+    @Inject
+    private PageCache pageCache;
+
     /**
      * Updates the specified tag by the given tag id.
      *
@@ -69,9 +96,28 @@ public class TagMgmtService {
         final Transaction transaction = tagRepository.beginTransaction();
 
         try {
+            final JSONObject oldTag = tagRepository.get(tagId);
+
             tagRepository.update(tagId, tag);
 
             transaction.commit();
+
+            final String tagTitle = tag.optString(Tag.TAG_TITLE);
+            if (null != oldTag) {
+                final String oldTagTitle = oldTag.optString(Tag.TAG_TITLE);
+                shortLinkCache.removeTagTitle(oldTagTitle);
+
+                // The persisted content HTML links the tag titles as stored
+                if (!oldTagTitle.equals(tagTitle)) {
+                    renderMgmtService.markStale('[' + oldTagTitle + ']');
+                    if (!oldTagTitle.equalsIgnoreCase(tagTitle)) {
+                        renderMgmtService.markStale('[' + tagTitle + ']');
+                    }
+                }
+            }
+            shortLinkCache.removeTagTitle(tagTitle);
+            tagCache.removeTagDescription(tagId);
+            pageCache.clear();
         } catch (final RepositoryException e) {
             if (transaction.isActive()) {
                 transaction.rollback();
@@ -136,17 +182,12 @@ public class TagMgmtService {
      * @throws ServiceException service exception
      */
     public void relateTags(final String tagString) throws ServiceException {
-        final List<JSONObject> tags = new ArrayList<JSONObject>();
-
         try {
-            final String[] tagTitles = tagString.split(",");
-            for (final String tagTitle : tagTitles) {
-                final JSONObject tag = tagRepository.getByTitle(tagTitle.trim());
-
-                if (null != tag) {
-                    tags.add(tag);
-                }
+            final List<String> tagTitles = new ArrayList<String>();
+            for (final String tagTitle : tagString.split(",")) {
+                tagTitles.add(tagTitle.trim());
             }
+            final List<JSONObject> tags = tagRepository.getByTitles(tagTitles);
 
             for (int i = 0; i < tags.size(); i++) {
                 final JSONObject tag1 = tags.get(i);
@@ -42,6 +42,7 @@ import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
 import org.b3log.latke.util.CollectionUtils;
 import org.b3log.latke.util.Paginator;
+import org.b3log.symphony.cache.TagCache;
 import org.b3log.symphony.model.Common;
 import org.b3log.symphony.model.Tag;
 import org.b3log.symphony.model.UserExt;
@@ -59,7 +60,7 @@ import org.jsoup.Jsoup;
  * Tag query service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.5.3.7, Mar 12, 2016
+ * @version 1.6.0.9, Oct 16, 2026
  * @since 0.2.0
  */
 @Service
@@ -106,6 +107,12 @@ public class TagQueryService {
     @Inject
     private ShortLinkQueryService shortLinkQueryService;
 
+    /**
+     * Tag cache.
+     */
+    @Inject
+    private TagCache tagCache;
+
     /**
      * Determines whether the specified tag title is reserved.
      *
@@ -160,16 +167,7 @@ public class TagQueryService {
                 return null;
             }
 
-            String description = ret.optString(Tag.TAG_DESCRIPTION);
-            String descriptionText = ret.optString(Tag.TAG_TITLE);
-            if (StringUtils.isNotBlank(description)) {
-                description = shortLinkQueryService.linkTag(description);
-                description = Markdowns.toHTML(description);
-
-                ret.put(Tag.TAG_DESCRIPTION, description);
-                descriptionText = Jsoup.parse(description).text();
-            }
-            ret.put(Tag.TAG_T_DESCRIPTION_TEXT, descriptionText);
+            renderDescription(ret);
 
             return ret;
         } catch (final RepositoryException e) {
@@ -194,16 +192,7 @@ public class TagQueryService {
             final List<JSONObject> ret = CollectionUtils.jsonArrayToList(result.optJSONArray(Keys.RESULTS));
 
             for (final JSONObject tag : ret) {
-                String description = tag.optString(Tag.TAG_DESCRIPTION);
-                String descriptionText = tag.optString(Tag.TAG_TITLE);
-                if (StringUtils.isNotBlank(description)) {
-                    description = shortLinkQueryService.linkTag(description);
-                    description = Markdowns.toHTML(description);
-
-                    tag.put(Tag.TAG_DESCRIPTION, description);
-                    descriptionText = Jsoup.parse(description).text();
-                }
-                tag.put(Tag.TAG_T_DESCRIPTION_TEXT, descriptionText);
+                renderDescription(tag);
             }
 
             return ret;
@@ -251,16 +240,7 @@ public class TagQueryService {
             final List<JSONObject> ret = CollectionUtils.jsonArrayToList(result.optJSONArray(Keys.RESULTS));
 
             for (final JSONObject tag : ret) {
-                String description = tag.optString(Tag.TAG_DESCRIPTION);
-                String descriptionText = tag.optString(Tag.TAG_TITLE);
-                if (StringUtils.isNotBlank(description)) {
-                    description = shortLinkQueryService.linkTag(description);
-                    description = Markdowns.toHTML(description);
-
-                    tag.put(Tag.TAG_DESCRIPTION, description);
-                    descriptionText = Jsoup.parse(description).text();
-                }
-                tag.put(Tag.TAG_T_DESCRIPTION_TEXT, descriptionText);
+                renderDescription(tag);
             }
 
             return ret;
@@ -271,32 +251,18 @@ public class TagQueryService {
     }
 
     /**
-     * Gets the tags the specified fetch size.
+     * Gets the tags (random tags with icon) the specified fetch size.
      *
      * @param fetchSize the specified fetch size
      * @return tags, returns an empty list if not found
      * @throws ServiceException service exception
      */
     public List<JSONObject> getTags(final int fetchSize) throws ServiceException {
-        final Query query = new Query().addSort(" RAND() " /* MySQL navtive dialect here*/, SortDirection.ASCENDING).
-                setFilter(new PropertyFilter(Tag.TAG_ICON_PATH, FilterOperator.NOT_EQUAL, "")).
-                setPageCount(1).setPageSize(fetchSize);
-
         try {
-            final JSONObject result = tagRepository.get(query);
-            final List<JSONObject> ret = CollectionUtils.jsonArrayToList(result.optJSONArray(Keys.RESULTS));
+            final List<JSONObject> ret = tagRepository.getRandomTags(fetchSize);
 
             for (final JSONObject tag : ret) {
-                String description = tag.optString(Tag.TAG_DESCRIPTION);
-                String descriptionText = tag.optString(Tag.TAG_TITLE);
-                if (StringUtils.isNotBlank(description)) {
-                    description = shortLinkQueryService.linkTag(description);
-                    description = Markdowns.toHTML(description);
-
-                    tag.put(Tag.TAG_DESCRIPTION, description);
-                    descriptionText = Jsoup.parse(description).text();
-                }
-                tag.put(Tag.TAG_T_DESCRIPTION_TEXT, descriptionText);
+                renderDescription(tag);
             }
 
             return ret;
@@ -343,8 +309,7 @@ public class TagQueryService {
 
             final JSONObject creator = userRepository.get(creatorId);
 
-            final String creatorEmail = creator.optString(User.USER_EMAIL);
-            final String thumbnailURL = avatarQueryService.getAvatarURL(creatorEmail);
+            final String thumbnailURL = avatarQueryService.getAvatarURLByUser(creator);
 
             final JSONObject ret = new JSONObject();
             ret.put(Tag.TAG_T_CREATOR_THUMBNAIL_URL, thumbnailURL);
@@ -403,7 +368,7 @@ public class TagQueryService {
 
                 participant.put(Tag.TAG_T_PARTICIPANT_NAME, user.optString(User.USER_NAME));
 
-                final String thumbnailURL = avatarQueryService.getAvatarURL(user.optString(User.USER_EMAIL));
+                final String thumbnailURL = avatarQueryService.getAvatarURLByUser(user);
                 participant.put(Tag.TAG_T_PARTICIPANT_THUMBNAIL_URL, thumbnailURL);
                 participant.put(Tag.TAG_T_PARTICIPANT_THUMBNAIL_UPDATE_TIME, user.optLong(UserExt.USER_UPDATE_TIME));
 
@@ -472,13 +437,7 @@ public class TagQueryService {
             ret.addAll(values);
 
             for (final JSONObject tag : ret) {
-                String description = tag.optString(Tag.TAG_DESCRIPTION);
-                if (StringUtils.isNotBlank(description)) {
-                    description = shortLinkQueryService.linkTag(description);
-                    description = Markdowns.toHTML(description);
-
-                    tag.put(Tag.TAG_DESCRIPTION, description);
-                }
+                renderDescription(tag);
             }
 
             return ret;
@@ -581,4 +540,36 @@ public class TagQueryService {
             throw new ServiceException(e);
         }
     }
+
+    /**
+     * Renders the description of the specified tag, puts the description HTML into {@value Tag#TAG_DESCRIPTION} and
+     * the plain text into {@value Tag#TAG_T_DESCRIPTION_TEXT} (the tag title if the description is blank).
+     *
+     * <p>
+     * The rendered descriptions are cached by {@link TagCache}.
+     * </p>
+     *
+     * @param tag the specified tag
+     */
+    private void renderDescription(final JSONObject tag) {
+        final String description = tag.optString(Tag.TAG_DESCRIPTION);
+        if (StringUtils.isBlank(description)) {
+            tag.put(Tag.TAG_T_DESCRIPTION_TEXT, tag.optString(Tag.TAG_TITLE));
+
+            return;
+        }
+
+        final String tagId = tag.optString(Keys.OBJECT_ID);
+        String[] rendered = tagCache.getTagDescription(tagId, description);
+        if (null == rendered) {
+            String descriptionHTML = shortLinkQueryService.linkTag(description);
+            descriptionHTML = Markdowns.toHTML(descriptionHTML);
+
+            rendered = new String[]{descriptionHTML, Jsoup.parse(descriptionHTML).text()};
+            tagCache.putTagDescription(tagId, description, rendered[0], rendered[1]);
+        }
+
+        tag.put(Tag.TAG_DESCRIPTION, rendered[0]);
+        tag.put(Tag.TAG_T_DESCRIPTION_TEXT, rendered[1]);
+    }
 }
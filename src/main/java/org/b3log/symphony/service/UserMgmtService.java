@@ -59,6 +59,10 @@ import org.b3log.latke.util.Ids;
 import org.b3log.latke.util.MD5;
 import org.b3log.latke.util.Requests;
 import org.b3log.latke.util.Strings;
+import org.b3log.symphony.cache.ArticleCache;
+import org.b3log.symphony.cache.PageCache;
+import org.b3log.symphony.cache.ShortLinkCache;
+import org.b3log.symphony.cache.UserCache;
 import org.b3log.symphony.model.Article;
 import org.b3log.symphony.model.Comment;
 import org.b3log.symphony.model.Common;
@@ -72,6 +76,7 @@ import org.b3log.symphony.repository.OptionRepository;
 import org.b3log.symphony.repository.TagRepository;
 import org.b3log.symphony.repository.UserRepository;
 import org.b3log.symphony.repository.UserTagRepository;
+import org.b3log.symphony.util.JSONs;
 import org.b3log.symphony.util.Sessions;
 import org.b3log.symphony.util.Symphonys;
 import org.json.JSONArray;
@@ -81,7 +86,7 @@ import org.json.JSONObject;
  * User management service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 2.10.12.8, Jun 21, 2016
+ * @version 2.12.0.5, Oct 16, 2026
  * @since 0.2.0
  */
 @Service
@@ -152,6 +157,36 @@ public class UserMgmtService {
     @Inject
     private ArchiveMgmtService archiveMgmtService;
 
+    /**
+     * Render management service.
+     */
+    @Inject
+    private RenderMgmtService renderMgmtService;
+
+    /**
+     * Short link cache.
+     */
+    @Inject
+    private ShortLinkCache shortLinkCache;
+
+    /**
+     * Page cache.
+     */
+    @Inject
+    private PageCache pageCache;
+
+    /**
+     * Article cache.
+     */
+    @Inject
+    private ArticleCache articleCache;
+
+    /**
+     * User cache.
+     */
+    @Inject
+    private UserCache userCache;
+
     /**
      * Tries to login with cookie.
      *
@@ -231,10 +266,11 @@ public class UserMgmtService {
         Transaction transaction = null;
 
         try {
-            final JSONObject user = userRepository.get(userId);
+            JSONObject user = userRepository.get(userId);
             if (null == user) {
                 return;
             }
+            user = JSONs.clone(user); // The cached user is read-only
 
             user.put(UserExt.USER_COUNTRY, "中国");
             user.put(UserExt.USER_PROVINCE, "云南");
@@ -297,7 +333,7 @@ public class UserMgmtService {
             final String userTags = requestJSONObject.optString(UserExt.USER_TAGS);
             oldUser.put(UserExt.USER_TAGS, userTags);
 
-            tag(oldUser);
+            final List<String> newTagTitles = tag(oldUser);
 
             // Update
             oldUser.put(UserExt.USER_REAL_NAME, requestJSONObject.optString(UserExt.USER_REAL_NAME));
@@ -315,6 +351,10 @@ public class UserMgmtService {
 
             transaction.commit();
 
+            for (final String tagTitle : newTagTitles) { // Evicted after the commit, a reader may reload the old value
+                shortLinkCache.removeTagTitle(tagTitle);
+            }
+
             archiveMgmtService.refreshTeams(System.currentTimeMillis());
         } catch (final RepositoryException e) {
             if (transaction.isActive()) {
@@ -547,6 +587,10 @@ public class UserMgmtService {
 
             transaction.commit();
 
+            userCache.putUserName(userName);
+            // The persisted content HTML mentioning the new user name has been rendered without the link
+            renderMgmtService.markMentionStale(userName);
+
             if (UserExt.USER_STATUS_C_VALID == status) {
                 // Point
                 pointtransferMgmtService.transfer(Pointtransfer.ID_C_SYS, ret,
@@ -576,9 +620,15 @@ public class UserMgmtService {
         final Transaction transaction = userRepository.beginTransaction();
 
         try {
+            final JSONObject user = userRepository.get(userId);
+
             userRepository.remove(userId);
 
             transaction.commit();
+
+            if (null != user) {
+                userCache.removeUserName(user.optString(User.USER_NAME));
+            }
         } catch (final RepositoryException e) {
             if (transaction.isActive()) {
                 transaction.rollback();
@@ -647,22 +697,31 @@ public class UserMgmtService {
             final Query articleQuery = new Query().setFilter(new PropertyFilter(Article.ARTICLE_AUTHOR_ID, FilterOperator.EQUAL, userId));
             final JSONObject articleResult = articleRepository.get(articleQuery);
             final JSONArray articles = articleResult.optJSONArray(Keys.RESULTS);
+            final List<String> articleIds = new ArrayList<String>();
             for (int i = 0; i < articles.length(); i++) {
                 final JSONObject article = articles.optJSONObject(i);
                 article.put(Article.ARTICLE_AUTHOR_EMAIL, newEmail);
 
-                articleRepository.update(article.optString(Keys.OBJECT_ID), article);
+                final String articleId = article.optString(Keys.OBJECT_ID);
+                articleRepository.update(articleId, article);
+                articleIds.add(articleId);
             }
 
             // Update the user
             userRepository.update(userId, user);
 
             transaction.commit();
+
+            for (final String articleId : articleIds) { // Evicted after the commit, a reader may reload the old value
+                articleCache.removeArticle(articleId);
+            }
         } catch (final RepositoryException e) {
             if (transaction.isActive()) {
                 transaction.rollback();
             }
 
+            userCache.removeUser(userId); // The cached user may carry the new email
+
             LOGGER.log(Level.ERROR, "Updates email of the user[id=" + userId + "] failed", e);
             throw new ServiceException(e);
         }
@@ -685,10 +744,30 @@ public class UserMgmtService {
                 throw new ServiceException(langPropsService.get("duplicatedUserNameLabel") + " [" + newUserName + "]");
             }
 
+            final JSONObject oldUser = userRepository.get(userId);
+
             // Update the user
             userRepository.update(userId, user);
 
             transaction.commit();
+
+            if (null != oldUser) {
+                userCache.renameUserName(oldUser.optString(User.USER_NAME), newUserName);
+            } else if (!UserExt.NULL_USER_NAME.equals(newUserName)) {
+                userCache.putUserName(newUserName);
+            }
+
+            // The persisted content HTML links the mentioned user names
+            final String oldUserName = null == oldUser ? null : oldUser.optString(User.USER_NAME);
+            if (!newUserName.equals(oldUserName)) {
+                if (null != oldUserName) {
+                    renderMgmtService.markStale('@' + oldUserName);
+                }
+                if (!UserExt.NULL_USER_NAME.equals(newUserName)) {
+                    renderMgmtService.markMentionStale(newUserName);
+                }
+            }
+            pageCache.clear();
         } catch (final RepositoryException e) {
             if (transaction.isActive()) {
                 transaction.rollback();
@@ -722,6 +801,7 @@ public class UserMgmtService {
                 final JSONObject user = users.optJSONObject(i);
                 final String id = user.optString(Keys.OBJECT_ID);
 
+                userCache.removeUserName(user.optString(User.USER_NAME));
                 user.put(User.USER_NAME, UserExt.NULL_USER_NAME);
 
                 userRepository.update(id, user);
@@ -772,9 +852,13 @@ public class UserMgmtService {
      * Tags the specified user with the specified tag titles.
      *
      * @param user the specified article
+     * @return titles of the tags created, the caller should evict them from {@link ShortLinkCache} once the
+     * transaction committed
      * @throws RepositoryException repository exception
      */
-    private synchronized void tag(final JSONObject user) throws RepositoryException {
+    private synchronized List<String> tag(final JSONObject user) throws RepositoryException {
+        final List<String> ret = new ArrayList<String>();
+
         // Clear
         final List<Filter> filters = new ArrayList<Filter>();
         filters.add(new PropertyFilter(User.USER + '_' + Keys.OBJECT_ID,
@@ -816,6 +900,7 @@ public class UserMgmtService {
                 tag.put(Tag.TAG_BAD_CNT, 0);
 
                 tagId = tagRepository.add(tag);
+                ret.add(tagTitle);
 
                 final JSONObject tagCntOption = optionRepository.get(Option.ID_C_STATISTIC_TAG_COUNT);
                 final int tagCnt = tagCntOption.optInt(Option.OPTION_VALUE);
@@ -848,5 +933,7 @@ public class UserMgmtService {
         }
 
         user.put(UserExt.USER_TAGS, tagTitleStr);
+
+        return ret;
     }
 }
@@ -18,7 +18,6 @@ package org.b3log.symphony.service;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -47,10 +46,12 @@ import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
 import org.b3log.latke.util.CollectionUtils;
 import org.b3log.latke.util.Paginator;
+import org.b3log.symphony.cache.UserCache;
 import org.b3log.symphony.model.Common;
 import org.b3log.symphony.model.UserExt;
 import org.b3log.symphony.processor.advice.validate.UserRegisterValidation;
 import org.b3log.symphony.repository.UserRepository;
+import org.b3log.symphony.util.JSONs;
 import org.b3log.symphony.util.Sessions;
 import org.b3log.symphony.util.Times;
 import org.json.JSONArray;
@@ -60,7 +61,7 @@ import org.json.JSONObject;
  * User query service.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.7.5.6, Nov 10, 2016
+ * @version 1.8.0.8, Oct 16, 2026
  * @since 0.2.0
  */
 @Service
@@ -83,11 +84,28 @@ public class UserQueryService {
     @Inject
     private AvatarQueryService avatarQueryService;
 
+    /**
+     * User cache.
+     */
+    @Inject
+    private UserCache userCache;
+
+    /**
+     * Render management service.
+     */
+    @Inject
+    private RenderMgmtService renderMgmtService;
+
     /**
      * All usernames.
      */
     private List<JSONObject> userNames = Collections.synchronizedList(new ArrayList<JSONObject>());
 
+    /**
+     * Whether the user name index of {@link UserCache} has been loaded.
+     */
+    private volatile boolean userNameIndexLoaded;
+
     /**
      * Gets user count of the specified day.
      *
@@ -156,11 +174,13 @@ public class UserQueryService {
         try {
             final JSONObject result = userRepository.get(query); // XXX: Performance Issue
             final JSONArray array = result.optJSONArray(Keys.RESULTS);
+            final List<String> names = new ArrayList<String>();
             for (int i = 0; i < array.length(); i++) {
                 final JSONObject user = array.optJSONObject(i);
 
                 final JSONObject u = new JSONObject();
                 u.put(User.USER_NAME, user.optString(User.USER_NAME));
+                names.add(user.optString(User.USER_NAME));
                 u.put(UserExt.USER_REAL_NAME, user.optString(UserExt.USER_REAL_NAME));
                 u.put(User.USER_EMAIL, user.optString(User.USER_EMAIL));
 
@@ -173,6 +193,8 @@ public class UserQueryService {
                 userNames.add(u);
             }
 
+            userCache.loadUserNames(names);
+
             Collections.sort(userNames, new Comparator<JSONObject>() {
                 @Override
                 public int compare(final JSONObject u1, final JSONObject u2) {
@@ -182,11 +204,39 @@ public class UserQueryService {
                     return u1Name.compareToIgnoreCase(u2Name);
                 }
             });
+
+            userNameIndexLoaded = true;
         } catch (final RepositoryException e) {
             LOGGER.log(Level.ERROR, "Loads usernames error", e);
         }
     }
 
+    /**
+     * Loads all usernames from database into the user name index of {@link UserCache} if not loaded yet.
+     */
+    private synchronized void loadUserNameIndex() {
+        if (userNameIndexLoaded) {
+            return;
+        }
+
+        final Query query = new Query().setPageCount(1).
+                setFilter(new PropertyFilter(User.USER_NAME, FilterOperator.NOT_EQUAL, UserExt.NULL_USER_NAME)).
+                addProjection(User.USER_NAME, String.class);
+
+        try {
+            final JSONArray array = userRepository.get(query).optJSONArray(Keys.RESULTS);
+            final List<String> names = new ArrayList<String>();
+            for (int i = 0; i < array.length(); i++) {
+                names.add(array.optJSONObject(i).optString(User.USER_NAME));
+            }
+            userCache.loadUserNames(names);
+
+            userNameIndexLoaded = true;
+        } catch (final RepositoryException e) {
+            LOGGER.log(Level.ERROR, "Loads user name index error", e);
+        }
+    }
+
     /**
      * Gets usernames by the specified name prefix.
      *
@@ -314,6 +364,12 @@ public class UserQueryService {
      * 88250 and Vanessa.
      * </p>
      *
+     * <p>
+     * The text is scanned in a single pass and the user names are looked up in the user name index of
+     * {@link UserCache}, the repository is only touched once to load the index. The names not found are kept by
+     * {@link RenderMgmtService#addUnresolvedMention(java.lang.String)}.
+     * </p>
+     *
      * @param text the specified text
      * @return user names, returns an empty set if not found
      * @throws ServiceException service exception
@@ -327,49 +383,75 @@ public class UserQueryService {
             return ret;
         }
 
-        String copy = text.trim();
-        copy = copy.replaceAll("\\n", " ");
-        copy = copy.replaceAll("(?=\\pP)[^@]", " ");
-        String[] uNames = StringUtils.substringsBetween(copy, "@", " ");
-        String tail = StringUtils.substringAfterLast(copy, "@");
-
-        if (tail.contains(" ")) {
-            tail = null;
+        if (!userNameIndexLoaded) {
+            loadUserNameIndex();
         }
 
-        if (null != tail) {
-            if (null == uNames) {
-                uNames = new String[1];
-                uNames[0] = tail;
-            } else {
-                uNames = Arrays.copyOf(uNames, uNames.length + 1);
-                uNames[uNames.length - 1] = tail;
+        final int length = text.length();
+        while (-1 != idx) {
+            final int start = idx + 1;
+            int end = start;
+            while (end < length && isUserNameChar(text.charAt(end))) {
+                end++;
             }
-        }
 
-        if (null == uNames) {
-            return ret;
-        }
-
-        for (int i = 0; i < uNames.length; i++) {
-            final String maybeUserName = uNames[i];
-
-            if (!UserRegisterValidation.invalidUserName(maybeUserName)) { // A string match the user name pattern
-                if (null != getUserByName(maybeUserName)) { // Found a user
-                    ret.add(maybeUserName);
+            if (end == length || isUserNameDelimiter(text.charAt(end))) {
+                final String maybeUserName = text.substring(start, end);
 
-                    copy = copy.replaceFirst("@" + maybeUserName, "");
-                    idx = copy.indexOf('@');
-                    if (-1 == idx) {
-                        return ret;
+                if (!UserRegisterValidation.invalidUserName(maybeUserName)) { // A string match the user name pattern
+                    if (userCache.containsUserName(maybeUserName)) { // Found a user
+                        ret.add(maybeUserName);
+                    } else { // Registering the name should re-render the text
+                        renderMgmtService.addUnresolvedMention(maybeUserName);
                     }
                 }
             }
+
+            idx = text.indexOf('@', end);
         }
 
         return ret;
     }
 
+    /**
+     * Determines whether the specified character may be a part of a user name.
+     *
+     * @param c the specified character
+     * @return {@code true} if it may be, returns {@code false} otherwise
+     */
+    private static boolean isUserNameChar(final char c) {
+        return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z') || ('0' <= c && c <= '9');
+    }
+
+    /**
+     * Determines whether the specified character ends a user name, a blank or a punctuation except &#64;.
+     *
+     * @param c the specified character
+     * @return {@code true} if it ends, returns {@code false} otherwise
+     */
+    private static boolean isUserNameDelimiter(final char c) {
+        if (Character.isWhitespace(c)) {
+            return true;
+        }
+
+        if ('@' == c) {
+            return false;
+        }
+
+        switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Gets a user by the specified name.
      *
@@ -379,10 +461,11 @@ public class UserQueryService {
      */
     public JSONObject getUserByName(final String name) throws ServiceException {
         try {
-            final JSONObject ret = userRepository.getByName(name);
+            JSONObject ret = userRepository.getByName(name);
             if (null == ret) {
                 return null;
             }
+            ret = JSONs.clone(ret); // The cached user is read-only
 
             final int point = ret.optInt(UserExt.USER_POINT);
             final int appRole = ret.optInt(UserExt.USER_APP_ROLE);
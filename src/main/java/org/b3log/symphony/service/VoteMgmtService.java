@@ -20,9 +20,11 @@ import org.b3log.latke.Keys;
 import org.b3log.latke.logging.Level;
 import org.b3log.latke.logging.Logger;
 import org.b3log.latke.repository.RepositoryException;
-import org.b3log.latke.repository.annotation.Transactional;
+import org.b3log.latke.repository.Transaction;
 import org.b3log.latke.service.ServiceException;
 import org.b3log.latke.service.annotation.Service;
+import org.b3log.symphony.cache.ArticleCache;
+import org.b3log.symphony.cache.PageCache;
 import org.b3log.symphony.model.Article;
 import org.b3log.symphony.model.Vote;
 import org.b3log.symphony.repository.ArticleRepository;
@@ -32,8 +34,13 @@ import org.json.JSONObject;
 /**
  * Vote management service.
  *
+ * <p>
+ * Votes update the counts and the score of the voted article, the article is evicted from {@link ArticleCache} and
+ * its pages are removed from {@link PageCache} once the transaction committed.
+ * </p>
+ *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.1.0, Aug 14, 2015
+ * @version 1.0.4.0, Oct 16, 2026
  * @since 1.3.0
  */
 @Service
@@ -56,6 +63,18 @@ public class VoteMgmtService {
     @Inject
     private ArticleRepository articleRepository;
 
+    /**
+     * Page cache.
+     */
+    @Inject
+    private PageCache pageCache;
+
+    /**
+     * Article cache.
+     */
+    @Inject
+    private ArticleCache articleCache;
+
     /**
      * Cancels the vote.
      *
@@ -63,8 +82,9 @@ public class VoteMgmtService {
      * @param dataId the specified data id
      * @param dataType the specified data type
      */
-    @Transactional
     public void voteCancel(final String userId, final String dataId, final int dataType) {
+        final Transaction transaction = voteRepository.beginTransaction();
+
         try {
             final int oldType = voteRepository.removeIfExists(userId, dataId);
 
@@ -72,6 +92,7 @@ public class VoteMgmtService {
                 final JSONObject article = articleRepository.get(dataId);
                 if (null == article) {
                     LOGGER.log(Level.ERROR, "Not found article [id={0}] to vote cancel", dataId);
+                    transaction.commit();
 
                     return;
                 }
@@ -91,7 +112,18 @@ public class VoteMgmtService {
 
                 articleRepository.update(dataId, article);
             }
+
+            transaction.commit();
+
+            if (Vote.DATA_TYPE_C_ARTICLE == dataType) {
+                articleCache.removeArticle(dataId);
+                pageCache.removeArticlePages(dataId);
+            }
         } catch (final RepositoryException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+
             LOGGER.log(Level.ERROR, e.getMessage());
         }
     }
@@ -103,11 +135,21 @@ public class VoteMgmtService {
      * @param articleId the specified article id
      * @throws ServiceException service exception
      */
-    @Transactional
     public void voteUpArticle(final String userId, final String articleId) throws ServiceException {
+        final Transaction transaction = voteRepository.beginTransaction();
+
         try {
             up(userId, articleId, Vote.DATA_TYPE_C_ARTICLE);
+
+            transaction.commit();
+
+            articleCache.removeArticle(articleId);
+            pageCache.removeArticlePages(articleId);
         } catch (final RepositoryException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+
             final String msg = "User[id=" + userId + "] vote up an article[id=" + articleId + "] failed";
             LOGGER.log(Level.ERROR, msg, e);
 
@@ -122,11 +164,21 @@ public class VoteMgmtService {
      * @param articleId the specified article id
      * @throws ServiceException service exception
      */
-    @Transactional
     public void voteDownArticle(final String userId, final String articleId) throws ServiceException {
+        final Transaction transaction = voteRepository.beginTransaction();
+
         try {
             down(userId, articleId, Vote.DATA_TYPE_C_ARTICLE);
+
+            transaction.commit();
+
+            articleCache.removeArticle(articleId);
+            pageCache.removeArticlePages(articleId);
         } catch (final RepositoryException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+
             final String msg = "User[id=" + userId + "] vote down an article[id=" + articleId + "] failed";
             LOGGER.log(Level.ERROR, msg, e);
 
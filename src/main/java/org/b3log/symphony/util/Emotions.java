@@ -16,14 +16,14 @@
 package org.b3log.symphony.util;
 
 import com.vdurmont.emoji.EmojiParser;
-import org.apache.commons.lang.StringUtils;
+import java.util.Arrays;
 import org.b3log.latke.Latkes;
 
 /**
  * Emotions utilities.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.1.1.1, Apr 14, 2016
+ * @version 1.2.0.0, Oct 16, 2026
  * @since 0.2.0
  */
 public final class Emotions {
@@ -925,6 +925,89 @@ public final class Emotions {
         "zzz"
     };
 
+    /**
+     * Length of an emotion token, for example {@literal [em00]}.
+     */
+    private static final int EMOTION_TOKEN_LENGTH = "[em00]".length();
+
+    /**
+     * Max capacity of a reused builder, a larger builder will be released after use.
+     */
+    private static final int MAX_REUSED_BUILDER_CAPACITY = 64 * 1024;
+
+    /**
+     * Emoji alias trie node labels, indexed by node, node {@code 0} is the root.
+     */
+    private static final char[] TRIE_LABELS;
+
+    /**
+     * Emoji alias trie node first children, {@code -1} if the node is a leaf.
+     */
+    private static final int[] TRIE_FIRST_CHILDREN;
+
+    /**
+     * Emoji alias trie node next siblings, {@code -1} if the node is the last child.
+     */
+    private static final int[] TRIE_NEXT_SIBLINGS;
+
+    /**
+     * Emoji codes end at trie nodes, {@code null} if no emoji code ends at the node.
+     */
+    private static final String[] TRIE_CODES;
+
+    /**
+     * Output builders, one per thread.
+     */
+    private static final ThreadLocal<StringBuilder> BUILDERS = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(1024);
+        }
+    };
+
+    static {
+        int maxNodes = 1;
+        for (final String emojiCode : EMOJIS) {
+            maxNodes += emojiCode.length();
+        }
+
+        final char[] labels = new char[maxNodes];
+        final int[] firstChildren = new int[maxNodes];
+        final int[] nextSiblings = new int[maxNodes];
+        final String[] codes = new String[maxNodes];
+        Arrays.fill(firstChildren, -1);
+        Arrays.fill(nextSiblings, -1);
+
+        int nodeCnt = 1;
+        for (final String emojiCode : EMOJIS) {
+            int node = 0;
+            for (int i = 0; i < emojiCode.length(); i++) {
+                final char c = emojiCode.charAt(i);
+
+                int child = firstChildren[node];
+                while (-1 != child && c != labels[child]) {
+                    child = nextSiblings[child];
+                }
+
+                if (-1 == child) {
+                    child = nodeCnt++;
+                    labels[child] = c;
+                    nextSiblings[child] = firstChildren[node];
+                    firstChildren[node] = child;
+                }
+
+                node = child;
+            }
+
+            codes[node] = emojiCode;
+        }
+
+        TRIE_LABELS = Arrays.copyOf(labels, nodeCnt);
+        TRIE_FIRST_CHILDREN = Arrays.copyOf(firstChildren, nodeCnt);
+        TRIE_NEXT_SIBLINGS = Arrays.copyOf(nextSiblings, nodeCnt);
+        TRIE_CODES = Arrays.copyOf(codes, nodeCnt);
+    }
+
     /**
      * Replaces the emoji's unicode occurrences by one of their alias (between 2 ':'). Example: "😄" gives ":smile:".
      *
@@ -942,13 +1025,45 @@ public final class Emotions {
      * @return cleared content
      */
     public static String clear(final String content) {
-        String ret = content.replaceAll("\\[em\\d+]", "");
-        for (final String emojiCode : EMOJIS) {
-            final String emoji = ":" + emojiCode + ":";
-            ret = ret.replace(emoji, "");
+        final int length = content.length();
+        StringBuilder builder = null;
+        int copied = 0;
+        int i = 0;
+        while (i < length) {
+            final char c = content.charAt(i);
+
+            int end = -1;
+            if ('[' == c) {
+                end = matchEmotionToken(content, i);
+            } else if (':' == c) {
+                final String emojiCode = matchEmojiCode(content, i);
+                if (null != emojiCode) {
+                    end = i + emojiCode.length() + 2;
+                }
+            }
+
+            if (-1 == end) {
+                i++;
+
+                continue;
+            }
+
+            if (null == builder) {
+                builder = borrowBuilder();
+            }
+
+            builder.append(content, copied, i);
+            i = end;
+            copied = end;
         }
 
-        return ret;
+        if (null == builder) {
+            return content;
+        }
+
+        builder.append(content, copied, length);
+
+        return returnBuilder(builder);
     }
 
     /**
@@ -959,40 +1074,194 @@ public final class Emotions {
      * <li>Emoji: http://www.emoji-cheat-sheet.com</li>
      * </ol>
      *
+     * <p>
+     * The content is scanned once from left to right, emotion tokens and emoji aliases are matched against a prebuilt
+     * trie at each '[' and ':'.
+     * </p>
+     *
      * @param content the specified content
      * @return converted content
      */
     public static String convert(final String content) {
-        final String staticServePath = Latkes.getStaticServePath();
+        final int length = content.length();
+        String staticServePath = null;
+        StringBuilder builder = null;
+        int copied = 0;
+        int i = 0;
+        while (i < length) {
+            final char c = content.charAt(i);
+
+            if ('[' == c) {
+                final int emotion = matchEmotion(content, i);
+                if (-1 != emotion) {
+                    if (null == builder) {
+                        builder = borrowBuilder();
+                        staticServePath = Latkes.getStaticServePath();
+                    }
+
+                    builder.append(content, copied, i);
+                    builder.append("<img src='").append(staticServePath).append("/images/emotions/ease/em");
+                    if (emotion < TEN) {
+                        builder.append('0');
+                    }
+                    builder.append(emotion).append(".png' />");
+
+                    i += EMOTION_TOKEN_LENGTH;
+                    copied = i;
 
-        String ret = content;
+                    continue;
+                }
+            } else if (':' == c) {
+                final String emojiCode = matchEmojiCode(content, i);
+                if (null != emojiCode) {
+                    if (null == builder) {
+                        builder = borrowBuilder();
+                        staticServePath = Latkes.getStaticServePath();
+                    }
 
-        String emotionName;
-        for (int i = 0; i < EMOTION_CNT; i++) {
-            if (i < TEN) {
-                emotionName = "em0" + i;
-            } else {
-                emotionName = "em" + i;
+                    builder.append(content, copied, i);
+                    builder.append("<img align=\"absmiddle\" alt=\":").append(emojiCode)
+                            .append(":\" class=\"emoji\" src=\"").append(staticServePath)
+                            .append("/js/lib/emojify.js-1.0.2/images/basic/").append(emojiCode)
+                            .append(".png\" title=\":").append(emojiCode).append(":\"></img>");
+
+                    i += emojiCode.length() + 2;
+                    copied = i;
+
+                    continue;
+                }
             }
 
-            ret = ret.replace('[' + emotionName + ']',
-                    "<img src='" + staticServePath + "/images/emotions/ease/" + emotionName + ".png" + "' />");
+            i++;
         }
 
-        if (!StringUtils.contains(ret, ":")) {
-            return ret;
+        if (null == builder) {
+            return content;
         }
 
-        for (final String emojiCode : EMOJIS) {
-            final String emoji = ":" + emojiCode + ":";
-            ret = ret.replace(emoji, "<img align=\"absmiddle\" alt=\"" + emoji + "\" class=\"emoji\" src=\""
-                    + staticServePath + "/js/lib/emojify.js-1.0.2/images/basic/" + emojiCode
-                    + ".png\" title=\"" + emoji + "\"></img>");
+        builder.append(content, copied, length);
+
+        return returnBuilder(builder);
+    }
+
+    /**
+     * Gets the emoji codes.
+     *
+     * @return emoji codes
+     */
+    static String[] getEmojiCodes() {
+        return EMOJIS.clone();
+    }
+
+    /**
+     * Matches an emotion ({@literal [em00]} - {@literal [em14]}) starts at the specified index of the specified
+     * content.
+     *
+     * @param content the specified content
+     * @param start the specified index, the char at which is '['
+     * @return emotion number, returns {@code -1} if not matched
+     */
+    private static int matchEmotion(final String content, final int start) {
+        if (start + EMOTION_TOKEN_LENGTH > content.length()
+                || 'e' != content.charAt(start + 1) || 'm' != content.charAt(start + 2)
+                || ']' != content.charAt(start + 5)) {
+            return -1;
+        }
+
+        final char tens = content.charAt(start + 3);
+        final char units = content.charAt(start + 4);
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return -1;
+        }
+
+        final int ret = (tens - '0') * TEN + (units - '0');
+
+        return ret < EMOTION_CNT ? ret : -1;
+    }
+
+    /**
+     * Matches an emotion token ({@literal [em\d+]}) starts at the specified index of the specified content.
+     *
+     * @param content the specified content
+     * @param start the specified index, the char at which is '['
+     * @return the end index (exclusive) of the matched token, returns {@code -1} if not matched
+     */
+    private static int matchEmotionToken(final String content, final int start) {
+        final int length = content.length();
+        if (start + 4 > length || 'e' != content.charAt(start + 1) || 'm' != content.charAt(start + 2)) {
+            return -1;
+        }
+
+        int i = start + 3;
+        while (i < length && content.charAt(i) >= '0' && content.charAt(i) <= '9') {
+            i++;
+        }
+
+        if (i == start + 3 || i >= length || ']' != content.charAt(i)) {
+            return -1;
+        }
+
+        return i + 1;
+    }
+
+    /**
+     * Matches an emoji alias ({@literal :heart:}) starts at the specified index of the specified content.
+     *
+     * @param content the specified content
+     * @param start the specified index, the char at which is ':'
+     * @return emoji code (for example {@literal heart}), returns {@code null} if not matched
+     */
+    private static String matchEmojiCode(final String content, final int start) {
+        final int length = content.length();
+        int node = 0;
+        for (int i = start + 1; i < length; i++) {
+            final char c = content.charAt(i);
+            if (':' == c) {
+                return TRIE_CODES[node];
+            }
+
+            int child = TRIE_FIRST_CHILDREN[node];
+            while (-1 != child && c != TRIE_LABELS[child]) {
+                child = TRIE_NEXT_SIBLINGS[child];
+            }
+
+            if (-1 == child) {
+                return null;
+            }
+
+            node = child;
+        }
+
+        return null;
+    }
+
+    /**
+     * Borrows the output builder of the current thread.
+     *
+     * @return an empty builder
+     */
+    private static StringBuilder borrowBuilder() {
+        final StringBuilder ret = BUILDERS.get();
+        ret.setLength(0);
+
+        return ret;
+    }
+
+    /**
+     * Returns the specified builder borrowed by {@link #borrowBuilder()}.
+     *
+     * @param builder the specified builder
+     * @return the content of the specified builder
+     */
+    private static String returnBuilder(final StringBuilder builder) {
+        final String ret = builder.toString();
+
+        if (builder.capacity() > MAX_REUSED_BUILDER_CAPACITY) {
+            BUILDERS.remove();
+        } else {
+            builder.setLength(0);
         }
 
-//        ret = ret.replaceAll("\ufe0f", "");
-//        ret = ret.replaceAll("\ufffd", "");
-//        ret = ret.replaceAll("⃣", "");
         return ret;
     }
 
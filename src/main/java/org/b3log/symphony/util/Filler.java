@@ -43,7 +43,7 @@ import org.b3log.symphony.service.ArticleQueryService;
 import org.b3log.symphony.service.FollowQueryService;
 import org.b3log.symphony.service.NotificationQueryService;
 import org.b3log.symphony.service.OptionQueryService;
-import org.b3log.symphony.service.TagQueryService;
+import org.b3log.symphony.service.SidebarQueryService;
 import org.b3log.symphony.service.UserMgmtService;
 import org.b3log.symphony.service.UserQueryService;
 import org.json.JSONObject;
@@ -52,7 +52,7 @@ import org.json.JSONObject;
  * Filler utilities.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.4.1.10, Aug 27, 2015
+ * @version 1.5.0.1, Oct 16, 2026
  * @since 0.2.0
  */
 @Service
@@ -81,12 +81,6 @@ public class Filler {
     @Inject
     private ArticleQueryService articleQueryService;
 
-    /**
-     * Tag query service.
-     */
-    @Inject
-    private TagQueryService tagQueryService;
-
     /**
      * Option query service.
      */
@@ -129,6 +123,12 @@ public class Filler {
     @Inject
     private ActivityMgmtService activityMgmtService;
 
+    /**
+     * Sidebar query service.
+     */
+    @Inject
+    private SidebarQueryService sidebarQueryService;
+
     /**
      * Fills relevant articles.
      *
@@ -159,7 +159,7 @@ public class Filler {
      * @throws Exception exception
      */
     public void fillRandomArticles(final Map<String, Object> dataModel) throws Exception {
-        dataModel.put(Common.SIDE_RANDOM_ARTICLES, articleQueryService.getRandomArticles(Symphonys.getInt("sideRandomArticlesCnt")));
+        dataModel.put(Common.SIDE_RANDOM_ARTICLES, sidebarQueryService.getRandomArticles());
     }
 
     /**
@@ -169,7 +169,7 @@ public class Filler {
      * @throws Exception exception
      */
     public void fillHotArticles(final Map<String, Object> dataModel) throws Exception {
-        dataModel.put(Common.SIDE_HOT_ARTICLES, articleQueryService.getHotArticles(Symphonys.getInt("sideHotArticlesCnt")));
+        dataModel.put(Common.SIDE_HOT_ARTICLES, sidebarQueryService.getHotArticles());
     }
 
     /**
@@ -179,7 +179,7 @@ public class Filler {
      * @throws Exception exception
      */
     public void fillSideTags(final Map<String, Object> dataModel) throws Exception {
-        dataModel.put(Common.SIDE_TAGS, tagQueryService.getTags(Symphonys.getInt("sideTagsCnt")));
+        dataModel.put(Common.SIDE_TAGS, sidebarQueryService.getSideTags());
         fillNewTags(dataModel);
     }
 
@@ -261,6 +261,8 @@ public class Filler {
             return;
         }
 
+        curUser = JSONs.clone(curUser); // The cached user is read-only
+
         dataModel.put(Common.IS_LOGGED_IN, true);
         dataModel.put(Common.LOGOUT_URL, userQueryService.getLogoutURL("/"));
 
@@ -333,7 +335,7 @@ public class Filler {
      * @throws Exception exception
      */
     private void fillTrendTags(final Map<String, Object> dataModel) throws Exception {
-        dataModel.put(Common.NAV_TREND_TAGS, tagQueryService.getTrendTags(Symphonys.getInt("trendTagsCnt")));
+        dataModel.put(Common.NAV_TREND_TAGS, sidebarQueryService.getTrendTags());
     }
 
     /**
@@ -343,7 +345,7 @@ public class Filler {
      * @throws Exception exception
      */
     private void fillNewTags(final Map<String, Object> dataModel) throws Exception {
-        dataModel.put(Common.NEW_TAGS, tagQueryService.getNewTags(Symphonys.getInt("newTagsCnt")));
+        dataModel.put(Common.NEW_TAGS, sidebarQueryService.getNewTags());
     }
 
     /**
@@ -0,0 +1,1015 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.b3log.latke.Latkes;
+import org.jsoup.nodes.Entities;
+
+/**
+ * Single pass HTML sanitizer.
+ *
+ * <p>
+ * Tokenizes the HTML and writes the safe tokens straight to the output, no DOM is built. The rules are the ones
+ * {@link Markdowns#clean(java.lang.String, java.lang.String)} applied with jsoup:
+ * <ul>
+ * <li>jsoup relaxed whitelist, plus {@code span}, {@code hr}, {@code iframe[src|width|height]},
+ * {@code audio[controls|src]} and {@code id}, {@code target}, {@code class} on all tags, so {@code style} (of
+ * {@code p} for example) is always stripped</li>
+ * <li>URL attributes are resolved against the base URI and must use an allowed protocol</li>
+ * <li>{@code iframe} is kept only if its source is one of {@link #IFRAME_ORIGINS}</li>
+ * <li>{@code a} gets {@code rel="nofollow"}, and {@code target="_blank"} if it does not link to this site</li>
+ * <li>{@code audio} is kept only if its source is on the qiniu domain, its content is replaced with a label and it
+ * gets {@code preload="none"}</li>
+ * </ul>
+ * Disallowed tags are dropped with their content kept as text, except {@code script} and {@code style} whose content
+ * is dropped too. Comments, doctypes and processing instructions are dropped. Open tags are closed at the end.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+final class HTMLSanitizer {
+
+    /**
+     * Allowed iframe source origins.
+     */
+    private static final String[] IFRAME_ORIGINS = {"https://wide.b3log.org", "http://www.chaojibiaoge.com"};
+
+    /**
+     * Allowed attributes of all tags.
+     */
+    private static final Set<String> GLOBAL_ATTRS = new HashSet<String>(Arrays.asList("id", "target", "class"));
+
+    /**
+     * Allowed tags and their allowed attributes.
+     */
+    private static final Map<String, Set<String>> TAG_ATTRS = new HashMap<String, Set<String>>();
+
+    /**
+     * Allowed protocols of URL attributes, &lt;tag, &lt;attr, protocols&gt;&gt;.
+     */
+    private static final Map<String, Map<String, String[]>> PROTOCOLS = new HashMap<String, Map<String, String[]>>();
+
+    /**
+     * Void tags.
+     */
+    private static final Set<String> VOID_TAGS = new HashSet<String>(Arrays.asList("area", "base", "br", "col",
+            "embed", "hr", "img", "input", "keygen", "link", "meta", "param", "source", "track", "wbr"));
+
+    /**
+     * Tags whose content is text.
+     */
+    private static final Set<String> RAW_TEXT_TAGS = new HashSet<String>(Arrays.asList("iframe", "noembed",
+            "noframes", "textarea", "title", "xmp"));
+
+    /**
+     * Tags whose content is dropped.
+     */
+    private static final Set<String> DATA_TAGS = new HashSet<String>(Arrays.asList("script", "style"));
+
+    static {
+        final String[] tags = {"a", "b", "blockquote", "br", "caption", "cite", "code", "col", "colgroup", "dd",
+            "div", "dl", "dt", "em", "h1", "h2", "h3", "h4", "h5", "h6", "i", "img", "li", "ol", "p", "pre", "q",
+            "small", "strike", "strong", "sub", "sup", "table", "tbody", "td", "tfoot", "th", "thead", "tr", "u",
+            "ul", "span", "hr", "iframe", "audio"};
+        for (final String tag : tags) {
+            TAG_ATTRS.put(tag, new HashSet<String>());
+        }
+
+        TAG_ATTRS.get("a").addAll(Arrays.asList("href", "title"));
+        TAG_ATTRS.get("blockquote").add("cite");
+        TAG_ATTRS.get("col").addAll(Arrays.asList("span", "width"));
+        TAG_ATTRS.get("colgroup").addAll(Arrays.asList("span", "width"));
+        TAG_ATTRS.get("img").addAll(Arrays.asList("align", "alt", "height", "src", "title", "width"));
+        TAG_ATTRS.get("ol").addAll(Arrays.asList("start", "type"));
+        TAG_ATTRS.get("q").add("cite");
+        TAG_ATTRS.get("table").addAll(Arrays.asList("summary", "width"));
+        TAG_ATTRS.get("td").addAll(Arrays.asList("abbr", "axis", "colspan", "rowspan", "width"));
+        TAG_ATTRS.get("th").addAll(Arrays.asList("abbr", "axis", "colspan", "rowspan", "scope", "width"));
+        TAG_ATTRS.get("ul").add("type");
+        TAG_ATTRS.get("iframe").addAll(Arrays.asList("src", "width", "height"));
+        TAG_ATTRS.get("audio").addAll(Arrays.asList("controls", "src"));
+
+        addProtocols("a", "href", "ftp", "http", "https", "mailto");
+        addProtocols("blockquote", "cite", "http", "https");
+        addProtocols("cite", "cite", "http", "https");
+        addProtocols("img", "src", "http", "https");
+        addProtocols("q", "cite", "http", "https");
+    }
+
+    /**
+     * Input HTML.
+     */
+    private final String html;
+
+    /**
+     * Input length.
+     */
+    private final int length;
+
+    /**
+     * Base URI.
+     */
+    private final String baseURI;
+
+    /**
+     * Content of kept audio tags.
+     */
+    private final String audioLabel;
+
+    /**
+     * Serve path of this site.
+     */
+    private final String servePath;
+
+    /**
+     * Allowed audio source prefix.
+     */
+    private final String audioDomain;
+
+    /**
+     * Output.
+     */
+    private final StringBuilder out;
+
+    /**
+     * Open tags.
+     */
+    private final List<String> openTags = new ArrayList<String>();
+
+    /**
+     * Current position.
+     */
+    private int pos;
+
+    /**
+     * Name of the tag being dropped with its content, {@code null} if not dropping.
+     */
+    private String droppingTag;
+
+    /**
+     * Nesting depth of {@link #droppingTag}.
+     */
+    private int droppingDepth;
+
+    /**
+     * Whether to write the end tag of {@link #droppingTag} once it is closed.
+     */
+    private boolean closeDroppingTag;
+
+    /**
+     * Current tag name.
+     */
+    private String tagName;
+
+    /**
+     * Whether the current tag is an end tag.
+     */
+    private boolean endTag;
+
+    /**
+     * Whether the current tag is self-closing.
+     */
+    private boolean selfClosing;
+
+    /**
+     * Current tag attributes, [name0, value0, name1, value1, ...].
+     */
+    private final List<String> attrs = new ArrayList<String>();
+
+    /**
+     * Adds the allowed protocols of the specified attribute of the specified tag.
+     *
+     * @param tag the specified tag
+     * @param attr the specified attribute
+     * @param protocols the allowed protocols
+     */
+    private static void addProtocols(final String tag, final String attr, final String... protocols) {
+        Map<String, String[]> attrProtocols = PROTOCOLS.get(tag);
+        if (null == attrProtocols) {
+            attrProtocols = new HashMap<String, String[]>();
+            PROTOCOLS.put(tag, attrProtocols);
+        }
+
+        final String[] prefixes = new String[protocols.length];
+        for (int i = 0; i < protocols.length; i++) {
+            prefixes[i] = protocols[i] + ':';
+        }
+        attrProtocols.put(attr, prefixes);
+    }
+
+    /**
+     * Sanitizes the specified HTML.
+     *
+     * @param html the specified HTML
+     * @param baseURI the specified base URI, the relative URLs will be resolved against it
+     * @param audioLabel the content of kept audio tags
+     * @return safe HTML
+     */
+    static String clean(final String html, final String baseURI, final String audioLabel) {
+        return new HTMLSanitizer(html, baseURI, audioLabel).clean();
+    }
+
+    /**
+     * Constructs a sanitizer with the specified HTML, base URI and audio label.
+     *
+     * @param html the specified HTML
+     * @param baseURI the specified base URI
+     * @param audioLabel the specified audio label
+     */
+    private HTMLSanitizer(final String html, final String baseURI, final String audioLabel) {
+        this.html = html;
+        this.length = html.length();
+        this.baseURI = baseURI;
+        this.audioLabel = audioLabel;
+        this.servePath = Latkes.getServePath();
+        this.audioDomain = Symphonys.get("qiniu.domain");
+        this.out = new StringBuilder(length + (length >> 3));
+    }
+
+    /**
+     * Sanitizes.
+     *
+     * @return safe HTML
+     */
+    private String clean() {
+        while (pos < length) {
+            final int lt = html.indexOf('<', pos);
+            if (-1 == lt) {
+                text(pos, length);
+                pos = length;
+
+                break;
+            }
+
+            text(pos, lt);
+            pos = lt;
+
+            if (lt + 1 >= length) {
+                text(lt, length);
+                pos = length;
+
+                break;
+            }
+
+            final char next = html.charAt(lt + 1);
+            if (html.startsWith("<!--", lt)) {
+                final int end = html.indexOf("-->", lt + 4);
+                pos = -1 == end ? length : end + 3;
+            } else if ('!' == next || '?' == next) {
+                final int end = html.indexOf('>', lt + 2);
+                pos = -1 == end ? length : end + 1;
+            } else if ('/' == next && lt + 2 < length && isLetter(html.charAt(lt + 2))) {
+                if (readTag(lt + 1)) {
+                    handleEndTag();
+                }
+            } else if (isLetter(next)) {
+                if (readTag(lt)) {
+                    handleStartTag();
+                }
+            } else if ('/' == next) {
+                final int end = html.indexOf('>', lt + 2);
+                pos = -1 == end ? length : end + 1;
+            } else {
+                text(lt, lt + 1);
+                pos = lt + 1;
+            }
+        }
+
+        if (null != droppingTag && closeDroppingTag) {
+            out.append("</").append(droppingTag).append('>');
+        }
+
+        for (int i = openTags.size() - 1; i >= 0; i--) {
+            out.append("</").append(openTags.get(i)).append('>');
+        }
+
+        return out.toString();
+    }
+
+    /**
+     * Handles the current start tag.
+     */
+    private void handleStartTag() {
+        final String name = tagName;
+
+        if (DATA_TAGS.contains(name)) {
+            skipRawText(name);
+
+            return;
+        }
+
+        if (null != droppingTag) {
+            if (RAW_TEXT_TAGS.contains(name)) {
+                skipRawText(name);
+            } else if (name.equals(droppingTag) && !selfClosing) {
+                droppingDepth++;
+            }
+
+            return;
+        }
+
+        final Set<String> allowedAttrs = TAG_ATTRS.get(name);
+        if (RAW_TEXT_TAGS.contains(name)) {
+            final int contentStart = pos;
+            final int contentEnd = skipRawText(name);
+            if (null == allowedAttrs) { // Keeps the content as text
+                text(contentStart, contentEnd, false);
+
+                return;
+            }
+
+            // iframe
+            filterAttrs(name, allowedAttrs);
+            if (!isAllowedIframe()) {
+                return;
+            }
+
+            startTag(name, false);
+            text(contentStart, contentEnd, false);
+            out.append("</").append(name).append('>');
+
+            return;
+        }
+
+        if (null == allowedAttrs) {
+            return;
+        }
+
+        filterAttrs(name, allowedAttrs);
+
+        final boolean isVoid = VOID_TAGS.contains(name);
+
+        if ("a".equals(name)) {
+            setAttr("rel", "nofollow");
+
+            final String href = getAttr("href");
+            if (null == href || !href.startsWith(servePath)) {
+                setAttr("target", "_blank");
+            }
+        } else if ("audio".equals(name)) {
+            final String src = getAttr("src");
+            if (null == src || !src.startsWith(audioDomain)) {
+                drop(name, false);
+
+                return;
+            }
+
+            setAttr("preload", "none");
+            startTag(name, false);
+            escape(audioLabel, 0, audioLabel.length(), false);
+            drop(name, true);
+
+            return;
+        }
+
+        startTag(name, isVoid);
+
+        if (isVoid) {
+            return;
+        }
+
+        if (selfClosing) {
+            out.append("</").append(name).append('>');
+        } else {
+            openTags.add(name);
+        }
+    }
+
+    /**
+     * Handles the current end tag.
+     */
+    private void handleEndTag() {
+        final String name = tagName;
+
+        if (null != droppingTag) {
+            if (name.equals(droppingTag)) {
+                droppingDepth--;
+                if (0 < droppingDepth) {
+                    return;
+                }
+
+                stopDropping();
+
+                return;
+            }
+
+            if (!openTags.contains(name)) {
+                return;
+            }
+
+            // Closes the dropping tag implicitly
+            stopDropping();
+        }
+
+        final int index = openTags.lastIndexOf(name);
+        if (-1 == index) {
+            return;
+        }
+
+        for (int i = openTags.size() - 1; i >= index; i--) {
+            out.append("</").append(openTags.remove(i)).append('>');
+        }
+    }
+
+    /**
+     * Starts dropping the specified tag with its content.
+     *
+     * @param name the specified tag name
+     * @param close whether to write the end tag of the specified tag once it is closed
+     */
+    private void drop(final String name, final boolean close) {
+        if (selfClosing) {
+            if (close) {
+                out.append("</").append(name).append('>');
+            }
+
+            return;
+        }
+
+        droppingTag = name;
+        droppingDepth = 1;
+        closeDroppingTag = close;
+    }
+
+    /**
+     * Stops dropping.
+     */
+    private void stopDropping() {
+        if (closeDroppingTag) {
+            out.append("</").append(droppingTag).append('>');
+        }
+
+        droppingTag = null;
+        droppingDepth = 0;
+        closeDroppingTag = false;
+    }
+
+    /**
+     * Determines whether the current iframe tag is allowed.
+     *
+     * @return {@code true} if it is allowed, returns {@code false} otherwise
+     */
+    private boolean isAllowedIframe() {
+        final String src = getAttr("src");
+        if (null == src) {
+            return false;
+        }
+
+        for (final String origin : IFRAME_ORIGINS) {
+            if (src.startsWith(origin)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Writes the current start tag with the current attributes.
+     *
+     * @param name the tag name
+     * @param isVoid whether the tag is a void tag
+     */
+    private void startTag(final String name, final boolean isVoid) {
+        out.append('<').append(name);
+        for (int i = 0; i < attrs.size(); i += 2) {
+            out.append(' ').append(attrs.get(i)).append("=\"");
+            final String value = attrs.get(i + 1);
+            escape(value, 0, value.length(), true);
+            out.append('"');
+        }
+
+        out.append(isVoid ? " />" : ">");
+    }
+
+    /**
+     * Removes the disallowed attributes from the current attributes, resolves and checks the URL attributes.
+     *
+     * @param name the tag name
+     * @param allowedAttrs the allowed attributes of the tag
+     */
+    private void filterAttrs(final String name, final Set<String> allowedAttrs) {
+        final Map<String, String[]> attrProtocols = PROTOCOLS.get(name);
+
+        int j = 0;
+        for (int i = 0; i < attrs.size(); i += 2) {
+            final String attrName = attrs.get(i);
+            if (!allowedAttrs.contains(attrName) && !GLOBAL_ATTRS.contains(attrName)) {
+                continue;
+            }
+
+            String value = attrs.get(i + 1);
+            final String[] protocols = null == attrProtocols ? null : attrProtocols.get(attrName);
+            if (null != protocols) {
+                value = absURL(value);
+                if (!startsWithAny(value.toLowerCase(), protocols)) {
+                    continue;
+                }
+            }
+
+            attrs.set(j++, attrName);
+            attrs.set(j++, value);
+        }
+
+        while (attrs.size() > j) {
+            attrs.remove(attrs.size() - 1);
+        }
+    }
+
+    /**
+     * Gets the value of the current attribute specified by the given name.
+     *
+     * @param name the given name
+     * @return attribute value, returns {@code null} if not found
+     */
+    private String getAttr(final String name) {
+        for (int i = 0; i < attrs.size(); i += 2) {
+            if (name.equals(attrs.get(i))) {
+                return attrs.get(i + 1);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Sets the value of the current attribute specified by the given name.
+     *
+     * @param name the given name
+     * @param value the specified value
+     */
+    private void setAttr(final String name, final String value) {
+        for (int i = 0; i < attrs.size(); i += 2) {
+            if (name.equals(attrs.get(i))) {
+                attrs.set(i + 1, value);
+
+                return;
+            }
+        }
+
+        attrs.add(name);
+        attrs.add(value);
+    }
+
+    /**
+     * Resolves the specified URL against the base URI.
+     *
+     * @param url the specified URL
+     * @return absolute URL, returns {@code ""} if it can not be resolved
+     */
+    private String absURL(final String url) {
+        try {
+            final URL base;
+            try {
+                base = new URL(baseURI);
+            } catch (final MalformedURLException e) {
+                return new URL(url).toExternalForm();
+            }
+
+            return new URL(base, url.startsWith("?") ? base.getPath() + url : url).toExternalForm();
+        } catch (final MalformedURLException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Reads a tag starts at the specified position ({@code <} of a start tag or {@code /} of an end tag) into
+     * {@link #tagName}, {@link #endTag}, {@link #selfClosing} and {@link #attrs}, moves {@link #pos} after the tag.
+     *
+     * @param start the specified position
+     * @return {@code true} if read, returns {@code false} if the input ends inside the tag
+     */
+    private boolean readTag(final int start) {
+        endTag = '/' == html.charAt(start);
+        selfClosing = false;
+        attrs.clear();
+
+        int i = start + 1;
+        final int nameStart = i;
+        while (i < length && !isTagNameEnd(html.charAt(i))) {
+            i++;
+        }
+        tagName = html.substring(nameStart, i).toLowerCase();
+
+        while (i < length) {
+            char c = html.charAt(i);
+            if (isWhitespace(c)) {
+                i++;
+
+                continue;
+            }
+
+            if ('>' == c) {
+                pos = i + 1;
+
+                return true;
+            }
+
+            if ('/' == c) {
+                i++;
+                if (i < length && '>' == html.charAt(i)) {
+                    selfClosing = true;
+                }
+
+                continue;
+            }
+
+            // Attribute name, the first character may be '='
+            final int attrNameStart = i;
+            i++;
+            while (i < length && !isAttrNameEnd(html.charAt(i))) {
+                i++;
+            }
+            final String attrName = html.substring(attrNameStart, i).toLowerCase();
+
+            while (i < length && isWhitespace(html.charAt(i))) {
+                i++;
+            }
+
+            String value = "";
+            if (i < length && '=' == html.charAt(i)) {
+                i++;
+                while (i < length && isWhitespace(html.charAt(i))) {
+                    i++;
+                }
+
+                if (i >= length) {
+                    break;
+                }
+
+                c = html.charAt(i);
+                if ('"' == c || '\'' == c) {
+                    final int end = html.indexOf(c, i + 1);
+                    if (-1 == end) {
+                        break;
+                    }
+
+                    value = unescape(i + 1, end);
+                    i = end + 1;
+                } else {
+                    final int valueStart = i;
+                    while (i < length && !isWhitespace(html.charAt(i)) && '>' != html.charAt(i)) {
+                        i++;
+                    }
+
+                    value = unescape(valueStart, i);
+                }
+            }
+
+            if (!endTag && null == getAttr(attrName)) { // The first one wins
+                attrs.add(attrName);
+                attrs.add(value);
+            }
+        }
+
+        // The input ends inside the tag, drops the tag
+        pos = length;
+
+        return false;
+    }
+
+    /**
+     * Skips the raw text content and the end tag of the specified tag, the raw text starts at {@link #pos}.
+     *
+     * @param name the specified tag name
+     * @return the end position (exclusive) of the raw text
+     */
+    private int skipRawText(final String name) {
+        int i = pos;
+        while (true) {
+            final int lt = html.indexOf("</", i);
+            if (-1 == lt) {
+                pos = length;
+
+                return length;
+            }
+
+            final int nameEnd = lt + 2 + name.length();
+            if (html.regionMatches(true, lt + 2, name, 0, name.length())
+                    && (nameEnd == length || isTagNameEnd(html.charAt(nameEnd)))) {
+                final int gt = html.indexOf('>', nameEnd);
+                pos = -1 == gt ? length : gt + 1;
+
+                return lt;
+            }
+
+            i = lt + 2;
+        }
+    }
+
+    /**
+     * Writes the text between the specified positions of the input, keeps the valid character references.
+     *
+     * @param start the specified start position
+     * @param end the specified end position (exclusive)
+     */
+    private void text(final int start, final int end) {
+        if (null != droppingTag) {
+            return;
+        }
+
+        text(start, end, true);
+    }
+
+    /**
+     * Writes the text between the specified positions of the input.
+     *
+     * @param start the specified start position
+     * @param end the specified end position (exclusive)
+     * @param keepReferences whether to keep the valid character references
+     */
+    private void text(final int start, final int end, final boolean keepReferences) {
+        int runStart = start;
+        for (int i = start; i < end; i++) {
+            final char c = html.charAt(i);
+            if ('&' == c && keepReferences) {
+                final int referenceEnd = referenceEnd(i, end);
+                if (-1 != referenceEnd) {
+                    i = referenceEnd - 1;
+
+                    continue;
+                }
+            }
+
+            if ('&' == c || '<' == c || '>' == c) {
+                out.append(html, runStart, i);
+                escape(c);
+                runStart = i + 1;
+            }
+        }
+
+        out.append(html, runStart, end);
+    }
+
+    /**
+     * Writes the specified string escaped.
+     *
+     * @param str the specified string
+     * @param start the start position
+     * @param end the end position (exclusive)
+     * @param inAttr whether the string is an attribute value
+     */
+    private void escape(final String str, final int start, final int end, final boolean inAttr) {
+        int runStart = start;
+        for (int i = start; i < end; i++) {
+            final char c = str.charAt(i);
+            if ('&' == c || '<' == c || '>' == c || (inAttr && '"' == c)) {
+                out.append(str, runStart, i);
+                escape(c);
+                runStart = i + 1;
+            }
+        }
+
+        out.append(str, runStart, end);
+    }
+
+    /**
+     * Writes the specified character escaped.
+     *
+     * @param c the specified character
+     */
+    private void escape(final char c) {
+        switch (c) {
+            case '&':
+                out.append("&amp;");
+
+                break;
+            case '<':
+                out.append("&lt;");
+
+                break;
+            case '>':
+                out.append("&gt;");
+
+                break;
+            default:
+                out.append("&quot;");
+        }
+    }
+
+    /**
+     * Gets the end position of the valid character reference ({@code &name;}, {@code &#nnn;} or {@code &#xhhh;})
+     * starts at the specified position.
+     *
+     * @param start the specified position of {@code &}
+     * @param end the end position (exclusive) of the text
+     * @return the end position (exclusive) of the reference, returns {@code -1} if it is not a valid reference
+     */
+    private int referenceEnd(final int start, final int end) {
+        int i = start + 1;
+        if (i < end && '#' == html.charAt(i)) {
+            i++;
+            final boolean hex = i < end && ('x' == html.charAt(i) || 'X' == html.charAt(i));
+            if (hex) {
+                i++;
+            }
+
+            final int digitsStart = i;
+            while (i < end && (hex ? isHexDigit(html.charAt(i)) : isDigit(html.charAt(i)))) {
+                i++;
+            }
+
+            return i > digitsStart && i < end && ';' == html.charAt(i) ? i + 1 : -1;
+        }
+
+        final int nameStart = i;
+        while (i < end && (isLetter(html.charAt(i)) || isDigit(html.charAt(i)))) {
+            i++;
+        }
+
+        if (i == nameStart || i >= end || ';' != html.charAt(i)) {
+            return -1;
+        }
+
+        return Entities.isNamedEntity(html.substring(nameStart, i)) ? i + 1 : -1;
+    }
+
+    /**
+     * Decodes the character references in the input between the specified positions.
+     *
+     * @param start the specified start position
+     * @param end the specified end position (exclusive)
+     * @return decoded string
+     */
+    private String unescape(final int start, final int end) {
+        final int amp = html.indexOf('&', start);
+        if (-1 == amp || amp >= end) {
+            return html.substring(start, end);
+        }
+
+        final StringBuilder ret = new StringBuilder(end - start);
+        ret.append(html, start, amp);
+
+        int i = amp;
+        while (i < end) {
+            final char c = html.charAt(i);
+            if ('&' != c) {
+                ret.append(c);
+                i++;
+
+                continue;
+            }
+
+            int j = i + 1;
+            if (j < end && '#' == html.charAt(j)) { // The terminating ';' of a numeric reference is optional
+                j++;
+                final boolean hex = j < end && ('x' == html.charAt(j) || 'X' == html.charAt(j));
+                if (hex) {
+                    j++;
+                }
+
+                final int digitsStart = j;
+                int codePoint = 0;
+                while (j < end && (hex ? isHexDigit(html.charAt(j)) : isDigit(html.charAt(j)))) {
+                    if (codePoint <= Character.MAX_CODE_POINT) {
+                        codePoint = codePoint * (hex ? 16 : 10) + Character.digit(html.charAt(j), hex ? 16 : 10);
+                    }
+                    j++;
+                }
+
+                if (j == digitsStart) {
+                    ret.append(c);
+                    i++;
+
+                    continue;
+                }
+
+                if (j < end && ';' == html.charAt(j)) {
+                    j++;
+                }
+
+                if (0 == codePoint || codePoint > Character.MAX_CODE_POINT
+                        || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+                    ret.append('\uFFFD');
+                } else {
+                    ret.appendCodePoint(codePoint);
+                }
+
+                i = j;
+
+                continue;
+            }
+
+            final int nameStart = j;
+            while (j < end && (isLetter(html.charAt(j)) || isDigit(html.charAt(j)))) {
+                j++;
+            }
+
+            if (j > nameStart && j < end && ';' == html.charAt(j)) {
+                final String name = html.substring(nameStart, j);
+                if (Entities.isNamedEntity(name)) {
+                    ret.append(Entities.getCharacterByName(name).charValue());
+                    i = j + 1;
+
+                    continue;
+                }
+            }
+
+            ret.append(c);
+            i++;
+        }
+
+        return ret.toString();
+    }
+
+    /**
+     * Determines whether the specified string starts with any of the specified prefixes.
+     *
+     * @param str the specified string
+     * @param prefixes the specified prefixes
+     * @return {@code true} if it does, returns {@code false} otherwise
+     */
+    private static boolean startsWithAny(final String str, final String[] prefixes) {
+        for (final String prefix : prefixes) {
+            if (str.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Determines whether the specified character ends a tag name.
+     *
+     * @param c the specified character
+     * @return {@code true} if it ends, returns {@code false} otherwise
+     */
+    private static boolean isTagNameEnd(final char c) {
+        return isWhitespace(c) || '/' == c || '>' == c;
+    }
+
+    /**
+     * Determines whether the specified character ends an attribute name.
+     *
+     * @param c the specified character
+     * @return {@code true} if it ends, returns {@code false} otherwise
+     */
+    private static boolean isAttrNameEnd(final char c) {
+        return isWhitespace(c) || '/' == c || '>' == c || '=' == c;
+    }
+
+    /**
+     * Determines whether the specified character is a HTML whitespace.
+     *
+     * @param c the specified character
+     * @return {@code true} if it is, returns {@code false} otherwise
+     */
+    private static boolean isWhitespace(final char c) {
+        return ' ' == c || '\t' == c || '\n' == c || '\r' == c || '\f' == c;
+    }
+
+    /**
+     * Determines whether the specified character is an ASCII letter.
+     *
+     * @param c the specified character
+     * @return {@code true} if it is, returns {@code false} otherwise
+     */
+    private static boolean isLetter(final char c) {
+        return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z');
+    }
+
+    /**
+     * Determines whether the specified character is an ASCII digit.
+     *
+     * @param c the specified character
+     * @return {@code true} if it is, returns {@code false} otherwise
+     */
+    private static boolean isDigit(final char c) {
+        return '0' <= c && c <= '9';
+    }
+
+    /**
+     * Determines whether the specified character is a hex digit.
+     *
+     * @param c the specified character
+     * @return {@code true} if it is, returns {@code false} otherwise
+     */
+    private static boolean isHexDigit(final char c) {
+        return isDigit(c) || ('a' <= c && c <= 'f') || ('A' <= c && c <= 'F');
+    }
+}
@@ -15,14 +15,13 @@
  */
 package org.b3log.symphony.util;
 
-import org.b3log.latke.util.CollectionUtils;
 import org.json.JSONObject;
 
 /**
  * JSON utilities.
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.0.0.0, Apr 18, 2016
+ * @version 1.1.0.0, Oct 16, 2026
  * @since 1.4.0
  */
 public final class JSONs {
@@ -40,6 +39,18 @@ public final class JSONs {
      * @return cloned object
      */
     public static JSONObject clone(final JSONObject src) {
-        return new JSONObject(src, CollectionUtils.jsonArrayToArray(src.names(), String[].class));
+        return new JSONObject(src, getNames(src));
+    }
+
+    /**
+     * Gets the names of the specified object.
+     *
+     * @param src the specified object
+     * @return names, returns an empty array if the specified object is empty
+     */
+    public static String[] getNames(final JSONObject src) {
+        final String[] ret = JSONObject.getNames(src);
+
+        return null == ret ? new String[0] : ret;
     }
 }
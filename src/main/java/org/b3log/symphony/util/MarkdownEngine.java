@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+/**
+ * Markdown engine, converts markdown text to HTML.
+ *
+ * <p>
+ * Implementations must be thread-safe, one engine instance is shared by all requests, see {@link Markdowns#toHTML}.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public interface MarkdownEngine {
+
+    /**
+     * Converts the specified markdown text to HTML.
+     *
+     * @param markdownText the specified markdown text, neither {@code null} nor empty
+     * @return converted HTML
+     * @throws Exception if the specified markdown text can not be converted
+     */
+    String toHTML(final String markdownText) throws Exception;
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.tautua.markdownpapers.Markdown;
+
+/**
+ * <a href="http://markdown.tautua.org/">MarkdownPapers</a> engine.
+ *
+ * <p>
+ * The {@link Markdown} converter keeps no state between transformations (a parser is created per call), so one
+ * instance is shared.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+final class MarkdownPapersEngine implements MarkdownEngine {
+
+    /**
+     * Engine name.
+     */
+    static final String NAME = "markdownpapers";
+
+    /**
+     * Converter.
+     */
+    private final Markdown markdown = new Markdown();
+
+    @Override
+    public String toHTML(final String markdownText) throws Exception {
+        final StringWriter writer = new StringWriter(markdownText.length() + (markdownText.length() >> 1));
+
+        markdown.transform(new StringReader(markdownText), writer);
+
+        return writer.toString();
+    }
+}
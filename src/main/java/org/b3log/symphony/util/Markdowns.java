@@ -15,35 +15,57 @@
  */
 package org.b3log.symphony.util;
 
-import java.io.StringReader;
-import java.io.StringWriter;
-import org.b3log.latke.Latkes;
 import org.b3log.latke.ioc.LatkeBeanManagerImpl;
+import org.b3log.latke.logging.Level;
+import org.b3log.latke.logging.Logger;
 import org.b3log.latke.service.LangPropsService;
 import org.b3log.latke.service.LangPropsServiceImpl;
 import org.b3log.latke.util.Strings;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.parser.Parser;
-import org.jsoup.safety.Whitelist;
-import org.jsoup.select.Elements;
-import org.tautua.markdownpapers.Markdown;
-import org.tautua.markdownpapers.parser.ParseException;
 
 /**
  * <a href="http://en.wikipedia.org/wiki/Markdown">Markdown</a> utilities.
  *
  * <p>
- * Uses the <a href="http://markdown.tautua.org/">MarkdownPapers</a> as the converter.
+ * The converter is the {@link MarkdownEngine} configured by {@code markdown.engine} in symphony.properties:
+ * <ul>
+ * <li>{@value MarkdownPapersEngine#NAME}: <a href="http://markdown.tautua.org/">MarkdownPapers</a></li>
+ * <li>{@value TxtmarkEngine#NAME}: <a href="https://github.com/rjeschke/txtmark">Txtmark</a>, faster</li>
+ * </ul>
  * </p>
  *
  * @author <a href="http://88250.b3log.org">Liang Ding</a>
- * @version 1.5.3.7, Mar 3, 2016
+ * @version 1.8.0.7, Oct 16, 2026
  * @since 0.2.0
  */
 public final class Markdowns {
 
+    /**
+     * Logger.
+     */
+    private static final Logger LOGGER = Logger.getLogger(Markdowns.class.getName());
+
+    /**
+     * Markdown engine.
+     */
+    private static final MarkdownEngine ENGINE = newEngine(Symphonys.get("markdown.engine"));
+
+    /**
+     * Render revision, increase it once the same content renders to different HTML, for example, a new emotion or a
+     * new sanitizing rule.
+     */
+    private static final int RENDER_REVISION = 1;
+
+    /**
+     * Render version, stamped on the persisted rendering results (article content HTML, comment content HTML), a
+     * persisted result with a different version is stale and will be re-rendered.
+     *
+     * <p>
+     * Derived from the {@link #RENDER_REVISION render revision} and the configured markdown engine, so switching the
+     * engine also makes the persisted results stale.
+     * </p>
+     */
+    public static final int RENDER_VERSION = RENDER_REVISION * 10 + (ENGINE instanceof TxtmarkEngine ? 1 : 0);
+
     /**
      * Language service.
      */
@@ -58,78 +80,46 @@ public final class Markdowns {
      * @return safe HTML content
      */
     public static String clean(final String content, final String baseURI) {
-        final Document.OutputSettings outputSettings = new Document.OutputSettings();
-        outputSettings.prettyPrint(false);
-
-        final String tmp = Jsoup.clean(content, baseURI, Whitelist.relaxed().
-                addAttributes(":all", "id", "target", "class").
-                addTags("span", "hr").addAttributes("iframe", "src", "width", "height")
-                .addAttributes("audio", "controls", "src"), outputSettings);
-        final Document doc = Jsoup.parse(tmp, baseURI, Parser.xmlParser());
-        final Elements iframes = doc.getElementsByTag("iframe");
-        for (final Element iframe : iframes) {
-            final String src = iframe.attr("src");
-            if (!src.startsWith("https://wide.b3log.org") && !src.startsWith("http://www.chaojibiaoge.com")) {
-                iframe.remove();
-            }
-        }
-
-        final Elements ps = doc.getElementsByTag("p");
-        for (final Element p : ps) {
-            p.removeAttr("style");
-        }
-
-        final Elements as = doc.getElementsByTag("a");
-        for (final Element a : as) {
-            a.attr("rel", "nofollow");
-
-            final String href = a.attr("href");
-            if (href.startsWith(Latkes.getServePath())) {
-                continue;
-            }
-
-            a.attr("target", "_blank");
-        }
-
-        final Elements audios = doc.getElementsByTag("audio");
-        for (final Element audio : audios) {
-            final String src = audio.attr("src");
-            if (!src.startsWith(Symphonys.get("qiniu.domain"))) {
-                audio.remove();
-
-                continue;
-            }
-
-            audio.text(LANG_PROPS_SERVICE.get("notSupportAudioLabel"));
-            audio.attr("preload", "none");
-        }
-
-        return doc.html();
+        return HTMLSanitizer.clean(content, baseURI, LANG_PROPS_SERVICE.get("notSupportAudioLabel"));
     }
 
     /**
      * Converts the specified markdown text to HTML.
      *
      * @param markdownText the specified markdown text
-     * @return converted HTML, returns {@code ""} if the specified markdown text is "" or {@code null}, returns
-     * 'markdownErrorLabel' if exception
+     * @return converted HTML, returns {@code ""} if the specified markdown text is "" or {@code null}, returns the
+     * specified markdown text if exception
      */
     public static String toHTML(final String markdownText) {
         if (Strings.isEmptyOrNull(markdownText)) {
             return "";
         }
 
-        final StringWriter writer = new StringWriter();
-        final Markdown markdown = new Markdown();
-
         try {
-            markdown.transform(new StringReader(markdownText), writer);
-        } catch (final ParseException e) {
-            // LOGGER.log(Level.WARN, "Markdown error[text={0}]", markdownText);
+            return ENGINE.toHTML(markdownText);
+        } catch (final Exception e) {
+            LOGGER.log(Level.WARN, "Markdown error [length=" + markdownText.length() + "]", e);
+
             return markdownText;
         }
+    }
+
+    /**
+     * Creates a markdown engine with the specified engine name.
+     *
+     * @param name the specified engine name, uses {@value MarkdownPapersEngine#NAME} if unknown
+     * @return markdown engine
+     */
+    static MarkdownEngine newEngine(final String name) {
+        if (TxtmarkEngine.NAME.equals(name)) {
+            return new TxtmarkEngine();
+        }
+
+        if (!MarkdownPapersEngine.NAME.equals(name)) {
+            LOGGER.log(Level.WARN, "Unknown markdown engine [" + name + "], uses [" + MarkdownPapersEngine.NAME + "]");
+        }
 
-        return writer.toString();
+        return new MarkdownPapersEngine();
     }
 
     /**
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks.
+ *
+ * <p>
+ * A fixed number of reentrant locks, a key (for example a user id) is mapped to one of them. Operations on different
+ * keys usually proceed in parallel while operations on the same key are serialized. Locks of several keys should be
+ * acquired with {@link #lock(java.util.Collection)}, which locks in stripe order to avoid deadlocks.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public final class StripedLocks {
+
+    /**
+     * Locks.
+     */
+    private final Lock[] locks;
+
+    /**
+     * Constructs striped locks with the specified stripe count.
+     *
+     * @param stripeCnt the specified stripe count, rounded up to a power of two
+     */
+    public StripedLocks(final int stripeCnt) {
+        int cnt = 1;
+        while (cnt < stripeCnt) {
+            cnt <<= 1;
+        }
+
+        locks = new Lock[cnt];
+        for (int i = 0; i < cnt; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Gets the lock of the specified key.
+     *
+     * @param key the specified key
+     * @return lock
+     */
+    public Lock get(final String key) {
+        return locks[indexFor(key)];
+    }
+
+    /**
+     * Locks the lock of the specified key.
+     *
+     * @param key the specified key
+     * @return the locked lock, should be unlocked with {@link #unlock(java.util.List)} or {@link Lock#unlock()}
+     */
+    public Lock lock(final String key) {
+        final Lock ret = get(key);
+        ret.lock();
+
+        return ret;
+    }
+
+    /**
+     * Locks the locks of the specified keys in stripe order.
+     *
+     * @param keys the specified keys
+     * @return the locked locks, should be unlocked with {@link #unlock(java.util.List)}
+     */
+    public List<Lock> lock(final Collection<String> keys) {
+        final TreeSet<Integer> indexes = new TreeSet<Integer>();
+        for (final String key : keys) {
+            indexes.add(indexFor(key));
+        }
+
+        final List<Lock> ret = new ArrayList<Lock>(indexes.size());
+        try {
+            for (final int index : indexes) {
+                final Lock lock = locks[index];
+                lock.lock();
+                ret.add(lock);
+            }
+        } catch (final RuntimeException e) {
+            unlock(ret);
+
+            throw e;
+        }
+
+        return ret;
+    }
+
+    /**
+     * Unlocks the specified locks in reverse order.
+     *
+     * @param locks the specified locks
+     */
+    public static void unlock(final List<Lock> locks) {
+        for (int i = locks.size() - 1; i >= 0; i--) {
+            locks.get(i).unlock();
+        }
+    }
+
+    /**
+     * Gets the stripe index of the specified key.
+     *
+     * @param key the specified key
+     * @return stripe index
+     */
+    private int indexFor(final String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+
+        return h & (locks.length - 1);
+    }
+}
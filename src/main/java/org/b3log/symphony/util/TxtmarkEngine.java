@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import com.github.rjeschke.txtmark.Configuration;
+import com.github.rjeschke.txtmark.Processor;
+
+/**
+ * <a href="https://github.com/rjeschke/txtmark">Txtmark</a> engine.
+ *
+ * <p>
+ * Txtmark processes the text line by line in a single pass without building a syntax tree, and its configuration is
+ * immutable, so one instance is shared. The extended profile is forced to support fenced code blocks.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+final class TxtmarkEngine implements MarkdownEngine {
+
+    /**
+     * Engine name.
+     */
+    static final String NAME = "txtmark";
+
+    /**
+     * Configuration.
+     */
+    private final Configuration configuration = Configuration.builder().forceExtentedProfile().build();
+
+    @Override
+    public String toHTML(final String markdownText) throws Exception {
+        return Processor.process(markdownText, configuration);
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.b3log.latke.Keys;
+import org.b3log.latke.Latkes;
+import org.b3log.latke.ioc.LatkeBeanManager;
+import org.b3log.latke.ioc.Lifecycle;
+import org.b3log.latke.ioc.config.Discoverer;
+import org.b3log.latke.model.Role;
+import org.b3log.latke.model.User;
+import org.b3log.latke.repository.Transaction;
+import org.b3log.latke.repository.jdbc.util.Connections;
+import org.b3log.latke.repository.jdbc.util.JdbcRepositories;
+import org.b3log.symphony.model.Option;
+import org.b3log.symphony.model.UserExt;
+import org.b3log.symphony.repository.OptionRepository;
+import org.b3log.symphony.repository.UserRepository;
+import org.json.JSONObject;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+
+/**
+ * Abstract test case of services and repositories.
+ *
+ * <p>
+ * Starts the container on an in-memory H2 database (see local.properties of test), creates the tables and the options
+ * initialized by {@link SymphonyServletListener} before the tests of a class, and shuts the container down after
+ * them.
+ * </p>
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public abstract class AbstractTestCase {
+
+    /**
+     * Seconds to wait for concurrent tasks, a task not done in time is considered deadlocked.
+     */
+    private static final int TASK_TIMEOUT = 60;
+
+    /**
+     * Bean manager.
+     */
+    private LatkeBeanManager beanManager;
+
+    /**
+     * Starts the container and initializes the database.
+     *
+     * @throws Exception exception
+     */
+    @BeforeClass
+    public void beforeClass() throws Exception {
+        Latkes.initRuntimeEnv();
+
+        final Collection<Class<?>> classes = Discoverer.discover("org.b3log.symphony");
+        Lifecycle.startApplication(classes);
+        beanManager = Lifecycle.getBeanManager();
+
+        final Connection connection = Connections.getConnection();
+        final Statement statement = connection.createStatement();
+        statement.execute("DROP ALL OBJECTS");
+        statement.close();
+        connection.close();
+
+        JdbcRepositories.initAllTables();
+
+        final OptionRepository optionRepository = getReference(OptionRepository.class);
+        final Transaction transaction = optionRepository.beginTransaction();
+        addOption(optionRepository, Option.ID_C_STATISTIC_MEMBER_COUNT, Option.CATEGORY_C_STATISTIC);
+        addOption(optionRepository, Option.ID_C_STATISTIC_CMT_COUNT, Option.CATEGORY_C_STATISTIC);
+        addOption(optionRepository, Option.ID_C_STATISTIC_ARTICLE_COUNT, Option.CATEGORY_C_STATISTIC);
+        addOption(optionRepository, Option.ID_C_STATISTIC_TAG_COUNT, Option.CATEGORY_C_STATISTIC);
+        addOption(optionRepository, Option.ID_C_STATISTIC_MAX_ONLINE_VISITOR_COUNT, Option.CATEGORY_C_STATISTIC);
+        addOption(optionRepository, Option.ID_C_MISC_ALLOW_REGISTER, Option.CATEGORY_C_MISC);
+        addOption(optionRepository, Option.ID_C_MISC_ALLOW_ADD_ARTICLE, Option.CATEGORY_C_MISC);
+        addOption(optionRepository, Option.ID_C_MISC_ALLOW_ADD_COMMENT, Option.CATEGORY_C_MISC);
+        transaction.commit();
+    }
+
+    /**
+     * Shuts the container down.
+     */
+    @AfterClass
+    public void afterClass() {
+        Latkes.shutdown();
+    }
+
+    /**
+     * Gets a bean by the specified class.
+     *
+     * @param <T> the type of the bean
+     * @param clazz the specified class
+     * @return bean
+     */
+    protected <T> T getReference(final Class<T> clazz) {
+        return beanManager.getReference(clazz);
+    }
+
+    /**
+     * Adds a valid user with the specified name and point.
+     *
+     * @param name the specified name
+     * @param point the specified point
+     * @return user id
+     * @throws Exception exception
+     */
+    protected String addUser(final String name, final int point) throws Exception {
+        final JSONObject user = new JSONObject();
+        user.put(User.USER_NAME, name);
+        user.put(User.USER_EMAIL, name.toLowerCase() + "@b3log.org");
+        user.put(User.USER_PASSWORD, "");
+        user.put(User.USER_ROLE, Role.DEFAULT_ROLE);
+        user.put(UserExt.USER_STATUS, UserExt.USER_STATUS_C_VALID);
+        user.put(UserExt.USER_POINT, point);
+        user.put(UserExt.USER_USED_POINT, 0);
+        user.put(UserExt.USER_ARTICLE_COUNT, 0);
+        user.put(UserExt.USER_COMMENT_COUNT, 0);
+        user.put(UserExt.USER_TAG_COUNT, 0);
+        user.put(UserExt.USER_LATEST_ARTICLE_TIME, 0L);
+        user.put(UserExt.USER_LATEST_CMT_TIME, 0L);
+        user.put(UserExt.USER_GEO_STATUS, UserExt.USER_GEO_STATUS_C_PRIVATE);
+
+        final UserRepository userRepository = getReference(UserRepository.class);
+        final Transaction transaction = userRepository.beginTransaction();
+        final String ret = userRepository.add(user);
+        transaction.commit();
+
+        return ret;
+    }
+
+    /**
+     * Gets a user from the database (bypasses the user cache) by the specified id.
+     *
+     * @param id the specified id
+     * @return user
+     * @throws Exception exception
+     */
+    protected JSONObject getStoredUser(final String id) throws Exception {
+        final UserRepository userRepository = getReference(UserRepository.class);
+        final Transaction transaction = userRepository.beginTransaction();
+        try {
+            return userRepository.get(id);
+        } finally {
+            transaction.rollback();
+        }
+    }
+
+    /**
+     * Runs the specified tasks concurrently, all of them are released at the same time.
+     *
+     * @param <T> the type of the results
+     * @param tasks the specified tasks
+     * @return futures of the tasks, all done
+     * @throws Exception if a task is not done in time (deadlocked)
+     */
+    protected static <T> List<Future<T>> runConcurrently(final List<Callable<T>> tasks) throws Exception {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<Callable<T>> gatedTasks = new ArrayList<Callable<T>>(tasks.size());
+        for (final Callable<T> task : tasks) {
+            gatedTasks.add(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    gate.await();
+
+                    return task.call();
+                }
+            });
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            final List<Future<T>> ret = new ArrayList<Future<T>>(tasks.size());
+            for (final Callable<T> task : gatedTasks) {
+                ret.add(executor.submit(task));
+            }
+            gate.countDown();
+
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(TASK_TIMEOUT, TimeUnit.SECONDS),
+                    "Not done in [" + TASK_TIMEOUT + "] seconds, deadlocked");
+
+            return ret;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the results of the specified futures.
+     *
+     * @param <T> the type of the results
+     * @param futures the specified futures, all done
+     * @return results of the succeeded futures, the failed ones are skipped
+     */
+    protected static <T> List<T> getResults(final List<Future<T>> futures) {
+        final List<T> ret = new ArrayList<T>();
+        for (final Future<T> future : futures) {
+            try {
+                ret.add(future.get());
+            } catch (final Exception e) {
+                // Failed
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * Adds an option with value "0".
+     *
+     * @param optionRepository the specified option repository
+     * @param id the specified id
+     * @param category the specified category
+     * @throws Exception exception
+     */
+    private static void addOption(final OptionRepository optionRepository, final String id, final String category)
+            throws Exception {
+        final JSONObject option = new JSONObject();
+        option.put(Keys.OBJECT_ID, id);
+        option.put(Option.OPTION_VALUE, "0");
+        option.put(Option.OPTION_CATEGORY, category);
+
+        optionRepository.add(option);
+    }
+}
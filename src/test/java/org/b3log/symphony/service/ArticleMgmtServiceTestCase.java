@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import org.b3log.latke.Keys;
+import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.PropertyFilter;
+import org.b3log.latke.repository.Query;
+import org.b3log.symphony.AbstractTestCase;
+import org.b3log.symphony.model.Article;
+import org.b3log.symphony.model.Pointtransfer;
+import org.b3log.symphony.model.Tag;
+import org.b3log.symphony.model.UserExt;
+import org.b3log.symphony.repository.TagArticleRepository;
+import org.b3log.symphony.repository.TagRepository;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import org.testng.annotations.Test;
+
+/**
+ * {@link ArticleMgmtService} test case, concurrent posting.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.1.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public class ArticleMgmtServiceTestCase extends AbstractTestCase {
+
+    /**
+     * Initial point of the users.
+     */
+    private static final int POINT = 1000;
+
+    /**
+     * Concurrency.
+     */
+    private static final int THREAD_CNT = 8;
+
+    /**
+     * Tests that concurrent posts of one author pass the rate limit once.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void addArticleRateLimit() throws Exception {
+        final String authorId = addUser("RateLimited", POINT);
+
+        final List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+        for (int i = 0; i < THREAD_CNT; i++) {
+            tasks.add(addArticle(authorId, "Rate limit " + i, "RateLimit"));
+        }
+
+        final long minStepArticleTime = ArticleMgmtService.minStepArticleTime;
+        ArticleMgmtService.minStepArticleTime = 60 * 1000; // Enabled for this test only
+        final List<String> articleIds;
+        try {
+            articleIds = getResults(runConcurrently(tasks));
+        } finally {
+            ArticleMgmtService.minStepArticleTime = minStepArticleTime;
+        }
+
+        assertEquals(articleIds.size(), 1);
+
+        final JSONObject author = getStoredUser(authorId);
+        assertEquals(author.optInt(UserExt.USER_ARTICLE_COUNT), 1);
+        assertEquals(author.optInt(UserExt.USER_TAG_COUNT), 1);
+        assertEquals(author.optInt(UserExt.USER_POINT), POINT - Pointtransfer.TRANSFER_SUM_C_ADD_ARTICLE);
+        assertEquals(getStoredTag("RateLimit").optInt(Tag.TAG_REFERENCE_CNT), 1);
+    }
+
+    /**
+     * Tests that concurrent posts of different authors sharing a tag create the tag once and count every reference,
+     * while transfers to the authors run at the same time and are not overwritten by the updates of the authors.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void addArticles() throws Exception {
+        final String donorId = addUser("Donor", POINT * THREAD_CNT);
+        final String[] authorIds = new String[THREAD_CNT];
+        for (int i = 0; i < THREAD_CNT; i++) {
+            authorIds[i] = addUser("Poster" + i, POINT);
+        }
+
+        final PointtransferMgmtService pointtransferMgmtService = getReference(PointtransferMgmtService.class);
+        final List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+        for (int i = 0; i < THREAD_CNT; i++) {
+            final String authorId = authorIds[i];
+
+            tasks.add(addArticle(authorId, "Shared " + i, "Shared,Own" + i));
+            tasks.add(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    return pointtransferMgmtService.transfer(donorId, authorId,
+                            Pointtransfer.TRANSFER_TYPE_C_ACCOUNT2ACCOUNT, 10, authorId);
+                }
+            });
+        }
+        final List<Future<String>> futures = runConcurrently(tasks);
+        for (final Future<String> future : futures) {
+            assertNotNull(future.get());
+        }
+
+        final JSONObject shared = getStoredTag("Shared");
+        assertEquals(shared.optInt(Tag.TAG_REFERENCE_CNT), THREAD_CNT);
+        assertEquals(countTagArticles(shared.optString(Keys.OBJECT_ID)), THREAD_CNT);
+
+        int tagCnt = 0;
+        for (int i = 0; i < THREAD_CNT; i++) {
+            assertEquals(getStoredTag("Own" + i).optInt(Tag.TAG_REFERENCE_CNT), 1);
+
+            final JSONObject author = getStoredUser(authorIds[i]);
+            assertEquals(author.optInt(UserExt.USER_ARTICLE_COUNT), 1);
+            assertEquals(author.optInt(UserExt.USER_POINT), POINT - Pointtransfer.TRANSFER_SUM_C_ADD_ARTICLE + 10);
+            assertEquals(author.optInt(UserExt.USER_USED_POINT), Pointtransfer.TRANSFER_SUM_C_ADD_ARTICLE);
+
+            tagCnt += author.optInt(UserExt.USER_TAG_COUNT);
+        }
+        assertEquals(tagCnt, THREAD_CNT + 1); // Own tags and the shared one
+
+        assertEquals(getStoredUser(donorId).optInt(UserExt.USER_POINT), POINT * THREAD_CNT - 10 * THREAD_CNT);
+    }
+
+    /**
+     * Tests that updates of two authors retagging with crossed tag orders, together with crossing transfers between
+     * the authors, neither deadlock nor break the tag reference counts and the balances.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void updateArticles() throws Exception {
+        final String xId = addUser("UpdaterX", POINT);
+        final String yId = addUser("UpdaterY", POINT);
+        final ArticleMgmtService articleMgmtService = getReference(ArticleMgmtService.class);
+        final String xArticleId = articleMgmtService.addArticle(newArticle(xId, "X", "Alpha"));
+        final String yArticleId = articleMgmtService.addArticle(newArticle(yId, "Y", "Beta"));
+
+        final PointtransferMgmtService pointtransferMgmtService = getReference(PointtransferMgmtService.class);
+        final String[][] rounds = {{"Beta,Alpha,Cross", "Alpha,Beta,Cross"}, {"Cross,Gamma", "Gamma,Cross"},
+            {"Alpha", "Beta"}, {"Gamma,Beta,Alpha", "Alpha,Beta,Gamma"}};
+        for (final String[] round : rounds) {
+            final List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+            tasks.add(updateArticle(xArticleId, "X", round[0]));
+            tasks.add(updateArticle(yArticleId, "Y", round[1]));
+            for (int i = 0; i < THREAD_CNT / 2; i++) {
+                tasks.add(transfer(pointtransferMgmtService, xId, yId));
+                tasks.add(transfer(pointtransferMgmtService, yId, xId));
+            }
+
+            for (final Future<String> future : runConcurrently(tasks)) {
+                assertNotNull(future.get());
+            }
+        }
+
+        for (final String tagTitle : new String[]{"Alpha", "Beta", "Cross", "Gamma"}) {
+            final JSONObject tag = getStoredTag(tagTitle);
+
+            assertEquals(tag.optInt(Tag.TAG_REFERENCE_CNT), countTagArticles(tag.optString(Keys.OBJECT_ID)), tagTitle);
+        }
+        assertEquals(getStoredTag("Alpha").optInt(Tag.TAG_REFERENCE_CNT), 2);
+        assertEquals(getStoredTag("Cross").optInt(Tag.TAG_REFERENCE_CNT), 0);
+
+        final JSONObject x = getStoredUser(xId);
+        final JSONObject y = getStoredUser(yId);
+        assertEquals(x.optInt(UserExt.USER_TAG_COUNT) + y.optInt(UserExt.USER_TAG_COUNT), 4);
+        assertEquals(x.optInt(UserExt.USER_POINT) + y.optInt(UserExt.USER_POINT),
+                2 * (POINT - Pointtransfer.TRANSFER_SUM_C_ADD_ARTICLE));
+    }
+
+    /**
+     * Creates a task adding an article.
+     *
+     * @param authorId the specified author id
+     * @param title the specified title
+     * @param tags the specified tags
+     * @return task, returns the article id
+     */
+    private Callable<String> addArticle(final String authorId, final String title, final String tags) {
+        final ArticleMgmtService articleMgmtService = getReference(ArticleMgmtService.class);
+
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return articleMgmtService.addArticle(newArticle(authorId, title, tags));
+            }
+        };
+    }
+
+    /**
+     * Creates a task updating an article.
+     *
+     * @param articleId the specified article id
+     * @param title the specified title
+     * @param tags the specified tags
+     * @return task, returns the article id
+     */
+    private Callable<String> updateArticle(final String articleId, final String title, final String tags) {
+        final ArticleMgmtService articleMgmtService = getReference(ArticleMgmtService.class);
+
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                final JSONObject article = newArticle(null, title, tags);
+                article.put(Keys.OBJECT_ID, articleId);
+
+                articleMgmtService.updateArticle(article);
+
+                return articleId;
+            }
+        };
+    }
+
+    /**
+     * Creates a task transferring 1 point.
+     *
+     * @param pointtransferMgmtService the specified pointtransfer management service
+     * @param fromId the specified from id
+     * @param toId the specified to id
+     * @return task, returns the transfer record id, {@code null} if failed
+     */
+    private static Callable<String> transfer(final PointtransferMgmtService pointtransferMgmtService,
+            final String fromId, final String toId) {
+        return new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return pointtransferMgmtService.transfer(fromId, toId, Pointtransfer.TRANSFER_TYPE_C_ACCOUNT2ACCOUNT, 1,
+                        fromId);
+            }
+        };
+    }
+
+    /**
+     * Builds the request json object of an article.
+     *
+     * @param authorId the specified author id, {@code null} for updates
+     * @param title the specified title
+     * @param tags the specified tags
+     * @return request json object
+     */
+    private static JSONObject newArticle(final String authorId, final String title, final String tags) {
+        final JSONObject ret = new JSONObject();
+        ret.put(Article.ARTICLE_TITLE, title);
+        ret.put(Article.ARTICLE_TAGS, tags);
+        ret.put(Article.ARTICLE_CONTENT, "Content of " + title);
+        ret.put(Article.ARTICLE_EDITOR_TYPE, 0);
+        ret.put(Article.ARTICLE_COMMENTABLE, true);
+        ret.put(Article.ARTICLE_TYPE, Article.ARTICLE_TYPE_C_NORMAL);
+        if (null != authorId) {
+            ret.put(Article.ARTICLE_AUTHOR_ID, authorId);
+            ret.put(Article.ARTICLE_AUTHOR_EMAIL, "");
+        }
+
+        return ret;
+    }
+
+    /**
+     * Gets the only stored tag by the specified title, bypasses the tag cache.
+     *
+     * @param title the specified title
+     * @return tag
+     * @throws Exception exception
+     */
+    private JSONObject getStoredTag(final String title) throws Exception {
+        final Query query = new Query().setFilter(new PropertyFilter(Tag.TAG_TITLE, FilterOperator.EQUAL, title));
+        final JSONArray tags = getReference(TagRepository.class).get(query).optJSONArray(Keys.RESULTS);
+        assertEquals(tags.length(), 1, "Tag [" + title + "] should be created once");
+
+        return tags.optJSONObject(0);
+    }
+
+    /**
+     * Counts the articles tagged with a tag specified by the given tag id.
+     *
+     * @param tagId the given tag id
+     * @return count
+     * @throws Exception exception
+     */
+    private int countTagArticles(final String tagId) throws Exception {
+        final Query query = new Query().setFilter(
+                new PropertyFilter(Tag.TAG + "_" + Keys.OBJECT_ID, FilterOperator.EQUAL, tagId));
+
+        return (int) getReference(TagArticleRepository.class).count(query);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import org.b3log.latke.Keys;
+import org.b3log.latke.repository.AbstractRepository;
+import org.b3log.latke.repository.FilterOperator;
+import org.b3log.latke.repository.PropertyFilter;
+import org.b3log.latke.repository.Query;
+import org.b3log.symphony.AbstractTestCase;
+import org.b3log.symphony.model.Article;
+import org.b3log.symphony.model.Comment;
+import org.b3log.symphony.model.Pointtransfer;
+import org.b3log.symphony.model.Tag;
+import org.b3log.symphony.model.UserExt;
+import org.b3log.symphony.repository.ArticleRepository;
+import org.b3log.symphony.repository.TagRepository;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import org.testng.annotations.Test;
+
+/**
+ * {@link CommentMgmtService} test case, concurrent commenting.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public class CommentMgmtServiceTestCase extends AbstractTestCase {
+
+    /**
+     * Initial point of the users.
+     */
+    private static final int POINT = 1000;
+
+    /**
+     * Count of commenters.
+     */
+    private static final int COMMENTER_CNT = 4;
+
+    /**
+     * Count of comments of each commenter.
+     */
+    private static final int CMT_CNT = 5;
+
+    /**
+     * Tests that parallel comments on one article count every comment on the article, its tags and the commenters.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void addComments() throws Exception {
+        final String authorId = addUser("Commented", POINT);
+        final JSONObject article = new JSONObject();
+        article.put(Article.ARTICLE_TITLE, "Comments");
+        article.put(Article.ARTICLE_TAGS, "Discuss,Talk");
+        article.put(Article.ARTICLE_CONTENT, "Content of comments");
+        article.put(Article.ARTICLE_EDITOR_TYPE, 0);
+        article.put(Article.ARTICLE_AUTHOR_ID, authorId);
+        article.put(Article.ARTICLE_AUTHOR_EMAIL, "");
+        final String articleId = getReference(ArticleMgmtService.class).addArticle(article);
+
+        final CommentMgmtService commentMgmtService = getReference(CommentMgmtService.class);
+        final String[] commenterIds = new String[COMMENTER_CNT];
+        final List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+        for (int i = 0; i < COMMENTER_CNT; i++) {
+            final String commenterId = addUser("Commenter" + i, POINT);
+            commenterIds[i] = commenterId;
+
+            for (int j = 0; j < CMT_CNT; j++) {
+                final String content = "Comment " + j + " of " + i;
+
+                tasks.add(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        final JSONObject comment = new JSONObject();
+                        comment.put(Comment.COMMENT_CONTENT, content);
+                        comment.put(Comment.COMMENT_AUTHOR_ID, commenterId);
+                        comment.put(Comment.COMMENT_AUTHOR_EMAIL, "");
+                        comment.put(Comment.COMMENT_ON_ARTICLE_ID, articleId);
+
+                        return commentMgmtService.addComment(comment);
+                    }
+                });
+            }
+        }
+
+        for (final Future<String> future : runConcurrently(tasks)) {
+            assertNotNull(future.get());
+        }
+
+        final int total = COMMENTER_CNT * CMT_CNT;
+        assertEquals(getStored(getReference(ArticleRepository.class), Keys.OBJECT_ID, articleId)
+                .optInt(Article.ARTICLE_COMMENT_CNT), total);
+        for (final String tagTitle : new String[]{"Discuss", "Talk"}) {
+            assertEquals(getStored(getReference(TagRepository.class), Tag.TAG_TITLE, tagTitle)
+                    .optInt(Tag.TAG_COMMENT_CNT), total, tagTitle);
+        }
+
+        for (final String commenterId : commenterIds) {
+            final JSONObject commenter = getStoredUser(commenterId);
+            assertEquals(commenter.optInt(UserExt.USER_COMMENT_COUNT), CMT_CNT);
+            assertEquals(commenter.optInt(UserExt.USER_POINT), POINT - CMT_CNT * Pointtransfer.TRANSFER_SUM_C_ADD_COMMENT);
+        }
+        assertEquals(getStoredUser(authorId).optInt(UserExt.USER_POINT),
+                POINT - Pointtransfer.TRANSFER_SUM_C_ADD_ARTICLE + total * Pointtransfer.TRANSFER_SUM_C_ADD_COMMENT);
+    }
+
+    /**
+     * Gets the only stored object of the specified repository by the given property and value, bypasses the caches.
+     *
+     * @param repository the specified repository
+     * @param property the given property
+     * @param value the given value
+     * @return object
+     * @throws Exception exception
+     */
+    private static JSONObject getStored(final AbstractRepository repository, final String property, final String value)
+            throws Exception {
+        final Query query = new Query().setFilter(new PropertyFilter(property, FilterOperator.EQUAL, value));
+        final JSONArray array = repository.get(query).optJSONArray(Keys.RESULTS);
+        assertEquals(array.length(), 1);
+
+        return array.optJSONObject(0);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.b3log.symphony.AbstractTestCase;
+import org.b3log.symphony.model.Pointtransfer;
+import org.b3log.symphony.model.UserExt;
+import org.json.JSONObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import org.testng.annotations.Test;
+
+/**
+ * {@link PointtransferMgmtService} test case, concurrent transfers.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public class PointtransferMgmtServiceTestCase extends AbstractTestCase {
+
+    /**
+     * Concurrency.
+     */
+    private static final int THREAD_CNT = 8;
+
+    /**
+     * Tests that concurrent transfers between random accounts conserve the total point, every account ends with its
+     * initial point plus the succeeded transfers in minus the succeeded transfers out, and no account is overdrawn.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void transfers() throws Exception {
+        final int point = 100;
+        final String[] userIds = new String[6];
+        for (int i = 0; i < userIds.length; i++) {
+            userIds[i] = addUser("Payer" + i, point);
+        }
+
+        final PointtransferMgmtService pointtransferMgmtService = getReference(PointtransferMgmtService.class);
+        final AtomicIntegerArray ins = new AtomicIntegerArray(userIds.length);
+        final AtomicIntegerArray outs = new AtomicIntegerArray(userIds.length);
+        final List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+        for (int t = 0; t < THREAD_CNT; t++) {
+            final Random random = new Random(t);
+
+            tasks.add(new Callable<Integer>() {
+                @Override
+                public Integer call() {
+                    int ret = 0;
+                    for (int i = 0; i < 100; i++) {
+                        final int from = random.nextInt(userIds.length);
+                        final int to = random.nextInt(userIds.length);
+                        final int sum = 1 + random.nextInt(50); // Self-transfers and overdrafts fail
+
+                        final String transferId = pointtransferMgmtService.transfer(userIds[from], userIds[to],
+                                Pointtransfer.TRANSFER_TYPE_C_ACCOUNT2ACCOUNT, sum, userIds[to]);
+                        if (null != transferId) {
+                            outs.addAndGet(from, sum);
+                            ins.addAndGet(to, sum);
+                            ret++;
+                        }
+                    }
+
+                    return ret;
+                }
+            });
+        }
+
+        for (final Future<Integer> future : runConcurrently(tasks)) {
+            future.get();
+        }
+
+        int total = 0;
+        for (int i = 0; i < userIds.length; i++) {
+            final JSONObject user = getStoredUser(userIds[i]);
+
+            assertEquals(user.optInt(UserExt.USER_POINT), point + ins.get(i) - outs.get(i));
+            assertEquals(user.optInt(UserExt.USER_USED_POINT), outs.get(i));
+            total += user.optInt(UserExt.USER_POINT);
+        }
+        assertEquals(total, point * userIds.length);
+    }
+
+    /**
+     * Tests that crossing transfers (A to B and B to A at the same time) finish without deadlocks.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void crossingTransfers() throws Exception {
+        final int point = 1000;
+        final String aId = addUser("CrossingA", point);
+        final String bId = addUser("CrossingB", point);
+
+        final List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+        for (int i = 0; i < THREAD_CNT; i++) {
+            tasks.add(transfer(aId, bId, 1));
+            tasks.add(transfer(bId, aId, 1));
+        }
+
+        for (final Future<String> future : runConcurrently(tasks)) {
+            assertNotNull(future.get());
+        }
+
+        assertEquals(getStoredUser(aId).optInt(UserExt.USER_POINT), point);
+        assertEquals(getStoredUser(bId).optInt(UserExt.USER_POINT), point);
+    }
+
+    /**
+     * Tests that concurrent transfers overdrawing an account are rejected and the balance never goes negative.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void overdraft() throws Exception {
+        final String fromId = addUser("Overdrawn", 10);
+        final String toId = addUser("Overdrawee", 0);
+
+        final List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+        for (int i = 0; i < THREAD_CNT; i++) {
+            tasks.add(transfer(fromId, toId, 3));
+        }
+
+        int succeeded = 0;
+        for (final Future<String> future : runConcurrently(tasks)) {
+            if (null != future.get()) {
+                succeeded++;
+            }
+        }
+        assertEquals(succeeded, 3);
+        assertEquals(getStoredUser(fromId).optInt(UserExt.USER_POINT), 1);
+        assertEquals(getStoredUser(toId).optInt(UserExt.USER_POINT), 9);
+
+        final PointtransferMgmtService pointtransferMgmtService = getReference(PointtransferMgmtService.class);
+        assertNull(pointtransferMgmtService.transfer(fromId, Pointtransfer.ID_C_SYS,
+                Pointtransfer.TRANSFER_TYPE_C_ACCOUNT2ACCOUNT, 2, fromId));
+        assertNotNull(pointtransferMgmtService.transfer(fromId, Pointtransfer.ID_C_SYS,
+                Pointtransfer.TRANSFER_TYPE_C_ACCOUNT2ACCOUNT, 1, fromId));
+        assertNull(pointtransferMgmtService.transfer(fromId, toId, Pointtransfer.TRANSFER_TYPE_C_ACCOUNT2ACCOUNT, 1,
+                toId));
+        assertEquals(getStoredUser(fromId).optInt(UserExt.USER_POINT), 0);
+    }
+
+    /**
+     * Creates a task transferring the specified sum.
+     *
+     * @param fromId the specified from id
+     * @param toId the specified to id
+     * @param sum the specified sum
+     * @return task, returns the transfer record id, {@code null} if failed
+     */
+    private Callable<String> transfer(final String fromId, final String toId, final int sum) {
+        final PointtransferMgmtService pointtransferMgmtService = getReference(PointtransferMgmtService.class);
+
+        return new Callable<String>() {
+            @Override
+            public String call() {
+                return pointtransferMgmtService.transfer(fromId, toId, Pointtransfer.TRANSFER_TYPE_C_ACCOUNT2ACCOUNT,
+                        sum, toId);
+            }
+        };
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import org.b3log.latke.Latkes;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Emotions utilities test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public class EmotionsTestCase {
+
+    static {
+        Latkes.initRuntimeEnv();
+    }
+
+    /**
+     * Tests {@link Emotions#convert(java.lang.String)}.
+     */
+    @Test
+    public void convert() {
+        final String html = Emotions.convert("Hi :smile:, [em00][em14][em15] :not_an_emoji: :+1:");
+
+        assertTrue(html.contains("/images/emotions/ease/em00.png' />"));
+        assertTrue(html.contains("/images/emotions/ease/em14.png' />"));
+        assertTrue(html.contains("[em15]"));
+        assertTrue(html.contains("alt=\":smile:\""));
+        assertTrue(html.contains("/images/basic/+1.png"));
+        assertTrue(html.contains(":not_an_emoji:"));
+        assertFalse(html.contains("Hi :smile:"));
+
+        final String plain = "plain text without emotions: a:b [em";
+        assertSame(Emotions.convert(plain), plain);
+    }
+
+    /**
+     * Tests {@link Emotions#convert(java.lang.String)} against the replacement loop it replaced.
+     */
+    @Test
+    public void convertCompatible() {
+        final String content = "a :heart::heart: b :smile:: [em01] [em1] :zzz: ::";
+
+        assertEquals(Emotions.convert(content), legacyConvert(content));
+    }
+
+    /**
+     * Tests {@link Emotions#clear(java.lang.String)}.
+     */
+    @Test
+    public void clear() {
+        assertEquals(Emotions.clear("Hi :smile:[em00][em123] there :not_an_emoji: [em]"), "Hi  there :not_an_emoji: [em]");
+        assertEquals(Emotions.clear(":+1::-1:"), "");
+    }
+
+    /**
+     * The replacement loop {@link Emotions#convert(java.lang.String)} used before.
+     *
+     * @param content the specified content
+     * @return converted content
+     */
+    private static String legacyConvert(final String content) {
+        final String staticServePath = Latkes.getStaticServePath();
+
+        String ret = content;
+        for (int i = 0; i < 15; i++) {
+            final String emotionName = i < 10 ? "em0" + i : "em" + i;
+            ret = ret.replace('[' + emotionName + ']',
+                    "<img src='" + staticServePath + "/images/emotions/ease/" + emotionName + ".png" + "' />");
+        }
+
+        for (final String emojiCode : Emotions.getEmojiCodes()) {
+            final String emoji = ":" + emojiCode + ":";
+            ret = ret.replace(emoji, "<img align=\"absmiddle\" alt=\"" + emoji + "\" class=\"emoji\" src=\""
+                    + staticServePath + "/js/lib/emojify.js-1.0.2/images/basic/" + emojiCode
+                    + ".png\" title=\"" + emoji + "\"></img>");
+        }
+
+        return ret;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import org.b3log.latke.Latkes;
+import static org.testng.Assert.assertEquals;
+import org.testng.annotations.Test;
+
+/**
+ * HTML sanitizer test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.0.0.0, Oct 16, 2026
+ * @since 1.4.0
+ */
+public class HTMLSanitizerTestCase {
+
+    static {
+        Latkes.initRuntimeEnv();
+    }
+
+    /**
+     * Tests {@link HTMLSanitizer#clean(java.lang.String, java.lang.String, java.lang.String)} for scripts and event
+     * handlers.
+     */
+    @Test
+    public void script() {
+        assertEquals(HTMLSanitizer.clean("<script>alert('<p>')</script>a<b onmouseover=alert(1)>b</b>", "", ""),
+                "a<b>b</b>");
+        assertEquals(HTMLSanitizer.clean("<img src=\"javascript:alert(1)\"><IMG SRC=\"http://x/a.png\">", "", ""),
+                "<img /><img src=\"http://x/a.png\" />");
+    }
+
+    /**
+     * Tests {@link HTMLSanitizer#clean(java.lang.String, java.lang.String, java.lang.String)} for links.
+     */
+    @Test
+    public void link() {
+        assertEquals(HTMLSanitizer.clean("<a href=\"jav&#x61;script:alert(1)\">x</a>", "", ""),
+                "<a rel=\"nofollow\" target=\"_blank\">x</a>");
+        assertEquals(HTMLSanitizer.clean("<a href=\"http://b3log.org\" onclick=\"x()\">b3log</a>", "", ""),
+                "<a href=\"http://b3log.org\" rel=\"nofollow\" target=\"_blank\">b3log</a>");
+        assertEquals(HTMLSanitizer.clean("<a href=\"/member/88250\">88250</a>", "http://b3log.org/article/1", ""),
+                "<a href=\"http://b3log.org/member/88250\" rel=\"nofollow\" target=\"_blank\">88250</a>");
+    }
+
+    /**
+     * Tests {@link HTMLSanitizer#clean(java.lang.String, java.lang.String, java.lang.String)} for iframe and audio.
+     */
+    @Test
+    public void media() {
+        assertEquals(HTMLSanitizer.clean("<iframe src=\"https://wide.b3log.org/p\"></iframe>"
+                + "<iframe src=\"http://evil.com\"><b>x</b></iframe>", "", ""),
+                "<iframe src=\"https://wide.b3log.org/p\"></iframe>");
+        assertEquals(HTMLSanitizer.clean("<audio controls src=\"" + Symphonys.get("qiniu.domain") + "/a.mp3\">x</audio>"
+                + "<audio src=\"http://evil.com/a.mp3\">y</audio>", "", "label"),
+                "<audio controls=\"\" src=\"" + Symphonys.get("qiniu.domain") + "/a.mp3\" preload=\"none\">label</audio>");
+    }
+
+    /**
+     * Tests {@link HTMLSanitizer#clean(java.lang.String, java.lang.String, java.lang.String)} for text and nesting.
+     */
+    @Test
+    public void text() {
+        assertEquals(HTMLSanitizer.clean("<p style=\"color:red\">1 < 2 &amp; 3 > 2 & &copy;</p>", "", ""),
+                "<p>1 &lt; 2 &amp; 3 &gt; 2 &amp; &copy;</p>");
+        assertEquals(HTMLSanitizer.clean("<div><p>a <b>b<i>c</div>d<!-- e --><unknown>f</unknown>", "", ""),
+                "<div><p>a <b>b<i>c</i></b></p></div>df");
+    }
+}
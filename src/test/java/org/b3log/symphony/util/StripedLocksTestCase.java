@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2012-2016, b3log.org & hacpai.com & fangstar.com
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.b3log.symphony.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import org.testng.annotations.Test;
+
+/**
+ * Striped locks test case.
+ *
+ * @author <a href="http://88250.b3log.org">Liang Ding</a>
+ * @version 1.1.0.1, Oct 16, 2026
+ * @since 1.4.0
+ */
+public class StripedLocksTestCase {
+
+    /**
+     * Tests that different keys do not block each other while the same key does.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void isolation() throws Exception {
+        final StripedLocks locks = new StripedLocks(16);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        final Lock lock = locks.lock("1");
+        try {
+            assertTrue(executor.submit(tryLock(locks, "2")).get());
+            assertFalse(executor.submit(tryLock(locks, "1")).get());
+        } finally {
+            lock.unlock();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tests that concurrent read-modify-writes under the lock of a key are not lost, and that locking several keys in
+     * different orders does not deadlock.
+     *
+     * @throws Exception exception
+     */
+    @Test
+    public void concurrency() throws Exception {
+        final StripedLocks locks = new StripedLocks(4);
+        final int[] counters = new int[8];
+        final int threadCnt = 8;
+        final int loops = 10000;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCnt);
+        try {
+            final Future<?>[] futures = new Future<?>[threadCnt];
+            for (int t = 0; t < threadCnt; t++) {
+                final int thread = t;
+                futures[t] = executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        for (int i = 0; i < loops; i++) {
+                            final int a = (thread + i) % counters.length;
+                            final int b = (thread * 3 + i) % counters.length;
+                            final List<Lock> held = locks.lock(Arrays.asList(String.valueOf(b), String.valueOf(a)));
+                            try {
+                                counters[a]++;
+                                if (a != b) {
+                                    counters[b]++;
+                                }
+                            } finally {
+                                StripedLocks.unlock(held);
+                            }
+                        }
+                    }
+                });
+            }
+
+            for (final Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long sum = 0;
+        for (final int counter : counters) {
+            sum += counter;
+        }
+
+        long expected = 0;
+        for (int t = 0; t < threadCnt; t++) {
+            for (int i = 0; i < loops; i++) {
+                expected += (t + i) % counters.length == (t * 3 + i) % counters.length ? 1 : 2;
+            }
+        }
+        assertEquals(sum, expected);
+    }
+
+    /**
+     * Gets a task trying to lock the specified key.
+     *
+     * @param locks the specified striped locks
+     * @param key the specified key
+     * @return task returns {@code true} if locked
+     */
+    private static Callable<Boolean> tryLock(final StripedLocks locks, final String key) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                final Lock lock = locks.get(key);
+                if (lock.tryLock()) {
+                    lock.unlock();
+
+                    return true;
+                }
+
+                return false;
+            }
+        };
+    }
+}